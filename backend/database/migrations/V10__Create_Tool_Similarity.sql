@@ -0,0 +1,13 @@
+-- 相似工具离线计算结果：每个工具一行，按相似度降序保存前K个相似工具，
+-- 详情页和相似工具接口按主键一次查询，无结果的冷启动工具回退到同分类推荐
+-- top-k 可配置，ID位数和分值精度也会增长，ID与相似度列用TEXT保存，避免较大的K下被截断
+
+CREATE TABLE IF NOT EXISTS `tool_similarity` (
+  `tool_id` BIGINT NOT NULL COMMENT '工具ID',
+  `similar_ids` TEXT NOT NULL COMMENT '相似工具ID，逗号分隔，按相似度降序',
+  `scores` TEXT NOT NULL COMMENT '相似度，逗号分隔，与 similar_ids 一一对应',
+  `version` BIGINT NOT NULL COMMENT '计算批次（开始时间毫秒），旧批次的行在计算完成后删除',
+  `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`tool_id`),
+  KEY `idx_version` (`version`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='相似工具表';
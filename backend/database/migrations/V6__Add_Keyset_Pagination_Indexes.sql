@@ -0,0 +1,17 @@
+-- 游标分页所需的复合索引，使 (排序键, id) 定位走索引范围扫描
+
+-- 我的收藏：按收藏时间倒序
+ALTER TABLE `favorite`
+    ADD INDEX `idx_user_created` (`user_id`, `created_at`, `id`);
+
+-- 工具提交：按状态筛选、提交时间倒序
+ALTER TABLE `tool_submission`
+    ADD INDEX `idx_status_created` (`status`, `created_at`, `id`);
+
+-- 工具评论：按有帮助数、时间倒序
+ALTER TABLE `review`
+    ADD INDEX `idx_tool_helpful` (`tool_id`, `status`, `helpful_count`, `created_at`, `id`);
+
+-- 评论回复：按时间正序
+ALTER TABLE `review`
+    ADD INDEX `idx_parent_created` (`parent_id`, `status`, `created_at`, `id`);
@@ -0,0 +1,41 @@
+-- 工具评分聚合：每个工具一行，评分增删改时由应用层按增量原子更新，
+-- 评分统计和分布读取不再对 rating 表做 COUNT/AVG 扫描
+
+CREATE TABLE IF NOT EXISTS `rating_stats` (
+  `tool_id` BIGINT NOT NULL COMMENT '工具ID',
+  `rating_sum` BIGINT NOT NULL DEFAULT 0 COMMENT '评分总和',
+  `rating_count` INT NOT NULL DEFAULT 0 COMMENT '评分人数',
+  `score_1` INT NOT NULL DEFAULT 0 COMMENT '1分人数',
+  `score_2` INT NOT NULL DEFAULT 0 COMMENT '2分人数',
+  `score_3` INT NOT NULL DEFAULT 0 COMMENT '3分人数',
+  `score_4` INT NOT NULL DEFAULT 0 COMMENT '4分人数',
+  `score_5` INT NOT NULL DEFAULT 0 COMMENT '5分人数',
+  `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`tool_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='工具评分聚合表';
+
+-- 由现有评分回填
+INSERT INTO `rating_stats` (`tool_id`, `rating_sum`, `rating_count`, `score_1`, `score_2`, `score_3`, `score_4`, `score_5`)
+SELECT `tool_id`,
+       SUM(`score`),
+       COUNT(*),
+       SUM(`score` = 1),
+       SUM(`score` = 2),
+       SUM(`score` = 3),
+       SUM(`score` = 4),
+       SUM(`score` = 5)
+FROM `rating`
+GROUP BY `tool_id`
+ON DUPLICATE KEY UPDATE
+  `rating_sum` = VALUES(`rating_sum`),
+  `rating_count` = VALUES(`rating_count`),
+  `score_1` = VALUES(`score_1`),
+  `score_2` = VALUES(`score_2`),
+  `score_3` = VALUES(`score_3`),
+  `score_4` = VALUES(`score_4`),
+  `score_5` = VALUES(`score_5`);
+
+-- 平均分改由应用层根据聚合行回写，移除每次写入都重算 AVG 的触发器
+DROP TRIGGER IF EXISTS `after_rating_insert`;
+DROP TRIGGER IF EXISTS `after_rating_update`;
+DROP TRIGGER IF EXISTS `after_rating_delete`;
@@ -0,0 +1,24 @@
+-- 工具指标时间序列汇总：按小时和按天累计浏览、点赞、收藏、评分增量，
+-- 由应用内存环形缓冲定期按增量汇总写入，趋势、增长率和工具统计不再对 user_action 做 GROUP BY
+
+CREATE TABLE IF NOT EXISTS `tool_metrics_hourly` (
+  `tool_id` BIGINT NOT NULL COMMENT '工具ID',
+  `bucket_time` DATETIME NOT NULL COMMENT '小时起点',
+  `views` INT NOT NULL DEFAULT 0 COMMENT '浏览量',
+  `upvotes` INT NOT NULL DEFAULT 0 COMMENT '点赞净增量',
+  `favorites` INT NOT NULL DEFAULT 0 COMMENT '收藏净增量',
+  `ratings` INT NOT NULL DEFAULT 0 COMMENT '评分人数净增量',
+  PRIMARY KEY (`tool_id`, `bucket_time`),
+  KEY `idx_bucket_time` (`bucket_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='工具指标小时汇总表（保留7天）';
+
+CREATE TABLE IF NOT EXISTS `tool_metrics_daily` (
+  `tool_id` BIGINT NOT NULL COMMENT '工具ID',
+  `bucket_date` DATE NOT NULL COMMENT '日期',
+  `views` INT NOT NULL DEFAULT 0 COMMENT '浏览量',
+  `upvotes` INT NOT NULL DEFAULT 0 COMMENT '点赞净增量',
+  `favorites` INT NOT NULL DEFAULT 0 COMMENT '收藏净增量',
+  `ratings` INT NOT NULL DEFAULT 0 COMMENT '评分人数净增量',
+  PRIMARY KEY (`tool_id`, `bucket_date`),
+  KEY `idx_bucket_date` (`bucket_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='工具指标日汇总表（保留1年）';
@@ -0,0 +1,6 @@
+-- 浏览、点击行为先写入节点本地的行为日志，再由后台批量投递到 user_action；
+-- event_key 为 日志ID:偏移，崩溃后重放时依靠唯一索引忽略已投递的记录（NULL 不参与唯一约束）
+
+ALTER TABLE `user_action`
+  ADD COLUMN `event_key` VARCHAR(40) NULL COMMENT '行为日志事件键（日志ID:偏移）' AFTER `source`,
+  ADD UNIQUE KEY `uk_event_key` (`event_key`);
@@ -0,0 +1,95 @@
+package com.toolrecommend.benchmark;
+
+import com.toolrecommend.benchmark.support.Fixtures;
+import com.toolrecommend.common.entity.Review;
+import com.toolrecommend.common.entity.Tool;
+import com.toolrecommend.common.vo.ReviewVO;
+import com.toolrecommend.common.vo.ToolDetailVO;
+import com.toolrecommend.common.vo.ToolVO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体转VO：MapStruct生成的转换器与反射复制（BeanUtils.copyProperties）对比
+ *
+ * @author Tool Recommend Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+    private Tool tool;
+
+    private Review review;
+
+    private ToolDetailVO detail;
+
+    @Setup
+    public void setUp() {
+        tool = Fixtures.tool(42);
+        review = Fixtures.reviews(42, 1, 0).get(0);
+        detail = Fixtures.toolDetail(42);
+    }
+
+    @Benchmark
+    public ToolVO toolVOConverter() {
+        return Fixtures.TOOL_CONVERTER.toToolVO(tool);
+    }
+
+    @Benchmark
+    public ToolVO toolVOBeanUtils() {
+        ToolVO vo = new ToolVO();
+        BeanUtils.copyProperties(tool, vo);
+        return vo;
+    }
+
+    @Benchmark
+    public ToolDetailVO toolDetailVOConverter() {
+        return Fixtures.TOOL_CONVERTER.toToolDetailVO(tool);
+    }
+
+    @Benchmark
+    public ToolDetailVO toolDetailVOBeanUtils() {
+        ToolDetailVO vo = new ToolDetailVO();
+        BeanUtils.copyProperties(tool, vo);
+        return vo;
+    }
+
+    /**
+     * 详情缓存命中后复制共享主体以叠加用户相关字段
+     */
+    @Benchmark
+    public ToolDetailVO detailCopyConverter() {
+        return Fixtures.TOOL_CONVERTER.copy(detail);
+    }
+
+    @Benchmark
+    public ToolDetailVO detailCopyBeanUtils() {
+        ToolDetailVO copy = new ToolDetailVO();
+        BeanUtils.copyProperties(detail, copy);
+        return copy;
+    }
+
+    /**
+     * 评论转换（含优缺点JSON解析）
+     */
+    @Benchmark
+    public ReviewVO reviewVOConverter() {
+        return Fixtures.REVIEW_CONVERTER.toReviewVO(review);
+    }
+}
@@ -0,0 +1,102 @@
+package com.toolrecommend.benchmark;
+
+import com.toolrecommend.benchmark.support.Fixtures;
+import com.toolrecommend.benchmark.support.InMemoryMappers;
+import com.toolrecommend.common.entity.Tool;
+import com.toolrecommend.tool.mapper.ToolMapper;
+import com.toolrecommend.tool.ranking.HotRankingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 热度分计算，以及Redis排行为空时本地兜底排行的取前N
+ * 兜底排行直接调用 HotRankingService#topToolIds，Redis有序集合由返回空结果的代理代替
+ *
+ * @author Tool Recommend Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotScoreBenchmark {
+
+    @Param({"1000", "10000"})
+    public int toolCount;
+
+    private List<Tool> tools;
+
+    private HotRankingService hotRankingService;
+
+    @Setup
+    public void setUp() {
+        tools = Fixtures.tools(toolCount);
+        hotRankingService = new HotRankingService();
+        InMemoryMappers.inject(hotRankingService, "toolMapper",
+                InMemoryMappers.of(ToolMapper.class, Map.of("selectHotScoreSeeds", args -> tools)));
+        InMemoryMappers.inject(hotRankingService, "stringRedisTemplate", new EmptyRankingRedisTemplate());
+        hotRankingService.init();
+    }
+
+    /**
+     * 启动时用数据库计数计算全部工具的热度分
+     */
+    @Benchmark
+    public double seedScores() {
+        double total = 0;
+        for (Tool tool : tools) {
+            total += HotRankingService.score(tool);
+        }
+        return total;
+    }
+
+    /**
+     * Redis排行为空时由本地兜底排行取前20
+     */
+    @Benchmark
+    public List<Long> localTop20() {
+        return hotRankingService.topToolIds(20);
+    }
+
+    /**
+     * 有序集合始终为空的模板：初始化时写入被忽略，读取返回空集合，使查询走本地兜底分支
+     */
+    private static class EmptyRankingRedisTemplate extends StringRedisTemplate {
+
+        @SuppressWarnings("unchecked")
+        private final ZSetOperations<String, String> zSetOperations = (ZSetOperations<String, String>) Proxy.newProxyInstance(
+                ZSetOperations.class.getClassLoader(),
+                new Class<?>[]{ZSetOperations.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "zCard", "add" -> 0L;
+                    case "reverseRange" -> Collections.emptySet();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "EmptyZSetOperations";
+                    default -> throw new UnsupportedOperationException("ZSetOperations." + method.getName());
+                });
+
+        @Override
+        public ZSetOperations<String, String> opsForZSet() {
+            return zSetOperations;
+        }
+    }
+}
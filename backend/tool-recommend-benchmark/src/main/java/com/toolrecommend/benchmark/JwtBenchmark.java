@@ -0,0 +1,91 @@
+package com.toolrecommend.benchmark;
+
+import com.toolrecommend.common.util.JwtClaims;
+import com.toolrecommend.common.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT签发与验签解析（登录、刷新、认证未命中缓存时的路径）
+ *
+ * @author Tool Recommend Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    /**
+     * 与 JwtUtil 中的密钥一致，供旧实现的对照基准使用
+     */
+    private static final String SECRET_KEY = "tool-recommend-secret-key-2024-should-be-very-long-and-secure";
+
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        accessToken = JwtUtil.generateToken(10001L, "benchmark-user", "USER");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return JwtUtil.generateToken(10001L, "benchmark-user", "USER");
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return JwtUtil.generateRefreshToken(10001L, "benchmark-user");
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return JwtUtil.parseToken(accessToken);
+    }
+
+    @Benchmark
+    public JwtClaims parseClaims() {
+        return JwtUtil.parseClaims(accessToken);
+    }
+
+    /**
+     * 对照基准：优化前认证过滤器的做法，validateToken（解析两次）后再分别解析出用户ID、用户名、角色，
+     * 每次解析都重新生成密钥和解析器，共五次验签；与 parseClaims 对比
+     */
+    @Benchmark
+    public Object[] legacyFiveParses() {
+        legacyParse(accessToken);
+        if (legacyParse(accessToken).getExpiration().before(new Date())) {
+            return null;
+        }
+        Long userId = legacyParse(accessToken).get("userId", Long.class);
+        String username = legacyParse(accessToken).getSubject();
+        String role = legacyParse(accessToken).get("role", String.class);
+        return new Object[]{userId, username, role};
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,66 @@
+package com.toolrecommend.benchmark;
+
+import com.toolrecommend.benchmark.support.Fixtures;
+import com.toolrecommend.common.result.PageCursor;
+import com.toolrecommend.common.result.PageResult;
+import com.toolrecommend.common.vo.ToolVO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分页结果构建：偏移分页、游标分页，以及游标的编码与解码
+ *
+ * @author Tool Recommend Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageResultBenchmark {
+
+    private static final String SCOPE = "tool:list";
+
+    private List<ToolVO> records;
+
+    private ToolVO last;
+
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        records = Fixtures.toolCards(1, 20);
+        last = records.get(records.size() - 1);
+        cursor = PageCursor.encode(SCOPE, last.getId(), last.getAverageRating(), last.getCreatedAt());
+    }
+
+    @Benchmark
+    public PageResult<ToolVO> offsetPage() {
+        return PageResult.of(records, 12_345L, 3L, 20L);
+    }
+
+    @Benchmark
+    public PageResult<ToolVO> cursorPage() {
+        String nextCursor = PageCursor.encode(SCOPE, last.getId(), last.getAverageRating(), last.getCreatedAt());
+        return PageResult.ofCursor(records, 20L, nextCursor, null);
+    }
+
+    @Benchmark
+    public BigDecimal decodeCursor() {
+        PageCursor pageCursor = PageCursor.decode(cursor, SCOPE, 2);
+        return pageCursor.decimalKey(0);
+    }
+}
@@ -0,0 +1,63 @@
+package com.toolrecommend.benchmark;
+
+import com.alibaba.fastjson2.JSON;
+import com.toolrecommend.benchmark.support.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 评论优缺点JSON数组的解析与生成（fastjson2）
+ * 解析走 ReviewConverter#parseStringList，生成与 ReviewServiceImpl 写入评论时一致
+ *
+ * @author Tool Recommend Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProsConsParseBenchmark {
+
+    /**
+     * 数组元素个数
+     */
+    @Param({"3", "10"})
+    public int items;
+
+    private String json;
+
+    private List<String> list;
+
+    @Setup
+    public void setUp() {
+        list = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            list.add("优点" + i + "：响应速度快，界面简洁");
+        }
+        json = Fixtures.stringArray(list.toArray(new String[0]));
+    }
+
+    @Benchmark
+    public List<String> parse() {
+        return Fixtures.REVIEW_CONVERTER.parseStringList(json);
+    }
+
+    @Benchmark
+    public String write() {
+        return JSON.toJSONString(list);
+    }
+}
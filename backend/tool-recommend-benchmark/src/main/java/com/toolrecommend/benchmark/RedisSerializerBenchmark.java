@@ -0,0 +1,103 @@
+package com.toolrecommend.benchmark;
+
+import com.toolrecommend.benchmark.support.Fixtures;
+import com.toolrecommend.benchmark.support.InMemoryMappers;
+import com.toolrecommend.config.RedisConfig;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RedisConfig 配置的value序列化器：JSON（Jackson默认类型）与紧凑二进制编码对比
+ * 序列化器取自 RedisConfig#redisTemplate 的实际产物，连接工厂为不可用的空代理（构建模板不会建立连接）。
+ * 编码后大小作为辅助计数器 encodedBytes 随 serialize 结果一起输出，每次操作的内存分配见GC分析器的 gc.alloc.rate.norm
+ *
+ * @author Tool Recommend Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisSerializerBenchmark {
+
+    /**
+     * cache.redis.codec
+     */
+    @Param({"json", "binary"})
+    public String codec;
+
+    /**
+     * 缓存内容：工具详情 / 一页工具卡片（20条）
+     */
+    @Param({"toolDetail", "toolCards"})
+    public String payload;
+
+    private RedisSerializer<Object> serializer;
+
+    private Object value;
+
+    private byte[] encoded;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        RedisConfig config = new RedisConfig();
+        InMemoryMappers.inject(config, "codec", codec);
+        InMemoryMappers.inject(config, "compressThreshold", 1024);
+        RedisConnectionFactory factory = (RedisConnectionFactory) Proxy.newProxyInstance(
+                RedisConnectionFactory.class.getClassLoader(), new Class<?>[]{RedisConnectionFactory.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException("基准测试不连接Redis");
+                });
+        RedisTemplate<String, Object> template = config.redisTemplate(factory);
+        serializer = (RedisSerializer<Object>) template.getValueSerializer();
+
+        value = "toolDetail".equals(payload) ? Fixtures.toolDetail(42) : Fixtures.toolCards(1, 20);
+        encoded = serializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] serialize(EncodedSize size) {
+        byte[] bytes = serializer.serialize(value);
+        size.encodedBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(encoded);
+    }
+
+    /**
+     * 编码后字节数，每轮迭代记录最后一次序列化的结果
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+
+        public long encodedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            encodedBytes = 0;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.toolrecommend.benchmark;
+
+import com.toolrecommend.benchmark.support.Fixtures;
+import com.toolrecommend.benchmark.support.InMemoryMappers;
+import com.toolrecommend.benchmark.support.InMemoryRedisTemplate;
+import com.toolrecommend.common.entity.Review;
+import com.toolrecommend.common.vo.ReviewTreeVO;
+import com.toolrecommend.review.mapper.ReviewMapper;
+import com.toolrecommend.review.service.impl.ReviewServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 评论树组装（ReviewServiceImpl#getToolReviewsTree）
+ * 评论来自内存Mapper，有帮助标记来自内存Redis，测的是挂接、排序、截断和批量标记的开销
+ *
+ * @author Tool Recommend Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReviewTreeBenchmark {
+
+    private static final long TOOL_ID = 42L;
+
+    private static final long USER_ID = 7L;
+
+    @Param({"20", "200"})
+    public int topLevel;
+
+    @Param({"5"})
+    public int repliesPerReview;
+
+    private ReviewServiceImpl reviewService;
+
+    @Setup
+    public void setUp() {
+        List<Review> reviews = Fixtures.reviews(TOOL_ID, topLevel, repliesPerReview);
+        ReviewMapper reviewMapper = InMemoryMappers.of(ReviewMapper.class,
+                Map.of("selectAllByToolId", args -> reviews));
+
+        InMemoryRedisTemplate redisTemplate = new InMemoryRedisTemplate();
+        // 当前用户对约十分之一的评论点过有帮助
+        for (int i = 0; i < reviews.size(); i += 10) {
+            redisTemplate.opsForValue().set("review:helpful:" + reviews.get(i).getId() + ":" + USER_ID, "1");
+        }
+
+        reviewService = new ReviewServiceImpl();
+        InMemoryMappers.inject(reviewService, "reviewMapper", reviewMapper);
+        InMemoryMappers.inject(reviewService, "reviewConverter", Fixtures.REVIEW_CONVERTER);
+        InMemoryMappers.inject(reviewService, "redisTemplate", redisTemplate);
+    }
+
+    @Benchmark
+    public List<ReviewTreeVO> anonymous() {
+        return reviewService.getToolReviewsTree(TOOL_ID, null, 3);
+    }
+
+    @Benchmark
+    public List<ReviewTreeVO> loggedIn() {
+        return reviewService.getToolReviewsTree(TOOL_ID, USER_ID, 3);
+    }
+
+    @Benchmark
+    public List<ReviewTreeVO> loggedInAllReplies() {
+        return reviewService.getToolReviewsTree(TOOL_ID, USER_ID, null);
+    }
+}
@@ -0,0 +1,217 @@
+package com.toolrecommend.benchmark.support;
+
+import com.toolrecommend.common.entity.Category;
+import com.toolrecommend.common.entity.Review;
+import com.toolrecommend.common.entity.Tag;
+import com.toolrecommend.common.entity.Tool;
+import com.toolrecommend.common.vo.ToolDetailVO;
+import com.toolrecommend.common.vo.ToolVO;
+import com.toolrecommend.rating.entity.RatingStats;
+import com.toolrecommend.rating.support.RatingStatsSupport;
+import com.toolrecommend.review.convert.ReviewConverter;
+import com.toolrecommend.review.convert.ReviewConverterImpl;
+import com.toolrecommend.tool.convert.ToolConverter;
+import com.toolrecommend.tool.convert.ToolConverterImpl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * 基准测试数据
+ * 固定随机种子生成，保证不同版本之间的结果可比
+ *
+ * @author Tool Recommend Team
+ */
+public final class Fixtures {
+
+    public static final ToolConverter TOOL_CONVERTER = new ToolConverterImpl();
+
+    public static final ReviewConverter REVIEW_CONVERTER = new ReviewConverterImpl();
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 8, 0, 0);
+
+    private static final String[] PRICING_MODELS = {"FREE", "FREEMIUM", "PAID", "OPEN_SOURCE"};
+
+    private Fixtures() {
+    }
+
+    /**
+     * 生成一个字段齐全的工具实体
+     */
+    public static Tool tool(long id) {
+        Random random = new Random(id);
+        Tool tool = new Tool();
+        tool.setId(id);
+        tool.setName("Tool " + id);
+        tool.setSlug("tool-" + id);
+        tool.setTagline("面向开发者的效率工具 #" + id);
+        tool.setDescription(text("这是一个用于提升研发效率的工具，支持多种语言和平台。", 12));
+        tool.setLogoUrl("https://cdn.example.com/logo/" + id + ".png");
+        tool.setWebsiteUrl("https://tool-" + id + ".example.com");
+        tool.setDownloadUrl("https://tool-" + id + ".example.com/download");
+        tool.setGithubUrl("https://github.com/example/tool-" + id);
+        tool.setCategoryId(1 + random.nextInt(20));
+        tool.setPricingModel(PRICING_MODELS[random.nextInt(PRICING_MODELS.length)]);
+        tool.setStartingPrice(BigDecimal.valueOf(random.nextInt(10000), 2));
+        tool.setLaunchDate(LocalDate.of(2020, 1, 1).plusDays(random.nextInt(1500)));
+        tool.setMakerId(1000L + random.nextInt(500));
+        tool.setStatus(1);
+        tool.setViewCount(random.nextInt(200_000));
+        tool.setFavoriteCount(random.nextInt(5_000));
+        tool.setUpvoteCount(random.nextInt(10_000));
+        tool.setReviewCount(random.nextInt(800));
+        tool.setAverageRating(BigDecimal.valueOf(100 + random.nextInt(400), 2).setScale(2, RoundingMode.HALF_UP));
+        tool.setRatingSum(tool.getAverageRating().multiply(BigDecimal.valueOf(tool.getReviewCount())).longValue());
+        tool.setProfileCompleteness(BigDecimal.valueOf(random.nextInt(10000), 2));
+        tool.setMonthlyGrowthRate(BigDecimal.valueOf(random.nextInt(5000), 2));
+        tool.setCreatedAt(BASE_TIME.plusMinutes(id * 37));
+        tool.setUpdatedAt(BASE_TIME.plusMinutes(id * 41));
+        return tool;
+    }
+
+    public static List<Tool> tools(int count) {
+        List<Tool> tools = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            tools.add(tool(i));
+        }
+        return tools;
+    }
+
+    /**
+     * 生成一个与详情页缓存内容相当的工具详情VO（含分类、标签、评分分布、精选评论、相似工具）
+     */
+    public static ToolDetailVO toolDetail(long id) {
+        Tool tool = tool(id);
+        ToolDetailVO detail = TOOL_CONVERTER.toToolDetailVO(tool);
+
+        Category category = new Category();
+        category.setId(tool.getCategoryId());
+        category.setName("开发工具");
+        category.setSlug("dev-tools");
+        category.setIcon("code");
+        category.setDescription("编辑器、调试器与构建工具");
+        category.setSortOrder(1);
+        category.setToolCount(128);
+        category.setIsActive(1);
+        category.setCreatedAt(BASE_TIME);
+        category.setUpdatedAt(BASE_TIME);
+        detail.setCategory(TOOL_CONVERTER.toCategoryVO(category));
+
+        detail.setTags(tags(id, 5).stream().map(TOOL_CONVERTER::toTagVO).collect(Collectors.toList()));
+
+        RatingStats stats = new RatingStats();
+        stats.setToolId(id);
+        stats.setScore1(3);
+        stats.setScore2(7);
+        stats.setScore3(25);
+        stats.setScore4(80);
+        stats.setScore5(120);
+        stats.setRatingCount(235);
+        stats.setRatingSum(3L + 14 + 75 + 320 + 600);
+        detail.setRatingStats(RatingStatsSupport.toVO(stats));
+
+        detail.setTopReviews(reviews(id, 5, 0).stream()
+                .map(REVIEW_CONVERTER::toReviewVO)
+                .collect(Collectors.toList()));
+        detail.setSimilarTools(toolCards(id + 1, 6));
+        return detail;
+    }
+
+    /**
+     * 生成工具卡片列表（列表页、相似工具）
+     */
+    public static List<ToolVO> toolCards(long firstId, int count) {
+        List<ToolVO> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ToolVO card = TOOL_CONVERTER.toToolVO(tool(firstId + i));
+            card.setCategoryName("开发工具");
+            card.setTags(tags(firstId + i, 3).stream().map(TOOL_CONVERTER::toTagVO).collect(Collectors.toList()));
+            cards.add(card);
+        }
+        return cards;
+    }
+
+    public static List<Tag> tags(long toolId, int count) {
+        List<Tag> tags = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Tag tag = new Tag();
+            tag.setId((int) (toolId * 10 + i));
+            tag.setName("标签" + i);
+            tag.setSlug("tag-" + i);
+            tag.setUsageCount(100 + i);
+            tag.setCreatedAt(BASE_TIME);
+            tag.setToolId(toolId);
+            tags.add(tag);
+        }
+        return tags;
+    }
+
+    /**
+     * 生成工具的评论及回复，按创建时间升序（与 selectAllByToolId 的返回顺序一致）
+     *
+     * @param topLevel       顶级评论数
+     * @param repliesPerNode 每条顶级评论下的回复数（一半直接回复，一半回复上一条回复）
+     */
+    public static List<Review> reviews(long toolId, int topLevel, int repliesPerNode) {
+        Random random = new Random(toolId);
+        List<Review> reviews = new ArrayList<>(topLevel * (1 + repliesPerNode));
+        long nextId = toolId * 100_000;
+        int minute = 0;
+        for (int i = 0; i < topLevel; i++) {
+            Review root = review(++nextId, toolId, null, random, minute++);
+            root.setPros(stringArray("上手快", "文档完善", "插件生态丰富"));
+            root.setCons(stringArray("内存占用偏高", "部分功能收费"));
+            root.setReplyCount(repliesPerNode);
+            reviews.add(root);
+            Long parentId = root.getId();
+            for (int j = 0; j < repliesPerNode; j++) {
+                Review reply = review(++nextId, toolId, parentId, random, minute++);
+                reviews.add(reply);
+                parentId = j % 2 == 0 ? reply.getId() : root.getId();
+            }
+        }
+        reviews.sort((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()));
+        return reviews;
+    }
+
+    /**
+     * 生成优缺点JSON数组
+     */
+    public static String stringArray(String... items) {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < items.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append('"').append(items[i]).append('"');
+        }
+        return builder.append(']').toString();
+    }
+
+    private static Review review(long id, long toolId, Long parentId, Random random, int minute) {
+        Review review = new Review();
+        review.setId(id);
+        review.setToolId(toolId);
+        review.setUserId(1L + random.nextInt(1000));
+        review.setParentId(parentId);
+        review.setTitle(parentId == null ? "使用体验" : null);
+        review.setContent(text("整体体验不错，性能稳定。", 4));
+        review.setUsageDuration(parentId == null ? "1年以上" : null);
+        review.setHelpfulCount(random.nextInt(50));
+        review.setReplyCount(0);
+        review.setStatus(1);
+        review.setCreatedAt(BASE_TIME.plusMinutes(minute));
+        review.setUpdatedAt(BASE_TIME.plusMinutes(minute));
+        return review;
+    }
+
+    private static String text(String sentence, int repeat) {
+        return sentence.repeat(repeat);
+    }
+}
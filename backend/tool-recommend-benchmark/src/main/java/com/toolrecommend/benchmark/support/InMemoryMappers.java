@@ -0,0 +1,61 @@
+package com.toolrecommend.benchmark.support;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 内存版Mapper
+ * 以动态代理实现Mapper接口，按方法名返回预置结果，未预置的方法抛出UnsupportedOperationException
+ *
+ * @author Tool Recommend Team
+ */
+public final class InMemoryMappers {
+
+    private InMemoryMappers() {
+    }
+
+    /**
+     * 创建Mapper代理
+     *
+     * @param answers 方法名到结果函数的映射，函数入参为调用参数
+     */
+    public static <T> T of(Class<T> mapperType, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(mapperType.getClassLoader(), new Class<?>[]{mapperType},
+                (self, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer != null) {
+                        return answer.apply(args);
+                    }
+                    return switch (method.getName()) {
+                        case "hashCode" -> System.identityHashCode(self);
+                        case "equals" -> self == args[0];
+                        case "toString" -> "InMemory" + mapperType.getSimpleName();
+                        default -> throw new UnsupportedOperationException(
+                                mapperType.getSimpleName() + "." + method.getName());
+                    };
+                });
+        return mapperType.cast(proxy);
+    }
+
+    /**
+     * 向@Resource/@Value注入的私有字段写入依赖，替代Spring容器装配
+     */
+    public static void inject(Object target, String fieldName, Object value) {
+        Class<?> type = target.getClass();
+        while (type != null) {
+            try {
+                Field field = type.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                type = type.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("无法注入字段: " + fieldName, e);
+            }
+        }
+        throw new IllegalArgumentException(target.getClass().getSimpleName() + " 没有字段 " + fieldName);
+    }
+}
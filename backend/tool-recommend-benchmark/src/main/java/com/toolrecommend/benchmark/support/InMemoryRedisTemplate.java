@@ -0,0 +1,62 @@
+package com.toolrecommend.benchmark.support;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 内存版RedisTemplate
+ * 只实现基准测试路径用到的字符串值操作（get/set/multiGet/delete），其余操作抛出UnsupportedOperationException
+ *
+ * @author Tool Recommend Team
+ */
+public class InMemoryRedisTemplate extends RedisTemplate<String, Object> {
+
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, Object> valueOperations = (ValueOperations<String, Object>) Proxy.newProxyInstance(
+            ValueOperations.class.getClassLoader(),
+            new Class<?>[]{ValueOperations.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "get" -> values.get((String) args[0]);
+                case "set" -> {
+                    values.put((String) args[0], args[1]);
+                    yield null;
+                }
+                case "multiGet" -> multiGet((Collection<?>) args[0]);
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> "InMemoryValueOperations";
+                default -> throw new UnsupportedOperationException("ValueOperations." + method.getName());
+            });
+
+    @Override
+    public ValueOperations<String, Object> opsForValue() {
+        return valueOperations;
+    }
+
+    @Override
+    public Boolean delete(String key) {
+        return values.remove(key) != null;
+    }
+
+    @Override
+    public Boolean hasKey(String key) {
+        return values.containsKey(key);
+    }
+
+    private List<Object> multiGet(Collection<?> keys) {
+        List<Object> result = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            result.add(values.get(key));
+        }
+        return result;
+    }
+}
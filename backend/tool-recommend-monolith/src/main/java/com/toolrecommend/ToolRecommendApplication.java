@@ -3,6 +3,7 @@ package com.toolrecommend;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Tool Recommend 单体应用主启动类
@@ -10,6 +11,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @author Tool Recommend Team
  */
 @SpringBootApplication
+@EnableScheduling
 @MapperScan("com.toolrecommend.*.mapper")  // 通配符路径可能导致问题
 public class ToolRecommendApplication {
 
@@ -0,0 +1,31 @@
+package com.toolrecommend.chat.controller;
+
+import com.toolrecommend.chat.service.ChatService;
+import com.toolrecommend.common.dto.ChatRequestDTO;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * AI对话控制器
+ *
+ * @author Tool Recommend Team
+ */
+@RestController
+@RequestMapping("/api/chat")
+@RequiredArgsConstructor
+public class ChatController {
+
+    private final ChatService chatService;
+
+    /**
+     * 流式对话（SSE），事件格式见 ChatStreamEventVO；排队已满、排队超时等错误以 error 事件返回
+     */
+    @PostMapping("/stream")
+    public SseEmitter streamChat(
+            @Valid @RequestBody ChatRequestDTO requestDTO,
+            @RequestHeader("X-User-Id") Long userId) {
+        return chatService.streamChat(requestDTO, userId);
+    }
+}
@@ -0,0 +1,160 @@
+package com.toolrecommend.chat.intent;
+
+import com.toolrecommend.common.dto.ToolQueryDTO;
+import com.toolrecommend.common.vo.ToolVO;
+import com.toolrecommend.tool.service.ToolService;
+import com.toolrecommend.tool.support.CategoryDictionary;
+import com.toolrecommend.tool.vector.ToolVectorIndex;
+import com.toolrecommend.tool.vector.VectorHit;
+import jakarta.annotation.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 按意图直接从工具库组织回答，不调用模型
+ *
+ * @author Tool Recommend Team
+ */
+@Component
+public class CatalogAnswerer {
+
+    /**
+     * 免费替代品依次尝试的定价模式
+     */
+    private static final List<String> FREE_PRICING_MODELS = List.of("FREE", "OPEN_SOURCE", "FREEMIUM");
+
+    private static final Map<String, String> PRICING_NAMES = Map.of(
+            "FREE", "免费",
+            "FREEMIUM", "免费增值",
+            "PAID", "付费",
+            "OPEN_SOURCE", "开源",
+            "SUBSCRIPTION", "订阅");
+
+    private static final int MAX_COMPARE_TOOLS = 3;
+
+    @Resource
+    private ToolService toolService;
+
+    @Resource
+    private ToolVectorIndex toolVectorIndex;
+
+    @Resource
+    private CategoryDictionary categoryDictionary;
+
+    /**
+     * 直接回答的内容
+     *
+     * @param message 回复文本
+     * @param tools   涉及的工具
+     */
+    public record DirectAnswer(String message, List<ToolVO> tools) {
+    }
+
+    /**
+     * 组织回答
+     *
+     * @return 工具库中找不到可用的结果时返回null，由模型回答
+     */
+    public DirectAnswer answer(IntentMatch match, int limit) {
+        return switch (match.intent()) {
+            case CATEGORY_TOOLS -> categoryTools(match.categoryId(), limit);
+            case COMPARE -> compare(match.toolIds());
+            case FREE_ALTERNATIVE -> freeAlternatives(match.toolIds().get(0), limit);
+            case OPEN -> null;
+        };
+    }
+
+    private DirectAnswer categoryTools(Integer categoryId, int limit) {
+        ToolQueryDTO queryDTO = new ToolQueryDTO();
+        queryDTO.setCategoryId(categoryId);
+        queryDTO.setSortBy("rating");
+        queryDTO.setSortOrder("desc");
+        queryDTO.setCurrent(1L);
+        queryDTO.setSize((long) limit);
+        List<ToolVO> tools = toolService.queryTools(queryDTO).getRecords();
+        if (tools == null || tools.isEmpty()) {
+            return null;
+        }
+        StringBuilder message = new StringBuilder("「").append(categoryDictionary.getName(categoryId))
+                .append("」分类下评分最高的工具：\n");
+        appendList(message, tools);
+        return new DirectAnswer(message.toString(), tools);
+    }
+
+    private DirectAnswer compare(List<Long> toolIds) {
+        List<ToolVO> tools = toolService.getToolCards(toolIds.subList(0, Math.min(MAX_COMPARE_TOOLS, toolIds.size())));
+        if (tools.size() < 2) {
+            return null;
+        }
+        StringBuilder message = new StringBuilder();
+        for (ToolVO tool : tools) {
+            message.append(tool.getName());
+            if (StringUtils.hasText(tool.getTagline())) {
+                message.append("：").append(tool.getTagline());
+            }
+            message.append("\n  定价：").append(pricing(tool))
+                    .append("；评分：").append(tool.getAverageRating() == null ? "暂无" : tool.getAverageRating())
+                    .append("（").append(Objects.requireNonNullElse(tool.getReviewCount(), 0)).append("条评价）")
+                    .append("；收藏：").append(Objects.requireNonNullElse(tool.getFavoriteCount(), 0))
+                    .append('\n');
+        }
+        tools.stream()
+                .filter(tool -> tool.getAverageRating() != null)
+                .max(Comparator.comparing(ToolVO::getAverageRating))
+                .ifPresent(best -> message.append("综合评分更高的是 ").append(best.getName()).append("。"));
+        tools.stream()
+                .filter(tool -> FREE_PRICING_MODELS.contains(tool.getPricingModel()))
+                .findFirst()
+                .ifPresent(free -> message.append(free.getName()).append(" 可以免费使用。"));
+        return new DirectAnswer(message.toString(), tools);
+    }
+
+    private DirectAnswer freeAlternatives(Long toolId, int limit) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (String pricingModel : FREE_PRICING_MODELS) {
+            for (VectorHit hit : toolVectorIndex.similarTo(toolId, limit - ids.size(), null, pricingModel)) {
+                ids.add(hit.toolId());
+            }
+            if (ids.size() >= limit) {
+                break;
+            }
+        }
+        List<ToolVO> target = toolService.getToolCards(List.of(toolId));
+        List<ToolVO> tools = toolService.getToolCards(new ArrayList<>(ids));
+        if (target.isEmpty() || tools.isEmpty()) {
+            return null;
+        }
+        StringBuilder message = new StringBuilder("可以替代 ").append(target.get(0).getName()).append(" 的免费工具：\n");
+        appendList(message, tools);
+        return new DirectAnswer(message.toString(), tools);
+    }
+
+    private static void appendList(StringBuilder message, List<ToolVO> tools) {
+        for (int i = 0; i < tools.size(); i++) {
+            ToolVO tool = tools.get(i);
+            message.append(i + 1).append(". ").append(tool.getName()).append("（").append(pricing(tool)).append("）");
+            if (StringUtils.hasText(tool.getTagline())) {
+                message.append("：").append(tool.getTagline());
+            }
+            message.append('\n');
+        }
+    }
+
+    private static String pricing(ToolVO tool) {
+        String name = PRICING_NAMES.getOrDefault(tool.getPricingModel(), "未知");
+        BigDecimal startingPrice = tool.getStartingPrice();
+        if (startingPrice != null && startingPrice.signum() > 0) {
+            return name + "，起价 " + startingPrice.stripTrailingZeros().toPlainString();
+        }
+        return name;
+    }
+}
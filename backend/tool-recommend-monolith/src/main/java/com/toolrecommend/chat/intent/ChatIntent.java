@@ -0,0 +1,29 @@
+package com.toolrecommend.chat.intent;
+
+/**
+ * 对话意图
+ *
+ * @author Tool Recommend Team
+ */
+public enum ChatIntent {
+
+    /**
+     * 查找某个分类下的工具
+     */
+    CATEGORY_TOOLS,
+
+    /**
+     * 比较两个或多个工具
+     */
+    COMPARE,
+
+    /**
+     * 查找某个工具的免费替代品
+     */
+    FREE_ALTERNATIVE,
+
+    /**
+     * 开放式问题，交给模型回答
+     */
+    OPEN
+}
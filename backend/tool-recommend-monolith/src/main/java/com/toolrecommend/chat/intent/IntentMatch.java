@@ -0,0 +1,29 @@
+package com.toolrecommend.chat.intent;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 意图识别结果
+ *
+ * @param intent     意图
+ * @param confidence 置信度（规则命中为1）
+ * @param toolIds    文中提到的工具，按出现顺序
+ * @param categoryId 文中提到的分类，没有时为null
+ * @param rule       是否由规则命中（否则为分类器判断）
+ * @author Tool Recommend Team
+ */
+public record IntentMatch(ChatIntent intent, double confidence, List<Long> toolIds, Integer categoryId,
+                          boolean rule) {
+
+    public static IntentMatch open(double confidence) {
+        return new IntentMatch(ChatIntent.OPEN, confidence, Collections.emptyList(), null, false);
+    }
+
+    /**
+     * 是否可以不经模型直接回答
+     */
+    public boolean isDirect() {
+        return intent != ChatIntent.OPEN;
+    }
+}
@@ -0,0 +1,180 @@
+package com.toolrecommend.chat.intent;
+
+import com.toolrecommend.common.entity.Category;
+import com.toolrecommend.tool.search.SearchTokenizer;
+import com.toolrecommend.tool.support.CategoryDictionary;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 本地意图路由
+ * 先用关键词规则判断，规则未命中时用朴素贝叶斯分类器（训练样本见 chat/intent-samples.txt）；
+ * 意图所需的工具、分类在工具名称词典和分类字典中解析，解析不到或问题较长（视为开放式问题）时归为 OPEN 交给模型。
+ * 全程只做内存计算，单次耗时在微秒级
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class IntentRouter {
+
+    private static final String SAMPLES_RESOURCE = "chat/intent-samples.txt";
+
+    private static final Pattern COMPARE_CUE = Pattern.compile(
+            "\\bvs\\.?|\\bversus\\b|\\bcompare|\\bcomparison\\b|\\bdifference\\b|\\bwhich is better\\b"
+                    + "|对比|比较|哪个好|哪个更|有什么区别|有啥区别|什么区别|的区别|还是");
+
+    private static final Pattern FREE_ALTERNATIVE_CUE = Pattern.compile(
+            "(免费|开源|\\bfree\\b|open[- ]?source).{0,8}(替代|平替|代替|alternative)"
+                    + "|(替代|平替|代替|alternative).{0,12}(免费|开源|\\bfree\\b|open[- ]?source)");
+
+    private static final Pattern CATEGORY_CUE = Pattern.compile(
+            "(有哪些|有什么|推荐|列出|找|看看|介绍).{0,10}(工具|软件|应用|产品)|(工具|软件|应用)(有哪些|推荐)"
+                    + "|\\b(list|show|find|recommend|best|top)\\b.{0,20}\\b(tools?|apps?|software)\\b"
+                    + "|\\b(tools?|apps?|software)\\b.{0,6}\\b(in|for)\\b");
+
+    private static final String CATEGORY_SUFFIX = "工具";
+
+    private static final String SLUG_SUFFIX = "-tools";
+
+    @Resource
+    private ToolNameDictionary toolNameDictionary;
+
+    @Resource
+    private CategoryDictionary categoryDictionary;
+
+    /**
+     * 是否启用本地意图路由，关闭时全部交给模型
+     */
+    @Value("${chat.intent.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 分类器判断的最低置信度，低于该值视为开放式问题
+     */
+    @Value("${chat.intent.min-confidence:0.8}")
+    private double minConfidence;
+
+    /**
+     * 超过该长度（字符）的问题视为开放式问题
+     */
+    @Value("${chat.intent.max-direct-length:40}")
+    private int maxDirectLength;
+
+    private NaiveBayesClassifier<ChatIntent> classifier;
+
+    @PostConstruct
+    public void init() throws IOException {
+        List<List<String>> samples = new ArrayList<>();
+        List<Integer> labels = new ArrayList<>();
+        List<ChatIntent> intents = Arrays.asList(ChatIntent.values());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(SAMPLES_RESOURCE).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (line.isBlank() || line.startsWith("#") || tab < 0) {
+                    continue;
+                }
+                labels.add(ChatIntent.valueOf(line.substring(0, tab).trim()).ordinal());
+                samples.add(SearchTokenizer.tokenize(normalize(line.substring(tab + 1))));
+            }
+        }
+        classifier = NaiveBayesClassifier.train(intents, samples,
+                labels.stream().mapToInt(Integer::intValue).toArray());
+        log.info("意图分类器训练完成, 样本数: {}, 词元数: {}", samples.size(), classifier.vocabularySize());
+    }
+
+    /**
+     * 识别问题的意图并解析其中提到的工具和分类
+     */
+    public IntentMatch classify(String question) {
+        String text = normalize(question);
+        if (!enabled || text.isEmpty() || text.length() > maxDirectLength) {
+            return IntentMatch.open(1);
+        }
+        List<Long> toolIds = toolNameDictionary.findMentions(text);
+        Integer categoryId = findCategory(text);
+
+        if (toolIds.size() >= 2 && COMPARE_CUE.matcher(text).find()) {
+            return new IntentMatch(ChatIntent.COMPARE, 1, toolIds, categoryId, true);
+        }
+        if (!toolIds.isEmpty() && FREE_ALTERNATIVE_CUE.matcher(text).find()) {
+            return new IntentMatch(ChatIntent.FREE_ALTERNATIVE, 1, toolIds, categoryId, true);
+        }
+        if (toolIds.isEmpty() && categoryId != null && CATEGORY_CUE.matcher(text).find()) {
+            return new IntentMatch(ChatIntent.CATEGORY_TOOLS, 1, toolIds, categoryId, true);
+        }
+
+        NaiveBayesClassifier.Prediction<ChatIntent> prediction = classifier.predict(SearchTokenizer.tokenize(text));
+        ChatIntent intent = prediction.label();
+        if (intent == ChatIntent.OPEN || prediction.probability() < minConfidence
+                || !hasRequiredEntities(intent, toolIds, categoryId)) {
+            return new IntentMatch(ChatIntent.OPEN, intent == ChatIntent.OPEN ? prediction.probability() : 0,
+                    toolIds, categoryId, false);
+        }
+        return new IntentMatch(intent, prediction.probability(), toolIds, categoryId, false);
+    }
+
+    private static boolean hasRequiredEntities(ChatIntent intent, List<Long> toolIds, Integer categoryId) {
+        return switch (intent) {
+            case COMPARE -> toolIds.size() >= 2;
+            case FREE_ALTERNATIVE -> !toolIds.isEmpty();
+            case CATEGORY_TOOLS -> categoryId != null && toolIds.isEmpty();
+            case OPEN -> true;
+        };
+    }
+
+    /**
+     * 文中提到的分类，按分类名称、去掉“工具”后缀的名称和slug匹配，多个时取匹配最长的
+     */
+    private Integer findCategory(String text) {
+        Integer best = null;
+        int bestLength = 0;
+        for (Category category : categoryDictionary.all()) {
+            for (String alias : aliases(category)) {
+                if (alias.length() > bestLength && ToolNameDictionary.containsWord(text, alias)) {
+                    best = category.getId();
+                    bestLength = alias.length();
+                }
+            }
+        }
+        return best;
+    }
+
+    private static List<String> aliases(Category category) {
+        List<String> aliases = new ArrayList<>(4);
+        String name = normalize(category.getName());
+        if (name.length() >= 2) {
+            aliases.add(name);
+        }
+        if (name.endsWith(CATEGORY_SUFFIX) && name.length() - CATEGORY_SUFFIX.length() >= 2) {
+            aliases.add(name.substring(0, name.length() - CATEGORY_SUFFIX.length()));
+        }
+        String slug = normalize(category.getSlug());
+        if (slug.length() >= 3) {
+            aliases.add(slug.replace('-', ' '));
+            if (slug.endsWith(SLUG_SUFFIX) && slug.length() - SLUG_SUFFIX.length() >= 2) {
+                aliases.add(slug.substring(0, slug.length() - SLUG_SUFFIX.length()).replace('-', ' '));
+            }
+        }
+        return aliases;
+    }
+
+    private static String normalize(String text) {
+        return ToolNameDictionary.normalize(text);
+    }
+}
@@ -0,0 +1,104 @@
+package com.toolrecommend.chat.intent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 多项式朴素贝叶斯文本分类器（词元按文档去重，拉普拉斯平滑）
+ * 训练后只保留各类别的对数先验和每个词元的对数似然，分类时对已知词元求和，未登录词元忽略
+ *
+ * @author Tool Recommend Team
+ */
+final class NaiveBayesClassifier<L> {
+
+    private final List<L> labels;
+
+    private final double[] logPriors;
+
+    private final Map<String, double[]> logLikelihoods;
+
+    private NaiveBayesClassifier(List<L> labels, double[] logPriors, Map<String, double[]> logLikelihoods) {
+        this.labels = labels;
+        this.logPriors = logPriors;
+        this.logLikelihoods = logLikelihoods;
+    }
+
+    /**
+     * 分类结果
+     *
+     * @param label       后验概率最大的类别
+     * @param probability 该类别的后验概率
+     */
+    record Prediction<L>(L label, double probability) {
+    }
+
+    /**
+     * 训练
+     *
+     * @param labels       类别列表，下标即类别编号
+     * @param samples      每个样本的词元
+     * @param sampleLabels 每个样本的类别编号
+     */
+    static <L> NaiveBayesClassifier<L> train(List<L> labels, List<List<String>> samples, int[] sampleLabels) {
+        int classes = labels.size();
+        int[] documents = new int[classes];
+        int[] tokenTotals = new int[classes];
+        Map<String, int[]> counts = new HashMap<>();
+        for (int i = 0; i < samples.size(); i++) {
+            int label = sampleLabels[i];
+            documents[label]++;
+            for (String token : new LinkedHashSet<>(samples.get(i))) {
+                counts.computeIfAbsent(token, key -> new int[classes])[label]++;
+                tokenTotals[label]++;
+            }
+        }
+
+        int vocabulary = counts.size();
+        double[] logPriors = new double[classes];
+        for (int c = 0; c < classes; c++) {
+            logPriors[c] = Math.log((documents[c] + 1.0) / (samples.size() + classes));
+        }
+        Map<String, double[]> logLikelihoods = new HashMap<>(counts.size() * 2);
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            double[] values = new double[classes];
+            for (int c = 0; c < classes; c++) {
+                values[c] = Math.log((entry.getValue()[c] + 1.0) / (tokenTotals[c] + vocabulary));
+            }
+            logLikelihoods.put(entry.getKey(), values);
+        }
+        return new NaiveBayesClassifier<>(List.copyOf(labels), logPriors, logLikelihoods);
+    }
+
+    Prediction<L> predict(List<String> tokens) {
+        double[] scores = logPriors.clone();
+        Set<String> seen = new HashSet<>();
+        for (String token : tokens) {
+            double[] values = logLikelihoods.get(token);
+            if (values != null && seen.add(token)) {
+                for (int c = 0; c < scores.length; c++) {
+                    scores[c] += values[c];
+                }
+            }
+        }
+
+        int best = 0;
+        for (int c = 1; c < scores.length; c++) {
+            if (scores[c] > scores[best]) {
+                best = c;
+            }
+        }
+        double sum = 0;
+        for (double score : scores) {
+            sum += Math.exp(score - scores[best]);
+        }
+        return new Prediction<>(labels.get(best), 1 / sum);
+    }
+
+    int vocabularySize() {
+        return logLikelihoods.size();
+    }
+}
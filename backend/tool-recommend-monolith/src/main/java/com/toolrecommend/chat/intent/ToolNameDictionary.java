@@ -0,0 +1,134 @@
+package com.toolrecommend.chat.intent;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.toolrecommend.common.entity.Tool;
+import com.toolrecommend.tool.mapper.ToolMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 工具名称词典
+ * 已发布工具的名称和slug（转小写、合并空白）常驻内存，用于在用户问题中识别提到的工具；重名时取浏览量高的。
+ * 以字母数字开头或结尾的名称要求在文本中独立成词，避免短英文名误匹配单词的一部分
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class ToolNameDictionary {
+
+    private static final int MIN_NAME_LENGTH = 2;
+
+    private static final int MAX_NAME_LENGTH = 40;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Resource
+    private ToolMapper toolMapper;
+
+    private volatile Dictionary dictionary = new Dictionary(Collections.emptyMap(), 0);
+
+    private record Dictionary(Map<String, Long> names, int maxLength) {
+    }
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    /**
+     * 定时全量刷新
+     */
+    @Scheduled(initialDelayString = "${chat.intent.dictionary-refresh:600000}",
+            fixedDelayString = "${chat.intent.dictionary-refresh:600000}")
+    public void refresh() {
+        try {
+            List<Tool> tools = toolMapper.selectList(new LambdaQueryWrapper<Tool>()
+                    .select(Tool::getId, Tool::getName, Tool::getSlug)
+                    .eq(Tool::getStatus, 1)
+                    .orderByDesc(Tool::getViewCount));
+            Map<String, Long> names = new HashMap<>(tools.size() * 4);
+            int maxLength = 0;
+            for (Tool tool : tools) {
+                for (String name : new String[]{tool.getName(), tool.getSlug()}) {
+                    String key = normalize(name);
+                    if (key.length() >= MIN_NAME_LENGTH && key.length() <= MAX_NAME_LENGTH) {
+                        names.putIfAbsent(key, tool.getId());
+                        maxLength = Math.max(maxLength, key.length());
+                    }
+                }
+            }
+            dictionary = new Dictionary(names, maxLength);
+        } catch (Exception e) {
+            log.error("加载工具名称词典失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 找出文本中提到的工具，按出现顺序去重；从左到右取最长匹配，匹配之间不重叠
+     */
+    public List<Long> findMentions(String text) {
+        Dictionary current = dictionary;
+        String normalized = normalize(text);
+        List<Long> toolIds = new ArrayList<>();
+        int i = 0;
+        while (i < normalized.length()) {
+            int matched = 0;
+            int longest = Math.min(current.maxLength(), normalized.length() - i);
+            for (int length = longest; length >= MIN_NAME_LENGTH; length--) {
+                Long toolId = current.names().get(normalized.substring(i, i + length));
+                if (toolId != null && isWordBoundary(normalized, i) && isWordBoundary(normalized, i + length)) {
+                    if (!toolIds.contains(toolId)) {
+                        toolIds.add(toolId);
+                    }
+                    matched = length;
+                    break;
+                }
+            }
+            i += matched > 0 ? matched : 1;
+        }
+        return toolIds;
+    }
+
+    /**
+     * 文本中是否包含 word，且两端满足词边界
+     */
+    static boolean containsWord(String text, String word) {
+        for (int i = text.indexOf(word); i >= 0; i = text.indexOf(word, i + 1)) {
+            if (isWordBoundary(text, i) && isWordBoundary(text, i + word.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 位置 index 两侧不同时为ASCII字母数字
+     */
+    private static boolean isWordBoundary(String text, int index) {
+        return index == 0 || index == text.length()
+                || !isAsciiWordChar(text.charAt(index - 1)) || !isAsciiWordChar(text.charAt(index));
+    }
+
+    private static boolean isAsciiWordChar(char c) {
+        return c < 128 && Character.isLetterOrDigit(c);
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(text.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+}
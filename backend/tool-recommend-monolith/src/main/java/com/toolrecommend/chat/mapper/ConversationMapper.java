@@ -0,0 +1,33 @@
+package com.toolrecommend.chat.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.toolrecommend.common.entity.Conversation;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * AI对话Mapper接口
+ *
+ * @author Tool Recommend Team
+ */
+@Mapper
+public interface ConversationMapper extends BaseMapper<Conversation> {
+
+    /**
+     * 多行插入对话消息
+     *
+     * @return 插入行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO conversation (session_id, user_id, message, role, recommended_tools, intent, entities, " +
+            "model_used, tokens_used, created_at) VALUES " +
+            "<foreach collection='turns' item='t' separator=','>" +
+            "(#{t.sessionId}, #{t.userId}, #{t.message}, #{t.role}, #{t.recommendedTools}, #{t.intent}, " +
+            "#{t.entities}, #{t.modelUsed}, #{t.tokensUsed}, #{t.createdAt})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("turns") List<Conversation> turns);
+}
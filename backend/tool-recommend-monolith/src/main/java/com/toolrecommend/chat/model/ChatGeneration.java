@@ -0,0 +1,42 @@
+package com.toolrecommend.chat.model;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 一次进行中的生成，用于在客户端断开时取消上游生成
+ *
+ * @author Tool Recommend Team
+ */
+public final class ChatGeneration {
+
+    private static final Runnable CANCELLED = () -> {
+    };
+
+    /**
+     * 取消动作；被替换为 CANCELLED 表示已取消
+     */
+    private final AtomicReference<Runnable> cancelAction = new AtomicReference<>();
+
+    /**
+     * 由模型实现登记取消动作，若已取消则立即执行
+     */
+    public void onCancel(Runnable action) {
+        if (!cancelAction.compareAndSet(null, action) && cancelAction.get() == CANCELLED) {
+            action.run();
+        }
+    }
+
+    /**
+     * 取消生成，可重复调用
+     */
+    public void cancel() {
+        Runnable action = cancelAction.getAndSet(CANCELLED);
+        if (action != null && action != CANCELLED) {
+            action.run();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelAction.get() == CANCELLED;
+    }
+}
@@ -0,0 +1,29 @@
+package com.toolrecommend.chat.model;
+
+/**
+ * 发送给模型的一条消息
+ *
+ * @param role    角色：system、user、assistant
+ * @param content 消息内容
+ * @author Tool Recommend Team
+ */
+public record ChatMessage(String role, String content) {
+
+    public static final String SYSTEM = "system";
+
+    public static final String USER = "user";
+
+    public static final String ASSISTANT = "assistant";
+
+    public static ChatMessage system(String content) {
+        return new ChatMessage(SYSTEM, content);
+    }
+
+    public static ChatMessage user(String content) {
+        return new ChatMessage(USER, content);
+    }
+
+    public static ChatMessage assistant(String content) {
+        return new ChatMessage(ASSISTANT, content);
+    }
+}
@@ -0,0 +1,23 @@
+package com.toolrecommend.chat.model;
+
+import java.util.List;
+
+/**
+ * 对话模型后端，通过 chat.model.provider 选择实现
+ *
+ * @author Tool Recommend Team
+ */
+public interface ChatModel {
+
+    /**
+     * 模型名称，记录到 conversation.model_used
+     */
+    String name();
+
+    /**
+     * 异步流式生成，立即返回；片段和结束事件通过 listener 回调
+     *
+     * @return 生成句柄，可用于取消
+     */
+    ChatGeneration generate(List<ChatMessage> messages, ChatModelListener listener);
+}
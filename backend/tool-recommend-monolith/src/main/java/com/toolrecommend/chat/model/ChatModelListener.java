@@ -0,0 +1,26 @@
+package com.toolrecommend.chat.model;
+
+/**
+ * 流式生成回调，由模型实现所在的线程依次调用，同一次生成的回调不会并发
+ *
+ * @author Tool Recommend Team
+ */
+public interface ChatModelListener {
+
+    /**
+     * 收到一个增量片段；方法阻塞期间模型不会继续读取上游输出（背压）
+     */
+    void onToken(String token);
+
+    /**
+     * 生成结束
+     *
+     * @param tokensUsed 本次消耗的token数，模型未返回时为估算值
+     */
+    void onComplete(int tokensUsed);
+
+    /**
+     * 生成失败；取消后不再回调
+     */
+    void onError(Throwable error);
+}
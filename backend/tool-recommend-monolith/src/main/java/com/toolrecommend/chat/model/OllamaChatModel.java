@@ -0,0 +1,179 @@
+package com.toolrecommend.chat.model;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ollama 本地模型（/api/chat 流式接口）
+ * 响应按行（NDJSON）异步读取，每处理完一行才向上游请求下一行，客户端写得慢时不会在内存中堆积输出；
+ * 取消时关闭订阅，HTTP连接随之断开，Ollama 检测到断开后停止生成
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chat.model.provider", havingValue = "ollama")
+public class OllamaChatModel implements ChatModel {
+
+    @Value("${chat.ollama.base-url:http://localhost:11434}")
+    private String baseUrl;
+
+    @Value("${chat.ollama.model:qwen2.5:7b}")
+    private String model;
+
+    /**
+     * 连接超时（毫秒）
+     */
+    @Value("${chat.ollama.connect-timeout:5000}")
+    private long connectTimeout;
+
+    private HttpClient httpClient;
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeout))
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return model;
+    }
+
+    @Override
+    public ChatGeneration generate(List<ChatMessage> messages, ChatModelListener listener) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", model);
+        body.put("messages", messages);
+        body.put("stream", true);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/chat"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.toJSONString(body)))
+                .build();
+
+        ChatGeneration generation = new ChatGeneration();
+        LineSubscriber subscriber = new LineSubscriber(generation, listener);
+        CompletableFuture<HttpResponse<Void>> future =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(subscriber));
+        future.whenComplete((response, error) -> {
+            if (error != null) {
+                subscriber.fail(error);
+            } else if (response.statusCode() != 200) {
+                subscriber.fail(new IllegalStateException("Ollama返回状态码 " + response.statusCode()));
+            }
+        });
+        generation.onCancel(() -> {
+            subscriber.cancel();
+            future.cancel(true);
+        });
+        return generation;
+    }
+
+    /**
+     * 逐行解析流式响应，每次只请求一行
+     */
+    private static final class LineSubscriber implements Flow.Subscriber<String> {
+
+        private final ChatGeneration generation;
+
+        private final ChatModelListener listener;
+
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private volatile Flow.Subscription subscription;
+
+        LineSubscriber(ChatGeneration generation, ChatModelListener listener) {
+            this.generation = generation;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (generation.isCancelled()) {
+                subscription.cancel();
+            } else {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (finished.get()) {
+                return;
+            }
+            if (line.isBlank()) {
+                subscription.request(1);
+                return;
+            }
+            try {
+                JSONObject chunk = JSON.parseObject(line);
+                String error = chunk.getString("error");
+                if (error != null) {
+                    fail(new IllegalStateException(error));
+                    return;
+                }
+                JSONObject message = chunk.getJSONObject("message");
+                String content = message == null ? null : message.getString("content");
+                if (content != null && !content.isEmpty()) {
+                    listener.onToken(content);
+                }
+                if (chunk.getBooleanValue("done")) {
+                    if (finished.compareAndSet(false, true)) {
+                        listener.onComplete(chunk.getIntValue("prompt_eval_count") + chunk.getIntValue("eval_count"));
+                    }
+                    return;
+                }
+            } catch (Exception e) {
+                fail(e);
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            fail(new IllegalStateException("模型输出意外结束"));
+        }
+
+        void fail(Throwable error) {
+            if (finished.compareAndSet(false, true)) {
+                cancel();
+                if (!generation.isCancelled()) {
+                    log.warn("Ollama生成失败: {}", error.getMessage());
+                    listener.onError(error);
+                }
+            }
+        }
+
+        void cancel() {
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+}
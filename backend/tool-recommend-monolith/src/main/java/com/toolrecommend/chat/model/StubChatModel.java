@@ -0,0 +1,117 @@
+package com.toolrecommend.chat.model;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地桩模型，不依赖任何模型服务：根据系统提示中的候选工具拼出固定格式的回复，
+ * 按固定间隔逐段输出，用于开发、联调和测试环境
+ *
+ * @author Tool Recommend Team
+ */
+@Component
+@ConditionalOnProperty(name = "chat.model.provider", havingValue = "stub", matchIfMissing = true)
+public class StubChatModel implements ChatModel {
+
+    private static final String CANDIDATE_PREFIX = "- ";
+
+    /**
+     * 每段的字符数
+     */
+    @Value("${chat.stub.chunk-size:4}")
+    private int chunkSize;
+
+    /**
+     * 相邻两段的间隔（毫秒）
+     */
+    @Value("${chat.stub.token-delay:20}")
+    private long tokenDelay;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+                Thread thread = new Thread(runnable, "chat-stub-model");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    @Override
+    public String name() {
+        return "stub";
+    }
+
+    @Override
+    public ChatGeneration generate(List<ChatMessage> messages, ChatModelListener listener) {
+        List<String> chunks = split(reply(messages));
+        ChatGeneration generation = new ChatGeneration();
+        emit(generation, chunks, 0, listener);
+        return generation;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 上一段回调返回后才调度下一段，客户端写得慢时自然放慢输出；取消后下一段不再输出
+     */
+    private void emit(ChatGeneration generation, List<String> chunks, int index, ChatModelListener listener) {
+        scheduler.schedule(() -> {
+            if (generation.isCancelled()) {
+                return;
+            }
+            try {
+                if (index == chunks.size()) {
+                    listener.onComplete(chunks.size());
+                    return;
+                }
+                listener.onToken(chunks.get(index));
+            } catch (Exception e) {
+                listener.onError(e);
+                return;
+            }
+            emit(generation, chunks, index + 1, listener);
+        }, tokenDelay, TimeUnit.MILLISECONDS);
+    }
+
+    private String reply(List<ChatMessage> messages) {
+        String question = "";
+        List<String> candidates = new ArrayList<>();
+        for (ChatMessage message : messages) {
+            if (ChatMessage.USER.equals(message.role())) {
+                question = message.content();
+            } else if (ChatMessage.SYSTEM.equals(message.role())) {
+                for (String line : message.content().split("\n")) {
+                    if (line.startsWith(CANDIDATE_PREFIX)) {
+                        candidates.add(line.substring(CANDIDATE_PREFIX.length()));
+                    }
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return "关于「" + question + "」，暂时没有找到合适的工具，可以换个说法描述您的需求。";
+        }
+        StringBuilder reply = new StringBuilder("根据您的需求「").append(question).append("」，为您推荐以下工具：\n");
+        for (int i = 0; i < candidates.size(); i++) {
+            reply.append(i + 1).append(". ").append(candidates.get(i)).append('\n');
+        }
+        return reply.toString();
+    }
+
+    private List<String> split(String text) {
+        List<String> chunks = new ArrayList<>();
+        int size = Math.max(1, chunkSize);
+        for (int i = 0; i < text.length(); i += size) {
+            chunks.add(text.substring(i, Math.min(text.length(), i + size)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,17 @@
+package com.toolrecommend.chat.service;
+
+import com.toolrecommend.common.dto.ChatRequestDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * AI对话服务接口
+ *
+ * @author Tool Recommend Team
+ */
+public interface ChatService {
+
+    /**
+     * 流式对话：立即返回SSE通道，推荐工具和模型输出随生成进度推送
+     */
+    SseEmitter streamChat(ChatRequestDTO requestDTO, Long userId);
+}
@@ -0,0 +1,402 @@
+package com.toolrecommend.chat.service.impl;
+
+import com.alibaba.fastjson2.JSON;
+import com.toolrecommend.chat.intent.CatalogAnswerer;
+import com.toolrecommend.chat.intent.IntentMatch;
+import com.toolrecommend.chat.intent.IntentRouter;
+import com.toolrecommend.chat.model.ChatGeneration;
+import com.toolrecommend.chat.model.ChatMessage;
+import com.toolrecommend.chat.model.ChatModel;
+import com.toolrecommend.chat.model.ChatModelListener;
+import com.toolrecommend.chat.service.ChatService;
+import com.toolrecommend.chat.store.ConversationStore;
+import com.toolrecommend.chat.support.ChatConcurrencyLimiter;
+import com.toolrecommend.common.dto.ChatRequestDTO;
+import com.toolrecommend.common.entity.Conversation;
+import com.toolrecommend.common.exception.BusinessException;
+import com.toolrecommend.common.vo.ChatStreamEventVO;
+import com.toolrecommend.common.vo.ToolVO;
+import com.toolrecommend.tool.service.ToolService;
+import com.toolrecommend.tool.vector.ToolVectorIndex;
+import com.toolrecommend.tool.vector.VectorHit;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * AI对话服务实现类
+ * 请求线程只负责提交，拿到名额后检索候选工具、发起流式生成，模型输出逐段写回SSE通道；
+ * 客户端断开（写出失败或连接出错）时取消上游生成并释放名额。上下文和消息读写都经过 ConversationStore。
+ * 分类查询、工具对比、免费替代这类简单问题由 IntentRouter 识别后直接从工具库回答，不排队也不调用模型
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Service
+public class ChatServiceImpl implements ChatService {
+
+    private static final String ROLE_USER = "USER";
+
+    private static final String ROLE_ASSISTANT = "ASSISTANT";
+
+    private static final int MAX_RECOMMEND_COUNT = 10;
+
+    /**
+     * 本地直接回答时记录的模型名称
+     */
+    private static final String LOCAL_MODEL = "intent-router";
+
+    private static final String SYSTEM_PROMPT = "你是工具推荐助手。根据用户的需求，从下面的候选工具中挑选最合适的几个推荐给用户，"
+            + "并用一两句话说明推荐理由。只推荐候选列表中的工具，没有合适的就如实告知。";
+
+    @Resource
+    private ChatModel chatModel;
+
+    @Resource
+    private ChatConcurrencyLimiter chatConcurrencyLimiter;
+
+    @Resource
+    private ConversationStore conversationStore;
+
+    @Resource
+    private ToolService toolService;
+
+    @Resource
+    private ToolVectorIndex toolVectorIndex;
+
+    @Resource
+    private IntentRouter intentRouter;
+
+    @Resource
+    private CatalogAnswerer catalogAnswerer;
+
+    /**
+     * SSE连接最长保持时间（毫秒），含排队时间
+     */
+    @Value("${chat.stream-timeout:120000}")
+    private long streamTimeout;
+
+    @Override
+    public SseEmitter streamChat(ChatRequestDTO requestDTO, Long userId) {
+        String sessionId = requestDTO.getSessionId();
+        if (!StringUtils.hasText(sessionId)) {
+            sessionId = UUID.randomUUID().toString().replace("-", "");
+            conversationStore.startSession(userId, sessionId);
+        }
+        int recommendCount = Boolean.FALSE.equals(requestDTO.getNeedRecommendation()) ? 0
+                : requestDTO.getRecommendCount() == null ? 5 : requestDTO.getRecommendCount();
+
+        ChatStream stream = new ChatStream(sessionId, userId, requestDTO.getMessage(), recommendCount);
+        if (recommendCount < 0 || recommendCount > MAX_RECOMMEND_COUNT) {
+            stream.fail(400, "推荐数量需在0到" + MAX_RECOMMEND_COUNT + "之间");
+            return stream.emitter;
+        }
+        if (recommendCount > 0) {
+            stream.intent = intentRouter.classify(requestDTO.getMessage());
+            CatalogAnswerer.DirectAnswer answer = answerDirectly(stream.intent, recommendCount);
+            if (answer != null) {
+                stream.reply(answer);
+                return stream.emitter;
+            }
+        }
+        try {
+            ChatConcurrencyLimiter.Ticket ticket = chatConcurrencyLimiter.submit(userId, stream::start, stream::expire);
+            stream.queued(ticket);
+        } catch (BusinessException e) {
+            stream.fail(e.getCode(), e.getMessage());
+        }
+        return stream.emitter;
+    }
+
+    /**
+     * 创建一次对话的SSE通道
+     */
+    SseEmitter newEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    /**
+     * 一次流式对话的状态
+     */
+    private final class ChatStream implements ChatModelListener {
+
+        final String sessionId;
+
+        final Long userId;
+
+        final String question;
+
+        final int recommendCount;
+
+        final SseEmitter emitter = newEmitter(streamTimeout);
+
+        final long startTime = System.currentTimeMillis();
+
+        final StringBuilder reply = new StringBuilder();
+
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        List<ToolVO> tools = Collections.emptyList();
+
+        IntentMatch intent = IntentMatch.open(1);
+
+        volatile ChatConcurrencyLimiter.Ticket ticket;
+
+        volatile ChatGeneration generation;
+
+        ChatStream(String sessionId, Long userId, String question, int recommendCount) {
+            this.sessionId = sessionId;
+            this.userId = userId;
+            this.question = question;
+            this.recommendCount = recommendCount;
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(error -> close());
+        }
+
+        /**
+         * 提交后仍在排队时通知客户端排队位置
+         */
+        void queued(ChatConcurrencyLimiter.Ticket ticket) {
+            this.ticket = ticket;
+            if (closed.get()) {
+                ticket.release();
+                return;
+            }
+            int position = chatConcurrencyLimiter.position(ticket);
+            if (position > 0) {
+                ChatStreamEventVO event = ChatStreamEventVO.of(ChatStreamEventVO.QUEUED, sessionId);
+                event.setPosition(position);
+                send(event);
+            }
+        }
+
+        /**
+         * 直接回答，一次性推送全部内容
+         */
+        void reply(CatalogAnswerer.DirectAnswer answer) {
+            tools = answer.tools();
+            ChatStreamEventVO event = ChatStreamEventVO.of(ChatStreamEventVO.START, sessionId);
+            event.setIntent(intent.intent().name());
+            event.setTools(tools);
+            if (!send(event)) {
+                return;
+            }
+            saveTurn(ROLE_USER, question, null, null, null);
+
+            ChatStreamEventVO text = ChatStreamEventVO.of(ChatStreamEventVO.TEXT, null);
+            text.setContent(answer.message());
+            send(text);
+            finish(answer.message(), LOCAL_MODEL, 0);
+        }
+
+        /**
+         * 获得名额后开始生成
+         */
+        void start(ChatConcurrencyLimiter.Ticket ticket) {
+            this.ticket = ticket;
+            if (closed.get()) {
+                ticket.release();
+                return;
+            }
+            try {
+                List<Conversation> history = conversationStore.recent(userId, sessionId);
+                tools = recommendCount > 0 ? recommend(question, recommendCount) : Collections.emptyList();
+
+                ChatStreamEventVO event = ChatStreamEventVO.of(ChatStreamEventVO.START, sessionId);
+                event.setIntent(intent.intent().name());
+                event.setTools(tools);
+                if (!send(event)) {
+                    return;
+                }
+                saveTurn(ROLE_USER, question, null, null, null);
+                generation = chatModel.generate(buildMessages(history, tools, question), this);
+                if (closed.get()) {
+                    generation.cancel();
+                }
+            } catch (Exception e) {
+                log.error("对话生成启动失败, sessionId: {}", sessionId, e);
+                fail(500, "对话服务暂不可用，请稍后重试");
+            }
+        }
+
+        /**
+         * 排队超时
+         */
+        void expire() {
+            fail(429, "排队超时，请稍后重试");
+        }
+
+        @Override
+        public void onToken(String token) {
+            reply.append(token);
+            ChatStreamEventVO event = ChatStreamEventVO.of(ChatStreamEventVO.TEXT, null);
+            event.setContent(token);
+            send(event);
+        }
+
+        @Override
+        public void onComplete(int tokensUsed) {
+            if (closed.get()) {
+                return;
+            }
+            finish(reply.toString(), chatModel.name(), tokensUsed);
+        }
+
+        /**
+         * 保存回复并推送结束事件
+         */
+        void finish(String message, String modelUsed, int tokensUsed) {
+            List<Long> toolIds = tools.stream().map(ToolVO::getId).collect(Collectors.toList());
+            saveTurn(ROLE_ASSISTANT, message, toolIds, modelUsed, tokensUsed);
+
+            ChatStreamEventVO event = ChatStreamEventVO.of(ChatStreamEventVO.DONE, sessionId);
+            event.setIntent(intent.intent().name());
+            event.setTokensUsed(tokensUsed);
+            event.setResponseTime(System.currentTimeMillis() - startTime);
+            if (send(event)) {
+                emitter.complete();
+            }
+            close();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            log.error("对话生成失败, sessionId: {}, 原因: {}", sessionId, error.getMessage());
+            fail(500, "回复生成失败，请稍后重试");
+        }
+
+        /**
+         * 推送错误事件并结束
+         */
+        void fail(int code, String message) {
+            ChatStreamEventVO event = ChatStreamEventVO.of(ChatStreamEventVO.ERROR, sessionId);
+            event.setCode(code);
+            event.setContent(message);
+            if (send(event)) {
+                emitter.complete();
+            }
+            close();
+        }
+
+        /**
+         * 写出一个事件，写出失败说明客户端已断开，随即取消生成
+         */
+        boolean send(ChatStreamEventVO event) {
+            if (closed.get()) {
+                return false;
+            }
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("客户端已断开, sessionId: {}", sessionId);
+                close();
+                return false;
+            }
+        }
+
+        /**
+         * 保存一条消息，用户消息附带识别出的意图和实体
+         */
+        void saveTurn(String role, String message, List<Long> toolIds, String modelUsed, Integer tokensUsed) {
+            Conversation conversation = new Conversation();
+            conversation.setSessionId(sessionId);
+            conversation.setUserId(userId);
+            conversation.setRole(role);
+            conversation.setMessage(message);
+            conversation.setRecommendedTools(toolIds == null ? null : JSON.toJSONString(toolIds));
+            conversation.setModelUsed(modelUsed);
+            conversation.setTokensUsed(tokensUsed);
+            if (ROLE_USER.equals(role)) {
+                conversation.setIntent(intent.intent().name());
+                conversation.setEntities(entities(intent));
+            }
+            conversationStore.append(conversation);
+        }
+
+        /**
+         * 取消生成并释放名额，可重复调用
+         */
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            ChatGeneration current = generation;
+            if (current != null) {
+                current.cancel();
+            }
+            ChatConcurrencyLimiter.Ticket held = ticket;
+            if (held != null) {
+                held.release();
+            }
+        }
+    }
+
+    private List<ToolVO> recommend(String question, int count) {
+        List<Long> ids = toolVectorIndex.search(question, count, null, null).stream()
+                .map(VectorHit::toolId)
+                .collect(Collectors.toList());
+        return toolService.getToolCards(ids);
+    }
+
+    private List<ChatMessage> buildMessages(List<Conversation> history, List<ToolVO> tools, String question) {
+        StringBuilder system = new StringBuilder(SYSTEM_PROMPT);
+        if (!tools.isEmpty()) {
+            system.append("\n候选工具：");
+            for (ToolVO tool : tools) {
+                system.append("\n- ").append(tool.getName());
+                if (StringUtils.hasText(tool.getTagline())) {
+                    system.append("：").append(tool.getTagline());
+                }
+            }
+        }
+        List<ChatMessage> messages = new ArrayList<>(history.size() + 2);
+        messages.add(ChatMessage.system(system.toString()));
+        for (Conversation turn : history) {
+            messages.add(ROLE_ASSISTANT.equals(turn.getRole())
+                    ? ChatMessage.assistant(turn.getMessage()) : ChatMessage.user(turn.getMessage()));
+        }
+        messages.add(ChatMessage.user(question));
+        return messages;
+    }
+
+    /**
+     * 按意图从工具库组织回答，失败或没有结果时返回null交给模型
+     */
+    private CatalogAnswerer.DirectAnswer answerDirectly(IntentMatch intent, int limit) {
+        if (!intent.isDirect()) {
+            return null;
+        }
+        try {
+            return catalogAnswerer.answer(intent, limit);
+        } catch (Exception e) {
+            log.warn("本地回答失败, 改由模型回答, 意图: {}, 原因: {}", intent.intent(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String entities(IntentMatch intent) {
+        Map<String, Object> entities = new LinkedHashMap<>();
+        if (!intent.toolIds().isEmpty()) {
+            entities.put("toolIds", intent.toolIds());
+        }
+        if (intent.categoryId() != null) {
+            entities.put("categoryId", intent.categoryId());
+        }
+        return entities.isEmpty() ? null : JSON.toJSONString(entities);
+    }
+}
@@ -0,0 +1,131 @@
+package com.toolrecommend.chat.store;
+
+import com.toolrecommend.chat.mapper.ConversationMapper;
+import com.toolrecommend.common.entity.Conversation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 对话消息异步批量落库
+ * 消息先进入本地有界队列，定时按批多行插入 conversation；队列已满时由调用线程直接写入，不丢消息。
+ * 批次写入失败时保留重试，多次失败后逐条写入，仍失败的消息记录日志后丢弃
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class ConversationBatchWriter {
+
+    @Resource
+    private ConversationMapper conversationMapper;
+
+    /**
+     * 待落库队列容量
+     */
+    @Value("${chat.store.queue-capacity:10000}")
+    private int queueCapacity;
+
+    /**
+     * 每条INSERT语句最多包含的消息数
+     */
+    @Value("${chat.store.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * 批次连续失败多少次后改为逐条写入
+     */
+    @Value("${chat.store.max-attempts:3}")
+    private int maxAttempts;
+
+    private BlockingQueue<Conversation> queue;
+
+    /**
+     * 上次写入失败的批次，下次优先重试
+     */
+    private List<Conversation> failedBatch;
+
+    private int failedAttempts;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * 提交一条待落库的消息
+     */
+    public void enqueue(Conversation turn) {
+        if (!queue.offer(turn)) {
+            log.warn("对话落库队列已满, 同步写入, sessionId: {}", turn.getSessionId());
+            insertOne(turn);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chat.store.flush-interval:200}")
+    public synchronized void flush() {
+        if (failedBatch != null && !write(failedBatch)) {
+            return;
+        }
+        List<Conversation> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            if (!write(batch)) {
+                return;
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (failedBatch != null) {
+            failedBatch.forEach(this::insertOne);
+            failedBatch = null;
+        }
+    }
+
+    /**
+     * 写入一批，失败时保留到下次重试
+     *
+     * @return 是否写入成功
+     */
+    private boolean write(List<Conversation> batch) {
+        try {
+            conversationMapper.insertBatch(batch);
+            failedBatch = null;
+            failedAttempts = 0;
+            return true;
+        } catch (Exception e) {
+            failedAttempts++;
+            if (failedAttempts < maxAttempts) {
+                log.warn("对话批量落库失败（第{}次）, 条数: {}, 原因: {}", failedAttempts, batch.size(), e.getMessage());
+                failedBatch = batch;
+                return false;
+            }
+            log.error("对话批量落库连续失败{}次, 改为逐条写入, 条数: {}", failedAttempts, batch.size());
+            batch.forEach(this::insertOne);
+            failedBatch = null;
+            failedAttempts = 0;
+            return true;
+        }
+    }
+
+    private void insertOne(Conversation turn) {
+        try {
+            conversationMapper.insert(turn);
+        } catch (Exception e) {
+            log.error("对话落库失败, 丢弃消息, sessionId: {}, role: {}, 原因: {}",
+                    turn.getSessionId(), turn.getRole(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.toolrecommend.chat.store;
+
+import com.alibaba.fastjson2.JSON;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.toolrecommend.chat.mapper.ConversationMapper;
+import com.toolrecommend.common.entity.Conversation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 对话上下文存储
+ * 每个会话最近 chat.history-turns 条消息以Redis列表为准，新消息写入时同步追加到列表（超出条数的从头部裁掉）
+ * 并递增会话序号；本地环形缓冲区缓存列表内容及其序号，组装上下文前只读取序号，与本地一致时直接用本地内容，
+ * 不一致（其他节点写入过）时重新读取列表，多节点之间无需会话粘滞。
+ * Redis中没有的会话（新会话或已过期）从数据库恢复后写回Redis；Redis不可用时退化为只用本地缓冲区。
+ * 新消息同时交给 ConversationBatchWriter 异步批量落库
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class ConversationStore {
+
+    private static final String SESSION_KEY_PREFIX = "chat:session:";
+
+    private static final String SEQ_KEY_PREFIX = "chat:session:seq:";
+
+    /**
+     * KEYS = [消息列表, 序号]；ARGV = [消息, 保留条数, 过期毫秒数]。
+     * 会话不在Redis中时返回0且不写入，否则追加消息并返回递增后的序号
+     */
+    private static final RedisScript<Long> APPEND_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[2]) == 0 then return 0 end " +
+            "redis.call('RPUSH', KEYS[1], ARGV[1]) " +
+            "redis.call('LTRIM', KEYS[1], -tonumber(ARGV[2]), -1) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[3]) " +
+            "local seq = redis.call('INCR', KEYS[2]) " +
+            "redis.call('PEXPIRE', KEYS[2], ARGV[3]) " +
+            "return seq", Long.class);
+
+    /**
+     * KEYS = [消息列表, 序号]；ARGV = [过期毫秒数, 消息...]。
+     * 会话已在Redis中（其他节点先写入）时返回-1，否则写入全部消息、序号置0后返回0
+     */
+    private static final RedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[2]) == 1 then return -1 end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "if #ARGV > 1 then " +
+            "redis.call('RPUSH', KEYS[1], unpack(ARGV, 2)) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+            "end " +
+            "redis.call('SET', KEYS[2], '0', 'PX', ARGV[1]) " +
+            "return 0", Long.class);
+
+    @Resource
+    private ConversationMapper conversationMapper;
+
+    @Resource
+    private ConversationBatchWriter conversationBatchWriter;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 每个会话保留的最近消息条数
+     */
+    @Value("${chat.history-turns:10}")
+    private int historyTurns;
+
+    /**
+     * 本地最多缓存的会话数
+     */
+    @Value("${chat.store.max-sessions:10000}")
+    private long maxSessions;
+
+    /**
+     * 会话空闲多久后从本地淘汰（秒）
+     */
+    @Value("${chat.store.idle-ttl:1800}")
+    private long idleTtlSeconds;
+
+    /**
+     * 会话在Redis中的过期时间（秒），每次写入后重新计时
+     */
+    @Value("${chat.store.redis-ttl:86400}")
+    private long redisTtlSeconds;
+
+    private Cache<String, SessionTurns> sessions;
+
+    private Counter l2Hits;
+
+    private Counter l2Misses;
+
+    @PostConstruct
+    public void init() {
+        sessions = Caffeine.newBuilder()
+                .maximumSize(maxSessions)
+                .expireAfterAccess(Duration.ofSeconds(idleTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "chat.session.l1");
+        l2Hits = Counter.builder("chat.session.l2").tag("result", "hit").register(meterRegistry);
+        l2Misses = Counter.builder("chat.session.l2").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * 登记新建的会话，首条消息无需回源查询历史
+     */
+    public void startSession(Long userId, String sessionId) {
+        if (historyTurns > 0) {
+            sessions.asMap().putIfAbsent(key(userId, sessionId), new SessionTurns(historyTurns, -1));
+        }
+    }
+
+    /**
+     * 会话最近的消息，按时间升序
+     */
+    public List<Conversation> recent(Long userId, String sessionId) {
+        if (historyTurns <= 0) {
+            return Collections.emptyList();
+        }
+        String key = key(userId, sessionId);
+        SessionTurns local = sessions.getIfPresent(key);
+        try {
+            return load(key, local, userId, sessionId).snapshot();
+        } catch (Exception e) {
+            log.warn("读取Redis会话上下文失败, sessionId: {}, 原因: {}", sessionId, e.getMessage());
+            if (local != null) {
+                return local.snapshot();
+            }
+            SessionTurns loaded = SessionTurns.of(historyTurns, -1, loadFromDatabase(userId, sessionId));
+            sessions.put(key, loaded);
+            return loaded.snapshot();
+        }
+    }
+
+    /**
+     * 追加一条消息：写入Redis会话列表和本地缓冲区，并异步落库
+     */
+    public void append(Conversation turn) {
+        if (turn.getCreatedAt() == null) {
+            turn.setCreatedAt(LocalDateTime.now());
+        }
+        if (historyTurns > 0) {
+            String key = key(turn.getUserId(), turn.getSessionId());
+            long seq = -1;
+            try {
+                Long result = stringRedisTemplate.execute(APPEND_SCRIPT, redisKeys(key), JSON.toJSONString(turn),
+                        Integer.toString(historyTurns), Long.toString(redisTtlSeconds * 1000));
+                // 0表示会话不在Redis中，只写本地，下次读取时整体写回
+                seq = result == null || result == 0 ? -1 : result;
+            } catch (Exception e) {
+                log.warn("会话消息写入Redis失败, sessionId: {}, 原因: {}", turn.getSessionId(), e.getMessage());
+            }
+            SessionTurns local = sessions.getIfPresent(key);
+            if (local != null && !local.append(turn, seq)) {
+                // 其他节点在此之前写入过，本地内容已过时
+                sessions.invalidate(key);
+            }
+        }
+        conversationBatchWriter.enqueue(turn);
+    }
+
+    /**
+     * 序号与本地一致时直接用本地内容，否则读取Redis列表；Redis中没有时用本地内容或数据库恢复后写回
+     */
+    private SessionTurns load(String key, SessionTurns local, Long userId, String sessionId) {
+        List<String> keys = redisKeys(key);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            String seq = stringRedisTemplate.opsForValue().get(keys.get(1));
+            if (seq != null) {
+                long remoteSeq = Long.parseLong(seq);
+                if (local != null && local.seq() == remoteSeq) {
+                    return local;
+                }
+                // 先读序号再读列表，列表可能比序号新，最多导致下次多读一次
+                List<String> items = stringRedisTemplate.opsForList().range(keys.get(0), 0, -1);
+                List<Conversation> turns = new ArrayList<>();
+                if (items != null) {
+                    for (String item : items) {
+                        turns.add(JSON.parseObject(item, Conversation.class));
+                    }
+                }
+                l2Hits.increment();
+                SessionTurns loaded = SessionTurns.of(historyTurns, remoteSeq, turns);
+                sessions.put(key, loaded);
+                return loaded;
+            }
+
+            List<Conversation> turns;
+            if (local != null) {
+                turns = local.snapshot();
+            } else {
+                l2Misses.increment();
+                turns = loadFromDatabase(userId, sessionId);
+            }
+            List<String> args = new ArrayList<>(turns.size() + 1);
+            args.add(Long.toString(redisTtlSeconds * 1000));
+            for (Conversation turn : turns) {
+                args.add(JSON.toJSONString(turn));
+            }
+            Long seeded = stringRedisTemplate.execute(SEED_SCRIPT, keys, args.toArray());
+            if (seeded != null && seeded == 0) {
+                SessionTurns loaded = SessionTurns.of(historyTurns, 0, turns);
+                sessions.put(key, loaded);
+                return loaded;
+            }
+            // 其他节点刚写回了该会话，重新按序号读取
+        }
+        throw new IllegalStateException("会话上下文并发写回冲突");
+    }
+
+    /**
+     * 本地和Redis中都没有的会话，回源数据库
+     */
+    private List<Conversation> loadFromDatabase(Long userId, String sessionId) {
+        List<Conversation> turns = new ArrayList<>(conversationMapper.selectList(new LambdaQueryWrapper<Conversation>()
+                .eq(Conversation::getSessionId, sessionId)
+                .eq(Conversation::getUserId, userId)
+                .orderByDesc(Conversation::getCreatedAt)
+                .orderByDesc(Conversation::getId)
+                .last("LIMIT " + historyTurns)));
+        Collections.reverse(turns);
+        return turns;
+    }
+
+    /**
+     * 消息列表和序号两个键，哈希标签保证集群模式下落在同一槽位
+     */
+    private static List<String> redisKeys(String key) {
+        return Arrays.asList(SESSION_KEY_PREFIX + "{" + key + "}", SEQ_KEY_PREFIX + "{" + key + "}");
+    }
+
+    private static String key(Long userId, String sessionId) {
+        return userId + ":" + sessionId;
+    }
+}
@@ -0,0 +1,80 @@
+package com.toolrecommend.chat.store;
+
+import com.toolrecommend.common.entity.Conversation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一个会话最近的若干条消息（环形缓冲区，写满后覆盖最早的一条），
+ * 以及内容对应的Redis会话序号，用于判断其他节点是否写入过新消息
+ *
+ * @author Tool Recommend Team
+ */
+final class SessionTurns {
+
+    private final Conversation[] ring;
+
+    private int head;
+
+    private int count;
+
+    /**
+     * 内容对应的Redis会话序号，未知时为-1
+     */
+    private long seq;
+
+    SessionTurns(int capacity, long seq) {
+        this.ring = new Conversation[capacity];
+        this.seq = seq;
+    }
+
+    static SessionTurns of(int capacity, long seq, List<Conversation> turns) {
+        SessionTurns sessionTurns = new SessionTurns(capacity, seq);
+        for (Conversation turn : turns) {
+            sessionTurns.add(turn);
+        }
+        return sessionTurns;
+    }
+
+    /**
+     * 追加一条消息
+     *
+     * @param newSeq 写入Redis后的会话序号，-1表示未写入Redis
+     * @return 本地序号未知或中间有其他节点写入（序号不连续）时返回false，内容不变，调用方应丢弃本地缓冲区
+     */
+    synchronized boolean append(Conversation turn, long newSeq) {
+        if (newSeq >= 0) {
+            if (seq < 0 || newSeq != seq + 1) {
+                return false;
+            }
+            seq = newSeq;
+        }
+        add(turn);
+        return true;
+    }
+
+    synchronized long seq() {
+        return seq;
+    }
+
+    /**
+     * 按时间顺序复制当前内容
+     */
+    synchronized List<Conversation> snapshot() {
+        List<Conversation> turns = new ArrayList<>(count);
+        int start = head - count;
+        for (int i = 0; i < count; i++) {
+            turns.add(ring[Math.floorMod(start + i, ring.length)]);
+        }
+        return turns;
+    }
+
+    private void add(Conversation turn) {
+        ring[head] = turn;
+        head = (head + 1) % ring.length;
+        if (count < ring.length) {
+            count++;
+        }
+    }
+}
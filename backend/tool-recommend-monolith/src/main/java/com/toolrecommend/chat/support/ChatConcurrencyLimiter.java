@@ -0,0 +1,233 @@
+package com.toolrecommend.chat.support;
+
+import com.toolrecommend.common.exception.BusinessException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 按用户限制同时进行的生成数
+ * 超出上限的请求进入该用户的等待队列，前一个生成结束后按先后顺序启动；队列已满时直接拒绝，
+ * 排队超时的请求移出队列并回调超时动作。不阻塞任何线程，请求线程提交后即返回。
+ * 排队的任务在专用的派发线程上启动，不占用释放名额的线程（通常是模型的回调线程），其异常也不会传回该线程
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class ChatConcurrencyLimiter {
+
+    /**
+     * 每个用户同时进行的生成数
+     */
+    @Value("${chat.max-concurrent-per-user:2}")
+    private int maxConcurrentPerUser;
+
+    /**
+     * 每个用户最多排队的请求数
+     */
+    @Value("${chat.max-queued-per-user:3}")
+    private int maxQueuedPerUser;
+
+    /**
+     * 最长排队时间（毫秒）
+     */
+    @Value("${chat.queue-timeout:30000}")
+    private long queueTimeout;
+
+    private final Map<Long, UserSlots> slots = new ConcurrentHashMap<>();
+
+    private final AtomicInteger dispatcherThreads = new AtomicInteger();
+
+    /**
+     * 启动排队任务的线程池，任务本身应快速返回，少量线程即可
+     */
+    private final ExecutorService dispatcher = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+                Thread thread = new Thread(runnable, "chat-dispatch-" + dispatcherThreads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chat-queue-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private enum State {
+        WAITING, RUNNING, FINISHED
+    }
+
+    /**
+     * 一个用户的运行数和等待队列，只在 slots.compute 内修改
+     */
+    private static final class UserSlots {
+
+        int running;
+
+        final Deque<Ticket> waiting = new ArrayDeque<>();
+    }
+
+    /**
+     * 一次提交的凭证，生成结束（含失败、取消）时必须调用 release
+     */
+    public final class Ticket {
+
+        private final Long userId;
+
+        private final Consumer<Ticket> task;
+
+        private final Runnable onTimeout;
+
+        private State state = State.WAITING;
+
+        private Ticket(Long userId, Consumer<Ticket> task, Runnable onTimeout) {
+            this.userId = userId;
+            this.task = task;
+            this.onTimeout = onTimeout;
+        }
+
+        /**
+         * 释放名额或移出等待队列，可重复调用
+         */
+        public void release() {
+            ChatConcurrencyLimiter.this.release(this);
+        }
+    }
+
+    /**
+     * 提交生成任务：有空闲名额时在当前线程立即执行，否则排队，轮到时在派发线程上执行
+     *
+     * @param task      获得名额后执行的任务，参数为本次凭证；应快速返回（生成本身异步进行）
+     * @param onTimeout 排队超时时执行
+     * @return 凭证；返回时 task 已执行或已排队
+     * @throws BusinessException 排队已满（429）
+     */
+    public Ticket submit(Long userId, Consumer<Ticket> task, Runnable onTimeout) {
+        Ticket ticket = new Ticket(userId, task, onTimeout);
+        boolean[] runNow = new boolean[1];
+        slots.compute(userId, (key, current) -> {
+            UserSlots user = current == null ? new UserSlots() : current;
+            if (user.running < maxConcurrentPerUser) {
+                user.running++;
+                ticket.state = State.RUNNING;
+                runNow[0] = true;
+            } else if (user.waiting.size() < maxQueuedPerUser) {
+                user.waiting.addLast(ticket);
+            } else {
+                throw new BusinessException(429, "对话请求过多，请等待当前回复完成后再试");
+            }
+            return user;
+        });
+
+        if (runNow[0]) {
+            start(ticket);
+        } else {
+            timer.schedule(() -> expire(ticket), queueTimeout, TimeUnit.MILLISECONDS);
+        }
+        return ticket;
+    }
+
+    /**
+     * 用户当前排在第几位（从1开始），不在队列中返回0
+     */
+    public int position(Ticket ticket) {
+        int[] position = new int[1];
+        slots.computeIfPresent(ticket.userId, (key, user) -> {
+            int index = 1;
+            for (Ticket waiting : user.waiting) {
+                if (waiting == ticket) {
+                    position[0] = index;
+                    break;
+                }
+                index++;
+            }
+            return user;
+        });
+        return position[0];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    private void release(Ticket ticket) {
+        Ticket[] next = new Ticket[1];
+        slots.computeIfPresent(ticket.userId, (key, user) -> {
+            if (ticket.state == State.WAITING) {
+                user.waiting.remove(ticket);
+            } else if (ticket.state == State.RUNNING) {
+                Ticket waiting = user.waiting.pollFirst();
+                if (waiting != null) {
+                    waiting.state = State.RUNNING;
+                    next[0] = waiting;
+                } else {
+                    user.running--;
+                }
+            }
+            ticket.state = State.FINISHED;
+            return user.running == 0 && user.waiting.isEmpty() ? null : user;
+        });
+        if (next[0] != null) {
+            dispatch(next[0]);
+        }
+    }
+
+    private void expire(Ticket ticket) {
+        boolean[] expired = new boolean[1];
+        slots.computeIfPresent(ticket.userId, (key, user) -> {
+            if (ticket.state == State.WAITING) {
+                user.waiting.remove(ticket);
+                ticket.state = State.FINISHED;
+                expired[0] = true;
+            }
+            return user.running == 0 && user.waiting.isEmpty() ? null : user;
+        });
+        if (expired[0]) {
+            ticket.onTimeout.run();
+        }
+    }
+
+    /**
+     * 在派发线程上启动排队的任务，任务异常时释放其名额
+     */
+    private void dispatch(Ticket ticket) {
+        try {
+            dispatcher.execute(() -> {
+                try {
+                    start(ticket);
+                } catch (RuntimeException e) {
+                    log.error("排队的对话任务启动失败, userId: {}", ticket.userId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 应用关闭中
+            release(ticket);
+        }
+    }
+
+    private void start(Ticket ticket) {
+        try {
+            ticket.task.accept(ticket);
+        } catch (RuntimeException e) {
+            release(ticket);
+            throw e;
+        }
+    }
+}
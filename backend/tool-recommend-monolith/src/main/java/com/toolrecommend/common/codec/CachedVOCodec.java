@@ -0,0 +1,401 @@
+package com.toolrecommend.common.codec;
+
+import com.toolrecommend.common.vo.CategoryVO;
+import com.toolrecommend.common.vo.RatingStatsVO;
+import com.toolrecommend.common.vo.ReviewVO;
+import com.toolrecommend.common.vo.TagVO;
+import com.toolrecommend.common.vo.ToolDetailVO;
+import com.toolrecommend.common.vo.ToolVO;
+import com.toolrecommend.common.vo.UserSimpleVO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 缓存VO的二进制编解码
+ * 字段按固定顺序写入，不带字段名和类名。增删字段时必须同时提升 SCHEMA_VERSION，
+ * 版本不一致的旧缓存会被当作未命中丢弃
+ *
+ * @author Tool Recommend Team
+ */
+public final class CachedVOCodec {
+
+    /**
+     * 字段布局版本
+     */
+    public static final int SCHEMA_VERSION = 1;
+
+    public static final int TYPE_TOOL_DETAIL = 1;
+    public static final int TYPE_TOOL = 2;
+    public static final int TYPE_CATEGORY = 3;
+    public static final int TYPE_TAG = 4;
+    public static final int TYPE_REVIEW = 5;
+
+    /**
+     * 列表类型标志，低位为元素类型
+     */
+    public static final int LIST_FLAG = 0x40;
+
+    private CachedVOCodec() {
+    }
+
+    /**
+     * 返回对象的类型编号，不支持的类型返回0
+     */
+    public static int typeOf(Object value) {
+        if (value instanceof List<?> list) {
+            if (list.isEmpty()) {
+                return 0;
+            }
+            int elementType = elementTypeOf(list.get(0));
+            if (elementType == 0) {
+                return 0;
+            }
+            for (Object element : list) {
+                if (element == null || element.getClass() != list.get(0).getClass()) {
+                    return 0;
+                }
+            }
+            return LIST_FLAG | elementType;
+        }
+        return elementTypeOf(value);
+    }
+
+    public static void encode(CompactOutput out, int type, Object value) {
+        if ((type & LIST_FLAG) != 0) {
+            List<?> list = (List<?>) value;
+            int elementType = type & ~LIST_FLAG;
+            out.writeSize(list);
+            for (Object element : list) {
+                encode(out, elementType, element);
+            }
+            return;
+        }
+        switch (type) {
+            case TYPE_TOOL_DETAIL -> writeToolDetail(out, (ToolDetailVO) value);
+            case TYPE_TOOL -> writeTool(out, (ToolVO) value);
+            case TYPE_CATEGORY -> writeCategory(out, (CategoryVO) value);
+            case TYPE_TAG -> writeTag(out, (TagVO) value);
+            case TYPE_REVIEW -> writeReview(out, (ReviewVO) value);
+            default -> throw new IllegalArgumentException("unsupported type: " + type);
+        }
+    }
+
+    public static Object decode(CompactInput in, int type) {
+        if ((type & LIST_FLAG) != 0) {
+            int elementType = type & ~LIST_FLAG;
+            int size = in.readSize();
+            List<Object> list = new ArrayList<>(Math.max(size, 0));
+            for (int i = 0; i < size; i++) {
+                list.add(decode(in, elementType));
+            }
+            return list;
+        }
+        return switch (type) {
+            case TYPE_TOOL_DETAIL -> readToolDetail(in);
+            case TYPE_TOOL -> readTool(in);
+            case TYPE_CATEGORY -> readCategory(in);
+            case TYPE_TAG -> readTag(in);
+            case TYPE_REVIEW -> readReview(in);
+            default -> throw new IllegalArgumentException("unsupported type: " + type);
+        };
+    }
+
+    /**
+     * 按精确类型匹配，子类（如 ReviewTreeVO）含额外字段，不走二进制编码
+     */
+    private static int elementTypeOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        Class<?> type = value.getClass();
+        if (type == ToolDetailVO.class) {
+            return TYPE_TOOL_DETAIL;
+        } else if (type == ToolVO.class) {
+            return TYPE_TOOL;
+        } else if (type == CategoryVO.class) {
+            return TYPE_CATEGORY;
+        } else if (type == TagVO.class) {
+            return TYPE_TAG;
+        } else if (type == ReviewVO.class) {
+            return TYPE_REVIEW;
+        }
+        return 0;
+    }
+
+    // ========== ToolDetailVO ==========
+
+    private static void writeToolDetail(CompactOutput out, ToolDetailVO vo) {
+        out.writeLong(vo.getId());
+        out.writeString(vo.getName());
+        out.writeString(vo.getSlug());
+        out.writeString(vo.getTagline());
+        out.writeString(vo.getDescription());
+        out.writeString(vo.getLogoUrl());
+        out.writeString(vo.getWebsiteUrl());
+        out.writeString(vo.getDownloadUrl());
+        out.writeString(vo.getGithubUrl());
+        writeNullable(out, vo.getCategory(), CachedVOCodec::writeCategory);
+        out.writeString(vo.getPricingModel());
+        out.writeDecimal(vo.getStartingPrice());
+        out.writeDate(vo.getLaunchDate());
+        writeNullable(out, vo.getMaker(), CachedVOCodec::writeUser);
+        out.writeInt(vo.getViewCount());
+        out.writeInt(vo.getFavoriteCount());
+        out.writeInt(vo.getUpvoteCount());
+        out.writeInt(vo.getReviewCount());
+        out.writeDecimal(vo.getAverageRating());
+        writeNullable(out, vo.getRatingStats(), CachedVOCodec::writeRatingStats);
+        writeList(out, vo.getTags(), CachedVOCodec::writeTag);
+        writeList(out, vo.getTopReviews(), CachedVOCodec::writeReview);
+        writeList(out, vo.getSimilarTools(), CachedVOCodec::writeTool);
+        out.writeDateTime(vo.getCreatedAt());
+        out.writeDateTime(vo.getUpdatedAt());
+        out.writeBoolean(vo.getIsFavorited());
+        out.writeBoolean(vo.getIsUpvoted());
+    }
+
+    private static ToolDetailVO readToolDetail(CompactInput in) {
+        ToolDetailVO vo = new ToolDetailVO();
+        vo.setId(in.readLong());
+        vo.setName(in.readString());
+        vo.setSlug(in.readString());
+        vo.setTagline(in.readString());
+        vo.setDescription(in.readString());
+        vo.setLogoUrl(in.readString());
+        vo.setWebsiteUrl(in.readString());
+        vo.setDownloadUrl(in.readString());
+        vo.setGithubUrl(in.readString());
+        vo.setCategory(readNullable(in, CachedVOCodec::readCategory));
+        vo.setPricingModel(in.readString());
+        vo.setStartingPrice(in.readDecimal());
+        vo.setLaunchDate(in.readDate());
+        vo.setMaker(readNullable(in, CachedVOCodec::readUser));
+        vo.setViewCount(in.readInt());
+        vo.setFavoriteCount(in.readInt());
+        vo.setUpvoteCount(in.readInt());
+        vo.setReviewCount(in.readInt());
+        vo.setAverageRating(in.readDecimal());
+        vo.setRatingStats(readNullable(in, CachedVOCodec::readRatingStats));
+        vo.setTags(readList(in, CachedVOCodec::readTag));
+        vo.setTopReviews(readList(in, CachedVOCodec::readReview));
+        vo.setSimilarTools(readList(in, CachedVOCodec::readTool));
+        vo.setCreatedAt(in.readDateTime());
+        vo.setUpdatedAt(in.readDateTime());
+        vo.setIsFavorited(in.readBoolean());
+        vo.setIsUpvoted(in.readBoolean());
+        return vo;
+    }
+
+    // ========== ToolVO ==========
+
+    private static void writeTool(CompactOutput out, ToolVO vo) {
+        out.writeLong(vo.getId());
+        out.writeString(vo.getName());
+        out.writeString(vo.getSlug());
+        out.writeString(vo.getTagline());
+        out.writeString(vo.getLogoUrl());
+        out.writeString(vo.getWebsiteUrl());
+        out.writeString(vo.getCategoryName());
+        out.writeString(vo.getPricingModel());
+        out.writeDecimal(vo.getStartingPrice());
+        out.writeDate(vo.getLaunchDate());
+        out.writeInt(vo.getViewCount());
+        out.writeInt(vo.getFavoriteCount());
+        out.writeInt(vo.getUpvoteCount());
+        out.writeInt(vo.getReviewCount());
+        out.writeDecimal(vo.getAverageRating());
+        writeList(out, vo.getTags(), CachedVOCodec::writeTag);
+        out.writeDateTime(vo.getCreatedAt());
+        out.writeBoolean(vo.getIsFavorited());
+        out.writeBoolean(vo.getIsUpvoted());
+    }
+
+    private static ToolVO readTool(CompactInput in) {
+        ToolVO vo = new ToolVO();
+        vo.setId(in.readLong());
+        vo.setName(in.readString());
+        vo.setSlug(in.readString());
+        vo.setTagline(in.readString());
+        vo.setLogoUrl(in.readString());
+        vo.setWebsiteUrl(in.readString());
+        vo.setCategoryName(in.readString());
+        vo.setPricingModel(in.readString());
+        vo.setStartingPrice(in.readDecimal());
+        vo.setLaunchDate(in.readDate());
+        vo.setViewCount(in.readInt());
+        vo.setFavoriteCount(in.readInt());
+        vo.setUpvoteCount(in.readInt());
+        vo.setReviewCount(in.readInt());
+        vo.setAverageRating(in.readDecimal());
+        vo.setTags(readList(in, CachedVOCodec::readTag));
+        vo.setCreatedAt(in.readDateTime());
+        vo.setIsFavorited(in.readBoolean());
+        vo.setIsUpvoted(in.readBoolean());
+        return vo;
+    }
+
+    // ========== CategoryVO / TagVO ==========
+
+    private static void writeCategory(CompactOutput out, CategoryVO vo) {
+        out.writeInt(vo.getId());
+        out.writeString(vo.getName());
+        out.writeString(vo.getSlug());
+        out.writeString(vo.getIcon());
+        out.writeString(vo.getDescription());
+        out.writeInt(vo.getToolCount());
+    }
+
+    private static CategoryVO readCategory(CompactInput in) {
+        CategoryVO vo = new CategoryVO();
+        vo.setId(in.readInt());
+        vo.setName(in.readString());
+        vo.setSlug(in.readString());
+        vo.setIcon(in.readString());
+        vo.setDescription(in.readString());
+        vo.setToolCount(in.readInt());
+        return vo;
+    }
+
+    private static void writeTag(CompactOutput out, TagVO vo) {
+        out.writeInt(vo.getId());
+        out.writeString(vo.getName());
+        out.writeString(vo.getSlug());
+        out.writeInt(vo.getUsageCount());
+    }
+
+    private static TagVO readTag(CompactInput in) {
+        TagVO vo = new TagVO();
+        vo.setId(in.readInt());
+        vo.setName(in.readString());
+        vo.setSlug(in.readString());
+        vo.setUsageCount(in.readInt());
+        return vo;
+    }
+
+    // ========== ReviewVO / UserSimpleVO / RatingStatsVO ==========
+
+    private static void writeReview(CompactOutput out, ReviewVO vo) {
+        out.writeLong(vo.getId());
+        out.writeLong(vo.getToolId());
+        writeNullable(out, vo.getUser(), CachedVOCodec::writeUser);
+        out.writeLong(vo.getParentId());
+        out.writeString(vo.getTitle());
+        out.writeString(vo.getContent());
+        writeList(out, vo.getPros(), CompactOutput::writeString);
+        writeList(out, vo.getCons(), CompactOutput::writeString);
+        out.writeString(vo.getUsageDuration());
+        out.writeInt(vo.getHelpfulCount());
+        out.writeInt(vo.getReplyCount());
+        out.writeDateTime(vo.getCreatedAt());
+        out.writeBoolean(vo.getIsHelpful());
+        out.writeBoolean(vo.getIsMine());
+    }
+
+    private static ReviewVO readReview(CompactInput in) {
+        ReviewVO vo = new ReviewVO();
+        vo.setId(in.readLong());
+        vo.setToolId(in.readLong());
+        vo.setUser(readNullable(in, CachedVOCodec::readUser));
+        vo.setParentId(in.readLong());
+        vo.setTitle(in.readString());
+        vo.setContent(in.readString());
+        vo.setPros(readList(in, CompactInput::readString));
+        vo.setCons(readList(in, CompactInput::readString));
+        vo.setUsageDuration(in.readString());
+        vo.setHelpfulCount(in.readInt());
+        vo.setReplyCount(in.readInt());
+        vo.setCreatedAt(in.readDateTime());
+        vo.setIsHelpful(in.readBoolean());
+        vo.setIsMine(in.readBoolean());
+        return vo;
+    }
+
+    private static void writeUser(CompactOutput out, UserSimpleVO vo) {
+        out.writeLong(vo.getId());
+        out.writeString(vo.getUsername());
+        out.writeString(vo.getNickname());
+        out.writeString(vo.getAvatarUrl());
+        out.writeString(vo.getBio());
+    }
+
+    private static UserSimpleVO readUser(CompactInput in) {
+        UserSimpleVO vo = new UserSimpleVO();
+        vo.setId(in.readLong());
+        vo.setUsername(in.readString());
+        vo.setNickname(in.readString());
+        vo.setAvatarUrl(in.readString());
+        vo.setBio(in.readString());
+        return vo;
+    }
+
+    private static void writeRatingStats(CompactOutput out, RatingStatsVO vo) {
+        out.writeDecimal(vo.getAverageRating());
+        out.writeInt(vo.getRatingCount());
+        Map<Integer, Integer> distribution = vo.getDistribution();
+        out.writeSize(distribution == null ? null : distribution.keySet());
+        if (distribution != null) {
+            distribution.forEach((score, count) -> {
+                out.writeInt(score);
+                out.writeInt(count);
+            });
+        }
+        out.writeInt(vo.getUserScore());
+    }
+
+    private static RatingStatsVO readRatingStats(CompactInput in) {
+        RatingStatsVO vo = new RatingStatsVO();
+        vo.setAverageRating(in.readDecimal());
+        vo.setRatingCount(in.readInt());
+        int size = in.readSize();
+        if (size >= 0) {
+            Map<Integer, Integer> distribution = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                distribution.put(in.readInt(), in.readInt());
+            }
+            vo.setDistribution(distribution);
+        }
+        vo.setUserScore(in.readInt());
+        return vo;
+    }
+
+    // ========== 通用 ==========
+
+    private static <T> void writeNullable(CompactOutput out, T value, BiConsumer<CompactOutput, T> writer) {
+        if (value == null) {
+            out.writeByte(0);
+        } else {
+            out.writeByte(1);
+            writer.accept(out, value);
+        }
+    }
+
+    private static <T> T readNullable(CompactInput in, Function<CompactInput, T> reader) {
+        return in.readByte() == 0 ? null : reader.apply(in);
+    }
+
+    private static <T> void writeList(CompactOutput out, List<T> list, BiConsumer<CompactOutput, T> writer) {
+        out.writeSize(list);
+        if (list != null) {
+            for (T element : list) {
+                writer.accept(out, element);
+            }
+        }
+    }
+
+    private static <T> List<T> readList(CompactInput in, Function<CompactInput, T> reader) {
+        int size = in.readSize();
+        if (size < 0) {
+            return null;
+        }
+        List<T> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(reader.apply(in));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,116 @@
+package com.toolrecommend.common.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 紧凑二进制读取器，与 CompactOutput 对应
+ *
+ * @author Tool Recommend Team
+ */
+public final class CompactInput {
+
+    private final byte[] buffer;
+
+    private int position;
+
+    private final int limit;
+
+    public CompactInput(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int readByte() {
+        if (position >= limit) {
+            throw new IllegalArgumentException("unexpected end of input");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    public long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+
+    public String readString() {
+        long length = readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        int size = checkedLength(length - 1);
+        String value = new String(buffer, position, size, StandardCharsets.UTF_8);
+        position += size;
+        return value;
+    }
+
+    public Integer readInt() {
+        long raw = readVarLong();
+        return raw == 0 ? null : (int) unZigZag(raw - 1);
+    }
+
+    public Long readLong() {
+        return readByte() == 0 ? null : unZigZag(readVarLong());
+    }
+
+    public Boolean readBoolean() {
+        int raw = readByte();
+        return raw == 0 ? null : raw == 2;
+    }
+
+    public BigDecimal readDecimal() {
+        int tag = readByte();
+        if (tag == 0) {
+            return null;
+        } else if (tag == 1) {
+            int scale = (int) unZigZag(readVarLong());
+            return new BigDecimal(BigInteger.valueOf(unZigZag(readVarLong())), scale);
+        }
+        return new BigDecimal(readString());
+    }
+
+    public LocalDate readDate() {
+        long raw = readVarLong();
+        return raw == 0 ? null : LocalDate.ofEpochDay(unZigZag(raw - 1));
+    }
+
+    public LocalDateTime readDateTime() {
+        if (readByte() == 0) {
+            return null;
+        }
+        long epochSecond = unZigZag(readVarLong());
+        int nano = (int) readVarLong();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    /**
+     * 读集合长度，null返回-1
+     */
+    public int readSize() {
+        long raw = readVarLong();
+        return raw == 0 ? -1 : checkedLength(raw - 1);
+    }
+
+    private int checkedLength(long length) {
+        if (length < 0 || length > limit - position) {
+            throw new IllegalArgumentException("length out of range: " + length);
+        }
+        return (int) length;
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,132 @@
+package com.toolrecommend.common.codec;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 紧凑二进制写入器
+ * 整数使用变长编码（有符号数先做ZigZag），可空字段以0表示null，非空值整体加1
+ *
+ * @author Tool Recommend Team
+ */
+public final class CompactOutput {
+
+    private byte[] buffer;
+
+    private int position;
+
+    public CompactOutput(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void writeByte(int value) {
+        ensure(1);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeBytes(byte[] bytes, int offset, int length) {
+        ensure(length);
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    public void writeVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    public void writeInt(Integer value) {
+        writeVarLong(value == null ? 0 : zigZag(value) + 1);
+    }
+
+    public void writeLong(Long value) {
+        if (value == null) {
+            writeByte(0);
+        } else {
+            writeByte(1);
+            writeVarLong(zigZag(value));
+        }
+    }
+
+    public void writeBoolean(Boolean value) {
+        writeByte(value == null ? 0 : (value ? 2 : 1));
+    }
+
+    /**
+     * 非标度值能放进long时写 [1, 标度, 非标度值]，否则写 [2, 字符串]
+     */
+    public void writeDecimal(BigDecimal value) {
+        if (value == null) {
+            writeByte(0);
+        } else if (value.unscaledValue().bitLength() < 64) {
+            writeByte(1);
+            writeVarLong(zigZag(value.scale()));
+            writeVarLong(zigZag(value.unscaledValue().longValue()));
+        } else {
+            writeByte(2);
+            writeString(value.toString());
+        }
+    }
+
+    public void writeDate(LocalDate value) {
+        writeVarLong(value == null ? 0 : zigZag(value.toEpochDay()) + 1);
+    }
+
+    public void writeDateTime(LocalDateTime value) {
+        if (value == null) {
+            writeByte(0);
+        } else {
+            writeByte(1);
+            writeVarLong(zigZag(value.toEpochSecond(ZoneOffset.UTC)));
+            writeVarLong(value.getNano());
+        }
+    }
+
+    /**
+     * 写集合长度，null写0
+     */
+    public void writeSize(Collection<?> collection) {
+        writeVarLong(collection == null ? 0 : collection.size() + 1L);
+    }
+
+    public int size() {
+        return position;
+    }
+
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensure(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
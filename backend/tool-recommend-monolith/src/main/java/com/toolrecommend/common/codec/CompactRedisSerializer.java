@@ -0,0 +1,136 @@
+package com.toolrecommend.common.codec;
+
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * 缓存VO的紧凑二进制Redis序列化器
+ * 支持的VO及其列表写为 [魔数, 字段布局版本, 标志位, 类型编号, 内容]，超过阈值的内容用LZ4压缩；
+ * 其余对象交给JSON序列化器。读取时按首字节区分二进制与JSON，切换编解码前写入的JSON缓存仍可读取
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    /**
+     * 首字节魔数，JSON文本不会以该字节开头
+     */
+    static final int MAGIC = 0xC7;
+
+    private static final int FLAG_LZ4 = 0x01;
+
+    private static final int HEADER_SIZE = 4;
+
+    private static final int MAX_BODY_SIZE = 64 * 1024 * 1024;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final RedisSerializer<Object> fallback;
+
+    private final int compressThreshold;
+
+    private final LZ4Compressor compressor = LZ4.fastCompressor();
+
+    private final LZ4SafeDecompressor decompressor = LZ4.safeDecompressor();
+
+    /**
+     * @param fallback          不支持的类型及旧数据使用的序列化器
+     * @param compressThreshold 内容超过该字节数时压缩，0表示不压缩
+     */
+    public CompactRedisSerializer(RedisSerializer<Object> fallback, int compressThreshold) {
+        this.fallback = fallback;
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        int type = CachedVOCodec.typeOf(value);
+        if (type == 0) {
+            return fallback.serialize(value);
+        }
+
+        CompactOutput body = new CompactOutput(512);
+        try {
+            CachedVOCodec.encode(body, type, value);
+        } catch (RuntimeException e) {
+            log.warn("二进制编码失败, 改用JSON: {}", e.getMessage());
+            return fallback.serialize(value);
+        }
+
+        if (compressThreshold > 0 && body.size() > compressThreshold) {
+            byte[] compressed = new byte[compressor.maxCompressedLength(body.size())];
+            int compressedLength = compressor.compress(body.buffer(), 0, body.size(), compressed, 0, compressed.length);
+            if (compressedLength < body.size()) {
+                CompactOutput out = new CompactOutput(HEADER_SIZE + 5 + compressedLength);
+                writeHeader(out, FLAG_LZ4, type);
+                out.writeVarLong(body.size());
+                out.writeBytes(compressed, 0, compressedLength);
+                return out.toByteArray();
+            }
+        }
+
+        CompactOutput out = new CompactOutput(HEADER_SIZE + body.size());
+        writeHeader(out, 0, type);
+        out.writeBytes(body.buffer(), 0, body.size());
+        return out.toByteArray();
+    }
+
+    /**
+     * 字段布局版本不一致或内容损坏时返回null，调用方按缓存未命中处理
+     */
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if ((bytes[0] & 0xFF) != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_SIZE || (bytes[1] & 0xFF) != CachedVOCodec.SCHEMA_VERSION) {
+            return null;
+        }
+        int flags = bytes[2] & 0xFF;
+        int type = bytes[3] & 0xFF;
+        try {
+            CompactInput in;
+            if ((flags & FLAG_LZ4) != 0) {
+                CompactInput lengthInput = new CompactInput(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+                long originalLength = lengthInput.readVarLong();
+                if (originalLength > MAX_BODY_SIZE) {
+                    return null;
+                }
+                int offset = HEADER_SIZE + varLongSize(originalLength);
+                byte[] body = new byte[(int) originalLength];
+                decompressor.decompress(bytes, offset, bytes.length - offset, body, 0, body.length);
+                in = new CompactInput(body, 0, body.length);
+            } else {
+                in = new CompactInput(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+            }
+            return CachedVOCodec.decode(in, type);
+        } catch (RuntimeException e) {
+            log.warn("二进制缓存解码失败, 按未命中处理: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeHeader(CompactOutput out, int flags, int type) {
+        out.writeByte(MAGIC);
+        out.writeByte(CachedVOCodec.SCHEMA_VERSION);
+        out.writeByte(flags);
+        out.writeByte(type);
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
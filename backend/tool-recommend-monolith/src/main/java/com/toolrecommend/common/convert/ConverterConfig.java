@@ -0,0 +1,17 @@
+package com.toolrecommend.common.convert;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * 对象转换器公共配置
+ * 转换代码由MapStruct在编译期生成（直接调用getter/setter），目标对象存在未映射字段时编译失败，
+ * 新增字段必须显式映射或声明忽略
+ *
+ * @author Tool Recommend Team
+ */
+@MapperConfig(componentModel = MappingConstants.ComponentModel.SPRING,
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface ConverterConfig {
+}
@@ -41,7 +41,7 @@ public class ToolQueryDTO implements Serializable {
     private Double minRating;
 
     /**
-     * 排序字段：view-浏览量 upvote-点赞数 rating-评分 launch-发布时间
+     * 排序字段：view-浏览量 upvote-点赞数 rating-评分 launch-发布时间 relevance-相关度（仅关键词搜索）
      */
     private String sortBy;
 
@@ -60,6 +60,11 @@ public class ToolQueryDTO implements Serializable {
      */
     private Long size;
 
+    /**
+     * 分页游标，非空时使用游标分页（空字符串表示第一页），此时忽略current
+     */
+    private String cursor;
+
     /**
      * 默认构造函数，设置默认值
      */
@@ -40,4 +40,10 @@ public class Tag {
      */
     @TableField(fill = FieldFill.INSERT)
     private LocalDateTime createdAt;
+
+    /**
+     * 所属工具ID（批量查询工具标签时使用，非表字段）
+     */
+    @TableField(exist = false)
+    private Long toolId;
 }
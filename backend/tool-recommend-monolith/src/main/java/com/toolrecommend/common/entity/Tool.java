@@ -138,4 +138,10 @@ public class Tool {
      */
     @TableField(fill = FieldFill.INSERT_UPDATE)
     private LocalDateTime updatedAt;
+
+    /**
+     * 评分总和（计算热度分时由 rating_stats 关联查询，非表字段）
+     */
+    @TableField(exist = false)
+    private Long ratingSum;
 }
@@ -45,6 +45,11 @@ public class UserAction {
      */
     private String source;
 
+    /**
+     * 行为日志事件键（日志ID:偏移），用于重放去重，直接写入的行为为空
+     */
+    private String eventKey;
+
     /**
      * 创建时间
      */
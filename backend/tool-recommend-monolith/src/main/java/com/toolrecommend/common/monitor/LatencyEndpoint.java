@@ -0,0 +1,28 @@
+package com.toolrecommend.common.monitor;
+
+import jakarta.annotation.Resource;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 请求耗时分解端点
+ * GET /actuator/latency 查看各接口总耗时及 auth/db/redis/ser/app 分段的百分位（毫秒）。
+ * 端点只读：/actuator/** 在认证白名单中，不提供清空统计等写操作
+ *
+ * @author Tool Recommend Team
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    @Resource
+    private LatencyRecorder latencyRecorder;
+
+    @ReadOperation
+    public Map<String, Object> latency() {
+        return latencyRecorder.snapshot();
+    }
+}
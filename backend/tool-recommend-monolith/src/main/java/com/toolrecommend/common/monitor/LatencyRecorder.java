@@ -0,0 +1,157 @@
+package com.toolrecommend.common.monitor;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按接口统计的请求耗时分布
+ * 每个接口的总耗时、业务耗时及各分段耗时分别写入HdrHistogram Recorder（写入无锁），
+ * 读取时把区间直方图累加到快照中，由 latency 端点输出百分位
+ *
+ * @author Tool Recommend Team
+ */
+@Component
+public class LatencyRecorder {
+
+    /**
+     * 可记录的最大耗时（微秒），超出按最大值记录
+     */
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private static final String TOTAL = "total";
+
+    private static final String APP = "app";
+
+    /**
+     * 输出顺序：总耗时、业务耗时、各分段
+     */
+    private static final List<String> METRICS = metrics();
+
+    /**
+     * 最多统计的接口数，超出后新接口不再记录
+     */
+    @Value("${monitor.request-timing.max-endpoints:500}")
+    private int maxEndpoints;
+
+    private final Map<String, EndpointLatency> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次请求
+     */
+    public void record(String endpoint, RequestTiming timing) {
+        EndpointLatency latency = endpoints.get(endpoint);
+        if (latency == null) {
+            if (endpoints.size() >= maxEndpoints) {
+                return;
+            }
+            latency = endpoints.computeIfAbsent(endpoint, key -> new EndpointLatency());
+        }
+        long total = timing.elapsedNanos();
+        latency.record(TOTAL, total);
+        latency.record(APP, timing.appNanos(total));
+        for (RequestTiming.Phase phase : RequestTiming.Phase.values()) {
+            if (timing.getCount(phase) > 0) {
+                latency.record(phase.getMetricName(), timing.getNanos(phase));
+            }
+        }
+    }
+
+    /**
+     * 各接口的耗时百分位（毫秒），按请求数降序
+     */
+    public Map<String, Object> snapshot() {
+        List<Map.Entry<String, EndpointLatency>> entries = new ArrayList<>(endpoints.entrySet());
+        List<Map.Entry<String, Map<String, Histogram>>> histograms = new ArrayList<>(entries.size());
+        for (Map.Entry<String, EndpointLatency> entry : entries) {
+            Map<String, Histogram> metrics = entry.getValue().accumulate();
+            if (metrics.containsKey(TOTAL)) {
+                histograms.add(Map.entry(entry.getKey(), metrics));
+            }
+        }
+        histograms.sort(Comparator.comparingLong(
+                (Map.Entry<String, Map<String, Histogram>> entry) -> entry.getValue().get(TOTAL).getTotalCount())
+                .reversed());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Histogram>> entry : histograms) {
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("count", entry.getValue().get(TOTAL).getTotalCount());
+            entry.getValue().forEach((metric, histogram) -> endpoint.put(metric, percentiles(histogram)));
+            result.put(entry.getKey(), endpoint);
+        }
+        return result;
+    }
+
+    private static List<String> metrics() {
+        List<String> metrics = new ArrayList<>();
+        metrics.add(TOTAL);
+        metrics.add(APP);
+        for (RequestTiming.Phase phase : RequestTiming.Phase.values()) {
+            metrics.add(phase.getMetricName());
+        }
+        return metrics;
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", histogram.getTotalCount());
+        values.put("mean", millis(histogram.getMean()));
+        values.put("p50", millis(histogram.getValueAtPercentile(50)));
+        values.put("p90", millis(histogram.getValueAtPercentile(90)));
+        values.put("p99", millis(histogram.getValueAtPercentile(99)));
+        values.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+        values.put("max", millis(histogram.getMaxValue()));
+        return values;
+    }
+
+    private static double millis(double micros) {
+        return Math.round(micros) / 1000D;
+    }
+
+    /**
+     * 单个接口的各项耗时直方图
+     */
+    private static final class EndpointLatency {
+
+        private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+        /**
+         * 已累加的历史直方图，只在读取时访问
+         */
+        private final Map<String, Histogram> accumulated = new LinkedHashMap<>();
+
+        void record(String metric, long nanos) {
+            Recorder recorder = recorders.computeIfAbsent(metric, key -> new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS));
+            recorder.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        }
+
+        /**
+         * 把各Recorder的区间直方图累加到历史直方图，返回按固定顺序排列的副本
+         */
+        synchronized Map<String, Histogram> accumulate() {
+            recorders.forEach((metric, recorder) -> accumulated
+                    .computeIfAbsent(metric, key -> new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS))
+                    .add(recorder.getIntervalHistogram()));
+            Map<String, Histogram> copy = new LinkedHashMap<>();
+            for (String metric : METRICS) {
+                Histogram histogram = accumulated.get(metric);
+                if (histogram != null) {
+                    copy.put(metric, histogram.copy());
+                }
+            }
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.toolrecommend.common.monitor;
+
+import java.util.Locale;
+
+/**
+ * 请求级耗时分解
+ * 由 RequestTimingFilter 在请求线程上开启，认证、SQL、Redis、响应序列化各自累加耗时；
+ * 未开启（功能关闭或不在HTTP请求线程上）时 current() 返回空，埋点只多一次ThreadLocal读取
+ *
+ * @author Tool Recommend Team
+ */
+public final class RequestTiming {
+
+    /**
+     * 耗时分段
+     */
+    public enum Phase {
+
+        AUTH("auth"),
+        DB("db"),
+        REDIS("redis"),
+        SERIALIZE("ser");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos;
+
+    private final long[] nanos = new long[PHASES.length];
+
+    private final int[] counts = new int[PHASES.length];
+
+    /**
+     * 各分段的嵌套深度，只有最外层调用计时（如RedisTemplate内部再次调用execute）
+     */
+    private final int[] depth = new int[PHASES.length];
+
+    private boolean headerWritten;
+
+    private RequestTiming(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 当前线程的耗时统计，未开启时为空
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 进入分段，返回开始时间；嵌套调用返回-1，由最外层统一计时
+     */
+    public long enter(Phase phase) {
+        if (depth[phase.ordinal()]++ > 0) {
+            return -1;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * 离开分段，start为 enter 的返回值
+     */
+    public void exit(Phase phase, long start) {
+        depth[phase.ordinal()]--;
+        if (start >= 0) {
+            add(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 累加一次已测得的分段耗时
+     */
+    public void add(Phase phase, long elapsedNanos) {
+        nanos[phase.ordinal()] += elapsedNanos;
+        counts[phase.ordinal()]++;
+    }
+
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    public int getCount(Phase phase) {
+        return counts[phase.ordinal()];
+    }
+
+    /**
+     * 请求开始至今的耗时
+     */
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * 除各分段外的耗时（业务代码、对象转换等CPU时间及其他等待）
+     */
+    public long appNanos(long totalNanos) {
+        long accounted = 0;
+        for (long phaseNanos : nanos) {
+            accounted += phaseNanos;
+        }
+        return Math.max(0, totalNanos - accounted);
+    }
+
+    /**
+     * 标记 Server-Timing 响应头已写出，返回是否为首次
+     */
+    boolean markHeaderWritten() {
+        if (headerWritten) {
+            return false;
+        }
+        headerWritten = true;
+        return true;
+    }
+
+    /**
+     * 生成 Server-Timing 响应头，如 auth;dur=0.120, db;dur=3.400;desc="5", ..., total;dur=9.870
+     */
+    public String serverTiming() {
+        long total = elapsedNanos();
+        StringBuilder header = new StringBuilder(128);
+        for (Phase phase : PHASES) {
+            int count = counts[phase.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            appendMetric(header, phase.getMetricName(), nanos[phase.ordinal()]);
+            header.append(";desc=\"").append(count).append('"');
+        }
+        appendMetric(header, "app", appNanos(total));
+        appendMetric(header, "total", total);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long metricNanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", metricNanos / 1_000_000D));
+    }
+}
@@ -0,0 +1,79 @@
+package com.toolrecommend.common.monitor;
+
+import jakarta.annotation.Resource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 请求耗时分解过滤器
+ * 位于认证过滤器之前，为每个请求开启 RequestTiming；响应体由 TimedJackson2HttpMessageConverter 写出时带上
+ * Server-Timing 响应头，其余响应在此处补写（响应未提交时）。请求结束后按接口记录各分段耗时分布
+ *
+ * @author Tool Recommend Team
+ */
+@Component
+@Order(-1)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final String UNMATCHED_URI = "UNMATCHED";
+
+    @Resource
+    private LatencyRecorder latencyRecorder;
+
+    /**
+     * 是否开启请求耗时分解，关闭后各埋点只做一次ThreadLocal读取
+     */
+    @Value("${monitor.request-timing.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 是否在响应中输出 Server-Timing 头
+     */
+    @Value("${monitor.request-timing.header-enabled:false}")
+    private boolean headerEnabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTiming.end();
+            if (headerEnabled && !response.isCommitted() && timing.markHeaderWritten()) {
+                response.setHeader(SERVER_TIMING_HEADER, timing.serverTiming());
+            }
+            latencyRecorder.record(request.getMethod() + " " + uriPattern(request), timing);
+        }
+    }
+
+    /**
+     * 使用匹配到的路由模板，未匹配到路由的请求（404、静态资源等）归为一类，避免统计项膨胀
+     */
+    private String uriPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? UNMATCHED_URI : pattern.toString();
+    }
+}
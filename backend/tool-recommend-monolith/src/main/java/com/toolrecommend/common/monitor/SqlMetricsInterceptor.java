@@ -0,0 +1,185 @@
+package com.toolrecommend.common.monitor;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL执行监控拦截器
+ * 拦截 StatementHandler 的查询和更新（即实际的JDBC执行，包含分页插件生成的count查询），
+ * 按映射语句ID记录耗时分布和返回/影响行数到Micrometer（actuator metrics 端点中的
+ * mybatis.statement 与 mybatis.statement.rows），超过阈值的语句连同绑定参数记录慢SQL日志，
+ * 并向当前请求的 SqlRequestContext 累加执行次数、向 RequestTiming 累加数据库耗时
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class})
+})
+public class SqlMetricsInterceptor implements Interceptor {
+
+    /**
+     * 慢SQL日志中单个参数值的最大长度
+     */
+    private static final int MAX_PARAMETER_LENGTH = 200;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 慢SQL阈值（毫秒）
+     */
+    @Value("${monitor.sql.slow-threshold:200}")
+    private long slowThresholdMillis;
+
+    /**
+     * 是否导出耗时百分位（p50/p95/p99）
+     */
+    @Value("${monitor.sql.percentiles-enabled:true}")
+    private boolean percentilesEnabled;
+
+    /**
+     * 每个映射语句的指标，语句ID数量有限，按需注册后复用
+     */
+    private final Map<String, StatementMeters> meters = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        Object result = invocation.proceed();
+        long elapsed = System.nanoTime() - start;
+
+        try {
+            record((StatementHandler) invocation.getTarget(), result, elapsed);
+        } catch (Exception e) {
+            log.debug("记录SQL指标失败: {}", e.getMessage());
+        }
+        return result;
+    }
+
+    private void record(StatementHandler handler, Object result, long elapsed) {
+        PluginUtils.MPStatementHandler statementHandler = PluginUtils.mpStatementHandler(handler);
+        MappedStatement mappedStatement = statementHandler.mappedStatement();
+        String statementId = mappedStatement.getId();
+        int rows = rows(result);
+
+        StatementMeters statementMeters = meters.computeIfAbsent(statementId,
+                id -> new StatementMeters(id, mappedStatement.getSqlCommandType().name()));
+        statementMeters.timer.record(elapsed, TimeUnit.NANOSECONDS);
+        statementMeters.rows.record(rows);
+
+        SqlRequestContext context = SqlRequestContext.current();
+        if (context != null) {
+            context.record(statementId, elapsed);
+        }
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.add(RequestTiming.Phase.DB, elapsed);
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        if (slowThresholdMillis > 0 && elapsedMillis >= slowThresholdMillis) {
+            BoundSql boundSql = statementHandler.boundSql();
+            log.warn("慢SQL: {}ms, statement={}, rows={}, sql={}, params={}", elapsedMillis, statementId, rows,
+                    compact(boundSql.getSql()), parameters(statementHandler.configuration(), boundSql));
+        }
+    }
+
+    private int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Integer count) {
+            return count;
+        }
+        return 0;
+    }
+
+    /**
+     * 按 DefaultParameterHandler 的取值规则还原绑定参数
+     */
+    private List<Object> parameters(Configuration configuration, BoundSql boundSql) {
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        List<Object> values = new ArrayList<>(mappings.size());
+        Object parameterObject = boundSql.getParameterObject();
+        for (ParameterMapping mapping : mappings) {
+            if (mapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String property = mapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameterObject == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+                value = parameterObject;
+            } else {
+                value = configuration.newMetaObject(parameterObject).getValue(property);
+            }
+            values.add(truncate(value));
+        }
+        return values;
+    }
+
+    private Object truncate(Object value) {
+        if (value instanceof String text && text.length() > MAX_PARAMETER_LENGTH) {
+            return text.substring(0, MAX_PARAMETER_LENGTH) + "...(" + text.length() + ")";
+        }
+        return value;
+    }
+
+    private static String compact(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+
+    private final class StatementMeters {
+
+        private final Timer timer;
+
+        private final DistributionSummary rows;
+
+        StatementMeters(String statementId, String command) {
+            Timer.Builder timerBuilder = Timer.builder("mybatis.statement")
+                    .description("MyBatis映射语句执行耗时")
+                    .tag("statement", statementId)
+                    .tag("command", command);
+            if (percentilesEnabled) {
+                timerBuilder.publishPercentiles(0.5, 0.95, 0.99);
+            }
+            this.timer = timerBuilder.register(meterRegistry);
+            this.rows = DistributionSummary.builder("mybatis.statement.rows")
+                    .description("MyBatis映射语句返回或影响的行数")
+                    .tag("statement", statementId)
+                    .tag("command", command)
+                    .register(meterRegistry);
+        }
+    }
+}
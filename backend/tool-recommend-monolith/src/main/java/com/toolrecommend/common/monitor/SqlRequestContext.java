@@ -0,0 +1,75 @@
+package com.toolrecommend.common.monitor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 单个HTTP请求内的SQL执行统计
+ * 由 SqlRequestFilter 在请求线程上开启和结束，SqlMetricsInterceptor 在同一线程上累加；
+ * 请求线程之外（定时任务、异步落库等）执行的SQL不计入
+ *
+ * @author Tool Recommend Team
+ */
+public final class SqlRequestContext {
+
+    private static final ThreadLocal<SqlRequestContext> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 各语句ID的执行次数
+     */
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+
+    private int totalStatements;
+
+    private long totalNanos;
+
+    private SqlRequestContext() {
+    }
+
+    /**
+     * 在当前线程开启统计
+     */
+    static SqlRequestContext begin() {
+        SqlRequestContext context = new SqlRequestContext();
+        CURRENT.set(context);
+        return context;
+    }
+
+    /**
+     * 结束当前线程的统计
+     */
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 当前线程的统计，不在HTTP请求内时为空
+     */
+    public static SqlRequestContext current() {
+        return CURRENT.get();
+    }
+
+    void record(String statementId, long nanos) {
+        statementCounts.merge(statementId, 1, Integer::sum);
+        totalStatements++;
+        totalNanos += nanos;
+    }
+
+    Map<String, Integer> getStatementCounts() {
+        return statementCounts;
+    }
+
+    /**
+     * 本次请求执行的SQL条数
+     */
+    public int getTotalStatements() {
+        return totalStatements;
+    }
+
+    /**
+     * 本次请求SQL执行总耗时（纳秒）
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+}
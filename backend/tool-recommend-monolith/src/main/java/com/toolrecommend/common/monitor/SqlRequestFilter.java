@@ -0,0 +1,91 @@
+package com.toolrecommend.common.monitor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Resource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 请求级SQL统计过滤器
+ * 为每个请求开启 SqlRequestContext，请求结束时按接口路径记录SQL条数（mybatis.request.statements），
+ * 同一语句ID在一次请求中执行超过阈值时判定为N+1查询，记录告警日志和 mybatis.request.repeated 计数
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+@Order(0)
+public class SqlRequestFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 同一语句在一次请求中的最大执行次数，超过视为N+1查询，0表示不检测
+     */
+    @Value("${monitor.sql.repeat-threshold:10}")
+    private int repeatThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlRequestContext context = SqlRequestContext.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlRequestContext.end();
+            report(request, context);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlRequestContext context) {
+        String uri = uriPattern(request);
+        DistributionSummary.builder("mybatis.request.statements")
+                .description("单个HTTP请求执行的SQL条数")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(context.getTotalStatements());
+
+        if (repeatThreshold <= 0) {
+            return;
+        }
+        for (Map.Entry<String, Integer> entry : context.getStatementCounts().entrySet()) {
+            if (entry.getValue() > repeatThreshold) {
+                log.warn("疑似N+1查询: {} {} 中语句 {} 执行了 {} 次（本次请求共 {} 条SQL）",
+                        request.getMethod(), request.getRequestURI(), entry.getKey(), entry.getValue(),
+                        context.getTotalStatements());
+                Counter.builder("mybatis.request.repeated")
+                        .description("同一语句在单个请求中重复执行超过阈值的次数")
+                        .tag("statement", entry.getKey())
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .increment();
+            }
+        }
+    }
+
+    /**
+     * 使用匹配到的路由模板作为标签，避免路径参数导致标签基数膨胀
+     */
+    private String uriPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? UNKNOWN_URI : pattern.toString();
+    }
+}
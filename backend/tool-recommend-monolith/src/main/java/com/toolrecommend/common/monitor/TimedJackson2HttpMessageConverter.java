@@ -0,0 +1,73 @@
+package com.toolrecommend.common.monitor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * 记录响应序列化耗时的JSON转换器
+ * 开启 Server-Timing 响应头时，请求内首次写出响应体先序列化到缓冲区计时，再写入响应头和Content-Length，最后输出响应体，
+ * 使响应头能包含序列化在内的完整分解；未开启响应头时直接写出并计时（含写入响应缓冲区的时间），不额外复制响应体。
+ * 其余情况（未开启计时、SSE后续事件等）直接透传
+ *
+ * @author Tool Recommend Team
+ */
+public class TimedJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final boolean headerEnabled;
+
+    public TimedJackson2HttpMessageConverter(ObjectMapper objectMapper, boolean headerEnabled) {
+        super(objectMapper);
+        this.headerEnabled = headerEnabled;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null || !timing.markHeaderWritten()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        if (!headerEnabled) {
+            long start = System.nanoTime();
+            super.writeInternal(object, type, outputMessage);
+            timing.add(RequestTiming.Phase.SERIALIZE, System.nanoTime() - start);
+            return;
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        long start = System.nanoTime();
+        super.writeInternal(object, type, new BufferedOutputMessage(outputMessage.getHeaders(), buffer));
+        timing.add(RequestTiming.Phase.SERIALIZE, System.nanoTime() - start);
+
+        HttpHeaders headers = outputMessage.getHeaders();
+        try {
+            headers.set(RequestTimingFilter.SERVER_TIMING_HEADER, timing.serverTiming());
+            headers.setContentLength(buffer.size());
+        } catch (UnsupportedOperationException e) {
+            // 响应头已写出（只读），只输出响应体
+        }
+        buffer.writeTo(outputMessage.getBody());
+    }
+
+    private record BufferedOutputMessage(HttpHeaders headers, OutputStream body) implements HttpOutputMessage {
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
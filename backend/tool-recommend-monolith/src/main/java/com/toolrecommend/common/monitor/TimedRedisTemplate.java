@@ -0,0 +1,27 @@
+package com.toolrecommend.common.monitor;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * 记录请求内Redis耗时的RedisTemplate
+ * opsForXxx、管道、脚本最终都经过 execute(RedisCallback, boolean, boolean)，在此处计入 RequestTiming
+ *
+ * @author Tool Recommend Team
+ */
+public class TimedRedisTemplate<K, V> extends RedisTemplate<K, V> {
+
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return super.execute(action, exposeConnection, pipeline);
+        }
+        long start = timing.enter(RequestTiming.Phase.REDIS);
+        try {
+            return super.execute(action, exposeConnection, pipeline);
+        } finally {
+            timing.exit(RequestTiming.Phase.REDIS, start);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.toolrecommend.common.monitor;
+
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 记录请求内Redis耗时的StringRedisTemplate，计时方式同 TimedRedisTemplate
+ *
+ * @author Tool Recommend Team
+ */
+public class TimedStringRedisTemplate extends StringRedisTemplate {
+
+    public TimedStringRedisTemplate(RedisConnectionFactory connectionFactory) {
+        super(connectionFactory);
+    }
+
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return super.execute(action, exposeConnection, pipeline);
+        }
+        long start = timing.enter(RequestTiming.Phase.REDIS);
+        try {
+            return super.execute(action, exposeConnection, pipeline);
+        } finally {
+            timing.exit(RequestTiming.Phase.REDIS, start);
+        }
+    }
+}
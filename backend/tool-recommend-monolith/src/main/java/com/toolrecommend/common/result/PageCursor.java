@@ -0,0 +1,106 @@
+package com.toolrecommend.common.result;
+
+import com.toolrecommend.common.exception.BusinessException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 游标分页的游标
+ * 编码上一页最后一行的排序键和ID，客户端只需原样回传。
+ * scope标识游标所属的列表及排序方式，换了排序方式的旧游标会被拒绝
+ *
+ * @author Tool Recommend Team
+ */
+public final class PageCursor {
+
+    private static final String SEPARATOR = ",";
+
+    private final List<String> sortKeys;
+
+    private final Long id;
+
+    private PageCursor(List<String> sortKeys, Long id) {
+        this.sortKeys = sortKeys;
+        this.id = id;
+    }
+
+    /**
+     * 生成游标
+     *
+     * @param scope    列表及排序标识
+     * @param id       最后一行的ID
+     * @param sortKeys 最后一行的排序键，按排序优先级排列
+     */
+    public static String encode(String scope, Long id, Object... sortKeys) {
+        StringBuilder raw = new StringBuilder(scope);
+        for (Object key : sortKeys) {
+            raw.append(SEPARATOR).append(key);
+        }
+        raw.append(SEPARATOR).append(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，空字符串表示第一页，返回null
+     *
+     * @param cursor        客户端回传的游标
+     * @param expectedScope 期望的列表及排序标识
+     * @param keyCount      排序键个数
+     */
+    public static PageCursor decode(String cursor, String expectedScope, int keyCount) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != keyCount + 2 || !parts[0].equals(expectedScope)) {
+                throw invalid();
+            }
+            List<String> keys = new ArrayList<>(Arrays.asList(parts).subList(1, parts.length - 1));
+            return new PageCursor(keys, Long.valueOf(parts[parts.length - 1]));
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Integer intKey(int index) {
+        return parse(() -> Integer.valueOf(sortKeys.get(index)));
+    }
+
+    public BigDecimal decimalKey(int index) {
+        return parse(() -> new BigDecimal(sortKeys.get(index)));
+    }
+
+    public LocalDate dateKey(int index) {
+        return parse(() -> LocalDate.parse(sortKeys.get(index)));
+    }
+
+    public LocalDateTime dateTimeKey(int index) {
+        return parse(() -> LocalDateTime.parse(sortKeys.get(index)));
+    }
+
+    private static <T> T parse(Supplier<T> parser) {
+        try {
+            return parser.get();
+        } catch (RuntimeException e) {
+            throw invalid();
+        }
+    }
+
+    private static BusinessException invalid() {
+        return new BusinessException(400, "无效的分页游标");
+    }
+}
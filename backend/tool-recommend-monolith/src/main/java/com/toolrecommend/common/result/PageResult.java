@@ -50,6 +50,11 @@ public class PageResult<T> implements Serializable {
      */
     private Boolean hasPrevious;
 
+    /**
+     * 下一页游标（游标分页模式），为空表示没有更多数据
+     */
+    private String nextCursor;
+
     public PageResult() {
     }
 
@@ -69,4 +74,17 @@ public class PageResult<T> implements Serializable {
     public static <T> PageResult<T> of(List<T> records, Long total, Long current, Long size) {
         return new PageResult<>(records, total, current, size);
     }
+
+    /**
+     * 创建游标分页结果，total为空表示未统计总数
+     */
+    public static <T> PageResult<T> ofCursor(List<T> records, Long size, String nextCursor, Long total) {
+        PageResult<T> result = new PageResult<>();
+        result.setRecords(records);
+        result.setSize(size);
+        result.setTotal(total);
+        result.setNextCursor(nextCursor);
+        result.setHasNext(nextCursor != null);
+        return result;
+    }
 }
@@ -0,0 +1,44 @@
+package com.toolrecommend.common.util;
+
+import lombok.Getter;
+
+/**
+ * 已验签的JWT声明
+ * 一次解析得到认证所需的全部字段，避免逐个字段重复解析Token
+ *
+ * @author Tool Recommend Team
+ */
+@Getter
+public class JwtClaims {
+
+    private final Long userId;
+
+    private final String username;
+
+    private final String role;
+
+    /**
+     * Token类型，刷新Token为refresh，访问Token为空
+     */
+    private final String type;
+
+    /**
+     * 过期时间（毫秒时间戳）
+     */
+    private final long expiresAt;
+
+    public JwtClaims(Long userId, String username, String role, String type, long expiresAt) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.type = type;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * 是否已过期
+     */
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
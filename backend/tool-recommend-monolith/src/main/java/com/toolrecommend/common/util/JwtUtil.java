@@ -1,6 +1,7 @@
 package com.toolrecommend.common.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -34,10 +35,22 @@ public class JwtUtil {
     private static final long REFRESH_EXPIRATION_TIME = 30 * 24 * 60 * 60 * 1000;
 
     /**
-     * 生成密钥
+     * 签名密钥，只构建一次
+     */
+    private static final SecretKey SIGNING_KEY = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * 解析器线程安全，只构建一次
+     */
+    private static final JwtParser PARSER = Jwts.parser()
+            .verifyWith(SIGNING_KEY)
+            .build();
+
+    /**
+     * 获取密钥
      */
     private static SecretKey getSecretKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+        return SIGNING_KEY;
     }
 
     /**
@@ -80,11 +93,22 @@ public class JwtUtil {
      * 解析Token
      */
     public static Claims parseToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSecretKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return PARSER.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * 验签并一次性提取认证所需字段，Token无效或已过期时抛出JwtException
+     */
+    public static JwtClaims parseClaims(String token) {
+        Claims claims = parseToken(token);
+        Date expiration = claims.getExpiration();
+        return new JwtClaims(
+                claims.get("userId", Long.class),
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.get("type", String.class),
+                expiration == null ? Long.MAX_VALUE : expiration.getTime()
+        );
     }
 
     /**
@@ -128,8 +152,9 @@ public class JwtUtil {
      */
     public static boolean validateToken(String token) {
         try {
+            // 解析时已校验签名和过期时间，过期会抛出ExpiredJwtException
             parseToken(token);
-            return !isTokenExpired(token);
+            return true;
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,81 @@
+package com.toolrecommend.common.vo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * AI聊天流式事件VO（SSE的data部分）
+ *
+ * @author Tool Recommend Team
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChatStreamEventVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String QUEUED = "queued";
+
+    public static final String START = "start";
+
+    public static final String TEXT = "text";
+
+    public static final String DONE = "done";
+
+    public static final String ERROR = "error";
+
+    /**
+     * 事件类型：queued-排队中 start-开始生成 text-回复片段 done-结束 error-出错
+     */
+    private String type;
+
+    /**
+     * 会话ID
+     */
+    private String sessionId;
+
+    /**
+     * 回复片段或错误信息
+     */
+    private String content;
+
+    /**
+     * 排队位置（queued事件）
+     */
+    private Integer position;
+
+    /**
+     * 识别的意图（start、done事件）
+     */
+    private String intent;
+
+    /**
+     * 推荐的工具列表（start事件）
+     */
+    private List<ToolVO> tools;
+
+    /**
+     * 错误码（error事件）
+     */
+    private Integer code;
+
+    /**
+     * Token消耗（done事件）
+     */
+    private Integer tokensUsed;
+
+    /**
+     * 响应时间（毫秒，done事件）
+     */
+    private Long responseTime;
+
+    public static ChatStreamEventVO of(String type, String sessionId) {
+        ChatStreamEventVO event = new ChatStreamEventVO();
+        event.setType(type);
+        event.setSessionId(sessionId);
+        return event;
+    }
+}
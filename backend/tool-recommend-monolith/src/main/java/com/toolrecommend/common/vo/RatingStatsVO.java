@@ -2,6 +2,7 @@ package com.toolrecommend.common.vo;
 
 import lombok.Data;
 import java.math.BigDecimal;
+import java.util.Map;
 
 /**
  * 评分统计VO
@@ -19,6 +20,11 @@ public class RatingStatsVO {
      */
     private Integer ratingCount;
 
+    /**
+     * 评分分布（分值 -> 人数，5分在前）
+     */
+    private Map<Integer, Integer> distribution;
+
     /**
      * 当前用户的评分(如果已登录且已评分)
      */
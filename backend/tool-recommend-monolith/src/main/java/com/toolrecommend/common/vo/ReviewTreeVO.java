@@ -88,6 +88,16 @@ public class ReviewTreeVO {
      */
     private List<ReviewTreeVO> replies;
 
+    /**
+     * 是否还有未返回的回复（按回复数上限截断时为true）
+     */
+    private Boolean hasMoreReplies;
+
+    /**
+     * 剩余回复的游标，传给回复列表接口的cursor参数继续获取
+     */
+    private String replyCursor;
+
     /**
      * 当前用户是否点了有帮助
      */
@@ -113,6 +113,11 @@ public class ToolDetailVO implements Serializable {
      */
     private BigDecimal averageRating;
 
+    /**
+     * 评分统计（平均分、人数、分布）
+     */
+    private RatingStatsVO ratingStats;
+
     /**
      * 标签列表
      */
@@ -0,0 +1,40 @@
+package com.toolrecommend.common.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 用户与工具关系视图对象（收藏、点赞状态）
+ *
+ * @author Tool Recommend Team
+ */
+@Data
+public class ToolRelationVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 工具ID
+     */
+    private Long toolId;
+
+    /**
+     * 是否已收藏
+     */
+    private Boolean isFavorited;
+
+    /**
+     * 是否已点赞
+     */
+    private Boolean isUpvoted;
+
+    public ToolRelationVO() {
+    }
+
+    public ToolRelationVO(Long toolId, Boolean isFavorited, Boolean isUpvoted) {
+        this.toolId = toolId;
+        this.isFavorited = isFavorited;
+        this.isUpvoted = isUpvoted;
+    }
+}
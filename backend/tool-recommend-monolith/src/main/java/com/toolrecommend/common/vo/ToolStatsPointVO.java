@@ -0,0 +1,42 @@
+package com.toolrecommend.common.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 工具统计时间点VO
+ *
+ * @author Tool Recommend Team
+ */
+@Data
+public class ToolStatsPointVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 时间段起点（小时粒度为整点，天粒度为零点）
+     */
+    private LocalDateTime time;
+
+    /**
+     * 浏览量
+     */
+    private Long views;
+
+    /**
+     * 点赞净增量
+     */
+    private Long upvotes;
+
+    /**
+     * 收藏净增量
+     */
+    private Long favorites;
+
+    /**
+     * 评分人数净增量
+     */
+    private Long ratings;
+}
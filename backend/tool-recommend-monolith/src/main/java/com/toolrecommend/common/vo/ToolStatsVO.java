@@ -0,0 +1,45 @@
+package com.toolrecommend.common.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 工具统计VO（制作者看板）
+ *
+ * @author Tool Recommend Team
+ */
+@Data
+public class ToolStatsVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long toolId;
+
+    /**
+     * 统计范围，如 24h、7d、30d、365d
+     */
+    private String range;
+
+    /**
+     * 时间粒度：hour 或 day
+     */
+    private String granularity;
+
+    /**
+     * 各时间段数据，按时间升序
+     */
+    private List<ToolStatsPointVO> points;
+
+    /**
+     * 范围内合计
+     */
+    private ToolStatsPointVO totals;
+
+    /**
+     * 月增长率（近30天活跃度相对前30天的变化比例）
+     */
+    private BigDecimal monthlyGrowthRate;
+}
@@ -0,0 +1,120 @@
+package com.toolrecommend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.NoSuchElementException;
+
+/**
+ * 已认证请求包装
+ * 向下游暴露 X-User-Id、Username、User-Role 请求头，兼容使用@RequestHeader的Controller。
+ * 头名列表按需拼接，不复制原始请求头
+ *
+ * @author Tool Recommend Team
+ */
+public class AuthenticatedRequest extends HttpServletRequestWrapper {
+
+    static final String USER_ID_HEADER = "X-User-Id";
+    static final String USERNAME_HEADER = "Username";
+    static final String ROLE_HEADER = "User-Role";
+
+    private static final String[] INJECTED_HEADERS = {USER_ID_HEADER, USERNAME_HEADER, ROLE_HEADER};
+
+    private final String userId;
+
+    private final String username;
+
+    private final String role;
+
+    public AuthenticatedRequest(HttpServletRequest request, Long userId, String username, String role) {
+        super(request);
+        this.userId = String.valueOf(userId);
+        this.username = username;
+        this.role = role;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        if (USER_ID_HEADER.equalsIgnoreCase(name)) {
+            return userId;
+        } else if (USERNAME_HEADER.equalsIgnoreCase(name)) {
+            return username;
+        } else if (ROLE_HEADER.equalsIgnoreCase(name)) {
+            return role;
+        }
+        return super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        if (USER_ID_HEADER.equalsIgnoreCase(name)) {
+            return Collections.enumeration(Collections.singletonList(userId));
+        } else if (USERNAME_HEADER.equalsIgnoreCase(name)) {
+            return Collections.enumeration(Collections.singletonList(username));
+        } else if (ROLE_HEADER.equalsIgnoreCase(name)) {
+            return Collections.enumeration(Collections.singletonList(role));
+        }
+        return super.getHeaders(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return new HeaderNames(super.getHeaderNames());
+    }
+
+    private static boolean isInjected(String name) {
+        for (String injected : INJECTED_HEADERS) {
+            if (injected.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 先返回注入的头名，再返回原始头名（跳过与注入头重名的项）
+     */
+    private static final class HeaderNames implements Enumeration<String> {
+
+        private final Enumeration<String> original;
+
+        private int injectedIndex;
+
+        private String next;
+
+        HeaderNames(Enumeration<String> original) {
+            this.original = original;
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+            if (next != null) {
+                return true;
+            }
+            if (injectedIndex < INJECTED_HEADERS.length) {
+                next = INJECTED_HEADERS[injectedIndex++];
+                return true;
+            }
+            while (original != null && original.hasMoreElements()) {
+                String name = original.nextElement();
+                if (!isInjected(name)) {
+                    next = name;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String nextElement() {
+            if (!hasMoreElements()) {
+                throw new NoSuchElementException();
+            }
+            String result = next;
+            next = null;
+            return result;
+        }
+    }
+}
@@ -51,7 +51,8 @@ public class CorsConfig {
                 "Content-Type",
                 "X-User-Id",
                 "User-Id",
-                "Username"
+                "Username",
+                "Server-Timing"
         ));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -1,12 +1,15 @@
 package com.toolrecommend.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toolrecommend.common.monitor.RequestTiming;
 import com.toolrecommend.common.result.Result;
-import com.toolrecommend.common.util.JwtUtil;
+import com.toolrecommend.common.util.JwtClaims;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,8 +19,10 @@ import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * JWT认证过滤器
@@ -30,12 +35,62 @@ import java.util.List;
 @Order(1)
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Set<String> ADMIN_ROLES = Set.of("ADMIN", "SUPER_ADMIN");
+
     @Value("${auth.whitelist}")
     private String whitelistStr;
 
+    /**
+     * 仅管理员可访问的路径，优先于白名单
+     */
+    @Value("${auth.admin-paths:}")
+    private String adminPathsStr;
+
+    @Resource
+    private VerifiedTokenCache verifiedTokenCache;
+
     private final AntPathMatcher pathMatcher = new AntPathMatcher();
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * 白名单中的精确路径
+     */
+    private Set<String> exactWhitelist;
+
+    /**
+     * 白名单中的通配符路径
+     */
+    private List<String> patternWhitelist;
+
+    /**
+     * 仅管理员可访问的路径（支持通配符）
+     */
+    private List<String> adminPaths;
+
+    @PostConstruct
+    public void init() {
+        exactWhitelist = new HashSet<>();
+        patternWhitelist = new ArrayList<>();
+        for (String entry : whitelistStr.split(",")) {
+            String pattern = entry.trim();
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            if (pathMatcher.isPattern(pattern)) {
+                patternWhitelist.add(pattern);
+            } else {
+                exactWhitelist.add(pattern);
+            }
+        }
+        adminPaths = new ArrayList<>();
+        for (String entry : adminPathsStr.split(",")) {
+            String pattern = entry.trim();
+            if (!pattern.isEmpty()) {
+                adminPaths.add(pattern);
+            }
+        }
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -43,27 +98,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String path = request.getRequestURI();
         String method = request.getMethod();
 
-        log.info("========== JWT认证过滤器 ==========");
-        log.info("请求: {} {}", method, path);
-
         // OPTIONS请求直接放行(CORS预检)
         if ("OPTIONS".equalsIgnoreCase(method)) {
-            log.info("OPTIONS请求,直接放行");
             filterChain.doFilter(request, response);
             return;
         }
 
-        // 检查是否在白名单中
-        if (isWhitelisted(path)) {
-            log.info("白名单路径，跳过认证: {}", path);
+        // 检查是否在白名单中（管理员路径即使落在白名单通配符内也需要认证）
+        boolean adminOnly = isAdminPath(path);
+        if (!adminOnly && isWhitelisted(path)) {
+            log.debug("白名单路径，跳过认证: {} {}", method, path);
             filterChain.doFilter(request, response);
             return;
         }
 
         // 获取Token
-        String authHeader = request.getHeader("Authorization");
-        log.info("Authorization Header: {}", authHeader);
-
         String token = extractToken(request);
         if (token == null) {
             log.warn("缺少Token: {}", path);
@@ -71,95 +120,67 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        log.info("提取的Token: {}", token.substring(0, Math.min(20, token.length())) + "...");
-
-        // 验证Token
+        // 验证Token（同一Token有效期内只验签一次）
+        JwtClaims claims;
+        RequestTiming timing = RequestTiming.current();
+        long start = timing == null ? -1 : timing.enter(RequestTiming.Phase.AUTH);
         try {
-            log.info("开始验证Token...");
-            if (!JwtUtil.validateToken(token)) {
-                log.warn("Token验证失败: Token无效或已过期");
-                sendUnauthorized(response, "Token无效或已过期");
-                return;
+            claims = verifiedTokenCache.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Token验证失败: {}", e.getMessage());
+            sendUnauthorized(response, "Token无效或已过期");
+            return;
+        } finally {
+            if (timing != null) {
+                timing.exit(RequestTiming.Phase.AUTH, start);
             }
+        }
+
+        Long userId = claims.getUserId();
+        String username = claims.getUsername();
+        String role = claims.getRole();
+        log.debug("用户认证成功: userId={}, username={}, role={}, path={}", userId, username, role, path);
 
-            // 从Token中提取用户信息
-            Long userId = JwtUtil.getUserIdFromToken(token);
-            String username = JwtUtil.getUsernameFromToken(token);
-            String role = JwtUtil.getRoleFromToken(token);
-
-            log.info("用户认证成功: userId={}, username={}, role={}", userId, username, role);
-
-            // 将用户信息添加到请求属性，供后续使用
-            request.setAttribute("userId", userId);
-            request.setAttribute("username", username);
-            request.setAttribute("userRole", role);
-
-            // 同时将用户信息添加到请求头，兼容使用@RequestHeader的Controller
-            // 注意: 不能直接修改HttpServletRequest的header,需要使用wrapper
-            HttpServletRequestWrapper requestWrapper = new HttpServletRequestWrapper(request) {
-                @Override
-                public String getHeader(String name) {
-                    log.info("🔍 Wrapper.getHeader被调用: name={}", name);
-                    if ("X-User-Id".equalsIgnoreCase(name)) {
-                        log.info("✅ 返回X-User-Id: {}", userId);
-                        return String.valueOf(userId);
-                    } else if ("Username".equalsIgnoreCase(name)) {
-                        log.info("✅ 返回Username: {}", username);
-                        return username;
-                    } else if ("User-Role".equalsIgnoreCase(name)) {
-                        log.info("✅ 返回User-Role: {}", role);
-                        return role;
-                    }
-                    String originalValue = super.getHeader(name);
-                    log.info("📋 返回原始header: {}={}", name, originalValue);
-                    return originalValue;
-                }
-
-                @Override
-                public java.util.Enumeration<String> getHeaders(String name) {
-                    log.info("🔍 Wrapper.getHeaders被调用: name={}", name);
-                    if ("X-User-Id".equalsIgnoreCase(name)) {
-                        return java.util.Collections.enumeration(java.util.Collections.singletonList(String.valueOf(userId)));
-                    } else if ("Username".equalsIgnoreCase(name)) {
-                        return java.util.Collections.enumeration(java.util.Collections.singletonList(username));
-                    } else if ("User-Role".equalsIgnoreCase(name)) {
-                        return java.util.Collections.enumeration(java.util.Collections.singletonList(role));
-                    }
-                    return super.getHeaders(name);
-                }
-
-                @Override
-                public java.util.Enumeration<String> getHeaderNames() {
-                    log.info("🔍 Wrapper.getHeaderNames被调用");
-                    java.util.Set<String> headerNames = new java.util.HashSet<>();
-                    java.util.Enumeration<String> originalNames = super.getHeaderNames();
-                    while (originalNames.hasMoreElements()) {
-                        headerNames.add(originalNames.nextElement());
-                    }
-                    headerNames.add("X-User-Id");
-                    headerNames.add("Username");
-                    headerNames.add("User-Role");
-                    return java.util.Collections.enumeration(headerNames);
-                }
-            };
-
-            log.info("🔄 传递requestWrapper到filter chain");
-            filterChain.doFilter(requestWrapper, response);
-
-        } catch (Exception e) {
-            log.error("Token验证异常: {}, 异常类型: {}", e.getMessage(), e.getClass().getSimpleName(), e);
-            sendUnauthorized(response, "Token验证失败: " + e.getMessage());
+        if (adminOnly && !ADMIN_ROLES.contains(role)) {
+            log.warn("非管理员访问管理路径: userId={}, path={}", userId, path);
+            sendError(response, HttpServletResponse.SC_FORBIDDEN, "无权限访问");
+            return;
         }
+
+        // 将用户信息添加到请求属性，供后续使用
+        request.setAttribute("userId", userId);
+        request.setAttribute("username", username);
+        request.setAttribute("userRole", role);
+
+        // 同时将用户信息添加到请求头，兼容使用@RequestHeader的Controller
+        filterChain.doFilter(new AuthenticatedRequest(request, userId, username, role), response);
     }
 
     /**
      * 检查路径是否在白名单中
      */
     private boolean isWhitelisted(String path) {
-        List<String> whitelist = Arrays.asList(whitelistStr.split(","));
-        return whitelist.stream()
-                .map(String::trim)
-                .anyMatch(pattern -> pathMatcher.match(pattern, path));
+        if (exactWhitelist.contains(path)) {
+            return true;
+        }
+        for (String pattern : patternWhitelist) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 检查路径是否仅限管理员访问
+     */
+    private boolean isAdminPath(String path) {
+        for (String pattern : adminPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -177,10 +198,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * 返回未授权响应
      */
     private void sendUnauthorized(HttpServletResponse response, String message) throws IOException {
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        sendError(response, HttpServletResponse.SC_UNAUTHORIZED, message);
+    }
+
+    /**
+     * 返回错误响应，业务码与HTTP状态码一致
+     */
+    private void sendError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
         response.setContentType("application/json;charset=UTF-8");
 
-        Result<Void> result = Result.error(401, message);
+        Result<Void> result = Result.error(status, message);
         String json = objectMapper.writeValueAsString(result);
         response.getWriter().write(json);
     }
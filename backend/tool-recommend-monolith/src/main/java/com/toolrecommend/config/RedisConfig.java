@@ -11,10 +11,16 @@ import com.fasterxml.jackson.datatype.jsr310.deser.LocalTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalTimeSerializer;
+import com.toolrecommend.common.codec.CompactRedisSerializer;
+import com.toolrecommend.common.monitor.TimedRedisTemplate;
+import com.toolrecommend.common.monitor.TimedStringRedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -31,9 +37,21 @@ import java.time.format.DateTimeFormatter;
 @Configuration
 public class RedisConfig {
 
+    /**
+     * 值的编解码方式：json 带类型信息的JSON，binary 缓存VO使用紧凑二进制（其余对象仍为JSON）
+     */
+    @Value("${cache.redis.codec:json}")
+    private String codec;
+
+    /**
+     * 二进制内容超过该字节数时使用LZ4压缩，0表示不压缩
+     */
+    @Value("${cache.redis.compress-threshold:1024}")
+    private int compressThreshold;
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory) {
-        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        RedisTemplate<String, Object> template = new TimedRedisTemplate<>();
         template.setConnectionFactory(factory);
 
         // 使用Jackson2JsonRedisSerializer来序列化和反序列化redis的value值
@@ -64,12 +82,34 @@ public class RedisConfig {
         template.setKeySerializer(stringRedisSerializer);
         // hash的key也采用String的序列化方式
         template.setHashKeySerializer(stringRedisSerializer);
-        // value序列化方式采用jackson
-        template.setValueSerializer(jackson2JsonRedisSerializer);
+        // value序列化方式采用jackson，binary模式下缓存VO改用紧凑二进制
+        if ("binary".equals(codec)) {
+            template.setValueSerializer(new CompactRedisSerializer(jackson2JsonRedisSerializer, compressThreshold));
+        } else {
+            template.setValueSerializer(jackson2JsonRedisSerializer);
+        }
         // hash的value序列化方式采用jackson
         template.setHashValueSerializer(jackson2JsonRedisSerializer);
 
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * 字符串模板（替换自动配置的StringRedisTemplate，以记录请求内Redis耗时）
+     */
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory factory) {
+        return new TimedStringRedisTemplate(factory);
+    }
+
+    /**
+     * Redis发布订阅监听容器（用于跨节点缓存失效广播）
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        return container;
+    }
 }
@@ -0,0 +1,91 @@
+package com.toolrecommend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.toolrecommend.common.util.JwtClaims;
+import com.toolrecommend.common.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验签Token缓存
+ * 以Token的SHA-256摘要为键缓存解析结果，同一Token在有效期内只做一次HMAC验签，
+ * 每个条目在Token过期时刻淘汰，缓存中不保存Token原文
+ *
+ * @author Tool Recommend Team
+ */
+@Component
+public class VerifiedTokenCache {
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 最大缓存Token数
+     */
+    @Value("${auth.token-cache.max-size:100000}")
+    private long maxSize;
+
+    private Cache<String, JwtClaims> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, JwtClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+                        long remainingMillis = claims.getExpiresAt() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.token");
+    }
+
+    /**
+     * 获取Token的声明，未命中时验签解析并缓存；Token无效或已过期时抛出JwtException
+     */
+    public JwtClaims verify(String token) {
+        String key = digest(token);
+        JwtClaims claims = cache.getIfPresent(key);
+        if (claims != null && !claims.isExpired(System.currentTimeMillis())) {
+            return claims;
+        }
+        claims = JwtUtil.parseClaims(token);
+        cache.put(key, claims);
+        return claims;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
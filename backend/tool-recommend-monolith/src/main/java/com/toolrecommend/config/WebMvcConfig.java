@@ -0,0 +1,40 @@
+package com.toolrecommend.config;
+
+import com.toolrecommend.common.monitor.TimedJackson2HttpMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Web MVC配置
+ *
+ * @author Tool Recommend Team
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    /**
+     * 是否在响应中输出 Server-Timing 头
+     */
+    @Value("${monitor.request-timing.header-enabled:false}")
+    private boolean serverTimingHeaderEnabled;
+
+    /**
+     * 用记录序列化耗时的转换器替换默认JSON转换器（沿用同一个ObjectMapper）
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            HttpMessageConverter<?> converter = converters.get(i);
+            if (converter.getClass() == MappingJackson2HttpMessageConverter.class) {
+                converters.set(i, new TimedJackson2HttpMessageConverter(
+                        ((MappingJackson2HttpMessageConverter) converter).getObjectMapper(),
+                        serverTimingHeaderEnabled));
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.toolrecommend.rating.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 工具评分聚合
+ * 每个工具一行，保存评分总和、评分人数和1-5分直方图，由评分增删改按增量原子更新
+ *
+ * @author Tool Recommend Team
+ */
+@Data
+@TableName("rating_stats")
+public class RatingStats {
+
+    /**
+     * 工具ID
+     */
+    @TableId(value = "tool_id", type = IdType.INPUT)
+    private Long toolId;
+
+    /**
+     * 评分总和
+     */
+    private Long ratingSum;
+
+    /**
+     * 评分人数
+     */
+    private Integer ratingCount;
+
+    /**
+     * 1分人数
+     */
+    @TableField("score_1")
+    private Integer score1;
+
+    /**
+     * 2分人数
+     */
+    @TableField("score_2")
+    private Integer score2;
+
+    /**
+     * 3分人数
+     */
+    @TableField("score_3")
+    private Integer score3;
+
+    /**
+     * 4分人数
+     */
+    @TableField("score_4")
+    private Integer score4;
+
+    /**
+     * 5分人数
+     */
+    @TableField("score_5")
+    private Integer score5;
+
+    /**
+     * 更新时间
+     */
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updatedAt;
+}
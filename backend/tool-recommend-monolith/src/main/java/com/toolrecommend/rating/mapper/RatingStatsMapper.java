@@ -0,0 +1,34 @@
+package com.toolrecommend.rating.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.toolrecommend.rating.entity.RatingStats;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 评分聚合Mapper
+ *
+ * @author Tool Recommend Team
+ */
+@Mapper
+public interface RatingStatsMapper extends BaseMapper<RatingStats> {
+
+    /**
+     * 按增量原子更新工具的评分聚合，行不存在时插入；各字段不低于0（聚合行缺失时删除评分会得到负增量）
+     *
+     * @param delta 各字段的增量
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO rating_stats (tool_id, rating_sum, rating_count, score_1, score_2, score_3, score_4, score_5) " +
+            "VALUES (#{toolId}, GREATEST(0, #{ratingSum}), GREATEST(0, #{ratingCount}), GREATEST(0, #{score1}), " +
+            "GREATEST(0, #{score2}), GREATEST(0, #{score3}), GREATEST(0, #{score4}), GREATEST(0, #{score5})) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "rating_sum = GREATEST(0, rating_sum + #{ratingSum}), " +
+            "rating_count = GREATEST(0, rating_count + #{ratingCount}), " +
+            "score_1 = GREATEST(0, score_1 + #{score1}), " +
+            "score_2 = GREATEST(0, score_2 + #{score2}), " +
+            "score_3 = GREATEST(0, score_3 + #{score3}), " +
+            "score_4 = GREATEST(0, score_4 + #{score4}), " +
+            "score_5 = GREATEST(0, score_5 + #{score5})")
+    int applyDelta(RatingStats delta);
+}
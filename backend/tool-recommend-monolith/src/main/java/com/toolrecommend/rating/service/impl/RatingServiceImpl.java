@@ -1,20 +1,22 @@
 package com.toolrecommend.rating.service.impl;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.toolrecommend.common.dto.RatingDTO;
 import com.toolrecommend.common.vo.RatingStatsVO;
 import com.toolrecommend.rating.entity.Rating;
+import com.toolrecommend.rating.entity.RatingStats;
 import com.toolrecommend.rating.mapper.RatingMapper;
+import com.toolrecommend.rating.mapper.RatingStatsMapper;
 import com.toolrecommend.rating.service.RatingService;
+import com.toolrecommend.rating.support.RatingStatsSupport;
+import com.toolrecommend.tool.metrics.ToolMetric;
+import com.toolrecommend.tool.metrics.ToolMetricsStore;
+import com.toolrecommend.tool.ranking.HotRankingService;
 import com.toolrecommend.tool.service.ToolService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.util.Map;
-
 /**
  * 评分服务实现
  */
@@ -24,16 +26,24 @@ import java.util.Map;
 public class RatingServiceImpl implements RatingService {
 
     private final RatingMapper ratingMapper;
+    private final RatingStatsMapper ratingStatsMapper;
     private final ToolService toolService;
+    private final HotRankingService hotRankingService;
+    private final ToolMetricsStore toolMetricsStore;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void submitRating(Long userId, RatingDTO ratingDTO) {
-        // 查询是否已有评分
-        Rating existing = ratingMapper.getUserRating(ratingDTO.getToolId(), userId);
+        // 查询是否已有评分（加锁，旧分值决定聚合增量）
+        Rating existing = ratingMapper.getUserRatingForUpdate(ratingDTO.getToolId(), userId);
 
         if (existing != null) {
             // 更新评分
+            if (existing.getScore().equals(ratingDTO.getScore())) {
+                return;
+            }
+            hotRankingService.onRating(ratingDTO.getToolId(), ratingDTO.getScore() - existing.getScore());
+            applyStatsDelta(ratingDTO.getToolId(), ratingDTO.getScore(), existing.getScore());
             existing.setScore(ratingDTO.getScore());
             ratingMapper.updateById(existing);
             log.info("用户{}更新工具{}的评分为{}", userId, ratingDTO.getToolId(), ratingDTO.getScore());
@@ -44,20 +54,16 @@ public class RatingServiceImpl implements RatingService {
             rating.setUserId(userId);
             rating.setScore(ratingDTO.getScore());
             ratingMapper.insert(rating);
+            hotRankingService.onRating(ratingDTO.getToolId(), ratingDTO.getScore());
+            toolMetricsStore.record(ratingDTO.getToolId(), ToolMetric.RATING, 1);
+            applyStatsDelta(ratingDTO.getToolId(), ratingDTO.getScore(), null);
             log.info("用户{}对工具{}评分{}", userId, ratingDTO.getToolId(), ratingDTO.getScore());
         }
-
-        // 更新工具的平均评分
-        updateToolAverageRating(ratingDTO.getToolId());
     }
 
     @Override
     public RatingStatsVO getToolRatingStats(Long toolId, Long userId) {
-        Map<String, Object> stats = ratingMapper.getToolRatingStats(toolId);
-
-        RatingStatsVO vo = new RatingStatsVO();
-        vo.setAverageRating((BigDecimal) stats.get("averageRating"));
-        vo.setRatingCount(((Long) stats.get("ratingCount")).intValue());
+        RatingStatsVO vo = RatingStatsSupport.toVO(ratingStatsMapper.selectById(toolId));
 
         // 如果用户已登录，获取用户的评分
         if (userId != null) {
@@ -73,15 +79,17 @@ public class RatingServiceImpl implements RatingService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void deleteRating(Long userId, Long toolId) {
-        LambdaQueryWrapper<Rating> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Rating::getToolId, toolId)
-               .eq(Rating::getUserId, userId);
+        Rating existing = ratingMapper.getUserRatingForUpdate(toolId, userId);
+        if (existing == null) {
+            return;
+        }
 
-        int deleted = ratingMapper.delete(wrapper);
+        int deleted = ratingMapper.deleteById(existing.getId());
         if (deleted > 0) {
             log.info("用户{}删除对工具{}的评分", userId, toolId);
-            // 更新工具的平均评分
-            updateToolAverageRating(toolId);
+            hotRankingService.onRating(toolId, -existing.getScore());
+            toolMetricsStore.record(toolId, ToolMetric.RATING, -1);
+            applyStatsDelta(toolId, null, existing.getScore());
         }
     }
 
@@ -91,10 +99,11 @@ public class RatingServiceImpl implements RatingService {
     }
 
     /**
-     * 更新工具的平均评分
+     * 按增量更新评分聚合，再由聚合行计算平均分回写工具表，不再扫描该工具的全部评分
      */
-    private void updateToolAverageRating(Long toolId) {
-        BigDecimal avgRating = ratingMapper.getAverageRating(toolId);
-        toolService.updateAverageRating(toolId, avgRating);
+    private void applyStatsDelta(Long toolId, Integer addScore, Integer removeScore) {
+        ratingStatsMapper.applyDelta(RatingStatsSupport.delta(toolId, addScore, removeScore));
+        RatingStats stats = ratingStatsMapper.selectById(toolId);
+        toolService.updateAverageRating(toolId, RatingStatsSupport.average(stats));
     }
 }
@@ -0,0 +1,87 @@
+package com.toolrecommend.rating.support;
+
+import com.toolrecommend.common.vo.RatingStatsVO;
+import com.toolrecommend.rating.entity.RatingStats;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 评分聚合辅助方法
+ *
+ * @author Tool Recommend Team
+ */
+public final class RatingStatsSupport {
+
+    private RatingStatsSupport() {
+    }
+
+    /**
+     * 构造一次评分变化的增量：addScore为新增的分值，removeScore为移除的分值，均可为空
+     */
+    public static RatingStats delta(Long toolId, Integer addScore, Integer removeScore) {
+        RatingStats delta = new RatingStats();
+        delta.setToolId(toolId);
+        delta.setRatingSum(0L);
+        delta.setRatingCount(0);
+        delta.setScore1(0);
+        delta.setScore2(0);
+        delta.setScore3(0);
+        delta.setScore4(0);
+        delta.setScore5(0);
+        if (addScore != null) {
+            delta.setRatingSum(delta.getRatingSum() + addScore);
+            delta.setRatingCount(delta.getRatingCount() + 1);
+            addToBucket(delta, addScore, 1);
+        }
+        if (removeScore != null) {
+            delta.setRatingSum(delta.getRatingSum() - removeScore);
+            delta.setRatingCount(delta.getRatingCount() - 1);
+            addToBucket(delta, removeScore, -1);
+        }
+        return delta;
+    }
+
+    /**
+     * 平均评分（保留两位小数），无评分时为0
+     */
+    public static BigDecimal average(RatingStats stats) {
+        if (stats == null || stats.getRatingCount() == null || stats.getRatingCount() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(stats.getRatingSum())
+                .divide(BigDecimal.valueOf(stats.getRatingCount()), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 转换为评分统计VO（不含当前用户评分），stats为空时返回全0统计
+     */
+    public static RatingStatsVO toVO(RatingStats stats) {
+        RatingStatsVO vo = new RatingStatsVO();
+        vo.setAverageRating(average(stats));
+        vo.setRatingCount(stats == null ? 0 : stats.getRatingCount());
+
+        Map<Integer, Integer> distribution = new LinkedHashMap<>();
+        distribution.put(5, stats == null ? 0 : stats.getScore5());
+        distribution.put(4, stats == null ? 0 : stats.getScore4());
+        distribution.put(3, stats == null ? 0 : stats.getScore3());
+        distribution.put(2, stats == null ? 0 : stats.getScore2());
+        distribution.put(1, stats == null ? 0 : stats.getScore1());
+        vo.setDistribution(distribution);
+        return vo;
+    }
+
+    private static void addToBucket(RatingStats delta, int score, int amount) {
+        switch (score) {
+            case 1 -> delta.setScore1(delta.getScore1() + amount);
+            case 2 -> delta.setScore2(delta.getScore2() + amount);
+            case 3 -> delta.setScore3(delta.getScore3() + amount);
+            case 4 -> delta.setScore4(delta.getScore4() + amount);
+            case 5 -> delta.setScore5(delta.getScore5() + amount);
+            default -> {
+            }
+        }
+    }
+}
@@ -59,14 +59,17 @@ public class ReviewController {
     }
 
     /**
-     * 分页查询工具评论
+     * 分页查询工具评论，传入cursor时使用游标分页（空字符串表示第一页）
      */
     @GetMapping("/tool/{toolId}")
     public Result<PageResult<ReviewVO>> getToolReviews(
             @PathVariable Long toolId,
             @RequestParam(defaultValue = "1") Long current,
-            @RequestParam(defaultValue = "10") Long size) {
-        PageResult<ReviewVO> result = reviewService.getToolReviews(toolId, current, size);
+            @RequestParam(defaultValue = "10") Long size,
+            @RequestParam(required = false) String cursor) {
+        PageResult<ReviewVO> result = cursor != null
+                ? reviewService.getToolReviewsByCursor(toolId, cursor, size)
+                : reviewService.getToolReviews(toolId, current, size);
         return Result.success(result);
     }
 
@@ -148,25 +151,29 @@ public class ReviewController {
     }
 
     /**
-     * 获取工具的评论树形结构（含回复）
+     * 获取工具的评论树形结构（含回复），replyLimit限制每条评论返回的回复数，其余回复通过replyCursor分页获取
      */
     @GetMapping("/tool/{toolId}/tree")
     public Result<List<com.toolrecommend.common.vo.ReviewTreeVO>> getToolReviewsTree(
             @PathVariable Long toolId,
+            @RequestParam(required = false) Integer replyLimit,
             @RequestHeader(value = "X-User-Id", required = false) Long userId) {
-        List<com.toolrecommend.common.vo.ReviewTreeVO> reviewTree = reviewService.getToolReviewsTree(toolId, userId);
+        List<com.toolrecommend.common.vo.ReviewTreeVO> reviewTree = reviewService.getToolReviewsTree(toolId, userId, replyLimit);
         return Result.success(reviewTree);
     }
 
     /**
-     * 分页查询某条评论的回复列表
+     * 分页查询某条评论的回复列表，传入cursor时使用游标分页（空字符串表示第一页）
      */
     @GetMapping("/{reviewId}/replies")
     public Result<PageResult<com.toolrecommend.common.vo.ReviewVO>> getReviewReplies(
             @PathVariable Long reviewId,
             @RequestParam(defaultValue = "1") Long current,
-            @RequestParam(defaultValue = "10") Long size) {
-        PageResult<com.toolrecommend.common.vo.ReviewVO> replies = reviewService.getReviewReplies(reviewId, current, size);
+            @RequestParam(defaultValue = "10") Long size,
+            @RequestParam(required = false) String cursor) {
+        PageResult<com.toolrecommend.common.vo.ReviewVO> replies = cursor != null
+                ? reviewService.getReviewRepliesByCursor(reviewId, cursor, size)
+                : reviewService.getReviewReplies(reviewId, current, size);
         return Result.success(replies);
     }
 }
@@ -0,0 +1,51 @@
+package com.toolrecommend.review.convert;
+
+import com.alibaba.fastjson2.JSON;
+import com.toolrecommend.common.convert.ConverterConfig;
+import com.toolrecommend.common.entity.Review;
+import com.toolrecommend.common.vo.ReviewTreeVO;
+import com.toolrecommend.common.vo.ReviewVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+import java.util.List;
+
+/**
+ * 评论模块对象转换器
+ *
+ * @author Tool Recommend Team
+ */
+@Mapper(config = ConverterConfig.class)
+public interface ReviewConverter {
+
+    /**
+     * 评论，优缺点由JSON数组解析为列表
+     */
+    @Mapping(target = "pros", source = "pros", qualifiedByName = "parseStringList")
+    @Mapping(target = "cons", source = "cons", qualifiedByName = "parseStringList")
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "isHelpful", ignore = true)
+    @Mapping(target = "isMine", ignore = true)
+    ReviewVO toReviewVO(Review review);
+
+    /**
+     * 评论树节点（不含子回复和当前用户相关字段）
+     */
+    @Mapping(target = "username", ignore = true)
+    @Mapping(target = "userAvatar", ignore = true)
+    @Mapping(target = "replies", ignore = true)
+    @Mapping(target = "hasMoreReplies", ignore = true)
+    @Mapping(target = "replyCursor", ignore = true)
+    @Mapping(target = "isHelpful", ignore = true)
+    @Mapping(target = "isMine", ignore = true)
+    ReviewTreeVO toTreeNode(Review review);
+
+    @Named("parseStringList")
+    default List<String> parseStringList(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        return JSON.parseArray(json, String.class);
+    }
+}
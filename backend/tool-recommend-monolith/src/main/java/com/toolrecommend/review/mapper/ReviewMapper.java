@@ -7,6 +7,7 @@ import com.toolrecommend.common.entity.Review;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -22,6 +23,15 @@ public interface ReviewMapper extends BaseMapper<Review> {
      */
     IPage<Review> selectByToolId(Page<Review> page, @Param("toolId") Long toolId, @Param("status") Integer status);
 
+    /**
+     * 游标分页查询工具评论，按 (helpful_count, created_at, id) 降序定位，cursorId为空表示第一页
+     */
+    List<Review> selectByToolIdAfter(@Param("toolId") Long toolId, @Param("status") Integer status,
+                                     @Param("helpfulCount") Integer helpfulCount,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("cursorId") Long cursorId,
+                                     @Param("limit") int limit);
+
     /**
      * 查询用户评论列表
      */
@@ -57,11 +67,24 @@ public interface ReviewMapper extends BaseMapper<Review> {
      */
     List<Review> selectTopLevelReviews(@Param("toolId") Long toolId, @Param("status") Integer status);
 
+    /**
+     * 查询工具的全部评论及回复，按 (created_at, id) 升序，用于一次性组装评论树
+     */
+    List<Review> selectAllByToolId(@Param("toolId") Long toolId, @Param("status") Integer status);
+
     /**
      * 查询某条评论的回复列表
      */
     IPage<Review> selectRepliesByParentId(Page<Review> page, @Param("parentId") Long parentId, @Param("status") Integer status);
 
+    /**
+     * 游标分页查询评论回复，按 (created_at, id) 升序定位，cursorId为空表示第一页
+     */
+    List<Review> selectRepliesAfter(@Param("parentId") Long parentId, @Param("status") Integer status,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("cursorId") Long cursorId,
+                                    @Param("limit") int limit);
+
     /**
      * 查询某条评论的所有回复（不分页）
      */
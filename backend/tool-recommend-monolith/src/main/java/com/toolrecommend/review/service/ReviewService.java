@@ -35,6 +35,11 @@ public interface ReviewService {
      */
     PageResult<ReviewVO> getToolReviews(Long toolId, Long current, Long size);
 
+    /**
+     * 游标分页查询工具评论（不统计总数）
+     */
+    PageResult<ReviewVO> getToolReviewsByCursor(Long toolId, String cursor, Long size);
+
     /**
      * 分页查询用户评论
      */
@@ -67,11 +72,18 @@ public interface ReviewService {
 
     /**
      * 获取工具的评论树形结构（含回复）
+     *
+     * @param replyLimit 每条评论最多返回的直接回复数，为空表示不限
      */
-    List<ReviewTreeVO> getToolReviewsTree(Long toolId, Long userId);
+    List<ReviewTreeVO> getToolReviewsTree(Long toolId, Long userId, Integer replyLimit);
 
     /**
      * 获取某条评论的回复列表
      */
     PageResult<ReviewVO> getReviewReplies(Long reviewId, Long current, Long size);
+
+    /**
+     * 游标分页获取某条评论的回复列表（不统计总数）
+     */
+    PageResult<ReviewVO> getReviewRepliesByCursor(Long reviewId, String cursor, Long size);
 }
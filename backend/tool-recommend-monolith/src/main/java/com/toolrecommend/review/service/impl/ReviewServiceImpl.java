@@ -6,8 +6,13 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.toolrecommend.common.dto.ReviewCreateDTO;
 import com.toolrecommend.common.entity.Review;
 import com.toolrecommend.common.exception.BusinessException;
+import com.toolrecommend.common.result.PageCursor;
 import com.toolrecommend.common.result.PageResult;
+import com.toolrecommend.common.vo.RatingStatsVO;
 import com.toolrecommend.common.vo.ReviewVO;
+import com.toolrecommend.rating.mapper.RatingStatsMapper;
+import com.toolrecommend.review.convert.ReviewConverter;
+import com.toolrecommend.rating.support.RatingStatsSupport;
 import com.toolrecommend.review.mapper.ReviewMapper;
 import com.toolrecommend.review.service.ReviewService;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 import jakarta.annotation.Resource;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -34,11 +40,19 @@ public class ReviewServiceImpl implements ReviewService {
     @Resource
     private ReviewMapper reviewMapper;
 
+    @Resource
+    private RatingStatsMapper ratingStatsMapper;
+
+    @Resource
+    private ReviewConverter reviewConverter;
+
     @Resource
     private RedisTemplate<String, Object> redisTemplate;
 
     private static final String REVIEW_HELPFUL_KEY = "review:helpful:";
     private static final String TOOL_REVIEWS_CACHE_KEY = "tool:reviews:";
+    private static final String TOOL_REVIEWS_CURSOR_SCOPE = "review:tool";
+    private static final String REPLIES_CURSOR_SCOPE = "review:replies";
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -164,6 +178,28 @@ public class ReviewServiceImpl implements ReviewService {
         return PageResult.of(reviewVOList, reviewPage.getTotal(), reviewPage.getCurrent(), reviewPage.getSize());
     }
 
+    @Override
+    public PageResult<ReviewVO> getToolReviewsByCursor(Long toolId, String cursor, Long size) {
+        PageCursor pageCursor = PageCursor.decode(cursor, TOOL_REVIEWS_CURSOR_SCOPE, 2);
+        List<Review> reviews = pageCursor == null
+                ? reviewMapper.selectByToolIdAfter(toolId, 1, null, null, null, size.intValue() + 1)
+                : reviewMapper.selectByToolIdAfter(toolId, 1, pageCursor.intKey(0), pageCursor.dateTimeKey(1),
+                        pageCursor.getId(), size.intValue() + 1);
+
+        String nextCursor = null;
+        if (reviews.size() > size) {
+            reviews = reviews.subList(0, size.intValue());
+            Review last = reviews.get(reviews.size() - 1);
+            nextCursor = PageCursor.encode(TOOL_REVIEWS_CURSOR_SCOPE, last.getId(), last.getHelpfulCount(),
+                    last.getCreatedAt());
+        }
+
+        List<ReviewVO> reviewVOList = reviews.stream()
+                .map(this::convertToReviewVO)
+                .collect(Collectors.toList());
+        return PageResult.ofCursor(reviewVOList, size, nextCursor, null);
+    }
+
     @Override
     public PageResult<ReviewVO> getUserReviews(Long userId, Long current, Long size) {
         Page<Review> page = new Page<>(current, size);
@@ -233,23 +269,79 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Override
     public Map<String, Object> getRatingDistribution(Long toolId) {
-        // 评分已迁移到rating表，此方法已弃用
+        // 直接读取按工具维护的评分聚合行
+        RatingStatsVO stats = RatingStatsSupport.toVO(ratingStatsMapper.selectById(toolId));
+
+        List<Map<String, Object>> distribution = new ArrayList<>(5);
+        stats.getDistribution().forEach((rating, count) -> {
+            Map<String, Object> item = new HashMap<>();
+            item.put("rating", rating);
+            item.put("count", count);
+            distribution.add(item);
+        });
+
         Map<String, Object> result = new HashMap<>();
-        result.put("distribution", Collections.emptyList());
-        result.put("totalCount", 0);
-        result.put("averageRating", 0.0);
+        result.put("distribution", distribution);
+        result.put("totalCount", stats.getRatingCount());
+        result.put("averageRating", stats.getAverageRating());
         return result;
     }
 
     @Override
-    public List<com.toolrecommend.common.vo.ReviewTreeVO> getToolReviewsTree(Long toolId, Long userId) {
-        // 查询所有顶级评论
-        List<Review> topLevelReviews = reviewMapper.selectTopLevelReviews(toolId, 1);
+    public List<com.toolrecommend.common.vo.ReviewTreeVO> getToolReviewsTree(Long toolId, Long userId, Integer replyLimit) {
+        // 一次查询该工具的全部评论和回复（按时间升序），用ID映射在内存中挂接父子关系
+        List<Review> reviews = reviewMapper.selectAllByToolId(toolId, 1);
+        Map<Long, com.toolrecommend.common.vo.ReviewTreeVO> nodes = new HashMap<>(reviews.size() * 2);
+        Map<Long, Review> reviewById = new HashMap<>(reviews.size() * 2);
+        for (Review review : reviews) {
+            nodes.put(review.getId(), toTreeNode(review, userId));
+            reviewById.put(review.getId(), review);
+        }
+
+        List<Review> topLevelReviews = new ArrayList<>();
+        for (Review review : reviews) {
+            if (review.getParentId() == null) {
+                topLevelReviews.add(review);
+                continue;
+            }
+            // 父评论不存在（已删除或未发布）的回复不展示
+            com.toolrecommend.common.vo.ReviewTreeVO parent = nodes.get(review.getParentId());
+            if (parent != null) {
+                parent.getReplies().add(nodes.get(review.getId()));
+            }
+        }
 
-        // 转换为树形结构
-        return topLevelReviews.stream()
-                .map(review -> buildReviewTree(review, userId))
+        // 顶级评论与原查询一致：有帮助数降序、时间降序
+        topLevelReviews.sort(Comparator.comparing(Review::getHelpfulCount, Comparator.nullsFirst(Comparator.<Integer>naturalOrder()))
+                .thenComparing(Review::getCreatedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                .reversed());
+        List<com.toolrecommend.common.vo.ReviewTreeVO> roots = topLevelReviews.stream()
+                .map(review -> nodes.get(review.getId()))
                 .collect(Collectors.toList());
+
+        // 按回复数上限截断，并收集实际返回的节点
+        List<com.toolrecommend.common.vo.ReviewTreeVO> visible = new ArrayList<>(nodes.size());
+        Deque<com.toolrecommend.common.vo.ReviewTreeVO> stack = new ArrayDeque<>(roots);
+        while (!stack.isEmpty()) {
+            com.toolrecommend.common.vo.ReviewTreeVO node = stack.pop();
+            visible.add(node);
+            List<com.toolrecommend.common.vo.ReviewTreeVO> replies = node.getReplies();
+            if (replyLimit != null && replyLimit >= 0 && replies.size() > replyLimit) {
+                replies = new ArrayList<>(replies.subList(0, replyLimit));
+                node.setReplies(replies);
+                node.setHasMoreReplies(true);
+                if (!replies.isEmpty()) {
+                    Review last = reviewById.get(replies.get(replies.size() - 1).getId());
+                    node.setReplyCursor(PageCursor.encode(REPLIES_CURSOR_SCOPE, last.getId(), last.getCreatedAt()));
+                } else {
+                    node.setReplyCursor("");
+                }
+            }
+            stack.addAll(replies);
+        }
+
+        fillHelpfulFlags(visible, userId);
+        return roots;
     }
 
     @Override
@@ -264,6 +356,27 @@ public class ReviewServiceImpl implements ReviewService {
         return PageResult.of(replyVOList, replyPage.getTotal(), replyPage.getCurrent(), replyPage.getSize());
     }
 
+    @Override
+    public PageResult<ReviewVO> getReviewRepliesByCursor(Long reviewId, String cursor, Long size) {
+        PageCursor pageCursor = PageCursor.decode(cursor, REPLIES_CURSOR_SCOPE, 1);
+        List<Review> replies = pageCursor == null
+                ? reviewMapper.selectRepliesAfter(reviewId, 1, null, null, size.intValue() + 1)
+                : reviewMapper.selectRepliesAfter(reviewId, 1, pageCursor.dateTimeKey(0), pageCursor.getId(),
+                        size.intValue() + 1);
+
+        String nextCursor = null;
+        if (replies.size() > size) {
+            replies = replies.subList(0, size.intValue());
+            Review last = replies.get(replies.size() - 1);
+            nextCursor = PageCursor.encode(REPLIES_CURSOR_SCOPE, last.getId(), last.getCreatedAt());
+        }
+
+        List<ReviewVO> replyVOList = replies.stream()
+                .map(this::convertToReviewVO)
+                .collect(Collectors.toList());
+        return PageResult.ofCursor(replyVOList, size, nextCursor, null);
+    }
+
     /**
      * 更新工具评分（应该调用Tool Service的接口，这里简化处理）
      */
@@ -285,16 +398,8 @@ public class ReviewServiceImpl implements ReviewService {
      * 转换为ReviewVO
      */
     private ReviewVO convertToReviewVO(Review review) {
-        ReviewVO vo = new ReviewVO();
-        BeanUtils.copyProperties(review, vo);
-
-        // 解析优缺点JSON
-        if (review.getPros() != null && !review.getPros().isEmpty()) {
-            vo.setPros(JSON.parseArray(review.getPros(), String.class));
-        }
-        if (review.getCons() != null && !review.getCons().isEmpty()) {
-            vo.setCons(JSON.parseArray(review.getCons(), String.class));
-        }
+        // 优缺点JSON在转换器中解析
+        ReviewVO vo = reviewConverter.toReviewVO(review);
 
         // TODO: 查询用户信息
         // vo.setUser(userSimpleVO);
@@ -303,19 +408,10 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     /**
-     * 递归构建评论树
+     * 转换为评论树节点（不含子回复）
      */
-    private com.toolrecommend.common.vo.ReviewTreeVO buildReviewTree(Review review, Long currentUserId) {
-        com.toolrecommend.common.vo.ReviewTreeVO treeVO = new com.toolrecommend.common.vo.ReviewTreeVO();
-        BeanUtils.copyProperties(review, treeVO);
-
-        // 解析优缺点JSON
-        if (review.getPros() != null && !review.getPros().isEmpty()) {
-            treeVO.setPros(review.getPros());
-        }
-        if (review.getCons() != null && !review.getCons().isEmpty()) {
-            treeVO.setCons(review.getCons());
-        }
+    private com.toolrecommend.common.vo.ReviewTreeVO toTreeNode(Review review, Long currentUserId) {
+        com.toolrecommend.common.vo.ReviewTreeVO treeVO = reviewConverter.toTreeNode(review);
 
         // TODO: 查询用户信息并设置username和userAvatar
         // User user = userService.getById(review.getUserId());
@@ -324,26 +420,28 @@ public class ReviewServiceImpl implements ReviewService {
 
         // 设置是否是当前用户的评论
         treeVO.setIsMine(currentUserId != null && currentUserId.equals(review.getUserId()));
+        treeVO.setIsHelpful(false);
+        treeVO.setHasMoreReplies(false);
+        treeVO.setReplies(new ArrayList<>());
+        return treeVO;
+    }
 
-        // 检查当前用户是否点了有帮助
-        if (currentUserId != null) {
-            String key = REVIEW_HELPFUL_KEY + review.getId() + ":" + currentUserId;
-            treeVO.setIsHelpful(Boolean.TRUE.equals(redisTemplate.hasKey(key)));
-        } else {
-            treeVO.setIsHelpful(false);
+    /**
+     * 一次 MGET 批量查询当前用户对各节点的有帮助标记
+     */
+    private void fillHelpfulFlags(List<com.toolrecommend.common.vo.ReviewTreeVO> nodes, Long currentUserId) {
+        if (currentUserId == null || nodes.isEmpty()) {
+            return;
         }
-
-        // 递归查询所有回复
-        List<Review> replies = reviewMapper.selectAllRepliesByParentId(review.getId(), 1);
-        if (replies != null && !replies.isEmpty()) {
-            List<com.toolrecommend.common.vo.ReviewTreeVO> replyTreeVOs = replies.stream()
-                    .map(reply -> buildReviewTree(reply, currentUserId))
-                    .collect(Collectors.toList());
-            treeVO.setReplies(replyTreeVOs);
-        } else {
-            treeVO.setReplies(Collections.emptyList());
+        List<String> keys = nodes.stream()
+                .map(node -> REVIEW_HELPFUL_KEY + node.getId() + ":" + currentUserId)
+                .collect(Collectors.toList());
+        List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            return;
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            nodes.get(i).setIsHelpful(values.get(i) != null);
         }
-
-        return treeVO;
     }
 }
@@ -37,14 +37,19 @@ public class ToolSubmissionController {
     }
 
     /**
-     * 分页查询工具提交列表（管理员使用，可按状态筛选）
+     * 分页查询工具提交列表（管理员使用，可按状态筛选），传入cursor时使用游标分页（空字符串表示第一页）
      */
     @GetMapping
     public Result<PageResult<ToolSubmissionVO>> getSubmissions(
             @RequestParam(defaultValue = "1") Long current,
             @RequestParam(defaultValue = "10") Long size,
             @RequestParam(required = false) Integer status,
-            @RequestParam(required = false) Long userId) {
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return Result.success(toolSubmissionService.getSubmissionsByCursor(status, userId, cursor, size));
+        }
+
         Page<ToolSubmissionVO> page = new Page<>(current, size);
         IPage<ToolSubmissionVO> result = toolSubmissionService.getSubmissions(page, status, userId);
 
@@ -8,6 +8,7 @@ import com.toolrecommend.common.vo.ToolSubmissionVO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -32,6 +33,24 @@ public interface ToolSubmissionMapper extends BaseMapper<ToolSubmission> {
             @Param("userId") Long userId
     );
 
+    /**
+     * 游标分页查询工具提交列表（包含用户、分类信息）
+     *
+     * @param status 审核状态
+     * @param userId 用户ID（可选）
+     * @param createdAt 游标中的创建时间
+     * @param cursorId 游标中的提交ID，为空表示第一页
+     * @param limit 查询条数
+     * @return 提交列表
+     */
+    List<ToolSubmissionVO> selectSubmissionsAfter(
+            @Param("status") Integer status,
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("cursorId") Long cursorId,
+            @Param("limit") int limit
+    );
+
     /**
      * 根据ID查询提交详情（包含用户、分类、审核人信息）
      *
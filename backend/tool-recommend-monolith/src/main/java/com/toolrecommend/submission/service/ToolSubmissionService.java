@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.toolrecommend.common.dto.ToolSubmissionCreateDTO;
 import com.toolrecommend.common.dto.ToolSubmissionReviewDTO;
+import com.toolrecommend.common.result.PageResult;
 import com.toolrecommend.common.vo.ToolSubmissionVO;
 
 /**
@@ -32,6 +33,17 @@ public interface ToolSubmissionService {
      */
     IPage<ToolSubmissionVO> getSubmissions(Page<ToolSubmissionVO> page, Integer status, Long userId);
 
+    /**
+     * 游标分页查询工具提交列表（不统计总数）
+     *
+     * @param status 审核状态（可选）
+     * @param userId 用户ID（可选）
+     * @param cursor 分页游标，空字符串表示第一页
+     * @param size 每页大小
+     * @return 提交列表
+     */
+    PageResult<ToolSubmissionVO> getSubmissionsByCursor(Integer status, Long userId, String cursor, Long size);
+
     /**
      * 查询用户自己的提交列表
      *
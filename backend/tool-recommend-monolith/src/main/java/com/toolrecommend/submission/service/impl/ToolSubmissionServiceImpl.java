@@ -7,10 +7,14 @@ import com.toolrecommend.common.dto.ToolSubmissionReviewDTO;
 import com.toolrecommend.common.entity.Tool;
 import com.toolrecommend.common.entity.ToolSubmission;
 import com.toolrecommend.common.exception.BusinessException;
+import com.toolrecommend.common.result.PageCursor;
+import com.toolrecommend.common.result.PageResult;
 import com.toolrecommend.common.vo.ToolSubmissionVO;
 import com.toolrecommend.submission.mapper.ToolSubmissionMapper;
 import com.toolrecommend.submission.service.ToolSubmissionService;
 import com.toolrecommend.tool.mapper.ToolMapper;
+import com.toolrecommend.tool.search.ToolSearchIndex;
+import com.toolrecommend.tool.vector.ToolVectorIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
@@ -19,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 工具提交服务实现类
@@ -31,6 +36,10 @@ public class ToolSubmissionServiceImpl implements ToolSubmissionService {
 
     private final ToolSubmissionMapper toolSubmissionMapper;
     private final ToolMapper toolMapper;
+    private final ToolSearchIndex toolSearchIndex;
+    private final ToolVectorIndex toolVectorIndex;
+
+    private static final String SUBMISSIONS_CURSOR_SCOPE = "submission";
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -52,6 +61,23 @@ public class ToolSubmissionServiceImpl implements ToolSubmissionService {
         return toolSubmissionMapper.selectSubmissionsWithDetails(page, status, userId);
     }
 
+    @Override
+    public PageResult<ToolSubmissionVO> getSubmissionsByCursor(Integer status, Long userId, String cursor, Long size) {
+        PageCursor pageCursor = PageCursor.decode(cursor, SUBMISSIONS_CURSOR_SCOPE, 1);
+        List<ToolSubmissionVO> submissions = pageCursor == null
+                ? toolSubmissionMapper.selectSubmissionsAfter(status, userId, null, null, size.intValue() + 1)
+                : toolSubmissionMapper.selectSubmissionsAfter(status, userId, pageCursor.dateTimeKey(0),
+                        pageCursor.getId(), size.intValue() + 1);
+
+        String nextCursor = null;
+        if (submissions.size() > size) {
+            submissions = submissions.subList(0, size.intValue());
+            ToolSubmissionVO last = submissions.get(submissions.size() - 1);
+            nextCursor = PageCursor.encode(SUBMISSIONS_CURSOR_SCOPE, last.getId(), last.getCreatedAt());
+        }
+        return PageResult.ofCursor(submissions, size, nextCursor, null);
+    }
+
     @Override
     public IPage<ToolSubmissionVO> getMySubmissions(Page<ToolSubmissionVO> page, Long userId) {
         return toolSubmissionMapper.selectSubmissionsWithDetails(page, null, userId);
@@ -154,6 +180,8 @@ public class ToolSubmissionServiceImpl implements ToolSubmissionService {
 
         // 时间字段由MyBatis Plus自动填充
         toolMapper.insert(tool);
+        toolSearchIndex.refreshAfterCommit(tool.getId());
+        toolVectorIndex.refreshAfterCommit(tool.getId());
     }
 
     /**
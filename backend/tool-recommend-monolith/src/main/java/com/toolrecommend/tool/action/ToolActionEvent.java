@@ -0,0 +1,57 @@
+package com.toolrecommend.tool.action;
+
+import com.toolrecommend.user.relation.RelationType;
+import lombok.Getter;
+
+/**
+ * 点赞、收藏状态变更事件
+ * 以紧凑文本 "类型|用户ID|工具ID|1或0" 存入Redis队列，由后台批量落库
+ *
+ * @author Tool Recommend Team
+ */
+@Getter
+public class ToolActionEvent {
+
+    private static final String SEPARATOR = "|";
+
+    private final RelationType type;
+
+    private final Long userId;
+
+    private final Long toolId;
+
+    /**
+     * true为点赞/收藏，false为取消
+     */
+    private final boolean present;
+
+    public ToolActionEvent(RelationType type, Long userId, Long toolId, boolean present) {
+        this.type = type;
+        this.userId = userId;
+        this.toolId = toolId;
+        this.present = present;
+    }
+
+    public String encode() {
+        return type.name() + SEPARATOR + userId + SEPARATOR + toolId + SEPARATOR + (present ? 1 : 0);
+    }
+
+    /**
+     * 解析队列中的事件，格式不正确时抛出IllegalArgumentException
+     */
+    public static ToolActionEvent decode(String raw) {
+        String[] parts = raw.split("\\|");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("malformed action event: " + raw);
+        }
+        return new ToolActionEvent(RelationType.valueOf(parts[0]), Long.valueOf(parts[1]),
+                Long.valueOf(parts[2]), "1".equals(parts[3]));
+    }
+
+    /**
+     * 对计数的影响：+1或-1
+     */
+    public int delta() {
+        return present ? 1 : -1;
+    }
+}
@@ -0,0 +1,350 @@
+package com.toolrecommend.tool.action;
+
+import com.toolrecommend.tool.cache.ToolDetailCache;
+import com.toolrecommend.tool.metrics.ToolMetric;
+import com.toolrecommend.tool.metrics.ToolMetricsStore;
+import com.toolrecommend.tool.ranking.HotRankingService;
+import com.toolrecommend.tool.search.ToolSearchIndex;
+import com.toolrecommend.user.relation.RelationType;
+import com.toolrecommend.user.relation.UserRelationStore;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 点赞、收藏的异步写路径
+ * async模式下，去重判断、待落库计数累加和入队在一个Redis Lua脚本内原子完成，请求不再持有tool行锁，
+ * 展示的点赞数、收藏数为数据库计数加上待落库计数，提交后立即可见；
+ * 后台任务按顺序批量把事件写入 user_action 并调整工具计数，失败的批次保留在队列中重试，
+ * 多次失败后逐条应用，仍失败的事件转入死信队列。事件出队（落库或转入死信）时扣回其待落库计数，
+ * 热门排行和时间序列指标只按实际落库的增量更新。落库锁在处理每批前续期，长时间落库不会被其他节点抢占。
+ * 每个 (用户, 工具, 类型) 的当前状态保存在Redis状态键中，过期时间需远大于落库延迟，过期后以用户关系位图为准
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class ToolActionQueue {
+
+    public static final String MODE_ASYNC = "async";
+
+    private static final String STATE_KEY_PREFIX = "tool:action:state:";
+    private static final String QUEUE_KEY = "tool:action:queue";
+    private static final String DEAD_LETTER_KEY = "tool:action:dead";
+    private static final String PENDING_KEY = "tool:action:pending";
+    private static final String FLUSH_LOCK_KEY = "tool:action:flush:lock";
+    private static final Duration FLUSH_LOCK_TTL = Duration.ofSeconds(60);
+
+    /**
+     * KEYS = [状态键, 队列, 待落库计数]；ARGV = [未知时的当前状态, 目标状态, 状态键过期秒数, 事件, 计数字段, 增量]。
+     * 状态已是目标状态时返回0，否则记录状态、入队并累加计数后返回1
+     */
+    private static final RedisScript<Long> SUBMIT_SCRIPT = new DefaultRedisScript<>(
+            "local state = redis.call('GET', KEYS[1]) " +
+            "if state == false then state = ARGV[1] end " +
+            "if state == ARGV[2] then return 0 end " +
+            "redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3]) " +
+            "redis.call('RPUSH', KEYS[2], ARGV[4]) " +
+            "redis.call('HINCRBY', KEYS[3], ARGV[5], ARGV[6]) " +
+            "return 1", Long.class);
+
+    /**
+     * 扣回出队事件的待落库计数，归零的字段随即删除
+     */
+    private static final RedisScript<Long> SETTLE_SCRIPT = new DefaultRedisScript<>(
+            "local value = redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2]) " +
+            "if value == 0 then redis.call('HDEL', KEYS[1], ARGV[1]) end " +
+            "return value", Long.class);
+
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
+    /**
+     * 锁仍由本节点持有时续期，返回0表示锁已过期或被其他节点持有
+     */
+    private static final RedisScript<Long> RENEW_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end return 0",
+            Long.class);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private ToolActionWriter toolActionWriter;
+
+    @Resource
+    private UserRelationStore userRelationStore;
+
+    @Resource
+    private ToolDetailCache toolDetailCache;
+
+    @Resource
+    private HotRankingService hotRankingService;
+
+    @Resource
+    private ToolMetricsStore toolMetricsStore;
+
+    @Resource
+    private ToolSearchIndex toolSearchIndex;
+
+    /**
+     * 写路径模式：sync 事务内直接落库，async Redis原子去重后异步批量落库
+     */
+    @Value("${tool.action.mode:sync}")
+    private String mode;
+
+    /**
+     * 每批落库的事件数
+     */
+    @Value("${tool.action.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * 每次调度最多处理的批次数
+     */
+    @Value("${tool.action.max-batches-per-flush:50}")
+    private int maxBatchesPerFlush;
+
+    /**
+     * 批次连续失败多少次后改为逐条应用
+     */
+    @Value("${tool.action.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * 状态键过期时间（秒）
+     */
+    @Value("${tool.action.state-ttl:86400}")
+    private long stateTtlSeconds;
+
+    private int failedAttempts;
+
+    public boolean isAsync() {
+        return MODE_ASYNC.equals(mode);
+    }
+
+    /**
+     * 提交一次状态变更，已处于目标状态时返回false
+     */
+    public boolean submit(RelationType type, Long userId, Long toolId, boolean present) {
+        String current = userRelationStore.contains(userId, type, toolId) ? "1" : "0";
+        ToolActionEvent event = new ToolActionEvent(type, userId, toolId, present);
+        Long accepted = stringRedisTemplate.execute(SUBMIT_SCRIPT,
+                Arrays.asList(stateKey(type, userId, toolId), QUEUE_KEY, PENDING_KEY),
+                current, present ? "1" : "0", String.valueOf(stateTtlSeconds), event.encode(),
+                pendingField(type, toolId), String.valueOf(event.delta()));
+        if (accepted == null || accepted == 0) {
+            return false;
+        }
+        userRelationStore.updateAfterCommit(userId, type, toolId, present);
+        return true;
+    }
+
+    /**
+     * 查询尚未落库的计数增量，一次HMGET
+     *
+     * @return 工具ID -> [点赞增量, 收藏增量]，只含有待落库增量的工具；sync模式或Redis异常时为空
+     */
+    public Map<Long, int[]> pendingCounts(Collection<Long> toolIds) {
+        Map<Long, int[]> pending = new HashMap<>();
+        if (!isAsync() || toolIds.isEmpty()) {
+            return pending;
+        }
+        List<Long> idList = new ArrayList<>(toolIds);
+        List<Object> fields = new ArrayList<>(idList.size() * 2);
+        for (Long toolId : idList) {
+            fields.add(pendingField(RelationType.UPVOTE, toolId));
+            fields.add(pendingField(RelationType.FAVORITE, toolId));
+        }
+        try {
+            List<Object> values = stringRedisTemplate.opsForHash().multiGet(PENDING_KEY, fields);
+            for (int i = 0; i < idList.size(); i++) {
+                int upvotes = parseCount(values.get(i * 2));
+                int favorites = parseCount(values.get(i * 2 + 1));
+                if (upvotes != 0 || favorites != 0) {
+                    pending.put(idList.get(i), new int[]{upvotes, favorites});
+                }
+            }
+        } catch (Exception e) {
+            log.warn("读取待落库点赞收藏计数失败: {}", e.getMessage());
+        }
+        return pending;
+    }
+
+    /**
+     * 定时批量落库，多节点通过Redis锁保证同一时刻只有一个节点消费队列
+     */
+    @Scheduled(fixedDelayString = "${tool.action.flush-interval:1000}")
+    public void flush() {
+        if (!isAsync()) {
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        Boolean acquired;
+        try {
+            acquired = stringRedisTemplate.opsForValue().setIfAbsent(FLUSH_LOCK_KEY, token, FLUSH_LOCK_TTL);
+        } catch (Exception e) {
+            log.warn("获取点赞收藏落库锁失败: {}", e.getMessage());
+            return;
+        }
+        if (!Boolean.TRUE.equals(acquired)) {
+            return;
+        }
+        try {
+            for (int i = 0; i < maxBatchesPerFlush; i++) {
+                if (i > 0 && !renewLock(token)) {
+                    log.warn("点赞收藏落库锁已失效, 停止本轮落库");
+                    break;
+                }
+                List<String> raw = stringRedisTemplate.opsForList().range(QUEUE_KEY, 0, batchSize - 1);
+                if (raw == null || raw.isEmpty() || !flushBatch(raw)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("点赞收藏落库失败: {}", e.getMessage());
+        } finally {
+            stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, Collections.singletonList(FLUSH_LOCK_KEY), token);
+        }
+    }
+
+    /**
+     * 应用一批事件，成功后从队列头部移除，返回是否继续处理下一批
+     */
+    private boolean flushBatch(List<String> raw) {
+        List<ToolActionEvent> events = new ArrayList<>(raw.size());
+        List<String> malformed = new ArrayList<>();
+        for (String item : raw) {
+            try {
+                events.add(ToolActionEvent.decode(item));
+            } catch (IllegalArgumentException e) {
+                malformed.add(item);
+            }
+        }
+
+        List<ToolActionEvent> failed = new ArrayList<>();
+        Map<Long, int[]> applied;
+        try {
+            applied = toolActionWriter.apply(events);
+            failedAttempts = 0;
+        } catch (Exception e) {
+            failedAttempts++;
+            log.warn("点赞收藏批量落库失败, 第{}次, 事件数: {}, 原因: {}", failedAttempts, events.size(), e.getMessage());
+            if (failedAttempts < maxAttempts) {
+                return false;
+            }
+            applied = applyOneByOne(events, failed);
+            if (applied == null) {
+                return false;
+            }
+            failedAttempts = 0;
+        }
+
+        stringRedisTemplate.opsForList().trim(QUEUE_KEY, raw.size(), -1);
+        for (String item : malformed) {
+            log.error("无法解析的点赞收藏事件, 转入死信队列: {}", item);
+            stringRedisTemplate.opsForList().rightPush(DEAD_LETTER_KEY, item);
+        }
+        for (ToolActionEvent event : failed) {
+            discard(event);
+        }
+        settle(events, applied);
+        return raw.size() == batchSize;
+    }
+
+    /**
+     * 扣回已出队事件的待落库计数（转入死信的事件同样扣回，展示计数随之撤销），
+     * 按实际落库的增量更新热门排行、指标和搜索索引的点赞数，失效计数变化的工具详情
+     */
+    private void settle(List<ToolActionEvent> events, Map<Long, int[]> applied) {
+        Map<String, Long> pendingDeltas = new HashMap<>();
+        for (ToolActionEvent event : events) {
+            pendingDeltas.merge(pendingField(event.getType(), event.getToolId()), (long) -event.delta(), Long::sum);
+        }
+        pendingDeltas.forEach((field, delta) -> {
+            if (delta != 0) {
+                stringRedisTemplate.execute(SETTLE_SCRIPT, Collections.singletonList(PENDING_KEY),
+                        field, String.valueOf(delta));
+            }
+        });
+        applied.forEach((toolId, delta) -> {
+            if (delta[0] != 0) {
+                hotRankingService.onUpvote(toolId, delta[0]);
+                toolMetricsStore.record(toolId, ToolMetric.UPVOTE, delta[0]);
+                toolSearchIndex.onUpvote(toolId, delta[0]);
+            }
+            if (delta[1] != 0) {
+                hotRankingService.onFavorite(toolId, delta[1]);
+                toolMetricsStore.record(toolId, ToolMetric.FAVORITE, delta[1]);
+            }
+            toolDetailCache.invalidate(toolId);
+        });
+    }
+
+    private boolean renewLock(String token) {
+        Long renewed = stringRedisTemplate.execute(RENEW_LOCK_SCRIPT, Collections.singletonList(FLUSH_LOCK_KEY),
+                token, String.valueOf(FLUSH_LOCK_TTL.toMillis()));
+        return renewed != null && renewed == 1;
+    }
+
+    /**
+     * 逐条应用，仍然失败的事件转入死信队列；全部失败时视为数据库不可用，返回null保留整批等待重试
+     */
+    private Map<Long, int[]> applyOneByOne(List<ToolActionEvent> events, List<ToolActionEvent> failed) {
+        Map<Long, int[]> applied = new HashMap<>();
+        for (ToolActionEvent event : events) {
+            try {
+                toolActionWriter.apply(Collections.singletonList(event)).forEach((toolId, delta) -> {
+                    int[] total = applied.computeIfAbsent(toolId, id -> new int[2]);
+                    total[0] += delta[0];
+                    total[1] += delta[1];
+                });
+            } catch (Exception e) {
+                log.error("点赞收藏事件落库失败, 转入死信队列: {}, 原因: {}", event.encode(), e.getMessage());
+                failed.add(event);
+            }
+        }
+        if (!events.isEmpty() && failed.size() == events.size()) {
+            failed.clear();
+            return null;
+        }
+        return applied;
+    }
+
+    /**
+     * 放弃无法落库的事件：转入死信队列，并丢弃状态键和用户位图使其以数据库为准
+     */
+    private void discard(ToolActionEvent event) {
+        stringRedisTemplate.opsForList().rightPush(DEAD_LETTER_KEY, event.encode());
+        stringRedisTemplate.delete(stateKey(event.getType(), event.getUserId(), event.getToolId()));
+        userRelationStore.evict(event.getUserId());
+    }
+
+    private static String stateKey(RelationType type, Long userId, Long toolId) {
+        return STATE_KEY_PREFIX + type.getField() + ":" + userId + ":" + toolId;
+    }
+
+    private static String pendingField(RelationType type, Long toolId) {
+        return toolId + ":" + type.getField();
+    }
+
+    private static int parseCount(Object value) {
+        return value == null ? 0 : Integer.parseInt(value.toString());
+    }
+}
@@ -0,0 +1,56 @@
+package com.toolrecommend.tool.action;
+
+import com.toolrecommend.tool.mapper.ToolMapper;
+import com.toolrecommend.tool.mapper.UserActionMapper;
+import com.toolrecommend.user.relation.RelationType;
+import jakarta.annotation.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 点赞、收藏事件的持久化
+ * 按事件顺序应用到 user_action，计数增量取自实际插入、删除的行数，
+ * 同一批事件重复应用时结果不变，可安全重放
+ *
+ * @author Tool Recommend Team
+ */
+@Component
+public class ToolActionWriter {
+
+    @Resource
+    private UserActionMapper userActionMapper;
+
+    @Resource
+    private ToolMapper toolMapper;
+
+    /**
+     * 在一个事务内应用一批事件并更新工具计数
+     *
+     * @return 工具ID -> [点赞增量, 收藏增量]，只含计数已更新的工具
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public Map<Long, int[]> apply(List<ToolActionEvent> events) {
+        Map<Long, int[]> deltas = new LinkedHashMap<>();
+        for (ToolActionEvent event : events) {
+            String actionType = event.getType().name();
+            int changed;
+            if (event.isPresent()) {
+                changed = userActionMapper.insertRelationIfAbsent(event.getUserId(), event.getToolId(), actionType);
+            } else {
+                changed = -userActionMapper.deleteRelation(event.getUserId(), event.getToolId(), actionType);
+            }
+            if (changed != 0) {
+                int index = event.getType() == RelationType.UPVOTE ? 0 : 1;
+                deltas.computeIfAbsent(event.getToolId(), id -> new int[2])[index] += changed;
+            }
+        }
+        // 工具行不存在时不返回其增量，调用方据此更新排行和指标
+        deltas.entrySet().removeIf(entry ->
+                toolMapper.addActionCounts(entry.getKey(), entry.getValue()[0], entry.getValue()[1]) == 0);
+        return deltas;
+    }
+}
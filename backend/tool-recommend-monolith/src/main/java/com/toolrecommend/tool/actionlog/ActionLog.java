@@ -0,0 +1,558 @@
+package com.toolrecommend.tool.actionlog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 本地仅追加的用户行为日志
+ * 请求线程只把编码好的记录追加到内存映射的日志段，由单独的刷盘线程按固定间隔统一force（组提交），
+ * ActionLogShipper 从检查点起读取已刷盘的记录批量写入 user_action，写入成功后推进检查点并删除已投递完的段。
+ * 日志按全局字节偏移寻址，段文件名即段的起始偏移；重启时扫描最后一段恢复写入位置，检查点之后的记录会被重新投递。
+ * 投递积压时合并检查点之后的已封存段，窗口内重复的行为只保留第一条，腾出段数配额；
+ * 合并改变记录偏移但保留记录首次追加时的事件偏移，event_key 不受合并影响
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class ActionLog {
+
+    private static final String CHECKPOINT_FILE = "shipped.offset";
+
+    private static final String LOG_ID_FILE = "log.id";
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 是否启用行为日志，关闭时不记录浏览、点击行为
+     */
+    @Value("${tool.action-log.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 日志目录（节点本地磁盘）
+     */
+    @Value("${tool.action-log.dir:./data/action-log}")
+    private String dir;
+
+    /**
+     * 单个段文件大小（字节）
+     */
+    @Value("${tool.action-log.segment-size:67108864}")
+    private int segmentSize;
+
+    /**
+     * 组提交刷盘间隔（毫秒）
+     */
+    @Value("${tool.action-log.group-commit-interval:20}")
+    private long groupCommitInterval;
+
+    /**
+     * 追加后是否等待刷盘完成再返回
+     */
+    @Value("${tool.action-log.sync:false}")
+    private boolean sync;
+
+    /**
+     * 最多保留的段数，积压超过时丢弃新记录，防止投递长时间失败时占满磁盘
+     */
+    @Value("${tool.action-log.max-segments:64}")
+    private int maxSegments;
+
+    /**
+     * 段数达到该值时合并尚未投递的已封存段，0表示不合并
+     */
+    @Value("${tool.action-log.compact-threshold:32}")
+    private int compactThreshold;
+
+    /**
+     * 合并时同一用户对同一工具的相同行为（来源相同）在该时间窗口（毫秒）内只保留第一条
+     */
+    @Value("${tool.action-log.compact-window:60000}")
+    private long compactWindow;
+
+    private Path directory;
+
+    /**
+     * 日志实例ID，与记录的事件偏移组成 user_action.event_key，重放时据此去重
+     */
+    private String logId;
+
+    private final ConcurrentSkipListMap<Long, ActionLogSegment> segments = new ConcurrentSkipListMap<>();
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private final Condition flushed = appendLock.newCondition();
+
+    /**
+     * 已轮转但尚未刷盘的段
+     */
+    private final List<ActionLogSegment> unflushed = new ArrayList<>();
+
+    private ActionLogSegment active;
+
+    private volatile long appendedOffset;
+
+    private volatile long durableOffset;
+
+    private volatile long shippedOffset;
+
+    private volatile boolean running;
+
+    private Thread flusher;
+
+    private Counter dropped;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        directory = Paths.get(dir).toAbsolutePath();
+        Files.createDirectories(directory);
+        logId = readOrCreateLogId();
+        shippedOffset = readCheckpoint();
+        recoverCompaction();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                long baseOffset = ActionLogSegment.parseBaseOffset(file);
+                if (baseOffset >= 0) {
+                    segments.put(baseOffset, ActionLogSegment.open(directory, baseOffset, segmentSize));
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            active = ActionLogSegment.open(directory, shippedOffset, segmentSize);
+            segments.put(shippedOffset, active);
+        } else {
+            active = segments.lastEntry().getValue();
+            active.recover();
+        }
+        appendedOffset = active.getEndOffset();
+        durableOffset = appendedOffset;
+        if (shippedOffset < segments.firstKey()) {
+            shippedOffset = segments.firstKey();
+        }
+        if (appendedOffset > shippedOffset) {
+            log.info("行为日志恢复: {} 个段, 待重新投递 {} 字节", segments.size(), appendedOffset - shippedOffset);
+        }
+
+        dropped = Counter.builder("action.log.dropped")
+                .description("因积压超过上限被丢弃的行为记录数")
+                .register(meterRegistry);
+        Gauge.builder("action.log.unshipped.bytes", this, log -> log.durableOffset - log.shippedOffset)
+                .description("已刷盘但尚未写入数据库的日志字节数")
+                .register(meterRegistry);
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "action-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 追加一条行为记录；同步模式下等待所在的组提交完成后返回
+     *
+     * @return 是否写入（未启用或积压超限时为false）
+     */
+    public boolean append(Long userId, Long toolId, LoggedAction action, String source) {
+        if (!running || userId == null || toolId == null) {
+            return false;
+        }
+        byte[] record = new ActionLogRecord(-1, -1, userId, toolId, action, source, System.currentTimeMillis()).encode();
+        long endOffset;
+        appendLock.lock();
+        try {
+            if (!active.append(record)) {
+                if (!roll() || !active.append(record)) {
+                    dropped.increment();
+                    return false;
+                }
+            }
+            endOffset = active.getEndOffset();
+            appendedOffset = endOffset;
+            if (sync) {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+                while (durableOffset < endOffset && running) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    flushed.awaitNanos(remaining);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            appendLock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * 从 offset 起读取至多 max 条已刷盘的记录
+     */
+    public ActionLogBatch read(long offset, int max) {
+        long limit = durableOffset;
+        List<ActionLogRecord> records = new ArrayList<>();
+        long next = offset;
+        while (records.size() < max && next < limit) {
+            Map.Entry<Long, ActionLogSegment> entry = segments.floorEntry(next);
+            if (entry == null) {
+                next = segments.firstKey();
+                continue;
+            }
+            ActionLogSegment segment = entry.getValue();
+            int position = (int) (next - segment.getBaseOffset());
+            ActionLogRecord record = segment.read(position);
+            if (record == null) {
+                // 段尾或损坏的记录，跳到下一段（合并后的段在段尾与下一段之间留有空隙）
+                Long nextBase = segments.higherKey(segment.getBaseOffset());
+                if (nextBase == null || nextBase > limit) {
+                    break;
+                }
+                if (nextBase != next && !segment.isEnd(position)) {
+                    log.warn("行为日志段 {} 在偏移 {} 处损坏, 跳过 {} 字节", segment.getBaseOffset(), next, nextBase - next);
+                }
+                next = nextBase;
+                continue;
+            }
+            records.add(record);
+            next += segment.sizeAt(position);
+        }
+        return new ActionLogBatch(records, next);
+    }
+
+    /**
+     * 推进投递检查点，并删除已全部投递的段（活动段除外）
+     */
+    public void commit(long offset) throws IOException {
+        if (offset <= shippedOffset) {
+            return;
+        }
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, Long.toString(offset), StandardCharsets.UTF_8);
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        shippedOffset = offset;
+
+        for (Map.Entry<Long, ActionLogSegment> entry : segments.entrySet()) {
+            Long nextBase = segments.higherKey(entry.getKey());
+            if (nextBase == null || nextBase > offset) {
+                break;
+            }
+            ActionLogSegment segment = entry.getValue();
+            appendLock.lock();
+            try {
+                if (segment == active || unflushed.contains(segment)) {
+                    break;
+                }
+                segments.remove(entry.getKey());
+            } finally {
+                appendLock.unlock();
+            }
+            segment.delete();
+            log.debug("删除已投递的行为日志段: {}", ActionLogSegment.fileName(entry.getKey()));
+        }
+    }
+
+    /**
+     * 合并检查点之后的已封存段：按顺序读出记录，丢弃窗口内重复的行为，剩余记录依次写入新段，
+     * 一个新段写满后开始下一组。新段沿用组内第一段的起始偏移，每段的记录写完后不超过其原结束偏移，后续段的偏移不变。
+     * 检查点之后的记录可能已写入数据库（写库成功后未来得及提交检查点），改写时保留事件偏移，
+     * 重放时 event_key 与首次投递一致；须在投递线程中调用，避免与读取交错
+     *
+     * @return 减少的段数
+     */
+    public int compact() throws IOException {
+        if (!running || compactThreshold <= 0 || segments.size() < compactThreshold) {
+            return 0;
+        }
+        List<ActionLogSegment> sealed = new ArrayList<>();
+        List<Long> limits = new ArrayList<>();
+        appendLock.lock();
+        try {
+            for (ActionLogSegment segment : segments.tailMap(shippedOffset, true).values()) {
+                if (segment == active || unflushed.contains(segment)) {
+                    break;
+                }
+                sealed.add(segment);
+                // 封存段之后必有下一段，其起始偏移即本段记录的上界
+                limits.add(segments.higherKey(segment.getBaseOffset()));
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        if (sealed.size() < 2) {
+            return 0;
+        }
+
+        int removed = 0;
+        Map<DedupeKey, Long> lastKept = new LinkedHashMap<>();
+        List<ActionLogSegment> group = new ArrayList<>();
+        ActionLogSegment merged = null;
+        for (int i = 0; i < sealed.size(); i++) {
+            ActionLogSegment segment = sealed.get(i);
+            long limit = limits.get(i);
+            List<byte[]> survivors = new ArrayList<>();
+            segment.forEach(record -> {
+                if (keep(record, lastKept)) {
+                    survivors.add(record.encode());
+                }
+            });
+            int size = 0;
+            for (byte[] survivor : survivors) {
+                size += survivor.length;
+            }
+            if (merged != null && (!merged.fits(size) || merged.getEndOffset() + size > limit)) {
+                removed += finishCompaction(group, merged);
+                group = new ArrayList<>();
+                merged = null;
+            }
+            if (merged == null && segment.getBaseOffset() + size > limit) {
+                // 带上事件偏移后本段放不回原范围，保持原样
+                continue;
+            }
+            if (merged == null) {
+                merged = ActionLogSegment.openCompacting(directory, segment.getBaseOffset(), segmentSize);
+            }
+            for (byte[] survivor : survivors) {
+                merged.append(survivor);
+            }
+            group.add(segment);
+        }
+        if (merged != null) {
+            removed += finishCompaction(group, merged);
+        }
+        if (removed > 0) {
+            log.info("行为日志合并完成: 减少 {} 个段, 剩余 {} 个段", removed, segments.size());
+        }
+        return removed;
+    }
+
+    public long getShippedOffset() {
+        return shippedOffset;
+    }
+
+    public String getLogId() {
+        return logId;
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        for (ActionLogSegment segment : segments.values()) {
+            segment.close();
+        }
+    }
+
+    /**
+     * 轮转到新段，段数已达上限时返回false
+     */
+    private boolean roll() {
+        if (segments.size() >= maxSegments) {
+            return false;
+        }
+        long baseOffset = active.getEndOffset();
+        try {
+            ActionLogSegment segment = ActionLogSegment.open(directory, baseOffset, segmentSize);
+            unflushed.add(active);
+            segments.put(baseOffset, segment);
+            active = segment;
+            return true;
+        } catch (IOException e) {
+            log.error("行为日志段创建失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private record DedupeKey(long userId, long toolId, LoggedAction action, String source) {
+    }
+
+    /**
+     * 窗口内首次出现的行为保留；记录基本按时间追加，超出窗口的旧键从头部淘汰，控制去重表大小
+     */
+    private boolean keep(ActionLogRecord record, Map<DedupeKey, Long> lastKept) {
+        Iterator<Long> head = lastKept.values().iterator();
+        while (head.hasNext() && head.next() <= record.createdAt() - compactWindow) {
+            head.remove();
+        }
+        DedupeKey key = new DedupeKey(record.userId(), record.toolId(), record.action(), record.source());
+        Long kept = lastKept.get(key);
+        if (kept != null && record.createdAt() - kept < compactWindow) {
+            return false;
+        }
+        lastKept.remove(key);
+        lastKept.put(key, record.createdAt());
+        return true;
+    }
+
+    /**
+     * 用合并出的新段替换一组段：新段落盘后改名为 .compact 标记内容完整，删除组内其余段，
+     * 再改名覆盖组内第一段。任一步骤中断，重启时由 recoverCompaction 完成或丢弃
+     *
+     * @return 减少的段数
+     */
+    private int finishCompaction(List<ActionLogSegment> group, ActionLogSegment merged) throws IOException {
+        if (group.size() < 2) {
+            merged.delete();
+            return 0;
+        }
+        ActionLogSegment first = group.get(0);
+        long lastBase = group.get(group.size() - 1).getBaseOffset();
+        merged.force();
+        merged.moveTo(directory.resolve(ActionLogSegment.compactedFileName(first.getBaseOffset(), lastBase)));
+
+        appendLock.lock();
+        try {
+            for (ActionLogSegment segment : group) {
+                segments.remove(segment.getBaseOffset());
+            }
+            segments.put(first.getBaseOffset(), merged);
+        } finally {
+            appendLock.unlock();
+        }
+        for (ActionLogSegment segment : group.subList(1, group.size())) {
+            segment.delete();
+        }
+        first.close();
+        merged.moveTo(directory.resolve(ActionLogSegment.fileName(first.getBaseOffset())));
+        return group.size() - 1;
+    }
+
+    /**
+     * 处理上次未结束的合并：.compacting 内容可能不完整，直接删除；.compact 内容已完整，
+     * 删除其覆盖范围内残留的旧段后改名为正式段文件
+     */
+    private void recoverCompaction() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.toList();
+        }
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(ActionLogSegment.COMPACTING_SUFFIX)) {
+                Files.deleteIfExists(file);
+                continue;
+            }
+            long[] range = ActionLogSegment.parseCompactedRange(file);
+            if (range == null) {
+                continue;
+            }
+            for (Path other : files) {
+                long baseOffset = ActionLogSegment.parseBaseOffset(other);
+                if (baseOffset > range[0] && baseOffset <= range[1]) {
+                    Files.deleteIfExists(other);
+                }
+            }
+            Files.move(file, directory.resolve(ActionLogSegment.fileName(range[0])),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("完成上次中断的行为日志合并: {}", file.getFileName());
+        }
+    }
+
+    private void runFlusher() {
+        while (running) {
+            try {
+                Thread.sleep(groupCommitInterval);
+            } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                flush();
+            } catch (Exception e) {
+                log.error("行为日志刷盘失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 组提交：一次force覆盖上次刷盘以来的全部追加，然后唤醒等待的写入方
+     */
+    private void flush() {
+        long target;
+        List<ActionLogSegment> toFlush;
+        appendLock.lock();
+        try {
+            target = appendedOffset;
+            if (target == durableOffset) {
+                return;
+            }
+            toFlush = new ArrayList<>(unflushed);
+            toFlush.add(active);
+        } finally {
+            appendLock.unlock();
+        }
+
+        for (ActionLogSegment segment : toFlush) {
+            segment.force();
+        }
+
+        appendLock.lock();
+        try {
+            unflushed.removeAll(toFlush);
+            durableOffset = target;
+            flushed.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(file, StandardCharsets.UTF_8).trim());
+    }
+
+    private String readOrCreateLogId() throws IOException {
+        Path file = directory.resolve(LOG_ID_FILE);
+        if (Files.exists(file)) {
+            return Files.readString(file, StandardCharsets.UTF_8).trim();
+        }
+        String id = UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+        Files.writeString(file, id, StandardCharsets.UTF_8);
+        return id;
+    }
+}
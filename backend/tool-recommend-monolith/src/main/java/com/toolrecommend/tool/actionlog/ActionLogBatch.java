@@ -0,0 +1,17 @@
+package com.toolrecommend.tool.actionlog;
+
+import java.util.List;
+
+/**
+ * 一次读取的行为日志记录
+ *
+ * @param records    按偏移顺序的记录
+ * @param nextOffset 下一次读取的起始偏移，投递成功后作为检查点提交
+ * @author Tool Recommend Team
+ */
+public record ActionLogBatch(List<ActionLogRecord> records, long nextOffset) {
+
+    public boolean isEmpty() {
+        return records.isEmpty();
+    }
+}
@@ -0,0 +1,118 @@
+package com.toolrecommend.tool.actionlog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * 行为日志记录及其编码
+ * 格式：[int 负载长度][int 负载CRC32C][long userId][long toolId][long 时间毫秒][byte 行为序号][short 来源长度][来源UTF-8]
+ * [long 事件偏移（可选）]，长度为0表示段内已无记录。追加时不写事件偏移，即等于记录自身的偏移；
+ * 合并会移动记录，改写时带上事件偏移，保证重放时 event_key 不变
+ *
+ * @param offset      记录在日志中的全局偏移（读出时填充，写入前为-1）
+ * @param eventOffset 记录首次追加时的全局偏移，与日志ID组成 event_key（读出时填充，写入前为-1）
+ * @param userId    用户ID
+ * @param toolId    工具ID
+ * @param action    行为类型
+ * @param source    来源，可为空
+ * @param createdAt 发生时间（毫秒）
+ * @author Tool Recommend Team
+ */
+public record ActionLogRecord(long offset, long eventOffset, long userId, long toolId, LoggedAction action, String source,
+                              long createdAt) {
+
+    static final int HEADER_SIZE = 8;
+
+    private static final int FIXED_PAYLOAD_SIZE = 8 + 8 + 8 + 1 + 2;
+
+    /**
+     * 来源最多保留的字节数（user_action.source 为 VARCHAR(50)）
+     */
+    private static final int MAX_SOURCE_BYTES = 50;
+
+    /**
+     * 编码为完整记录（含头部），在写入锁外调用；事件偏移已知时一并写入
+     */
+    byte[] encode() {
+        byte[] sourceBytes = sourceBytes(source);
+        int eventOffsetSize = eventOffset >= 0 ? 8 : 0;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + FIXED_PAYLOAD_SIZE + sourceBytes.length + eventOffsetSize);
+        buffer.position(HEADER_SIZE);
+        buffer.putLong(userId)
+                .putLong(toolId)
+                .putLong(createdAt)
+                .put((byte) action.ordinal())
+                .putShort((short) sourceBytes.length)
+                .put(sourceBytes);
+        if (eventOffsetSize > 0) {
+            buffer.putLong(eventOffset);
+        }
+        int payloadLength = buffer.position() - HEADER_SIZE;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), HEADER_SIZE, payloadLength);
+        buffer.putInt(0, payloadLength);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * 从 position 处解码一条记录；到达段尾、记录不完整或校验失败时返回null
+     *
+     * @param buffer     段缓冲（只做绝对位置读取，可并发调用）
+     * @param position   段内位置
+     * @param baseOffset 段的全局起始偏移
+     */
+    static ActionLogRecord decode(ByteBuffer buffer, int position, long baseOffset) {
+        if (position + HEADER_SIZE + FIXED_PAYLOAD_SIZE > buffer.capacity()) {
+            return null;
+        }
+        int payloadLength = buffer.getInt(position);
+        if (payloadLength < FIXED_PAYLOAD_SIZE || position + HEADER_SIZE + payloadLength > buffer.capacity()) {
+            return null;
+        }
+        byte[] payload = new byte[payloadLength];
+        buffer.get(position + HEADER_SIZE, payload);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            return null;
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        long userId = in.getLong();
+        long toolId = in.getLong();
+        long createdAt = in.getLong();
+        LoggedAction action = LoggedAction.ofOrdinal(in.get());
+        int sourceLength = in.getShort();
+        if (action == null || sourceLength < 0
+                || (sourceLength != in.remaining() && sourceLength + 8 != in.remaining())) {
+            return null;
+        }
+        String source = sourceLength == 0 ? null
+                : new String(payload, in.position(), sourceLength, StandardCharsets.UTF_8);
+        long offset = baseOffset + position;
+        long eventOffset = in.remaining() > sourceLength ? in.getLong(in.position() + sourceLength) : offset;
+        return new ActionLogRecord(offset, eventOffset, userId, toolId, action, source, createdAt);
+    }
+
+    /**
+     * 已校验记录的完整长度（含头部）
+     */
+    static int sizeAt(ByteBuffer buffer, int position) {
+        return HEADER_SIZE + buffer.getInt(position);
+    }
+
+    private static byte[] sourceBytes(String source) {
+        if (source == null || source.isEmpty()) {
+            return new byte[0];
+        }
+        String value = source.length() > MAX_SOURCE_BYTES ? source.substring(0, MAX_SOURCE_BYTES) : source;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        while (bytes.length > MAX_SOURCE_BYTES) {
+            value = value.substring(0, value.length() - 1);
+            bytes = value.getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,228 @@
+package com.toolrecommend.tool.actionlog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * 行为日志段：固定容量的内存映射文件，文件名为段的全局起始偏移。
+ * 写入由 ActionLog 在锁内串行进行，读取只使用绝对位置，可与写入并发。
+ * 合并时先写入 .compacting 临时文件，内容完整落盘后改名为 起始偏移-被合并的最后一段偏移.compact，
+ * 删除被合并的段后再改名为正式段文件；重启时据文件名完成或丢弃未结束的合并
+ *
+ * @author Tool Recommend Team
+ */
+final class ActionLogSegment {
+
+    static final String SUFFIX = ".log";
+
+    static final String COMPACTING_SUFFIX = ".compacting";
+
+    static final String COMPACTED_SUFFIX = ".compact";
+
+    private final long baseOffset;
+
+    private Path path;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * 段内下一条记录的写入位置
+     */
+    private int position;
+
+    private ActionLogSegment(long baseOffset, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.baseOffset = baseOffset;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * 打开或创建段文件，新文件按容量预分配（内容为0）
+     */
+    static ActionLogSegment open(Path dir, long baseOffset, int capacity) throws IOException {
+        return map(dir.resolve(fileName(baseOffset)), baseOffset, capacity);
+    }
+
+    /**
+     * 创建合并用的临时段文件，已存在时清空重建
+     */
+    static ActionLogSegment openCompacting(Path dir, long baseOffset, int capacity) throws IOException {
+        Path path = dir.resolve(String.format("%020d%s", baseOffset, COMPACTING_SUFFIX));
+        Files.deleteIfExists(path);
+        return map(path, baseOffset, capacity);
+    }
+
+    private static ActionLogSegment map(Path path, long baseOffset, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = Math.max(channel.size(), capacity);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new ActionLogSegment(baseOffset, path, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static String fileName(long baseOffset) {
+        return String.format("%020d%s", baseOffset, SUFFIX);
+    }
+
+    static String compactedFileName(long baseOffset, long lastMergedOffset) {
+        return String.format("%020d-%020d%s", baseOffset, lastMergedOffset, COMPACTED_SUFFIX);
+    }
+
+    /**
+     * 由已完成合并的文件名解析 [起始偏移, 被合并的最后一段偏移]，不是合并文件时返回null
+     */
+    static long[] parseCompactedRange(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(COMPACTED_SUFFIX)) {
+            return null;
+        }
+        String[] parts = name.substring(0, name.length() - COMPACTED_SUFFIX.length()).split("-");
+        if (parts.length != 2) {
+            return null;
+        }
+        try {
+            return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 由文件名解析段起始偏移，不是段文件时返回-1
+     */
+    static long parseBaseOffset(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 扫描出最后一条完整记录之后的位置作为写入位置，并把其后的残留字节清零，
+     * 避免崩溃时写了一半的记录或旧数据在覆盖写入后被误读
+     *
+     * @return 有效记录的字节数
+     */
+    int recover() {
+        int pos = 0;
+        while (ActionLogRecord.decode(buffer, pos, baseOffset) != null) {
+            pos += ActionLogRecord.sizeAt(buffer, pos);
+        }
+        position = pos;
+        for (int i = pos; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * 追加一条已编码的记录，空间不足时返回false（需要滚动到新段）
+     */
+    boolean append(byte[] record) {
+        if (position + record.length > buffer.capacity()) {
+            return false;
+        }
+        // 先写负载再写长度，读方看到非0长度时负载已完整
+        buffer.put(position + 4, record, 4, record.length - 4);
+        buffer.putInt(position, ByteBuffer.wrap(record).getInt(0));
+        position += record.length;
+        return true;
+    }
+
+    /**
+     * 读取段内 position 处的记录，到达已写入末尾或记录损坏时返回null
+     */
+    ActionLogRecord read(int pos) {
+        return ActionLogRecord.decode(buffer, pos, baseOffset);
+    }
+
+    /**
+     * position 处是否为段内已写入的末尾（之后全为0），用于区分正常段尾与损坏的记录
+     */
+    boolean isEnd(int pos) {
+        return pos + 4 > buffer.capacity() || buffer.getInt(pos) == 0;
+    }
+
+    /**
+     * 按顺序遍历段内的有效记录，遇到段尾或损坏的记录时停止
+     */
+    void forEach(Consumer<ActionLogRecord> consumer) {
+        int pos = 0;
+        ActionLogRecord record;
+        while ((record = read(pos)) != null) {
+            consumer.accept(record);
+            pos += sizeAt(pos);
+        }
+    }
+
+    /**
+     * 剩余空间能否再写入 bytes 字节
+     */
+    boolean fits(int bytes) {
+        return position + bytes <= buffer.capacity();
+    }
+
+    int sizeAt(int pos) {
+        return ActionLogRecord.sizeAt(buffer, pos);
+    }
+
+    /**
+     * 把映射区中的修改刷到磁盘
+     */
+    void force() {
+        buffer.force();
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    /**
+     * 已写入末尾的全局偏移，即下一段的起始偏移
+     */
+    long getEndOffset() {
+        return baseOffset + position;
+    }
+
+    /**
+     * 原子改名段文件，映射区不受影响
+     */
+    void moveTo(Path target) throws IOException {
+        Files.move(path, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        path = target;
+    }
+
+    /**
+     * 关闭并删除段文件，映射区在缓冲被回收时释放
+     */
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,107 @@
+package com.toolrecommend.tool.actionlog;
+
+import com.toolrecommend.common.entity.UserAction;
+import com.toolrecommend.tool.mapper.UserActionMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 行为日志投递
+ * 定时从检查点起读取已刷盘的记录，以多行 INSERT IGNORE 批量写入 user_action，成功后推进检查点。
+ * 每条记录的 event_key 为 日志ID:事件偏移（首次追加时的偏移，合并后不变），崩溃后从检查点重放时已写入的记录被唯一索引忽略。
+ * 积压的段数过多时先合并未投递的段，合并与读取在同一线程中进行
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class ActionLogShipper {
+
+    @Resource
+    private ActionLog actionLog;
+
+    @Resource
+    private UserActionMapper userActionMapper;
+
+    /**
+     * 每条INSERT语句包含的记录数
+     */
+    @Value("${tool.action-log.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 每次调度最多投递的批次数
+     */
+    @Value("${tool.action-log.max-batches-per-ship:20}")
+    private int maxBatchesPerShip;
+
+    private final ReentrantLock shipLock = new ReentrantLock();
+
+    @Scheduled(fixedDelayString = "${tool.action-log.ship-interval:1000}")
+    public void ship() {
+        if (!actionLog.isEnabled() || !shipLock.tryLock()) {
+            return;
+        }
+        try {
+            actionLog.compact();
+            for (int i = 0; i < maxBatchesPerShip; i++) {
+                if (!shipBatch()) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("行为日志投递失败, 检查点: {}, 原因: {}", actionLog.getShippedOffset(), e.getMessage());
+        } finally {
+            shipLock.unlock();
+        }
+    }
+
+    /**
+     * 应用关闭前尽量投递完已刷盘的记录，未投递的部分在下次启动时重放
+     */
+    @PreDestroy
+    public void shutdown() {
+        ship();
+    }
+
+    /**
+     * 投递一批记录
+     *
+     * @return 是否可能还有待投递的记录
+     */
+    private boolean shipBatch() throws Exception {
+        ActionLogBatch batch = actionLog.read(actionLog.getShippedOffset(), batchSize);
+        if (!batch.isEmpty()) {
+            List<UserAction> actions = new ArrayList<>(batch.records().size());
+            for (ActionLogRecord record : batch.records()) {
+                actions.add(toUserAction(record));
+            }
+            userActionMapper.insertIgnoreBatch(actions);
+        }
+        // 即使没有记录，也可能跳过了损坏的段尾，同样推进检查点
+        actionLog.commit(batch.nextOffset());
+        return batch.records().size() == batchSize;
+    }
+
+    private UserAction toUserAction(ActionLogRecord record) {
+        UserAction action = new UserAction();
+        action.setUserId(record.userId());
+        action.setToolId(record.toolId());
+        action.setActionType(record.action().name());
+        action.setSource(record.source());
+        action.setEventKey(actionLog.getLogId() + ":" + record.eventOffset());
+        action.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(record.createdAt()), ZoneId.systemDefault()));
+        return action;
+    }
+}
@@ -0,0 +1,20 @@
+package com.toolrecommend.tool.actionlog;
+
+/**
+ * 写入行为日志的行为类型，名称与 user_action.action_type 一致。
+ * 日志中按序号存储，只能在末尾追加新类型
+ *
+ * @author Tool Recommend Team
+ */
+public enum LoggedAction {
+
+    VIEW,
+    CLICK_WEBSITE,
+    CLICK_DOWNLOAD;
+
+    private static final LoggedAction[] VALUES = values();
+
+    static LoggedAction ofOrdinal(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : null;
+    }
+}
@@ -0,0 +1,92 @@
+package com.toolrecommend.tool.cache;
+
+import com.toolrecommend.common.vo.ToolVO;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 工具卡片缓存
+ * 列表卡片（ToolVO）以 tool:card:{id} 存放在Redis中，批量读取只需一次MGET、回填用一次管道写入。
+ * 与工具详情同时失效（见 ToolDetailCache#invalidate）
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class ToolCardCache {
+
+    public static final String CACHE_KEY_PREFIX = "tool:card:";
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 卡片缓存过期时间（分钟）
+     */
+    @Value("${tool.card-cache.ttl:10}")
+    private long ttlMinutes;
+
+    /**
+     * 批量读取卡片，返回命中的 工具ID -> 卡片，Redis异常时视为全部未命中
+     */
+    public Map<Long, ToolVO> multiGet(Collection<Long> ids) {
+        Map<Long, ToolVO> hits = new HashMap<>(ids.size() * 2);
+        if (ids.isEmpty()) {
+            return hits;
+        }
+        List<Long> idList = new ArrayList<>(ids);
+        List<String> keys = new ArrayList<>(idList.size());
+        for (Long id : idList) {
+            keys.add(CACHE_KEY_PREFIX + id);
+        }
+        try {
+            List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+            if (values != null) {
+                for (int i = 0; i < idList.size(); i++) {
+                    if (values.get(i) instanceof ToolVO card) {
+                        hits.put(idList.get(i), card);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("批量读取工具卡片缓存失败: {}", e.getMessage());
+        }
+        return hits;
+    }
+
+    /**
+     * 管道批量写入卡片
+     */
+    @SuppressWarnings("unchecked")
+    public void putAll(Collection<ToolVO> cards) {
+        if (cards.isEmpty()) {
+            return;
+        }
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        long ttlSeconds = TimeUnit.MINUTES.toSeconds(ttlMinutes);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (ToolVO card : cards) {
+                    byte[] key = (CACHE_KEY_PREFIX + card.getId()).getBytes(StandardCharsets.UTF_8);
+                    connection.stringCommands().setEx(key, ttlSeconds, valueSerializer.serialize(card));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("批量写入工具卡片缓存失败: {}", e.getMessage());
+        }
+    }
+}
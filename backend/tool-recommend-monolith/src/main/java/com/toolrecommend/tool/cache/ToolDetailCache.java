@@ -0,0 +1,187 @@
+package com.toolrecommend.tool.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.toolrecommend.common.vo.ToolDetailVO;
+import com.toolrecommend.common.vo.ToolVO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 工具详情两级缓存
+ * L1为进程内Caffeine缓存（按权重淘汰、写入后过期），L2为Redis中的 tool:detail:{id}。
+ * 失效时删除L2并通过Redis发布订阅通知所有节点丢弃各自的L1副本
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class ToolDetailCache implements MessageListener {
+
+    public static final String CACHE_KEY_PREFIX = "tool:detail:";
+
+    public static final String INVALIDATE_CHANNEL = "tool:detail:invalidate";
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * L1最大总权重（约等于字符数）
+     */
+    @Value("${tool.detail-cache.l1-max-weight:20000000}")
+    private long l1MaxWeight;
+
+    /**
+     * L1过期时间（秒），兜底跨节点失效消息丢失的情况
+     */
+    @Value("${tool.detail-cache.l1-ttl:30}")
+    private long l1TtlSeconds;
+
+    /**
+     * L2过期时间（分钟）
+     */
+    @Value("${tool.detail-cache.l2-ttl:60}")
+    private long l2TtlMinutes;
+
+    private Cache<Long, ToolDetailVO> localCache;
+
+    private Counter l2Hits;
+
+    private Counter l2Misses;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumWeight(l1MaxWeight)
+                .weigher((Long id, ToolDetailVO detail) -> weigh(detail))
+                .expireAfterWrite(Duration.ofSeconds(l1TtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "tool.detail.l1");
+        l2Hits = Counter.builder("tool.detail.l2").tag("result", "hit").register(meterRegistry);
+        l2Misses = Counter.builder("tool.detail.l2").tag("result", "miss").register(meterRegistry);
+
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 依次查询L1、L2，L2命中时回填L1
+     */
+    public ToolDetailVO get(Long id) {
+        ToolDetailVO detail = localCache.getIfPresent(id);
+        if (detail != null) {
+            return detail;
+        }
+
+        detail = (ToolDetailVO) redisTemplate.opsForValue().get(CACHE_KEY_PREFIX + id);
+        if (detail != null) {
+            l2Hits.increment();
+            localCache.put(id, detail);
+        } else {
+            l2Misses.increment();
+        }
+        return detail;
+    }
+
+    /**
+     * 同时写入L1和L2
+     */
+    public void put(Long id, ToolDetailVO detail) {
+        redisTemplate.opsForValue().set(CACHE_KEY_PREFIX + id, detail, l2TtlMinutes, TimeUnit.MINUTES);
+        localCache.put(id, detail);
+    }
+
+    /**
+     * 失效工具详情：删除L2及工具卡片缓存、本地L1，并广播给其他节点
+     */
+    public void invalidate(Long id) {
+        redisTemplate.delete(Arrays.asList(CACHE_KEY_PREFIX + id, ToolCardCache.CACHE_KEY_PREFIX + id));
+        localCache.invalidate(id);
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, String.valueOf(id));
+        } catch (Exception e) {
+            // 广播失败时其他节点的L1依赖过期时间兜底
+            log.warn("广播工具详情失效消息失败, toolId: {}, 原因: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * 在事务提交后失效工具详情，避免提交前其他请求把旧数据重新写回缓存；不在事务中时立即失效
+     */
+    public void invalidateAfterCommit(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(id);
+                }
+            });
+        } else {
+            invalidate(id);
+        }
+    }
+
+    /**
+     * 接收其他节点（包括本节点）的失效广播
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            localCache.invalidate(Long.valueOf(body.trim()));
+        } catch (NumberFormatException e) {
+            log.warn("无法识别的工具详情失效消息: {}", body);
+        }
+    }
+
+    /**
+     * 估算缓存对象的权重（字符数），用于按内存占用淘汰
+     */
+    private int weigh(ToolDetailVO detail) {
+        int weight = 256;
+        weight += length(detail.getName()) + length(detail.getTagline()) + length(detail.getDescription());
+        weight += length(detail.getLogoUrl()) + length(detail.getWebsiteUrl())
+                + length(detail.getDownloadUrl()) + length(detail.getGithubUrl());
+        if (detail.getTags() != null) {
+            weight += detail.getTags().size() * 64;
+        }
+        if (detail.getSimilarTools() != null) {
+            for (ToolVO similar : detail.getSimilarTools()) {
+                weight += 128 + length(similar.getName()) + length(similar.getTagline());
+            }
+        }
+        return weight;
+    }
+
+    private int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -2,10 +2,14 @@ package com.toolrecommend.tool.controller;
 
 import com.toolrecommend.common.dto.ToolCreateDTO;
 import com.toolrecommend.common.dto.ToolQueryDTO;
+import com.toolrecommend.common.exception.BusinessException;
 import com.toolrecommend.common.result.PageResult;
 import com.toolrecommend.common.result.Result;
 import com.toolrecommend.common.vo.ToolDetailVO;
+import com.toolrecommend.common.vo.ToolRelationVO;
+import com.toolrecommend.common.vo.ToolStatsVO;
 import com.toolrecommend.common.vo.ToolVO;
+import com.toolrecommend.tool.actionlog.LoggedAction;
 import com.toolrecommend.tool.service.ToolService;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -22,11 +26,15 @@ import java.util.List;
 @RequestMapping("/api/tools")
 public class ToolController {
 
+    private static final int MAX_RELATION_IDS = 200;
+
+    private static final int MAX_BATCH_IDS = 100;
+
     @Resource
     private ToolService toolService;
 
     /**
-     * 分页查询工具列表
+     * 分页查询工具列表，请求体带cursor时使用游标分页（空字符串表示第一页）
      */
     @PostMapping("/query")
     public Result<PageResult<ToolVO>> queryTools(@RequestBody ToolQueryDTO queryDTO) {
@@ -40,12 +48,15 @@ public class ToolController {
     @GetMapping("/{id}")
     public Result<ToolDetailVO> getToolDetail(
             @PathVariable Long id,
-            @RequestHeader(value = "User-Id", required = false) Long userId) {
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
 
-        // 增加浏览量
+        // 工具不存在或未发布时这里直接抛出，不再为无效ID计数
+        ToolDetailVO detail = toolService.getToolDetail(id, userId);
+
+        // 增加浏览量，登录用户的浏览写入行为日志（用户ID取自认证过滤器注入的请求头）
         toolService.incrementViewCount(id);
+        toolService.recordAction(id, userId, LoggedAction.VIEW, null);
 
-        ToolDetailVO detail = toolService.getToolDetail(id, userId);
         return Result.success(detail);
     }
 
@@ -127,6 +138,27 @@ public class ToolController {
         return success ? Result.success("取消收藏成功") : Result.error("未收藏");
     }
 
+    /**
+     * 记录点击官网或下载链接，target 为 website 或 download
+     */
+    @PostMapping("/{id}/click")
+    public Result<String> clickTool(
+            @PathVariable Long id,
+            @RequestParam String target,
+            @RequestParam(required = false) String source,
+            @RequestHeader("X-User-Id") Long userId) {
+        LoggedAction action;
+        if ("website".equals(target)) {
+            action = LoggedAction.CLICK_WEBSITE;
+        } else if ("download".equals(target)) {
+            action = LoggedAction.CLICK_DOWNLOAD;
+        } else {
+            throw new BusinessException(400, "点击目标只能是 website 或 download");
+        }
+        toolService.recordAction(id, userId, action, source);
+        return Result.success("记录成功");
+    }
+
     /**
      * 查询热门工具
      */
@@ -136,6 +168,28 @@ public class ToolController {
         return Result.success(tools);
     }
 
+    /**
+     * 查询趋势工具（近 hours 小时活跃度增长最快）
+     */
+    @GetMapping("/trending")
+    public Result<List<ToolVO>> getTrendingTools(
+            @RequestParam(defaultValue = "24") Integer hours,
+            @RequestParam(defaultValue = "10") Integer limit) {
+        List<ToolVO> tools = toolService.getTrendingTools(hours, limit);
+        return Result.success(tools);
+    }
+
+    /**
+     * 查询工具统计时间序列，range 如 24h、7d、30d
+     */
+    @GetMapping("/{id}/stats")
+    public Result<ToolStatsVO> getToolStats(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "7d") String range) {
+        ToolStatsVO stats = toolService.getToolStats(id, range);
+        return Result.success(stats);
+    }
+
     /**
      * 查询最新工具
      */
@@ -156,6 +210,19 @@ public class ToolController {
         return Result.success(tools);
     }
 
+    /**
+     * 查询语义相似工具
+     */
+    @GetMapping("/{id}/semantic-similar")
+    public Result<List<ToolVO>> getSemanticSimilarTools(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") Integer limit,
+            @RequestParam(required = false) Integer categoryId,
+            @RequestParam(required = false) String pricingModel) {
+        List<ToolVO> tools = toolService.getSemanticSimilarTools(id, limit, categoryId, pricingModel);
+        return Result.success(tools);
+    }
+
     /**
      * 搜索工具
      */
@@ -167,4 +234,30 @@ public class ToolController {
         PageResult<ToolVO> result = toolService.searchTools(keyword, current, size);
         return Result.success(result);
     }
+
+    /**
+     * 批量查询工具卡片，按传入顺序返回
+     */
+    @GetMapping("/batch")
+    public Result<List<ToolVO>> getToolCards(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new BusinessException(400, "一次最多查询" + MAX_BATCH_IDS + "个工具");
+        }
+        List<ToolVO> tools = toolService.getToolCards(ids);
+        return Result.success(tools);
+    }
+
+    /**
+     * 批量查询当前用户与多个工具的关系（是否收藏、是否点赞），供列表页一次获取全部卡片状态
+     */
+    @GetMapping("/relations")
+    public Result<List<ToolRelationVO>> getToolRelations(
+            @RequestParam List<Long> ids,
+            @RequestHeader("X-User-Id") Long userId) {
+        if (ids.size() > MAX_RELATION_IDS) {
+            throw new BusinessException(400, "一次最多查询" + MAX_RELATION_IDS + "个工具");
+        }
+        List<ToolRelationVO> relations = toolService.getToolRelations(ids, userId);
+        return Result.success(relations);
+    }
 }
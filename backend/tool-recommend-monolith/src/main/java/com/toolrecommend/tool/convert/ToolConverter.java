@@ -0,0 +1,52 @@
+package com.toolrecommend.tool.convert;
+
+import com.toolrecommend.common.convert.ConverterConfig;
+import com.toolrecommend.common.entity.Category;
+import com.toolrecommend.common.entity.Tag;
+import com.toolrecommend.common.entity.Tool;
+import com.toolrecommend.common.vo.CategoryVO;
+import com.toolrecommend.common.vo.TagVO;
+import com.toolrecommend.common.vo.ToolDetailVO;
+import com.toolrecommend.common.vo.ToolVO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * 工具模块对象转换器
+ *
+ * @author Tool Recommend Team
+ */
+@Mapper(config = ConverterConfig.class)
+public interface ToolConverter {
+
+    /**
+     * 工具卡片，分类名称和标签由组装器批量填充
+     */
+    @Mapping(target = "categoryName", ignore = true)
+    @Mapping(target = "tags", ignore = true)
+    @Mapping(target = "isFavorited", ignore = true)
+    @Mapping(target = "isUpvoted", ignore = true)
+    ToolVO toToolVO(Tool tool);
+
+    /**
+     * 工具详情主体，关联数据由调用方填充
+     */
+    @Mapping(target = "category", ignore = true)
+    @Mapping(target = "maker", ignore = true)
+    @Mapping(target = "ratingStats", ignore = true)
+    @Mapping(target = "tags", ignore = true)
+    @Mapping(target = "topReviews", ignore = true)
+    @Mapping(target = "similarTools", ignore = true)
+    @Mapping(target = "isFavorited", ignore = true)
+    @Mapping(target = "isUpvoted", ignore = true)
+    ToolDetailVO toToolDetailVO(Tool tool);
+
+    /**
+     * 复制共享的详情主体，用于叠加用户相关字段
+     */
+    ToolDetailVO copy(ToolDetailVO detail);
+
+    CategoryVO toCategoryVO(Category category);
+
+    TagVO toTagVO(Tag tag);
+}
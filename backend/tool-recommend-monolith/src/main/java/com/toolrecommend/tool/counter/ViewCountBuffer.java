@@ -0,0 +1,150 @@
+package com.toolrecommend.tool.counter;
+
+import com.toolrecommend.tool.mapper.ToolMapper;
+import com.toolrecommend.tool.metrics.ToolMetricsStore;
+import com.toolrecommend.tool.ranking.HotRankingService;
+import com.toolrecommend.tool.search.ToolSearchIndex;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 工具浏览量写缓冲
+ * 浏览请求只累加内存计数器（按工具的LongAdder，与移除空闲计数器在同一桶锁下进行，不会丢失计数），
+ * 由定时任务合并为一条 UPDATE ... CASE 语句批量落库，
+ * 请求路径不再触碰tool行，也不再清除详情缓存
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class ViewCountBuffer {
+
+    @Resource
+    private ToolMapper toolMapper;
+
+    @Resource
+    private HotRankingService hotRankingService;
+
+    @Resource
+    private ToolMetricsStore toolMetricsStore;
+
+    @Resource
+    private ToolSearchIndex toolSearchIndex;
+
+    /**
+     * 每条UPDATE语句最多包含的工具数
+     */
+    @Value("${tool.view-count.batch-size:500}")
+    private int batchSize;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * 记录一次浏览
+     */
+    public void increment(Long toolId) {
+        add(toolId, 1);
+    }
+
+    /**
+     * 定时落库，刷新间隔即浏览量落库的最大延迟
+     */
+    @Scheduled(fixedDelayString = "${tool.view-count.flush-interval:5000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            Map<Long, Long> deltas = drain();
+            if (!deltas.isEmpty()) {
+                persist(deltas);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 应用关闭前把缓冲中的浏览量全部落库
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            Map<Long, Long> deltas = drain();
+            if (!deltas.isEmpty()) {
+                persist(deltas);
+                log.info("关闭前落库浏览量: {} 个工具", deltas.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 取出并清零所有计数器，空闲计数器直接移除以控制内存
+     */
+    private Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            LongAdder adder = entry.getValue();
+            long delta = adder.sumThenReset();
+            if (delta == 0) {
+                // 累加在 compute 内进行，移除之后不会再有累加落到该计数器上，再收一次即可取全
+                pending.remove(entry.getKey(), adder);
+                delta = adder.sumThenReset();
+            }
+            if (delta > 0) {
+                deltas.put(entry.getKey(), delta);
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * 分批执行 UPDATE ... CASE，失败的批次放回缓冲等待下次重试
+     */
+    private void persist(Map<Long, Long> deltas) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(deltas.entrySet());
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            Map<Long, Long> batch = new LinkedHashMap<>();
+            for (Map.Entry<Long, Long> entry : entries.subList(from, Math.min(from + batchSize, entries.size()))) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+            try {
+                toolMapper.batchIncrementViewCount(batch);
+                hotRankingService.onViews(batch);
+                toolMetricsStore.recordViews(batch);
+                toolSearchIndex.onViews(batch);
+            } catch (Exception e) {
+                log.error("浏览量批量落库失败, 工具数: {}, 原因: {}", batch.size(), e.getMessage());
+                batch.forEach(this::add);
+            }
+        }
+    }
+
+    /**
+     * 在映射的桶锁内累加，与 drain 移除空闲计数器互斥
+     */
+    private void add(Long toolId, long delta) {
+        pending.compute(toolId, (id, adder) -> {
+            LongAdder target = adder == null ? new LongAdder() : adder;
+            target.add(delta);
+            return target;
+        });
+    }
+}
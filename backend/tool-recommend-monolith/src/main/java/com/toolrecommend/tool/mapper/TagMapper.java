@@ -5,6 +5,7 @@ import com.toolrecommend.common.entity.Tag;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,6 +21,11 @@ public interface TagMapper extends BaseMapper<Tag> {
      */
     List<Tag> selectTagsByToolId(@Param("toolId") Long toolId);
 
+    /**
+     * 根据工具ID列表批量查询标签（结果带toolId）
+     */
+    List<Tag> selectTagsByToolIds(@Param("toolIds") Collection<Long> toolIds);
+
     /**
      * 查询热门标签
      */
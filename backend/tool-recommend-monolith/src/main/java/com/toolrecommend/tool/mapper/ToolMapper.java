@@ -7,7 +7,11 @@ import com.toolrecommend.common.entity.Tool;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 工具Mapper接口
@@ -27,6 +31,46 @@ public interface ToolMapper extends BaseMapper<Tool> {
                                      @Param("sortBy") String sortBy,
                                      @Param("sortOrder") String sortOrder);
 
+    /**
+     * 按偏移量查询工具列表，筛选和排序与 selectToolsWithTags 一致，不统计总数
+     */
+    List<Tool> selectToolsByOffset(@Param("keyword") String keyword,
+                                   @Param("categoryId") Integer categoryId,
+                                   @Param("pricingModel") String pricingModel,
+                                   @Param("minRating") Double minRating,
+                                   @Param("sortBy") String sortBy,
+                                   @Param("sortOrder") String sortOrder,
+                                   @Param("offset") long offset,
+                                   @Param("limit") long limit);
+
+    /**
+     * 游标分页查询工具列表，查询 (排序列, id) 在游标之后的limit条记录
+     *
+     * @param sortColumns     排序列（由调用方从白名单生成）
+     * @param orderBy         ORDER BY子句（由调用方从白名单生成）
+     * @param op              游标比较符，降序为 &lt;，升序为 &gt;
+     * @param reviewCountDesc 评分排序：第二个排序键 review_count 固定降序，不随 op 方向
+     * @param cursorKeys      游标中的排序键，为空表示第一页
+     * @param cursorId        游标中的工具ID
+     */
+    List<Tool> selectToolsByCursor(@Param("categoryId") Integer categoryId,
+                                   @Param("pricingModel") String pricingModel,
+                                   @Param("minRating") Double minRating,
+                                   @Param("sortColumns") String sortColumns,
+                                   @Param("orderBy") String orderBy,
+                                   @Param("op") String op,
+                                   @Param("reviewCountDesc") boolean reviewCountDesc,
+                                   @Param("cursorKeys") List<Object> cursorKeys,
+                                   @Param("cursorId") Long cursorId,
+                                   @Param("limit") int limit);
+
+    /**
+     * 按筛选条件统计已发布工具数
+     */
+    Long countTools(@Param("categoryId") Integer categoryId,
+                    @Param("pricingModel") String pricingModel,
+                    @Param("minRating") Double minRating);
+
     /**
      * 根据ID查询工具详情（包含分类、标签）
      */
@@ -42,6 +86,21 @@ public interface ToolMapper extends BaseMapper<Tool> {
      */
     int incrementViewCount(@Param("id") Long id);
 
+    /**
+     * 批量增加浏览量（toolId -> 增量）
+     */
+    int batchIncrementViewCount(@Param("deltas") Map<Long, Long> deltas);
+
+    /**
+     * 批量更新月增长率（toolId -> 增长率）
+     */
+    int batchUpdateGrowthRate(@Param("rates") Map<Long, BigDecimal> rates);
+
+    /**
+     * [since, until) 内没有日汇总数据的工具，月增长率归零
+     */
+    int resetGrowthRateWithoutMetrics(@Param("since") LocalDate since, @Param("until") LocalDate until);
+
     /**
      * 增加收藏数
      */
@@ -62,11 +121,27 @@ public interface ToolMapper extends BaseMapper<Tool> {
      */
     int decrementUpvoteCount(@Param("id") Long id);
 
+    /**
+     * 按增量调整点赞数和收藏数（不低于0）
+     */
+    int addActionCounts(@Param("id") Long id, @Param("upvoteDelta") int upvoteDelta,
+                        @Param("favoriteDelta") int favoriteDelta);
+
     /**
      * 查询热门工具
      */
     List<Tool> selectHotTools(@Param("limit") Integer limit);
 
+    /**
+     * 从给定ID中筛选出已发布工具的ID
+     */
+    List<Long> selectPublishedIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 查询计算热度分所需的计数字段（已发布工具）
+     */
+    List<Tool> selectHotScoreSeeds();
+
     /**
      * 查询最新工具
      */
@@ -0,0 +1,48 @@
+package com.toolrecommend.tool.mapper;
+
+import com.toolrecommend.tool.metrics.ToolMetricsBucket;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 工具指标汇总Mapper
+ *
+ * @author Tool Recommend Team
+ */
+@Mapper
+public interface ToolMetricsMapper {
+
+    /**
+     * 按增量累加小时汇总，行不存在时插入
+     */
+    int upsertHourly(@Param("buckets") List<ToolMetricsBucket> buckets);
+
+    /**
+     * 按增量累加日汇总（取 bucketTime 的日期），行不存在时插入
+     */
+    int upsertDaily(@Param("buckets") List<ToolMetricsBucket> buckets);
+
+    /**
+     * 查询某时刻起的小时汇总
+     */
+    List<ToolMetricsBucket> selectHourlySince(@Param("since") LocalDateTime since);
+
+    /**
+     * 查询某日起的日汇总，bucketTime 为当天零点
+     */
+    List<ToolMetricsBucket> selectDailySince(@Param("since") LocalDate since);
+
+    /**
+     * 删除早于某时刻的小时汇总
+     */
+    int deleteHourlyBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * 删除早于某日的日汇总
+     */
+    int deleteDailyBefore(@Param("before") LocalDate before);
+}
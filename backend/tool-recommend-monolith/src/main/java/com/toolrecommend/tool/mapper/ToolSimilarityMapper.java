@@ -0,0 +1,40 @@
+package com.toolrecommend.tool.mapper;
+
+import com.toolrecommend.tool.similarity.Engagement;
+import com.toolrecommend.tool.similarity.ToolSimilarity;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.List;
+
+/**
+ * 相似工具Mapper
+ *
+ * @author Tool Recommend Team
+ */
+@Mapper
+public interface ToolSimilarityMapper {
+
+    /**
+     * 流式读取用户与已发布工具的互动，按 user_id 排序，同一用户同一工具只出现一次
+     *
+     * @param minRatingScore 计入互动的最低评分
+     */
+    void streamEngagements(@Param("minRatingScore") int minRatingScore, ResultHandler<Engagement> handler);
+
+    /**
+     * 查询工具的相似工具ID（逗号分隔，按相似度降序），未计算时返回null
+     */
+    String selectSimilarIds(@Param("toolId") Long toolId);
+
+    /**
+     * 批量写入计算结果
+     */
+    int upsertBatch(@Param("rows") List<ToolSimilarity> rows);
+
+    /**
+     * 删除早于某批次的结果
+     */
+    int deleteBeforeVersion(@Param("version") long version);
+}
@@ -2,7 +2,13 @@ package com.toolrecommend.tool.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.toolrecommend.common.entity.UserAction;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * 用户行为Mapper接口
@@ -11,4 +17,48 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface UserActionMapper extends BaseMapper<UserAction> {
+
+    /**
+     * 查询用户的全部关系类行为（点赞、收藏），用于重建用户关系位图
+     *
+     * @param userId 用户ID
+     * @return 行为列表（仅含 tool_id、action_type）
+     */
+    @Select("SELECT DISTINCT tool_id, action_type FROM user_action " +
+            "WHERE user_id = #{userId} AND action_type IN ('UPVOTE', 'FAVORITE')")
+    List<UserAction> selectRelationsByUserId(@Param("userId") Long userId);
+
+    /**
+     * 不存在时插入关系类行为，用于可重放的异步落库
+     *
+     * @return 插入行数（已存在时为0）
+     */
+    @Insert("INSERT INTO user_action (user_id, tool_id, action_type) " +
+            "SELECT #{userId}, #{toolId}, #{actionType} FROM DUAL " +
+            "WHERE NOT EXISTS (SELECT 1 FROM user_action " +
+            "WHERE user_id = #{userId} AND tool_id = #{toolId} AND action_type = #{actionType})")
+    int insertRelationIfAbsent(@Param("userId") Long userId, @Param("toolId") Long toolId,
+                               @Param("actionType") String actionType);
+
+    /**
+     * 删除关系类行为
+     *
+     * @return 删除行数
+     */
+    @Delete("DELETE FROM user_action WHERE user_id = #{userId} AND tool_id = #{toolId} AND action_type = #{actionType}")
+    int deleteRelation(@Param("userId") Long userId, @Param("toolId") Long toolId,
+                       @Param("actionType") String actionType);
+
+    /**
+     * 多行插入行为日志中的记录，event_key 重复（重放已写入的记录）时忽略该行
+     *
+     * @return 实际插入行数
+     */
+    @Insert("<script>" +
+            "INSERT IGNORE INTO user_action (user_id, tool_id, action_type, action_value, source, event_key, created_at) VALUES " +
+            "<foreach collection='actions' item='a' separator=','>" +
+            "(#{a.userId}, #{a.toolId}, #{a.actionType}, #{a.actionValue}, #{a.source}, #{a.eventKey}, #{a.createdAt})" +
+            "</foreach>" +
+            "</script>")
+    int insertIgnoreBatch(@Param("actions") List<UserAction> actions);
 }
@@ -0,0 +1,37 @@
+package com.toolrecommend.tool.metrics;
+
+import com.toolrecommend.tool.ranking.HotRankingService;
+
+/**
+ * 工具时间序列指标
+ * 权重与热门排行一致，用于把各项指标合成为活跃度
+ *
+ * @author Tool Recommend Team
+ */
+public enum ToolMetric {
+
+    VIEW("views", HotRankingService.VIEW_WEIGHT),
+    UPVOTE("upvotes", HotRankingService.UPVOTE_WEIGHT),
+    FAVORITE("favorites", HotRankingService.FAVORITE_WEIGHT),
+    RATING("ratings", HotRankingService.RATING_WEIGHT);
+
+    private final String field;
+
+    private final double weight;
+
+    ToolMetric(String field, double weight) {
+        this.field = field;
+        this.weight = weight;
+    }
+
+    /**
+     * 汇总表列名，也是统计接口中的字段名
+     */
+    public String getField() {
+        return field;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+}
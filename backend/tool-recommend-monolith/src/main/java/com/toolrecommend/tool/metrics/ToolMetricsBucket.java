@@ -0,0 +1,53 @@
+package com.toolrecommend.tool.metrics;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 工具指标汇总行（小时表或日表的一行，日表的时间为当天零点）
+ *
+ * @author Tool Recommend Team
+ */
+@Data
+public class ToolMetricsBucket {
+
+    private Long toolId;
+
+    private LocalDateTime bucketTime;
+
+    private Integer views;
+
+    private Integer upvotes;
+
+    private Integer favorites;
+
+    private Integer ratings;
+
+    /**
+     * 按指标顺序取值
+     */
+    public int get(ToolMetric metric) {
+        Integer value = switch (metric) {
+            case VIEW -> views;
+            case UPVOTE -> upvotes;
+            case FAVORITE -> favorites;
+            case RATING -> ratings;
+        };
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * 由按指标顺序排列的增量构建
+     */
+    public static ToolMetricsBucket of(Long toolId, LocalDateTime bucketTime, long[] values) {
+        ToolMetricsBucket bucket = new ToolMetricsBucket();
+        bucket.setToolId(toolId);
+        bucket.setBucketTime(bucketTime);
+        bucket.setViews((int) values[ToolMetric.VIEW.ordinal()]);
+        bucket.setUpvotes((int) values[ToolMetric.UPVOTE.ordinal()]);
+        bucket.setFavorites((int) values[ToolMetric.FAVORITE.ordinal()]);
+        bucket.setRatings((int) values[ToolMetric.RATING.ordinal()]);
+        return bucket;
+    }
+}
@@ -0,0 +1,550 @@
+package com.toolrecommend.tool.metrics;
+
+import com.toolrecommend.common.exception.BusinessException;
+import com.toolrecommend.common.vo.ToolStatsPointVO;
+import com.toolrecommend.common.vo.ToolStatsVO;
+import com.toolrecommend.tool.mapper.ToolMapper;
+import com.toolrecommend.tool.mapper.ToolMetricsMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 工具时间序列指标存储
+ * 浏览、点赞、收藏、评分按小时累加到内存环形缓冲（近168小时 + 近366天），趋势榜和统计接口直接读内存；
+ * 增量由定时任务以 INSERT ... ON DUPLICATE KEY UPDATE 累加写入小时表和日表，
+ * 写完后用表中最近的时间段加上本节点尚未落库的增量覆盖本地缓冲，使多节点的读数收敛到同一份汇总。
+ * 每日任务清理过期小时数据，并按近30天与前30天的日汇总回写工具的月增长率，窗口内无数据的工具归零。
+ * 事务内记录的增量在事务提交后才计入，回滚时不影响指标
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class ToolMetricsStore {
+
+    private static final String ROLLUP_LOCK_KEY = "tool:metrics:rollup:lock";
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile("(\\d{1,3})([hd])");
+
+    /**
+     * 月增长率的统计窗口（天）
+     */
+    private static final int GROWTH_WINDOW_DAYS = 30;
+
+    /**
+     * tool.monthly_growth_rate 为 DECIMAL(5,4)，超出部分截断
+     */
+    private static final BigDecimal MAX_GROWTH_RATE = new BigDecimal("9.9999");
+
+    /**
+     * 趋势榜每个窗口缓存的候选数
+     */
+    private static final int TRENDING_CANDIDATES = 100;
+
+    /**
+     * 趋势榜支持的最大窗口（小时），对比上一个等长窗口，两段合计不超过小时缓冲容量
+     */
+    public static final int MAX_TRENDING_HOURS = ToolSeries.HOURS / 2;
+
+    @Resource
+    private ToolMetricsMapper toolMetricsMapper;
+
+    @Resource
+    private ToolMapper toolMapper;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 每条UPSERT语句最多包含的行数
+     */
+    @Value("${tool.metrics.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 趋势榜缓存时间（秒）
+     */
+    @Value("${tool.metrics.trending-cache-ttl:60}")
+    private long trendingCacheTtl;
+
+    /**
+     * 小时汇总保留天数
+     */
+    @Value("${tool.metrics.hourly-retention-days:7}")
+    private int hourlyRetentionDays;
+
+    private final Map<Long, ToolSeries> series = new ConcurrentHashMap<>();
+
+    private final Map<PendingKey, LongAdder[]> pending = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Trending> trendingCache = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private record PendingKey(long toolId, long hour) {
+    }
+
+    private record Trending(List<Long> toolIds, long expiresAt) {
+    }
+
+    /**
+     * 启动时从汇总表加载近期数据，失败时从空缓冲开始
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime hourStart = toTime(hourIndex(now) - ToolSeries.HOURS + 1);
+            LocalDate dayStart = now.toLocalDate().minusDays(ToolSeries.DAYS - 1);
+            int hours = load(toolMetricsMapper.selectHourlySince(hourStart), true);
+            int days = load(toolMetricsMapper.selectDailySince(dayStart), false);
+            log.info("工具指标加载完成: {} 个工具, 小时数据 {} 行, 日数据 {} 行", series.size(), hours, days);
+        } catch (Exception e) {
+            log.warn("工具指标加载失败, 从空数据开始: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 记录一项指标增量（取消点赞、取消收藏、删除评分为负数），存在事务时推迟到提交后计入
+     */
+    public void record(Long toolId, ToolMetric metric, long delta) {
+        if (toolId == null || delta == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            admit(List.of(toolId));
+            add(toolId, metric, delta);
+        });
+    }
+
+    /**
+     * 批量记录浏览增量
+     */
+    public void recordViews(Map<Long, Long> deltas) {
+        admit(deltas.keySet());
+        deltas.forEach((toolId, delta) -> add(toolId, ToolMetric.VIEW, delta));
+    }
+
+    /**
+     * 累加到已建立的序列，未收录的工具直接忽略
+     */
+    private void add(Long toolId, ToolMetric metric, long delta) {
+        ToolSeries toolSeries = series.get(toolId);
+        if (toolSeries == null || delta == 0) {
+            return;
+        }
+        long hour = hourIndex(LocalDateTime.now());
+        // 与 overlay、drain 互斥，覆盖时读到的待落库增量与缓冲中的值一致，移除的计数器上也不会再有累加
+        synchronized (toolSeries) {
+            pending.computeIfAbsent(new PendingKey(toolId, hour), key -> newAdders())[metric.ordinal()].add(delta);
+            toolSeries.add(metric, hour, Math.floorDiv(hour, 24), (int) delta);
+        }
+    }
+
+    /**
+     * 存在事务时推迟到提交后执行（回滚则丢弃），否则立即执行
+     */
+    private void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * 只为已发布的工具建立序列，任意ID不会在内存中占用一份缓冲
+     */
+    private void admit(Collection<Long> toolIds) {
+        List<Long> unknown = toolIds.stream()
+                .filter(toolId -> toolId != null && !series.containsKey(toolId))
+                .collect(Collectors.toList());
+        if (unknown.isEmpty()) {
+            return;
+        }
+        try {
+            toolMapper.selectPublishedIds(unknown).forEach(this::series);
+        } catch (Exception e) {
+            log.warn("工具指标校验工具状态失败, 跳过 {} 个工具的增量: {}", unknown.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 定时把增量累加到汇总表，再用表中最近两个小时和两天的值刷新本地缓冲
+     */
+    @Scheduled(fixedDelayString = "${tool.metrics.flush-interval:60000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            List<ToolMetricsBucket> buckets = drain();
+            boolean persisted = buckets.isEmpty() || persist(buckets);
+            if (persisted) {
+                refreshRecent();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 应用关闭前把未落库的增量写入汇总表
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            List<ToolMetricsBucket> buckets = drain();
+            if (!buckets.isEmpty() && persist(buckets)) {
+                log.info("关闭前落库工具指标: {} 行", buckets.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 每日清理过期的汇总数据并回写月增长率，多节点时只由抢到锁的节点执行
+     */
+    @Scheduled(cron = "${tool.metrics.rollup-cron:0 10 0 * * ?}")
+    public void rollup() {
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(ROLLUP_LOCK_KEY, "1", Duration.ofHours(1));
+            if (!Boolean.TRUE.equals(acquired)) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            int hourly = toolMetricsMapper.deleteHourlyBefore(toTime(hourIndex(now) - hourlyRetentionDays * 24L));
+            int daily = toolMetricsMapper.deleteDailyBefore(now.toLocalDate().minusDays(ToolSeries.DAYS));
+            int updated = updateGrowthRates(now.toLocalDate());
+            log.info("工具指标每日汇总完成: 清理小时数据 {} 行, 日数据 {} 行, 更新增长率 {} 个工具", hourly, daily, updated);
+        } catch (Exception e) {
+            log.error("工具指标每日汇总失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 趋势榜：近 hours 小时活跃度相对上一个等长窗口的增势，得分 = 近期² / (上期 + 1)，
+     * 只收录近期高于上期的工具
+     */
+    public List<Long> trending(int hours, int limit) {
+        long now = System.currentTimeMillis();
+        Trending cached = trendingCache.get(hours);
+        if (cached == null || cached.expiresAt() < now) {
+            cached = new Trending(computeTrending(hours), now + trendingCacheTtl * 1000);
+            trendingCache.put(hours, cached);
+        }
+        List<Long> toolIds = cached.toolIds();
+        return toolIds.subList(0, Math.min(limit, toolIds.size()));
+    }
+
+    /**
+     * 按范围查询工具的时间序列，range 为 Nh（1~168，按小时）或 Nd（1~365，按天）
+     */
+    public ToolStatsVO stats(Long toolId, String range) {
+        Matcher matcher = range == null ? null : RANGE_PATTERN.matcher(range);
+        if (matcher == null || !matcher.matches()) {
+            throw new BusinessException(400, "统计范围格式应为 Nh 或 Nd，如 24h、30d");
+        }
+        int count = Integer.parseInt(matcher.group(1));
+        boolean hourly = "h".equals(matcher.group(2));
+        int max = hourly ? ToolSeries.HOURS : ToolSeries.DAYS - 1;
+        if (count < 1 || count > max) {
+            throw new BusinessException(400, "统计范围超出限制，最多 " + max + (hourly ? "h" : "d"));
+        }
+
+        long[][] values = new long[ToolMetric.values().length][count];
+        long current = hourIndex(LocalDateTime.now());
+        long from;
+        ToolSeries toolSeries = series.get(toolId);
+        if (hourly) {
+            from = current - count + 1;
+            if (toolSeries != null) {
+                toolSeries.readHours(from, values);
+            }
+        } else {
+            from = Math.floorDiv(current, 24) - count + 1;
+            if (toolSeries != null) {
+                toolSeries.readDays(from, values);
+            }
+        }
+
+        List<ToolStatsPointVO> points = new ArrayList<>(count);
+        long[] totals = new long[ToolMetric.values().length];
+        for (int i = 0; i < count; i++) {
+            long[] point = new long[ToolMetric.values().length];
+            for (int m = 0; m < point.length; m++) {
+                point[m] = values[m][i];
+                totals[m] += point[m];
+            }
+            points.add(toPoint(toTime(hourly ? from + i : (from + i) * 24), point));
+        }
+
+        ToolStatsVO stats = new ToolStatsVO();
+        stats.setToolId(toolId);
+        stats.setRange(range);
+        stats.setGranularity(hourly ? "hour" : "day");
+        stats.setPoints(points);
+        stats.setTotals(toPoint(null, totals));
+        return stats;
+    }
+
+    private List<Long> computeTrending(int hours) {
+        long to = hourIndex(LocalDateTime.now()) + 1;
+        long from = to - hours;
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        series.forEach((toolId, toolSeries) -> {
+            double recent = toolSeries.weightedHours(from, to);
+            double previous = toolSeries.weightedHours(from - hours, from);
+            if (recent <= 0 || recent <= previous) {
+                return;
+            }
+            top.offer(Map.entry(toolId, recent * recent / (previous + 1)));
+            if (top.size() > TRENDING_CANDIDATES) {
+                top.poll();
+            }
+        });
+        List<Map.Entry<Long, Double>> entries = new ArrayList<>(top);
+        entries.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()));
+        List<Long> toolIds = new ArrayList<>(entries.size());
+        for (Map.Entry<Long, Double> entry : entries) {
+            toolIds.add(entry.getKey());
+        }
+        return toolIds;
+    }
+
+    /**
+     * 月增长率 = (近30天活跃度 - 前30天活跃度) / 前30天活跃度，只统计已结束的天；
+     * 前30天无数据而近30天有数据记为1（100%），均无数据记为0。
+     * 内存中只有近期有指标的工具，其余工具先按汇总表统一归零，避免保留过期的增长率
+     */
+    private int updateGrowthRates(LocalDate today) {
+        long end = today.toEpochDay();
+        long mid = end - GROWTH_WINDOW_DAYS;
+        long start = mid - GROWTH_WINDOW_DAYS;
+        int updated = toolMapper.resetGrowthRateWithoutMetrics(LocalDate.ofEpochDay(start), today);
+        Map<Long, BigDecimal> rates = new LinkedHashMap<>();
+        for (Map.Entry<Long, ToolSeries> entry : series.entrySet()) {
+            double current = entry.getValue().weightedDays(mid, end);
+            double previous = entry.getValue().weightedDays(start, mid);
+            double rate = previous > 0 ? (current - previous) / previous : (current > 0 ? 1 : 0);
+            BigDecimal value = BigDecimal.valueOf(rate).setScale(4, RoundingMode.HALF_UP)
+                    .min(MAX_GROWTH_RATE).max(MAX_GROWTH_RATE.negate());
+            rates.put(entry.getKey(), value);
+            if (rates.size() >= batchSize) {
+                updated += toolMapper.batchUpdateGrowthRate(rates);
+                rates = new LinkedHashMap<>();
+            }
+        }
+        if (!rates.isEmpty()) {
+            updated += toolMapper.batchUpdateGrowthRate(rates);
+        }
+        return updated;
+    }
+
+    /**
+     * 取出并清零所有增量；已过去的小时不会再有新增量，取出后移除
+     */
+    private List<ToolMetricsBucket> drain() {
+        long currentHour = hourIndex(LocalDateTime.now());
+        List<ToolMetricsBucket> buckets = new ArrayList<>();
+        for (Map.Entry<PendingKey, LongAdder[]> entry : pending.entrySet()) {
+            PendingKey key = entry.getKey();
+            LongAdder[] adders = entry.getValue();
+            long[] values = sumThenReset(adders);
+            if (key.hour() < currentHour || isZero(values)) {
+                // 持有与 record 相同的序列锁移除并收尾，之后的累加会落到新建的计数器上
+                synchronized (series(key.toolId())) {
+                    pending.remove(key, adders);
+                    long[] late = sumThenReset(adders);
+                    for (int m = 0; m < values.length; m++) {
+                        values[m] += late[m];
+                    }
+                }
+            }
+            if (!isZero(values)) {
+                buckets.add(ToolMetricsBucket.of(key.toolId(), toTime(key.hour()), values));
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * 小时表与日表在同一事务中分批累加，失败时增量放回缓冲等待下次重试
+     */
+    private boolean persist(List<ToolMetricsBucket> buckets) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < buckets.size(); from += batchSize) {
+                    List<ToolMetricsBucket> batch = buckets.subList(from, Math.min(from + batchSize, buckets.size()));
+                    toolMetricsMapper.upsertHourly(batch);
+                    toolMetricsMapper.upsertDaily(batch);
+                }
+            });
+            return true;
+        } catch (Exception e) {
+            log.error("工具指标落库失败, 行数: {}, 原因: {}", buckets.size(), e.getMessage());
+            for (ToolMetricsBucket bucket : buckets) {
+                LongAdder[] adders = pending.computeIfAbsent(
+                        new PendingKey(bucket.getToolId(), hourIndex(bucket.getBucketTime())), key -> newAdders());
+                for (ToolMetric metric : ToolMetric.values()) {
+                    adders[metric.ordinal()].add(bucket.get(metric));
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 用汇总表中最近两个小时和两天的值覆盖本地缓冲，合入其他节点写入的增量
+     */
+    private void refreshRecent() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            long currentHour = hourIndex(now);
+            List<ToolMetricsBucket> hours = toolMetricsMapper.selectHourlySince(toTime(currentHour - 1));
+            List<ToolMetricsBucket> days = toolMetricsMapper.selectDailySince(now.toLocalDate().minusDays(1));
+            for (ToolMetricsBucket bucket : hours) {
+                overlay(bucket, true);
+            }
+            for (ToolMetricsBucket bucket : days) {
+                overlay(bucket, false);
+            }
+        } catch (Exception e) {
+            log.warn("工具指标刷新失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 覆盖一个时间段：汇总表的值加上该时间段内本节点尚未落库的增量。
+     * 持有该工具缓冲的锁完成读取与写入，期间 record 不能同时累加，增量不会被重复或遗漏
+     */
+    private void overlay(ToolMetricsBucket bucket, boolean hourly) {
+        long toolId = bucket.getToolId();
+        long hour = hourIndex(bucket.getBucketTime());
+        long fromHour = hourly ? hour : Math.floorDiv(hour, 24) * 24;
+        long toHour = hourly ? hour + 1 : fromHour + 24;
+        ToolSeries toolSeries = series(toolId);
+        synchronized (toolSeries) {
+            long[] values = new long[ToolMetric.values().length];
+            for (ToolMetric metric : ToolMetric.values()) {
+                values[metric.ordinal()] = bucket.get(metric);
+            }
+            for (long h = fromHour; h < toHour; h++) {
+                LongAdder[] adders = pending.get(new PendingKey(toolId, h));
+                if (adders != null) {
+                    for (int m = 0; m < values.length; m++) {
+                        values[m] += adders[m].sum();
+                    }
+                }
+            }
+            ToolMetricsBucket merged = ToolMetricsBucket.of(toolId, bucket.getBucketTime(), values);
+            if (hourly) {
+                toolSeries.setHour(hour, merged);
+            } else {
+                toolSeries.setDay(Math.floorDiv(hour, 24), merged);
+            }
+        }
+    }
+
+    private int load(List<ToolMetricsBucket> buckets, boolean hourly) {
+        for (ToolMetricsBucket bucket : buckets) {
+            long hour = hourIndex(bucket.getBucketTime());
+            if (hourly) {
+                series(bucket.getToolId()).setHour(hour, bucket);
+            } else {
+                series(bucket.getToolId()).setDay(Math.floorDiv(hour, 24), bucket);
+            }
+        }
+        return buckets.size();
+    }
+
+    private ToolSeries series(Long toolId) {
+        return series.computeIfAbsent(toolId, id -> new ToolSeries());
+    }
+
+    private static ToolStatsPointVO toPoint(LocalDateTime time, long[] values) {
+        ToolStatsPointVO point = new ToolStatsPointVO();
+        point.setTime(time);
+        point.setViews(values[ToolMetric.VIEW.ordinal()]);
+        point.setUpvotes(values[ToolMetric.UPVOTE.ordinal()]);
+        point.setFavorites(values[ToolMetric.FAVORITE.ordinal()]);
+        point.setRatings(values[ToolMetric.RATING.ordinal()]);
+        return point;
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[ToolMetric.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] sumThenReset(LongAdder[] adders) {
+        long[] values = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            values[i] = adders[i].sumThenReset();
+        }
+        return values;
+    }
+
+    private static boolean isZero(long[] values) {
+        for (long value : values) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 本地时间的小时序号，按UTC换算只为得到连续整数，天序号 = 小时序号 / 24
+     */
+    private static long hourIndex(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600L);
+    }
+
+    private static LocalDateTime toTime(long hour) {
+        return LocalDateTime.ofEpochSecond(hour * 3600, 0, ZoneOffset.UTC);
+    }
+}
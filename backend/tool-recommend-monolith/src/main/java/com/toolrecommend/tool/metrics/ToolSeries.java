@@ -0,0 +1,166 @@
+package com.toolrecommend.tool.metrics;
+
+import java.util.Arrays;
+
+/**
+ * 单个工具的指标环形缓冲
+ * 小时粒度保留最近168小时、天粒度保留最近366天，每项指标一个int数组，下标为时间序号对容量取模。
+ * 写入更晚的时间时先清空被覆盖的槽位，读取超出保留范围或尚未写入的时间返回0
+ *
+ * @author Tool Recommend Team
+ */
+final class ToolSeries {
+
+    static final int HOURS = 24 * 7;
+
+    static final int DAYS = 366;
+
+    private static final int METRICS = ToolMetric.values().length;
+
+    private final int[][] hourly = new int[METRICS][HOURS];
+
+    private final int[][] daily = new int[METRICS][DAYS];
+
+    /**
+     * 已写入的最新小时序号（自1970-01-01 00:00起的小时数，按本地时间）
+     */
+    private long lastHour;
+
+    /**
+     * 已写入的最新天序号
+     */
+    private long lastDay;
+
+    synchronized void add(ToolMetric metric, long hour, long day, int delta) {
+        int hourSlot = hourSlot(hour);
+        if (hourSlot >= 0) {
+            hourly[metric.ordinal()][hourSlot] += delta;
+        }
+        int daySlot = daySlot(day);
+        if (daySlot >= 0) {
+            daily[metric.ordinal()][daySlot] += delta;
+        }
+    }
+
+    /**
+     * 用汇总表中的值覆盖某小时
+     */
+    synchronized void setHour(long hour, ToolMetricsBucket bucket) {
+        int slot = hourSlot(hour);
+        if (slot >= 0) {
+            for (ToolMetric metric : ToolMetric.values()) {
+                hourly[metric.ordinal()][slot] = bucket.get(metric);
+            }
+        }
+    }
+
+    /**
+     * 用汇总表中的值覆盖某天
+     */
+    synchronized void setDay(long day, ToolMetricsBucket bucket) {
+        int slot = daySlot(day);
+        if (slot >= 0) {
+            for (ToolMetric metric : ToolMetric.values()) {
+                daily[metric.ordinal()][slot] = bucket.get(metric);
+            }
+        }
+    }
+
+    /**
+     * 读取 [fromHour, fromHour + out[i].length) 各小时的值，out按指标顺序
+     */
+    synchronized void readHours(long fromHour, long[][] out) {
+        for (int i = 0; i < out[0].length; i++) {
+            long hour = fromHour + i;
+            if (hour > lastHour || hour <= lastHour - HOURS) {
+                continue;
+            }
+            int slot = (int) Math.floorMod(hour, (long) HOURS);
+            for (int m = 0; m < METRICS; m++) {
+                out[m][i] += hourly[m][slot];
+            }
+        }
+    }
+
+    /**
+     * 读取 [fromDay, fromDay + out[i].length) 各天的值，out按指标顺序
+     */
+    synchronized void readDays(long fromDay, long[][] out) {
+        for (int i = 0; i < out[0].length; i++) {
+            long day = fromDay + i;
+            if (day > lastDay || day <= lastDay - DAYS) {
+                continue;
+            }
+            int slot = (int) Math.floorMod(day, (long) DAYS);
+            for (int m = 0; m < METRICS; m++) {
+                out[m][i] += daily[m][slot];
+            }
+        }
+    }
+
+    /**
+     * 按权重合成 [fromHour, toHour) 的活跃度
+     */
+    synchronized double weightedHours(long fromHour, long toHour) {
+        double total = 0;
+        for (long hour = Math.max(fromHour, lastHour - HOURS + 1); hour < toHour && hour <= lastHour; hour++) {
+            int slot = (int) Math.floorMod(hour, (long) HOURS);
+            for (ToolMetric metric : ToolMetric.values()) {
+                total += hourly[metric.ordinal()][slot] * metric.getWeight();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 按权重合成 [fromDay, toDay) 的活跃度
+     */
+    synchronized double weightedDays(long fromDay, long toDay) {
+        double total = 0;
+        for (long day = Math.max(fromDay, lastDay - DAYS + 1); day < toDay && day <= lastDay; day++) {
+            int slot = (int) Math.floorMod(day, (long) DAYS);
+            for (ToolMetric metric : ToolMetric.values()) {
+                total += daily[metric.ordinal()][slot] * metric.getWeight();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 定位小时槽位，必要时前移并清空被覆盖的槽位；早于保留范围返回-1
+     */
+    private int hourSlot(long hour) {
+        if (hour > lastHour) {
+            advance(hourly, lastHour, hour, HOURS);
+            lastHour = hour;
+        } else if (hour <= lastHour - HOURS) {
+            return -1;
+        }
+        return (int) Math.floorMod(hour, (long) HOURS);
+    }
+
+    private int daySlot(long day) {
+        if (day > lastDay) {
+            advance(daily, lastDay, day, DAYS);
+            lastDay = day;
+        } else if (day <= lastDay - DAYS) {
+            return -1;
+        }
+        return (int) Math.floorMod(day, (long) DAYS);
+    }
+
+    private static void advance(int[][] buffers, long last, long next, int capacity) {
+        if (next - last >= capacity) {
+            for (int[] buffer : buffers) {
+                Arrays.fill(buffer, 0);
+            }
+            return;
+        }
+        for (long index = last + 1; index <= next; index++) {
+            int slot = (int) Math.floorMod(index, (long) capacity);
+            for (int[] buffer : buffers) {
+                buffer[slot] = 0;
+            }
+        }
+    }
+}
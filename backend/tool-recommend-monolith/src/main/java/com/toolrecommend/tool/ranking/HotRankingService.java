@@ -0,0 +1,255 @@
+package com.toolrecommend.tool.ranking;
+
+import com.toolrecommend.common.entity.Tool;
+import com.toolrecommend.tool.mapper.ToolMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 热门工具排行
+ * 热度分存放在Redis有序集合中，由点赞、收藏、浏览、评分事件增量维护，
+ * 查询热门工具只需一次 ZREVRANGE。进程内同步维护一份分值作为Redis不可用时的兜底。
+ * 点赞、收藏、浏览权重与原 selectHotTools 的排序表达式一致；评分项统一按评分总和（rating_stats.rating_sum）计算，
+ * 初始化与增量使用同一口径。事务内触发的增量在事务提交后才写入，回滚时不影响排行
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class HotRankingService {
+
+    public static final double UPVOTE_WEIGHT = 0.4;
+    public static final double FAVORITE_WEIGHT = 0.3;
+    public static final double VIEW_WEIGHT = 0.0001;
+    public static final double RATING_WEIGHT = 0.3;
+
+    private static final String RANKING_KEY = "tool:hot:rank";
+    private static final String DECAY_LOCK_KEY = "tool:hot:decay:lock";
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private ToolMapper toolMapper;
+
+    /**
+     * 热度半衰期（小时），0表示不衰减
+     */
+    @Value("${tool.hot-ranking.half-life-hours:0}")
+    private double halfLifeHours;
+
+    /**
+     * 衰减任务执行间隔（毫秒）
+     */
+    @Value("${tool.hot-ranking.decay-interval:3600000}")
+    private long decayIntervalMillis;
+
+    /**
+     * 进程内兜底分值
+     */
+    private final Map<Long, Double> localScores = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        try {
+            List<Tool> tools = toolMapper.selectHotScoreSeeds();
+            for (Tool tool : tools) {
+                localScores.put(tool.getId(), score(tool));
+            }
+            Long size = stringRedisTemplate.opsForZSet().zCard(RANKING_KEY);
+            if (size == null || size == 0) {
+                seedRedis();
+            }
+            log.info("热门排行初始化完成, 工具数: {}", tools.size());
+        } catch (Exception e) {
+            log.error("热门排行初始化失败, 将在事件到达时逐步建立: {}", e.getMessage());
+        }
+    }
+
+    public void onUpvote(Long toolId, int delta) {
+        increment(toolId, UPVOTE_WEIGHT * delta);
+    }
+
+    public void onFavorite(Long toolId, int delta) {
+        increment(toolId, FAVORITE_WEIGHT * delta);
+    }
+
+    /**
+     * 评分变化，scoreDelta为评分总和的变化量（新增为分值，修改为新旧差值，删除为负的原分值）
+     */
+    public void onRating(Long toolId, int scoreDelta) {
+        increment(toolId, RATING_WEIGHT * scoreDelta);
+    }
+
+    /**
+     * 批量记录浏览量（由浏览量缓冲落库时调用，一次管道提交）
+     * 只给落库时仍处于发布状态的工具计分，不存在、未发布或已下架的工具不会被写回排行
+     */
+    public void onViews(Map<Long, Long> viewDeltas) {
+        if (viewDeltas.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> publishedDeltas;
+        try {
+            Set<Long> published = new HashSet<>(toolMapper.selectPublishedIds(viewDeltas.keySet()));
+            publishedDeltas = viewDeltas.entrySet().stream()
+                    .filter(entry -> published.contains(entry.getKey()))
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        } catch (Exception e) {
+            log.warn("热门排行校验工具状态失败, 跳过本批浏览量: {}", e.getMessage());
+            return;
+        }
+        if (publishedDeltas.isEmpty()) {
+            return;
+        }
+        publishedDeltas.forEach((toolId, views) -> localScores.merge(toolId, VIEW_WEIGHT * views, Double::sum));
+        try {
+            byte[] key = bytes(RANKING_KEY);
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                publishedDeltas.forEach((toolId, views) ->
+                        connection.zSetCommands().zIncrBy(key, VIEW_WEIGHT * views, bytes(String.valueOf(toolId))));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("热门排行记录浏览量失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 工具下架时移出排行
+     */
+    public void remove(Long toolId) {
+        afterCommit(() -> {
+            localScores.remove(toolId);
+            try {
+                stringRedisTemplate.opsForZSet().remove(RANKING_KEY, String.valueOf(toolId));
+            } catch (Exception e) {
+                log.warn("热门排行移除工具失败, toolId: {}, 原因: {}", toolId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 查询热度最高的工具ID（按热度降序）
+     */
+    public List<Long> topToolIds(int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        try {
+            Set<String> members = stringRedisTemplate.opsForZSet().reverseRange(RANKING_KEY, 0, limit - 1);
+            if (members != null && !members.isEmpty()) {
+                return members.stream().map(Long::valueOf).collect(Collectors.toList());
+            }
+        } catch (Exception e) {
+            log.warn("从Redis读取热门排行失败, 使用本地排行: {}", e.getMessage());
+        }
+        return localScores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 按半衰期对全部热度分做指数衰减，Redis侧由一个节点通过 ZUNIONSTORE WEIGHTS 原子完成
+     */
+    @Scheduled(fixedDelayString = "${tool.hot-ranking.decay-interval:3600000}")
+    public void decay() {
+        if (halfLifeHours <= 0) {
+            return;
+        }
+        double factor = Math.pow(0.5, decayIntervalMillis / (halfLifeHours * 3600_000D));
+        localScores.replaceAll((toolId, score) -> score * factor);
+
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(DECAY_LOCK_KEY, "1", Duration.ofMillis(decayIntervalMillis * 9 / 10));
+            if (Boolean.TRUE.equals(acquired)) {
+                stringRedisTemplate.opsForZSet().unionAndStore(RANKING_KEY, Collections.emptyList(), RANKING_KEY,
+                        Aggregate.SUM, Weights.of(factor));
+            }
+        } catch (Exception e) {
+            log.warn("热门排行衰减失败: {}", e.getMessage());
+        }
+    }
+
+    private void increment(Long toolId, double delta) {
+        afterCommit(() -> {
+            localScores.merge(toolId, delta, Double::sum);
+            try {
+                stringRedisTemplate.opsForZSet().incrementScore(RANKING_KEY, String.valueOf(toolId), delta);
+            } catch (Exception e) {
+                log.warn("热门排行更新失败, toolId: {}, 原因: {}", toolId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 存在事务时推迟到提交后执行（回滚则丢弃），否则立即执行
+     */
+    private void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * 用数据库中的计数初始化Redis排行（ZADD为覆盖写，多节点同时初始化结果一致）
+     */
+    private void seedRedis() {
+        Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+        localScores.forEach((toolId, score) ->
+                tuples.add(ZSetOperations.TypedTuple.of(String.valueOf(toolId), score)));
+        if (!tuples.isEmpty()) {
+            stringRedisTemplate.opsForZSet().add(RANKING_KEY, tuples);
+        }
+    }
+
+    /**
+     * 按数据库计数计算工具的热度分（评分项与 onRating 一致，取评分总和）
+     */
+    public static double score(Tool tool) {
+        long ratingSum = tool.getRatingSum() == null ? 0 : tool.getRatingSum();
+        return value(tool.getUpvoteCount()) * UPVOTE_WEIGHT
+                + value(tool.getFavoriteCount()) * FAVORITE_WEIGHT
+                + value(tool.getViewCount()) * VIEW_WEIGHT
+                + ratingSum * RATING_WEIGHT;
+    }
+
+    private static int value(Integer count) {
+        return count == null ? 0 : count;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
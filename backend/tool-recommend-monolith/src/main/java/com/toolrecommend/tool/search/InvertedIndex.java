@@ -0,0 +1,336 @@
+package com.toolrecommend.tool.search;
+
+import com.toolrecommend.common.entity.Tool;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 工具倒排索引
+ * 词元 -> (文档号 -> 各字段词频) 的倒排表，按 BM25F 对名称、标签、标语、描述加权打分。
+ * 文档号为工具ID映射出的稠密整数，分类、定价等过滤条件以位图求交集。
+ * 读写锁保护，支持单个工具的增量更新；点赞数、浏览量随计数变化就地累加，命中结果取检索时的快照排序
+ *
+ * @author Tool Recommend Team
+ */
+class InvertedIndex {
+
+    static final int FIELD_NAME = 0;
+    static final int FIELD_TAGS = 1;
+    static final int FIELD_TAGLINE = 2;
+    static final int FIELD_DESCRIPTION = 3;
+    static final int FIELD_COUNT = 4;
+
+    /**
+     * 字段权重，与字段下标对应
+     */
+    private static final double[] FIELD_BOOSTS = {3.0, 2.0, 1.5, 1.0};
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<String, Map<Integer, int[]>> postings = new TreeMap<>();
+
+    private final Map<Long, Integer> docNos = new HashMap<>();
+
+    private final List<Doc> docs = new ArrayList<>();
+
+    private final BitSet live = new BitSet();
+
+    private final Map<Integer, BitSet> byCategory = new HashMap<>();
+
+    private final Map<String, BitSet> byPricingModel = new HashMap<>();
+
+    private final long[] fieldLengthSums = new long[FIELD_COUNT];
+
+    private int liveCount;
+
+    /**
+     * 已建索引的文档
+     */
+    static final class Doc {
+        final Long toolId;
+        final Integer categoryId;
+        final String pricingModel;
+        final double averageRating;
+        final int reviewCount;
+        int viewCount;
+        int upvoteCount;
+        final long launchEpochDay;
+        final int[] fieldLengths = new int[FIELD_COUNT];
+        final Map<String, int[]> termFrequencies = new HashMap<>();
+
+        Doc(Tool tool) {
+            this.toolId = tool.getId();
+            this.categoryId = tool.getCategoryId();
+            this.pricingModel = tool.getPricingModel();
+            this.averageRating = tool.getAverageRating() == null ? 0 : tool.getAverageRating().doubleValue();
+            this.reviewCount = valueOf(tool.getReviewCount());
+            this.viewCount = valueOf(tool.getViewCount());
+            this.upvoteCount = valueOf(tool.getUpvoteCount());
+            this.launchEpochDay = tool.getLaunchDate() == null ? Long.MIN_VALUE : tool.getLaunchDate().toEpochDay();
+        }
+
+        void addField(int field, String text) {
+            List<String> tokens = SearchTokenizer.tokenize(text);
+            fieldLengths[field] += tokens.size();
+            for (String token : tokens) {
+                termFrequencies.computeIfAbsent(token, t -> new int[FIELD_COUNT])[field]++;
+            }
+        }
+
+        private static int valueOf(Integer value) {
+            return value == null ? 0 : value;
+        }
+    }
+
+    /**
+     * 命中结果，排序用的计数在读锁内取快照，排序期间计数变化不影响比较结果
+     */
+    static final class Hit {
+        final Doc doc;
+        final double score;
+        final int viewCount;
+        final int upvoteCount;
+
+        Hit(Doc doc, double score) {
+            this.doc = doc;
+            this.score = score;
+            this.viewCount = doc.viewCount;
+            this.upvoteCount = doc.upvoteCount;
+        }
+    }
+
+    /**
+     * 新增或替换工具文档，非已发布状态的工具只做移除
+     */
+    void upsert(Tool tool, Collection<String> tagNames) {
+        Doc doc = new Doc(tool);
+        doc.addField(FIELD_NAME, tool.getName());
+        doc.addField(FIELD_TAGLINE, tool.getTagline());
+        doc.addField(FIELD_DESCRIPTION, tool.getDescription());
+        for (String tagName : tagNames) {
+            doc.addField(FIELD_TAGS, tagName);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(tool.getId());
+            if (tool.getStatus() == null || tool.getStatus() != 1) {
+                return;
+            }
+
+            Integer docNo = docNos.get(tool.getId());
+            if (docNo == null) {
+                docNo = docs.size();
+                docs.add(doc);
+                docNos.put(tool.getId(), docNo);
+            } else {
+                docs.set(docNo, doc);
+            }
+
+            for (Map.Entry<String, int[]> entry : doc.termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(docNo, entry.getValue());
+            }
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                fieldLengthSums[field] += doc.fieldLengths[field];
+            }
+            if (doc.categoryId != null) {
+                byCategory.computeIfAbsent(doc.categoryId, c -> new BitSet()).set(docNo);
+            }
+            if (doc.pricingModel != null) {
+                byPricingModel.computeIfAbsent(doc.pricingModel, p -> new BitSet()).set(docNo);
+            }
+            live.set(docNo);
+            liveCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除工具文档
+     */
+    void remove(Long toolId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(toolId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 累加已收录工具的点赞数和浏览量，未收录的工具忽略
+     */
+    void addCounts(Long toolId, int upvoteDelta, long viewDelta) {
+        lock.writeLock().lock();
+        try {
+            Integer docNo = docNos.get(toolId);
+            if (docNo == null || !live.get(docNo)) {
+                return;
+            }
+            Doc doc = docs.get(docNo);
+            doc.upvoteCount = Math.max(0, doc.upvoteCount + upvoteDelta);
+            doc.viewCount = (int) Math.min(Integer.MAX_VALUE, doc.viewCount + viewDelta);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 检索：每组词元之间取交集（组内任一词元命中即可，用于前缀扩展），
+     * 再与过滤位图求交，对剩余文档打分
+     *
+     * @param termGroups    查询词元组
+     * @param categoryId    分类过滤，可为空
+     * @param pricingModel  定价模式过滤，可为空
+     * @param minRating     最低评分过滤，可为空
+     */
+    List<Hit> search(List<List<String>> termGroups, Integer categoryId, String pricingModel, Double minRating) {
+        if (termGroups.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) live.clone();
+            if (categoryId != null) {
+                candidates.and(byCategory.getOrDefault(categoryId, new BitSet()));
+            }
+            if (pricingModel != null && !pricingModel.isEmpty()) {
+                candidates.and(byPricingModel.getOrDefault(pricingModel, new BitSet()));
+            }
+
+            for (List<String> group : termGroups) {
+                BitSet matched = new BitSet();
+                for (String term : group) {
+                    Map<Integer, int[]> posting = postings.get(term);
+                    if (posting != null) {
+                        posting.keySet().forEach(matched::set);
+                    }
+                }
+                candidates.and(matched);
+                if (candidates.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            double[] averageLengths = new double[FIELD_COUNT];
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                averageLengths[field] = Math.max(1.0, (double) fieldLengthSums[field] / Math.max(1, liveCount));
+            }
+
+            List<Hit> hits = new ArrayList<>(candidates.cardinality());
+            for (int docNo = candidates.nextSetBit(0); docNo >= 0; docNo = candidates.nextSetBit(docNo + 1)) {
+                Doc doc = docs.get(docNo);
+                if (minRating != null && doc.averageRating < minRating) {
+                    continue;
+                }
+                double score = 0;
+                for (List<String> group : termGroups) {
+                    double best = 0;
+                    for (String term : group) {
+                        best = Math.max(best, termScore(term, docNo, doc, averageLengths));
+                    }
+                    score += best;
+                }
+                hits.add(new Hit(doc, score));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 前缀扩展：返回以prefix开头、文档频率最高的至多max个词元
+     */
+    List<String> expandPrefix(String prefix, int max) {
+        lock.readLock().lock();
+        try {
+            SortedMap<String, Map<Integer, int[]>> range = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+            List<Map.Entry<String, Map<Integer, int[]>>> entries = new ArrayList<>(range.entrySet());
+            if (entries.size() > max) {
+                entries.sort((a, b) -> Integer.compare(b.getValue().size(), a.getValue().size()));
+                entries = entries.subList(0, max);
+            }
+            List<String> terms = new ArrayList<>(entries.size());
+            for (Map.Entry<String, Map<Integer, int[]>> entry : entries) {
+                terms.add(entry.getKey());
+            }
+            return terms;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double termScore(String term, int docNo, Doc doc, double[] averageLengths) {
+        Map<Integer, int[]> posting = postings.get(term);
+        if (posting == null) {
+            return 0;
+        }
+        int[] frequencies = posting.get(docNo);
+        if (frequencies == null) {
+            return 0;
+        }
+
+        double weightedTf = 0;
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            if (frequencies[field] > 0) {
+                double norm = 1 - B + B * doc.fieldLengths[field] / averageLengths[field];
+                weightedTf += FIELD_BOOSTS[field] * frequencies[field] / norm;
+            }
+        }
+        int df = posting.size();
+        double idf = Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+        return idf * weightedTf / (K1 + weightedTf);
+    }
+
+    private void removeInternal(Long toolId) {
+        Integer docNo = docNos.get(toolId);
+        if (docNo == null || !live.get(docNo)) {
+            return;
+        }
+        Doc doc = docs.get(docNo);
+        for (String term : doc.termFrequencies.keySet()) {
+            Map<Integer, int[]> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(docNo);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            fieldLengthSums[field] -= doc.fieldLengths[field];
+        }
+        if (doc.categoryId != null && byCategory.containsKey(doc.categoryId)) {
+            byCategory.get(doc.categoryId).clear(docNo);
+        }
+        if (doc.pricingModel != null && byPricingModel.containsKey(doc.pricingModel)) {
+            byPricingModel.get(doc.pricingModel).clear(docNo);
+        }
+        live.clear(docNo);
+        liveCount--;
+    }
+}
@@ -0,0 +1,99 @@
+package com.toolrecommend.tool.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 搜索分词器
+ * 中日韩文字按单字和相邻二字切分，其余字母数字按连续片段切分为小写单词，其他字符作为分隔符。
+ * 建索引时同时产出单字和二字词元，查询时连续两个以上汉字只用二字词元，效果接近子串匹配
+ *
+ * @author Tool Recommend Team
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 建索引用分词：单词 + 汉字单字 + 汉字二字
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        scan(text, tokens, true);
+        return tokens;
+    }
+
+    /**
+     * 查询用分词：单词 + 汉字二字（单个汉字时退化为单字）
+     */
+    public static List<String> queryTerms(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        scan(text, tokens, false);
+        return tokens;
+    }
+
+    /**
+     * 查询末尾是否为未输完的单词（边输入边搜索时对其做前缀扩展）
+     */
+    public static boolean endsWithPartialWord(String text) {
+        if (text == null || text.isEmpty()) {
+            return false;
+        }
+        int last = text.codePointBefore(text.length());
+        return Character.isLetterOrDigit(last) && !isCjk(last);
+    }
+
+    private static void scan(String text, List<String> tokens, boolean indexing) {
+        StringBuilder word = new StringBuilder();
+        int runStart = -1;
+        int[] codePoints = text.codePoints().toArray();
+        for (int i = 0; i <= codePoints.length; i++) {
+            int cp = i < codePoints.length ? codePoints[i] : ' ';
+            boolean cjk = isCjk(cp);
+
+            if (!cjk && Character.isLetterOrDigit(cp)) {
+                word.appendCodePoint(cp);
+            } else if (word.length() > 0) {
+                tokens.add(word.toString().toLowerCase(Locale.ROOT));
+                word.setLength(0);
+            }
+
+            if (cjk) {
+                if (runStart < 0) {
+                    runStart = i;
+                }
+            } else if (runStart >= 0) {
+                emitCjkRun(codePoints, runStart, i, tokens, indexing);
+                runStart = -1;
+            }
+        }
+    }
+
+    private static void emitCjkRun(int[] codePoints, int from, int to, List<String> tokens, boolean indexing) {
+        int length = to - from;
+        if (indexing || length == 1) {
+            for (int i = from; i < to; i++) {
+                tokens.add(new String(codePoints, i, 1));
+            }
+        }
+        for (int i = from; i + 1 < to; i++) {
+            tokens.add(new String(codePoints, i, 2));
+        }
+    }
+
+    private static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
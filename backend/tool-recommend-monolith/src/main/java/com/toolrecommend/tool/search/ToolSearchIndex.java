@@ -0,0 +1,298 @@
+package com.toolrecommend.tool.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.toolrecommend.common.dto.ToolQueryDTO;
+import com.toolrecommend.common.entity.Tag;
+import com.toolrecommend.common.entity.Tool;
+import com.toolrecommend.tool.mapper.TagMapper;
+import com.toolrecommend.tool.mapper.ToolMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 工具搜索索引
+ * 进程内倒排索引替代 LIKE '%kw%' 全表扫描，应用启动完成后在独立线程中首次构建并定时全量重建，不阻塞启动，
+ * 首次构建完成前检索返回null，由调用方回退到数据库查询；工具增删改在事务提交后增量刷新单个文档。
+ * 排序所需的点赞数、浏览量在计数落库后同步累加，评分随工具文档刷新，排序与卡片展示的计数一致
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class ToolSearchIndex {
+
+    public static final String SORT_RELEVANCE = "relevance";
+
+    private static final int TAG_BATCH_SIZE = 1000;
+
+    @Resource
+    private ToolMapper toolMapper;
+
+    @Resource
+    private TagMapper tagMapper;
+
+    /**
+     * 末尾未输完的单词最多扩展的词元数
+     */
+    @Value("${tool.search.max-prefix-expansions:50}")
+    private int maxPrefixExpansions;
+
+    /**
+     * 全量重建间隔（毫秒）
+     */
+    @Value("${tool.search.rebuild-interval:600000}")
+    private long rebuildInterval;
+
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tool-search-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile InvertedIndex index;
+
+    private volatile boolean rebuilding;
+
+    /**
+     * 重建期间发生变更的工具，重建完成后在新索引上重放
+     */
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 一页检索结果
+     */
+    @Getter
+    public static class SearchPage {
+        private final List<Long> toolIds;
+        private final long total;
+
+        SearchPage(List<Long> toolIds, long total) {
+            this.toolIds = toolIds;
+            this.total = total;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuilder.scheduleWithFixedDelay(this::rebuild, 0, rebuildInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * 检索并分页，索引未就绪时返回null，调用方回退到数据库查询
+     */
+    public SearchPage search(ToolQueryDTO queryDTO) {
+        return search(queryDTO, Math.max(0, (queryDTO.getCurrent() - 1) * queryDTO.getSize()));
+    }
+
+    /**
+     * 从指定偏移量开始检索一页，索引未就绪时返回null
+     */
+    public SearchPage search(ToolQueryDTO queryDTO, long offset) {
+        InvertedIndex current = index;
+        if (current == null) {
+            return null;
+        }
+
+        List<List<String>> termGroups = buildTermGroups(current, queryDTO.getKeyword());
+        List<InvertedIndex.Hit> hits = current.search(termGroups, queryDTO.getCategoryId(),
+                queryDTO.getPricingModel(), queryDTO.getMinRating());
+        hits.sort(comparator(queryDTO.getSortBy(), queryDTO.getSortOrder()));
+
+        List<Long> toolIds = hits.stream()
+                .skip(offset)
+                .limit(queryDTO.getSize())
+                .map(hit -> hit.doc.toolId)
+                .collect(Collectors.toList());
+        return new SearchPage(toolIds, hits.size());
+    }
+
+    /**
+     * 刷新单个工具的索引文档，存在事务时推迟到提交之后，回滚则不生效
+     */
+    public void refreshAfterCommit(Long toolId) {
+        afterCommit(() -> refresh(toolId));
+    }
+
+    /**
+     * 点赞数变化，存在事务时推迟到提交之后
+     */
+    public void onUpvote(Long toolId, int delta) {
+        afterCommit(() -> addCounts(toolId, delta, 0));
+    }
+
+    /**
+     * 批量累加浏览量（由浏览量缓冲落库后调用）
+     */
+    public void onViews(Map<Long, Long> viewDeltas) {
+        viewDeltas.forEach((toolId, views) -> addCounts(toolId, 0, views));
+    }
+
+    /**
+     * 定时全量重建，新索引构建完成后整体替换，构建期间读请求继续使用旧索引
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        try {
+            List<Tool> tools = toolMapper.selectList(new LambdaQueryWrapper<Tool>().eq(Tool::getStatus, 1));
+            Map<Long, List<String>> tagNames = loadTagNames(tools.stream().map(Tool::getId).collect(Collectors.toList()));
+
+            InvertedIndex fresh = new InvertedIndex();
+            for (Tool tool : tools) {
+                fresh.upsert(tool, tagNames.getOrDefault(tool.getId(), Collections.emptyList()));
+            }
+            index = fresh;
+            log.info("搜索索引重建完成, 工具数: {}, 耗时: {}ms", fresh.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("搜索索引重建失败: {}", e.getMessage());
+        } finally {
+            rebuilding = false;
+        }
+
+        for (Long toolId : new ArrayList<>(changedDuringRebuild)) {
+            refresh(toolId);
+        }
+        changedDuringRebuild.clear();
+    }
+
+    /**
+     * 重建期间的计数变化可能不在新索引读到的数据中，记下工具待重建完成后从数据库刷新
+     */
+    private void addCounts(Long toolId, int upvoteDelta, long viewDelta) {
+        if (rebuilding) {
+            changedDuringRebuild.add(toolId);
+        }
+        InvertedIndex current = index;
+        if (current != null) {
+            current.addCounts(toolId, upvoteDelta, viewDelta);
+        }
+    }
+
+    /**
+     * 存在事务时推迟到提交后执行（回滚则丢弃），否则立即执行
+     */
+    private void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private void refresh(Long toolId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(toolId);
+        }
+        InvertedIndex current = index;
+        if (current == null) {
+            return;
+        }
+        try {
+            Tool tool = toolMapper.selectById(toolId);
+            if (tool == null || tool.getStatus() == null || tool.getStatus() != 1) {
+                current.remove(toolId);
+            } else {
+                List<String> tagNames = loadTagNames(Collections.singletonList(toolId))
+                        .getOrDefault(toolId, Collections.emptyList());
+                current.upsert(tool, tagNames);
+            }
+        } catch (Exception e) {
+            log.error("刷新搜索索引失败, toolId: {}, 原因: {}", toolId, e.getMessage());
+        }
+    }
+
+    /**
+     * 每个查询词元一组；末尾未输完的单词扩展为同前缀的多个词元组成一组
+     */
+    private List<List<String>> buildTermGroups(InvertedIndex current, String keyword) {
+        List<String> terms = SearchTokenizer.queryTerms(keyword);
+        List<List<String>> groups = new ArrayList<>(terms.size());
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            if (i == terms.size() - 1 && SearchTokenizer.endsWithPartialWord(keyword)) {
+                List<String> expanded = current.expandPrefix(term, maxPrefixExpansions);
+                if (!expanded.contains(term)) {
+                    expanded.add(term);
+                }
+                groups.add(expanded);
+            } else {
+                groups.add(Collections.singletonList(term));
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * 与 selectToolsWithTags 的排序规则一致，另支持按相关度排序
+     */
+    private Comparator<InvertedIndex.Hit> comparator(String sortBy, String sortOrder) {
+        Comparator<InvertedIndex.Hit> byScore = Comparator.comparingDouble(hit -> hit.score);
+        Comparator<InvertedIndex.Hit> byUpvote = Comparator.comparingInt(hit -> hit.upvoteCount);
+        if (SORT_RELEVANCE.equals(sortBy)) {
+            return byScore.reversed().thenComparing(byUpvote.reversed());
+        }
+
+        Comparator<InvertedIndex.Hit> primary;
+        if ("view".equals(sortBy)) {
+            primary = Comparator.comparingInt(hit -> hit.viewCount);
+        } else if ("upvote".equals(sortBy)) {
+            primary = byUpvote;
+        } else if ("rating".equals(sortBy)) {
+            primary = Comparator.comparingDouble(hit -> hit.doc.averageRating);
+        } else if ("launch".equals(sortBy)) {
+            primary = Comparator.comparingLong(hit -> hit.doc.launchEpochDay);
+        } else {
+            return byUpvote.reversed().thenComparing(byScore.reversed());
+        }
+        if (!"asc".equalsIgnoreCase(sortOrder)) {
+            primary = primary.reversed();
+        }
+        if ("rating".equals(sortBy)) {
+            primary = primary.thenComparing(Comparator.comparingInt((InvertedIndex.Hit hit) -> hit.doc.reviewCount).reversed());
+        }
+        return primary.thenComparing(byScore.reversed());
+    }
+
+    private Map<Long, List<String>> loadTagNames(List<Long> toolIds) {
+        Map<Long, List<String>> result = new HashMap<>();
+        for (int from = 0; from < toolIds.size(); from += TAG_BATCH_SIZE) {
+            List<Long> batch = toolIds.subList(from, Math.min(from + TAG_BATCH_SIZE, toolIds.size()));
+            for (Tag tag : tagMapper.selectTagsByToolIds(batch)) {
+                result.computeIfAbsent(tag.getToolId(), id -> new ArrayList<>()).add(tag.getName());
+            }
+        }
+        return result;
+    }
+}
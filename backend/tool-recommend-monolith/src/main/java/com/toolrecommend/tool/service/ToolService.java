@@ -4,8 +4,12 @@ import com.toolrecommend.common.dto.ToolCreateDTO;
 import com.toolrecommend.common.dto.ToolQueryDTO;
 import com.toolrecommend.common.result.PageResult;
 import com.toolrecommend.common.vo.ToolDetailVO;
+import com.toolrecommend.common.vo.ToolRelationVO;
+import com.toolrecommend.common.vo.ToolStatsVO;
 import com.toolrecommend.common.vo.ToolVO;
+import com.toolrecommend.tool.actionlog.LoggedAction;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -25,6 +29,21 @@ public interface ToolService {
      */
     ToolDetailVO getToolDetail(Long id, Long currentUserId);
 
+    /**
+     * 批量查询工具卡片，按传入顺序返回，不存在或未发布的工具被跳过
+     */
+    List<ToolVO> getToolCards(Collection<Long> ids);
+
+    /**
+     * 查询用户与工具的关系（是否收藏、是否点赞）
+     */
+    ToolRelationVO getToolRelation(Long toolId, Long userId);
+
+    /**
+     * 批量查询用户与多个工具的关系，按传入顺序返回
+     */
+    List<ToolRelationVO> getToolRelations(List<Long> toolIds, Long userId);
+
     /**
      * 创建工具
      */
@@ -45,6 +64,11 @@ public interface ToolService {
      */
     boolean incrementViewCount(Long id);
 
+    /**
+     * 记录浏览、点击等行为，只追加到本地行为日志，由后台批量写入 user_action
+     */
+    boolean recordAction(Long id, Long userId, LoggedAction action, String source);
+
     /**
      * 点赞工具
      */
@@ -70,6 +94,16 @@ public interface ToolService {
      */
     List<ToolVO> getHotTools(Integer limit);
 
+    /**
+     * 查询趋势工具：近 hours 小时活跃度相对上一个等长窗口增长最快的工具
+     */
+    List<ToolVO> getTrendingTools(Integer hours, Integer limit);
+
+    /**
+     * 查询工具在指定范围内的浏览、点赞、收藏、评分时间序列
+     */
+    ToolStatsVO getToolStats(Long id, String range);
+
     /**
      * 查询最新工具
      */
@@ -80,6 +114,11 @@ public interface ToolService {
      */
     List<ToolVO> getSimilarTools(Long toolId, Integer limit);
 
+    /**
+     * 查询语义相似工具（按名称、介绍、标签的向量相似度），可按分类和定价模式过滤
+     */
+    List<ToolVO> getSemanticSimilarTools(Long toolId, Integer limit, Integer categoryId, String pricingModel);
+
     /**
      * 搜索工具（全文搜索）
      */
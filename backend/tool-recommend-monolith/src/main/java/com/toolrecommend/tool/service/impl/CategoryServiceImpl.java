@@ -2,9 +2,9 @@ package com.toolrecommend.tool.service.impl;
 
 import com.toolrecommend.common.entity.Category;
 import com.toolrecommend.common.vo.CategoryVO;
+import com.toolrecommend.tool.convert.ToolConverter;
 import com.toolrecommend.tool.mapper.CategoryMapper;
 import com.toolrecommend.tool.service.CategoryService;
-import org.springframework.beans.BeanUtils;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
@@ -27,6 +27,9 @@ public class CategoryServiceImpl implements CategoryService {
     @Resource
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Resource
+    private ToolConverter toolConverter;
+
     private static final String CATEGORY_CACHE_KEY = "category:all";
     private static final long CACHE_EXPIRE_TIME = 120;
 
@@ -71,8 +74,6 @@ public class CategoryServiceImpl implements CategoryService {
      * 转换为CategoryVO
      */
     private CategoryVO convertToCategoryVO(Category category) {
-        CategoryVO vo = new CategoryVO();
-        BeanUtils.copyProperties(category, vo);
-        return vo;
+        return toolConverter.toCategoryVO(category);
     }
 }
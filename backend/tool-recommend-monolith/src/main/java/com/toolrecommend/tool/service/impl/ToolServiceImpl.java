@@ -9,24 +9,56 @@ import com.toolrecommend.common.entity.Category;
 import com.toolrecommend.common.entity.Tag;
 import com.toolrecommend.common.entity.Tool;
 import com.toolrecommend.common.entity.UserAction;
+import com.toolrecommend.common.exception.BusinessException;
 import com.toolrecommend.common.exception.ToolNotFoundException;
+import com.toolrecommend.common.result.PageCursor;
 import com.toolrecommend.common.result.PageResult;
 import com.toolrecommend.common.vo.*;
+import com.toolrecommend.rating.mapper.RatingStatsMapper;
+import com.toolrecommend.rating.support.RatingStatsSupport;
+import com.toolrecommend.tool.action.ToolActionQueue;
+import com.toolrecommend.tool.actionlog.ActionLog;
+import com.toolrecommend.tool.actionlog.LoggedAction;
+import com.toolrecommend.tool.cache.ToolCardCache;
+import com.toolrecommend.tool.convert.ToolConverter;
+import com.toolrecommend.tool.cache.ToolDetailCache;
+import com.toolrecommend.tool.counter.ViewCountBuffer;
 import com.toolrecommend.tool.mapper.CategoryMapper;
 import com.toolrecommend.tool.mapper.TagMapper;
 import com.toolrecommend.tool.mapper.ToolMapper;
+import com.toolrecommend.tool.mapper.ToolSimilarityMapper;
 import com.toolrecommend.tool.mapper.UserActionMapper;
+import com.toolrecommend.tool.metrics.ToolMetric;
+import com.toolrecommend.tool.metrics.ToolMetricsStore;
+import com.toolrecommend.tool.ranking.HotRankingService;
+import com.toolrecommend.tool.search.ToolSearchIndex;
 import com.toolrecommend.tool.service.ToolService;
+import com.toolrecommend.tool.support.CategoryDictionary;
+import com.toolrecommend.tool.support.ToolVOAssembler;
+import com.toolrecommend.tool.vector.ToolVectorIndex;
+import com.toolrecommend.tool.vector.VectorHit;
+import com.toolrecommend.user.relation.RelationType;
+import com.toolrecommend.user.relation.UserRelationStore;
+import com.toolrecommend.user.relation.UserRelations;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import jakarta.annotation.Resource;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -34,9 +66,20 @@ import java.util.stream.Collectors;
  *
  * @author Tool Recommend Team
  */
+@Slf4j
 @Service
 public class ToolServiceImpl implements ToolService {
 
+    private static final String TOOL_COUNT_CACHE_KEY = "tool:count:";
+
+    private static final String SEARCH_CURSOR_SCOPE = "tool:search";
+
+    private static final int MAX_TRENDING_LIMIT = 50;
+
+    private static final int DETAIL_SIMILAR_LIMIT = 6;
+
+    private static final int MAX_SEMANTIC_LIMIT = 50;
+
     @Resource
     private ToolMapper toolMapper;
 
@@ -50,14 +93,76 @@ public class ToolServiceImpl implements ToolService {
     private UserActionMapper userActionMapper;
 
     @Resource
-    private RedisTemplate<String, Object> redisTemplate;
+    private RatingStatsMapper ratingStatsMapper;
+
+    @Resource
+    private ViewCountBuffer viewCountBuffer;
+
+    @Resource
+    private ActionLog actionLog;
+
+    @Resource
+    private ToolSimilarityMapper toolSimilarityMapper;
+
+    @Resource
+    private ToolVectorIndex toolVectorIndex;
+
+    @Resource
+    private ToolDetailCache toolDetailCache;
+
+    @Resource
+    private ToolCardCache toolCardCache;
+
+    @Resource
+    private ToolConverter toolConverter;
+
+    @Resource
+    private ToolVOAssembler toolVOAssembler;
+
+    @Resource
+    private CategoryDictionary categoryDictionary;
+
+    @Resource
+    private HotRankingService hotRankingService;
+
+    @Resource
+    private ToolMetricsStore toolMetricsStore;
+
+    @Resource
+    private ToolSearchIndex toolSearchIndex;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private UserRelationStore userRelationStore;
+
+    @Resource
+    private ToolActionQueue toolActionQueue;
+
+    /**
+     * 游标分页近似总数的缓存时间（秒）
+     */
+    @Value("${tool.query.count-cache-ttl:300}")
+    private long countCacheTtlSeconds;
 
-    private static final String TOOL_CACHE_KEY = "tool:detail:";
-    private static final String HOT_TOOLS_CACHE_KEY = "tool:hot";
-    private static final long CACHE_EXPIRE_TIME = 60;
 
     @Override
     public PageResult<ToolVO> queryTools(ToolQueryDTO queryDTO) {
+        if (queryDTO.getCursor() != null) {
+            return StringUtils.hasText(queryDTO.getKeyword())
+                    ? searchToolsByCursor(queryDTO)
+                    : queryToolsByCursor(queryDTO);
+        }
+
+        if (StringUtils.hasText(queryDTO.getKeyword())) {
+            ToolSearchIndex.SearchPage searchPage = toolSearchIndex.search(queryDTO);
+            if (searchPage != null) {
+                List<ToolVO> toolVOList = toolVOAssembler.assemble(loadPublishedInOrder(searchPage.getToolIds()));
+                return PageResult.of(toolVOList, searchPage.getTotal(), queryDTO.getCurrent(), queryDTO.getSize());
+            }
+        }
+
         Page<Tool> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize());
 
         IPage<Tool> toolPage = toolMapper.selectToolsWithTags(
@@ -70,59 +175,59 @@ public class ToolServiceImpl implements ToolService {
                 queryDTO.getSortOrder()
         );
 
-        List<ToolVO> toolVOList = toolPage.getRecords().stream()
-                .map(this::convertToToolVO)
-                .collect(Collectors.toList());
+        List<ToolVO> toolVOList = toolVOAssembler.assemble(toolPage.getRecords());
 
         return PageResult.of(toolVOList, toolPage.getTotal(), toolPage.getCurrent(), toolPage.getSize());
     }
 
     @Override
     public ToolDetailVO getToolDetail(Long id, Long currentUserId) {
-        // 先从缓存获取
-        String cacheKey = TOOL_CACHE_KEY + id;
-        ToolDetailVO cachedTool = (ToolDetailVO) redisTemplate.opsForValue().get(cacheKey);
-        if (cachedTool != null) {
-            // 设置用户相关信息
-            if (currentUserId != null) {
-                cachedTool.setIsFavorited(checkUserFavorite(id, currentUserId));
-                cachedTool.setIsUpvoted(checkUserUpvote(id, currentUserId));
-            }
-            return cachedTool;
+        ToolDetailVO body = getDetailBody(id);
+        ToolRelationVO relation = currentUserId == null ? null : getToolRelation(id, currentUserId);
+        int[] pending = toolActionQueue.pendingCounts(List.of(id)).get(id);
+        if (relation == null && pending == null) {
+            return body;
         }
+        return overlay(body, relation, pending);
+    }
 
-        // 从数据库查询
-        Tool tool = toolMapper.selectToolDetailById(id);
-        if (tool == null || tool.getStatus() != 1) {
-            throw new ToolNotFoundException(id);
-        }
-
-        ToolDetailVO detailVO = convertToToolDetailVO(tool);
-
-        // 查询标签
-        List<Tag> tags = tagMapper.selectTagsByToolId(id);
-        detailVO.setTags(tags.stream().map(this::convertToTagVO).collect(Collectors.toList()));
-
-        // 查询分类
-        Category category = categoryMapper.selectById(tool.getCategoryId());
-        if (category != null) {
-            detailVO.setCategory(convertToCategoryVO(category));
+    @Override
+    public List<ToolVO> getToolCards(Collection<Long> ids) {
+        List<Long> toolIds = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        Map<Long, ToolVO> cards = toolCardCache.multiGet(toolIds);
+
+        List<Long> missing = toolIds.stream().filter(id -> !cards.containsKey(id)).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            List<ToolVO> loaded = toolVOAssembler.assemble(loadPublishedInOrder(missing));
+            toolCardCache.putAll(loaded);
+            loaded.forEach(card -> cards.put(card.getId(), card));
         }
 
-        // 查询相似工具
-        List<Tool> similarTools = toolMapper.selectSimilarTools(id, tool.getCategoryId(), 6);
-        detailVO.setSimilarTools(similarTools.stream().map(this::convertToToolVO).collect(Collectors.toList()));
-
-        // 设置用户相关信息
-        if (currentUserId != null) {
-            detailVO.setIsFavorited(checkUserFavorite(id, currentUserId));
-            detailVO.setIsUpvoted(checkUserUpvote(id, currentUserId));
-        }
+        // 卡片是本次读取或回填后的独立对象，可直接叠加待落库计数
+        Map<Long, int[]> pending = toolActionQueue.pendingCounts(cards.keySet());
+        pending.forEach((toolId, delta) -> {
+            ToolVO card = cards.get(toolId);
+            card.setUpvoteCount(addCount(card.getUpvoteCount(), delta[0]));
+            card.setFavoriteCount(addCount(card.getFavoriteCount(), delta[1]));
+        });
+
+        return toolIds.stream()
+                .map(cards::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
 
-        // 缓存工具详情
-        redisTemplate.opsForValue().set(cacheKey, detailVO, CACHE_EXPIRE_TIME, TimeUnit.MINUTES);
+    @Override
+    public ToolRelationVO getToolRelation(Long toolId, Long userId) {
+        return toRelationVO(userRelationStore.get(userId), toolId);
+    }
 
-        return detailVO;
+    @Override
+    public List<ToolRelationVO> getToolRelations(List<Long> toolIds, Long userId) {
+        UserRelations relations = userRelationStore.get(userId);
+        return toolIds.stream()
+                .map(toolId -> toRelationVO(relations, toolId))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -171,7 +276,9 @@ public class ToolServiceImpl implements ToolService {
         int result = toolMapper.updateById(tool);
 
         // 清除缓存
-        redisTemplate.delete(TOOL_CACHE_KEY + id);
+        toolDetailCache.invalidateAfterCommit(id);
+        toolSearchIndex.refreshAfterCommit(id);
+        toolVectorIndex.refreshAfterCommit(id);
 
         return result > 0;
     }
@@ -194,24 +301,41 @@ public class ToolServiceImpl implements ToolService {
         // 更新分类工具数量
         categoryMapper.decrementToolCount(tool.getCategoryId());
 
+        // 移出热门排行和搜索索引
+        hotRankingService.remove(id);
+        toolSearchIndex.refreshAfterCommit(id);
+        toolVectorIndex.refreshAfterCommit(id);
+
         // 清除缓存
-        redisTemplate.delete(TOOL_CACHE_KEY + id);
+        toolDetailCache.invalidateAfterCommit(id);
 
         return result > 0;
     }
 
     @Override
     public boolean incrementViewCount(Long id) {
-        int result = toolMapper.incrementViewCount(id);
-        if (result > 0) {
-            redisTemplate.delete(TOOL_CACHE_KEY + id);
+        // 只写内存缓冲，由ViewCountBuffer定时批量落库，详情缓存中的浏览量随缓存过期刷新
+        viewCountBuffer.increment(id);
+        return true;
+    }
+
+    @Override
+    public boolean recordAction(Long id, Long userId, LoggedAction action, String source) {
+        // user_action.user_id 非空，匿名行为只计入浏览量
+        if (userId == null) {
+            return false;
         }
-        return result > 0;
+        return actionLog.append(userId, id, action, source);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean upvoteTool(Long id, Long userId) {
+        if (toolActionQueue.isAsync()) {
+            // Redis原子去重、累加待落库计数并入队，user_action、工具计数、排行和指标由后台批量落库后更新
+            return toolActionQueue.submit(RelationType.UPVOTE, userId, id, true);
+        }
+
         // 检查是否已点赞
         if (checkUserUpvote(id, userId)) {
             return false;
@@ -219,6 +343,9 @@ public class ToolServiceImpl implements ToolService {
 
         // 增加点赞数
         toolMapper.incrementUpvoteCount(id);
+        hotRankingService.onUpvote(id, 1);
+        toolMetricsStore.record(id, ToolMetric.UPVOTE, 1);
+        toolSearchIndex.onUpvote(id, 1);
 
         // 记录用户行为
         UserAction action = new UserAction();
@@ -226,9 +353,10 @@ public class ToolServiceImpl implements ToolService {
         action.setToolId(id);
         action.setActionType("UPVOTE");
         userActionMapper.insert(action);
+        userRelationStore.updateAfterCommit(userId, RelationType.UPVOTE, id, true);
 
         // 清除缓存
-        redisTemplate.delete(TOOL_CACHE_KEY + id);
+        toolDetailCache.invalidateAfterCommit(id);
 
         return true;
     }
@@ -236,6 +364,11 @@ public class ToolServiceImpl implements ToolService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean cancelUpvote(Long id, Long userId) {
+        if (toolActionQueue.isAsync()) {
+            // Redis原子去重、累加待落库计数并入队，user_action、工具计数、排行和指标由后台批量落库后更新
+            return toolActionQueue.submit(RelationType.UPVOTE, userId, id, false);
+        }
+
         // 检查是否已点赞
         if (!checkUserUpvote(id, userId)) {
             return false;
@@ -243,6 +376,9 @@ public class ToolServiceImpl implements ToolService {
 
         // 减少点赞数
         toolMapper.decrementUpvoteCount(id);
+        hotRankingService.onUpvote(id, -1);
+        toolMetricsStore.record(id, ToolMetric.UPVOTE, -1);
+        toolSearchIndex.onUpvote(id, -1);
 
         // 删除用户行为记录
         LambdaQueryWrapper<UserAction> wrapper = new LambdaQueryWrapper<>();
@@ -250,9 +386,10 @@ public class ToolServiceImpl implements ToolService {
                 .eq(UserAction::getToolId, id)
                 .eq(UserAction::getActionType, "UPVOTE");
         userActionMapper.delete(wrapper);
+        userRelationStore.updateAfterCommit(userId, RelationType.UPVOTE, id, false);
 
         // 清除缓存
-        redisTemplate.delete(TOOL_CACHE_KEY + id);
+        toolDetailCache.invalidateAfterCommit(id);
 
         return true;
     }
@@ -260,6 +397,11 @@ public class ToolServiceImpl implements ToolService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean favoriteTool(Long id, Long userId) {
+        if (toolActionQueue.isAsync()) {
+            // Redis原子去重、累加待落库计数并入队，user_action、工具计数、排行和指标由后台批量落库后更新
+            return toolActionQueue.submit(RelationType.FAVORITE, userId, id, true);
+        }
+
         // 检查是否已收藏
         if (checkUserFavorite(id, userId)) {
             return false;
@@ -267,6 +409,8 @@ public class ToolServiceImpl implements ToolService {
 
         // 增加收藏数
         toolMapper.incrementFavoriteCount(id);
+        hotRankingService.onFavorite(id, 1);
+        toolMetricsStore.record(id, ToolMetric.FAVORITE, 1);
 
         // 记录用户行为
         UserAction action = new UserAction();
@@ -274,9 +418,10 @@ public class ToolServiceImpl implements ToolService {
         action.setToolId(id);
         action.setActionType("FAVORITE");
         userActionMapper.insert(action);
+        userRelationStore.updateAfterCommit(userId, RelationType.FAVORITE, id, true);
 
         // 清除缓存
-        redisTemplate.delete(TOOL_CACHE_KEY + id);
+        toolDetailCache.invalidateAfterCommit(id);
 
         return true;
     }
@@ -284,6 +429,11 @@ public class ToolServiceImpl implements ToolService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean cancelFavorite(Long id, Long userId) {
+        if (toolActionQueue.isAsync()) {
+            // Redis原子去重、累加待落库计数并入队，user_action、工具计数、排行和指标由后台批量落库后更新
+            return toolActionQueue.submit(RelationType.FAVORITE, userId, id, false);
+        }
+
         // 检查是否已收藏
         if (!checkUserFavorite(id, userId)) {
             return false;
@@ -291,6 +441,8 @@ public class ToolServiceImpl implements ToolService {
 
         // 减少收藏数
         toolMapper.decrementFavoriteCount(id);
+        hotRankingService.onFavorite(id, -1);
+        toolMetricsStore.record(id, ToolMetric.FAVORITE, -1);
 
         // 删除用户行为记录
         LambdaQueryWrapper<UserAction> wrapper = new LambdaQueryWrapper<>();
@@ -298,61 +450,173 @@ public class ToolServiceImpl implements ToolService {
                 .eq(UserAction::getToolId, id)
                 .eq(UserAction::getActionType, "FAVORITE");
         userActionMapper.delete(wrapper);
+        userRelationStore.updateAfterCommit(userId, RelationType.FAVORITE, id, false);
 
         // 清除缓存
-        redisTemplate.delete(TOOL_CACHE_KEY + id);
+        toolDetailCache.invalidateAfterCommit(id);
 
         return true;
     }
 
     @Override
     public List<ToolVO> getHotTools(Integer limit) {
-        // 先从缓存获取
-        @SuppressWarnings("unchecked")
-        List<ToolVO> cachedTools = (List<ToolVO>) redisTemplate.opsForValue().get(HOT_TOOLS_CACHE_KEY);
-        if (cachedTools != null && !cachedTools.isEmpty()) {
-            return cachedTools.stream().limit(limit).collect(Collectors.toList());
+        // 多取一倍候选，跳过已下架的工具后截断
+        List<Long> toolIds = hotRankingService.topToolIds(limit * 2);
+        if (toolIds.isEmpty()) {
+            // 排行尚未建立时回退到数据库排序
+            return toolVOAssembler.assemble(toolMapper.selectHotTools(limit));
         }
 
-        // 从数据库查询
-        List<Tool> tools = toolMapper.selectHotTools(limit);
-        List<ToolVO> toolVOList = tools.stream()
-                .map(this::convertToToolVO)
-                .collect(Collectors.toList());
+        List<Tool> tools = loadPublishedInOrder(toolIds);
+        if (tools.size() < toolIds.size()) {
+            // 排行中残留的已下架或不存在的工具顺手移出
+            List<Long> published = tools.stream().map(Tool::getId).collect(Collectors.toList());
+            toolIds.stream().filter(toolId -> !published.contains(toolId)).forEach(hotRankingService::remove);
+        }
+        if (tools.size() < limit) {
+            // 候选仍不足时用数据库排序补齐
+            List<Long> present = tools.stream().map(Tool::getId).collect(Collectors.toList());
+            toolMapper.selectHotTools(limit * 2).stream()
+                    .filter(tool -> !present.contains(tool.getId()))
+                    .limit(limit - tools.size())
+                    .forEach(tools::add);
+        }
+        return toolVOAssembler.assemble(tools.size() > limit ? tools.subList(0, limit) : tools);
+    }
 
-        // 缓存结果
-        redisTemplate.opsForValue().set(HOT_TOOLS_CACHE_KEY, toolVOList, 30, TimeUnit.MINUTES);
+    @Override
+    public List<ToolVO> getTrendingTools(Integer hours, Integer limit) {
+        if (hours < 1 || hours > ToolMetricsStore.MAX_TRENDING_HOURS) {
+            throw new BusinessException(400, "趋势窗口应在1~" + ToolMetricsStore.MAX_TRENDING_HOURS + "小时之间");
+        }
+        if (limit < 1 || limit > MAX_TRENDING_LIMIT) {
+            throw new BusinessException(400, "一次最多查询" + MAX_TRENDING_LIMIT + "个趋势工具");
+        }
+        // 多取一倍候选，跳过已下架的工具后截断
+        List<ToolVO> tools = getToolCards(toolMetricsStore.trending(hours, limit * 2));
+        return tools.size() > limit ? tools.subList(0, limit) : tools;
+    }
 
-        return toolVOList;
+    @Override
+    public ToolStatsVO getToolStats(Long id, String range) {
+        Tool tool = toolMapper.selectById(id);
+        if (tool == null) {
+            throw new ToolNotFoundException(id);
+        }
+        ToolStatsVO stats = toolMetricsStore.stats(id, range);
+        stats.setMonthlyGrowthRate(tool.getMonthlyGrowthRate());
+        return stats;
     }
 
     @Override
     public List<ToolVO> getLatestTools(Integer limit) {
         List<Tool> tools = toolMapper.selectLatestTools(limit);
-        return tools.stream()
-                .map(this::convertToToolVO)
-                .collect(Collectors.toList());
+        return toolVOAssembler.assemble(tools);
     }
 
     @Override
     public List<ToolVO> getSimilarTools(Long toolId, Integer limit) {
+        List<ToolVO> similarTools = loadPrecomputedSimilar(toolId, limit);
+        if (similarTools.size() >= limit) {
+            return similarTools;
+        }
+
+        // 冷启动工具或结果不足时才需要分类信息
         Tool tool = toolMapper.selectById(toolId);
         if (tool == null) {
             return new ArrayList<>();
         }
+        return fillSimilarByCategory(similarTools, toolId, tool.getCategoryId(), limit);
+    }
 
-        List<Tool> similarTools = toolMapper.selectSimilarTools(toolId, tool.getCategoryId(), limit);
-        return similarTools.stream()
-                .map(this::convertToToolVO)
+    /**
+     * 按主键读取离线计算的相似工具，跳过已下架的工具
+     */
+    private List<ToolVO> loadPrecomputedSimilar(Long toolId, int limit) {
+        List<Long> ids = precomputedSimilarIds(toolId);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<ToolVO> cards = getToolCards(ids);
+        return new ArrayList<>(cards.size() > limit ? cards.subList(0, limit) : cards);
+    }
+
+    private List<Long> precomputedSimilarIds(Long toolId) {
+        String similarIds = toolSimilarityMapper.selectSimilarIds(toolId);
+        if (similarIds == null || similarIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(similarIds.split(","))
+                .map(Long::valueOf)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 带分类、定价过滤的协同相似：离线相似工具中满足条件的优先，不足时用目标分类的热门工具补足
+     */
+    private List<ToolVO> getFilteredSimilarTools(Long toolId, int limit, Integer categoryId, String pricingModel) {
+        Tool tool = toolMapper.selectById(toolId);
+        if (tool == null) {
+            return new ArrayList<>();
+        }
+        List<Tool> candidates = loadPublishedInOrder(precomputedSimilarIds(toolId));
+        Integer fillCategory = categoryId != null ? categoryId : tool.getCategoryId();
+        if (fillCategory != null) {
+            candidates.addAll(toolMapper.selectSimilarTools(toolId, fillCategory, MAX_SEMANTIC_LIMIT));
+        }
+        List<Long> ids = candidates.stream()
+                .filter(candidate -> categoryId == null || categoryId.equals(candidate.getCategoryId()))
+                .filter(candidate -> pricingModel == null || pricingModel.equals(candidate.getPricingModel()))
+                .map(Tool::getId)
+                .distinct()
+                .limit(limit)
+                .collect(Collectors.toList());
+        return getToolCards(ids);
+    }
+
+    /**
+     * 用同分类的热门工具补足相似工具列表
+     */
+    private List<ToolVO> fillSimilarByCategory(List<ToolVO> similarTools, Long toolId, Integer categoryId, int limit) {
+        List<ToolVO> byCategory = toolVOAssembler.assemble(toolMapper.selectSimilarTools(toolId, categoryId, limit));
+        if (similarTools.isEmpty()) {
+            return byCategory;
+        }
+        for (ToolVO candidate : byCategory) {
+            if (similarTools.size() >= limit) {
+                break;
+            }
+            if (similarTools.stream().noneMatch(vo -> vo.getId().equals(candidate.getId()))) {
+                similarTools.add(candidate);
+            }
+        }
+        return similarTools;
+    }
+
+    @Override
+    public List<ToolVO> getSemanticSimilarTools(Long toolId, Integer limit, Integer categoryId, String pricingModel) {
+        if (limit < 1 || limit > MAX_SEMANTIC_LIMIT) {
+            throw new BusinessException(400, "一次最多查询" + MAX_SEMANTIC_LIMIT + "个相似工具");
+        }
+        if (!toolVectorIndex.contains(toolId)) {
+            // 未收录（未发布或索引未就绪）时回退到协同相似，过滤条件同样生效
+            return categoryId == null && pricingModel == null
+                    ? getSimilarTools(toolId, limit)
+                    : getFilteredSimilarTools(toolId, limit, categoryId, pricingModel);
+        }
+        List<Long> ids = toolVectorIndex.similarTo(toolId, limit, categoryId, pricingModel).stream()
+                .map(VectorHit::toolId)
+                .collect(Collectors.toList());
+        return getToolCards(ids);
+    }
+
     @Override
     public PageResult<ToolVO> searchTools(String keyword, Long current, Long size) {
         ToolQueryDTO queryDTO = new ToolQueryDTO();
         queryDTO.setKeyword(keyword);
         queryDTO.setCurrent(current);
         queryDTO.setSize(size);
+        queryDTO.setSortBy(ToolSearchIndex.SORT_RELEVANCE);
         return queryTools(queryDTO);
     }
 
@@ -365,32 +629,256 @@ public class ToolServiceImpl implements ToolService {
         toolMapper.updateById(tool);
 
         // 清除缓存
-        String cacheKey = TOOL_CACHE_KEY + toolId;
-        redisTemplate.delete(cacheKey);
+        toolDetailCache.invalidateAfterCommit(toolId);
+        toolSearchIndex.refreshAfterCommit(toolId);
     }
 
     // ========== 私有辅助方法 ==========
 
+    /**
+     * 游标分页查询工具列表：按 (排序列, id) 定位，不做 COUNT 和 OFFSET，总数取缓存的近似值
+     */
+    private PageResult<ToolVO> queryToolsByCursor(ToolQueryDTO queryDTO) {
+        String sortBy = queryDTO.getSortBy();
+        boolean ascending = "asc".equalsIgnoreCase(queryDTO.getSortOrder());
+        String sortColumns;
+        if ("view".equals(sortBy)) {
+            sortColumns = "t.view_count";
+        } else if ("rating".equals(sortBy)) {
+            sortColumns = "t.average_rating, t.review_count";
+        } else if ("launch".equals(sortBy)) {
+            sortColumns = "COALESCE(t.launch_date, '1970-01-01')";
+        } else {
+            // 与 selectToolsWithTags 的默认分支一致
+            sortBy = "upvote";
+            if (!"upvote".equals(queryDTO.getSortBy())) {
+                ascending = false;
+            }
+            sortColumns = "t.upvote_count";
+        }
+        String direction = ascending ? "ASC" : "DESC";
+        String scope = "tool:" + sortBy + ":" + direction.toLowerCase();
+        int keyCount = "rating".equals(sortBy) ? 2 : 1;
+
+        // 评分排序与 selectToolsWithTags 一致，评论数始终降序作为次级排序
+        boolean reviewCountDesc = "rating".equals(sortBy);
+
+        PageCursor cursor = PageCursor.decode(queryDTO.getCursor(), scope, keyCount);
+        List<Object> cursorKeys = null;
+        if (cursor != null) {
+            cursorKeys = new ArrayList<>(keyCount);
+            if ("rating".equals(sortBy)) {
+                cursorKeys.add(cursor.decimalKey(0));
+                cursorKeys.add(cursor.intKey(1));
+            } else if ("launch".equals(sortBy)) {
+                cursorKeys.add(cursor.dateKey(0));
+            } else {
+                cursorKeys.add(cursor.intKey(0));
+            }
+        }
+
+        String orderBy = Arrays.stream(sortColumns.split(", "))
+                .map(column -> column + " " + (reviewCountDesc && column.equals("t.review_count") ? "DESC" : direction))
+                .collect(Collectors.joining(", ")) + ", t.id " + direction;
+        int size = queryDTO.getSize().intValue();
+        List<Tool> tools = toolMapper.selectToolsByCursor(
+                queryDTO.getCategoryId(),
+                queryDTO.getPricingModel(),
+                queryDTO.getMinRating(),
+                sortColumns,
+                orderBy,
+                ascending ? ">" : "<",
+                reviewCountDesc,
+                cursorKeys,
+                cursor == null ? null : cursor.getId(),
+                size + 1
+        );
+
+        String nextCursor = null;
+        if (tools.size() > size) {
+            tools = tools.subList(0, size);
+            Tool last = tools.get(size - 1);
+            if ("rating".equals(sortBy)) {
+                nextCursor = PageCursor.encode(scope, last.getId(), last.getAverageRating(), last.getReviewCount());
+            } else if ("launch".equals(sortBy)) {
+                LocalDate launchDate = last.getLaunchDate() == null ? LocalDate.of(1970, 1, 1) : last.getLaunchDate();
+                nextCursor = PageCursor.encode(scope, last.getId(), launchDate);
+            } else if ("view".equals(sortBy)) {
+                nextCursor = PageCursor.encode(scope, last.getId(), last.getViewCount());
+            } else {
+                nextCursor = PageCursor.encode(scope, last.getId(), last.getUpvoteCount());
+            }
+        }
+
+        return PageResult.ofCursor(toolVOAssembler.assemble(tools), queryDTO.getSize(), nextCursor,
+                approximateToolCount(queryDTO));
+    }
+
+    /**
+     * 关键词搜索的游标分页：结果由内存索引排序，游标记录下一页的偏移量
+     */
+    private PageResult<ToolVO> searchToolsByCursor(ToolQueryDTO queryDTO) {
+        // 偏移量只在同一排序方式下有效，scope带上排序键，换了排序的旧游标会被拒绝
+        String sortBy = StringUtils.hasText(queryDTO.getSortBy()) ? queryDTO.getSortBy() : "relevance";
+        String scope = SEARCH_CURSOR_SCOPE + ":" + sortBy + ":"
+                + ("asc".equalsIgnoreCase(queryDTO.getSortOrder()) ? "asc" : "desc");
+        PageCursor cursor = PageCursor.decode(queryDTO.getCursor(), scope, 0);
+        long offset = cursor == null ? 0 : cursor.getId();
+        if (offset < 0) {
+            throw new BusinessException(400, "无效的分页游标");
+        }
+        long size = queryDTO.getSize();
+
+        ToolSearchIndex.SearchPage searchPage = toolSearchIndex.search(queryDTO, offset);
+        if (searchPage != null) {
+            long total = searchPage.getTotal();
+            String nextCursor = offset + size < total ? PageCursor.encode(scope, offset + size) : null;
+            return PageResult.ofCursor(toolVOAssembler.assemble(loadPublishedInOrder(searchPage.getToolIds())),
+                    size, nextCursor, total);
+        }
+
+        // 索引不可用时按偏移量直接查库，多取一条判断是否有下一页，不做 COUNT，总数未知
+        List<Tool> tools = toolMapper.selectToolsByOffset(
+                queryDTO.getKeyword(),
+                queryDTO.getCategoryId(),
+                queryDTO.getPricingModel(),
+                queryDTO.getMinRating(),
+                queryDTO.getSortBy(),
+                queryDTO.getSortOrder(),
+                offset,
+                size + 1
+        );
+        String nextCursor = null;
+        if (tools.size() > size) {
+            tools = tools.subList(0, (int) size);
+            nextCursor = PageCursor.encode(scope, offset + size);
+        }
+        return PageResult.ofCursor(toolVOAssembler.assemble(tools), size, nextCursor, null);
+    }
+
+    /**
+     * 近似总数：按筛选条件缓存 COUNT 结果，过期前不再重复统计
+     */
+    private Long approximateToolCount(ToolQueryDTO queryDTO) {
+        String key = TOOL_COUNT_CACHE_KEY + queryDTO.getCategoryId() + ":" + queryDTO.getPricingModel()
+                + ":" + queryDTO.getMinRating();
+        try {
+            String cached = stringRedisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Long.valueOf(cached);
+            }
+        } catch (Exception e) {
+            log.warn("读取工具总数缓存失败: {}", e.getMessage());
+        }
+
+        Long count = toolMapper.countTools(queryDTO.getCategoryId(), queryDTO.getPricingModel(),
+                queryDTO.getMinRating());
+        try {
+            stringRedisTemplate.opsForValue().set(key, String.valueOf(count), countCacheTtlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("写入工具总数缓存失败: {}", e.getMessage());
+        }
+        return count;
+    }
+
+    /**
+     * 按给定ID顺序批量加载已发布的工具
+     */
+    private List<Tool> loadPublishedInOrder(List<Long> toolIds) {
+        if (toolIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Tool> toolMap = toolMapper.selectBatchIds(toolIds).stream()
+                .filter(tool -> tool.getStatus() != null && tool.getStatus() == 1)
+                .collect(Collectors.toMap(Tool::getId, Function.identity()));
+        return toolIds.stream()
+                .map(toolMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 获取所有用户共享的详情主体（工具、标签、分类、相似工具），不含任何用户相关字段
+     * 主体在两级缓存中共享，只读不改
+     */
+    private ToolDetailVO getDetailBody(Long id) {
+        ToolDetailVO body = toolDetailCache.get(id);
+        if (body != null) {
+            return body;
+        }
+
+        // 从数据库查询
+        Tool tool = toolMapper.selectToolDetailById(id);
+        if (tool == null || tool.getStatus() != 1) {
+            throw new ToolNotFoundException(id);
+        }
+
+        body = convertToToolDetailVO(tool);
+
+        // 查询标签
+        List<Tag> tags = tagMapper.selectTagsByToolId(id);
+        body.setTags(tags.stream().map(toolVOAssembler::toTagVO).collect(Collectors.toList()));
+
+        // 查询分类
+        Category category = categoryDictionary.get(tool.getCategoryId());
+        if (category != null) {
+            body.setCategory(convertToCategoryVO(category));
+        }
+
+        // 查询相似工具
+        List<ToolVO> similarTools = loadPrecomputedSimilar(id, DETAIL_SIMILAR_LIMIT);
+        if (similarTools.size() < DETAIL_SIMILAR_LIMIT) {
+            similarTools = fillSimilarByCategory(similarTools, id, tool.getCategoryId(), DETAIL_SIMILAR_LIMIT);
+        }
+        body.setSimilarTools(similarTools);
+
+        // 评分统计随详情一起缓存，评分变化时由 updateAverageRating 失效
+        body.setRatingStats(RatingStatsSupport.toVO(ratingStatsMapper.selectById(id)));
+
+        toolDetailCache.put(id, body);
+        return body;
+    }
+
+    /**
+     * 在共享主体的副本上叠加用户关系和待落库的点赞、收藏计数（均可为null）
+     */
+    private ToolDetailVO overlay(ToolDetailVO body, ToolRelationVO relation, int[] pending) {
+        ToolDetailVO detailVO = toolConverter.copy(body);
+        if (relation != null) {
+            detailVO.setIsFavorited(relation.getIsFavorited());
+            detailVO.setIsUpvoted(relation.getIsUpvoted());
+        }
+        if (pending != null) {
+            detailVO.setUpvoteCount(addCount(detailVO.getUpvoteCount(), pending[0]));
+            detailVO.setFavoriteCount(addCount(detailVO.getFavoriteCount(), pending[1]));
+        }
+        return detailVO;
+    }
+
+    private static Integer addCount(Integer count, int delta) {
+        return Math.max(0, (count == null ? 0 : count) + delta);
+    }
+
     /**
      * 检查用户是否已点赞
      */
     private boolean checkUserUpvote(Long toolId, Long userId) {
-        LambdaQueryWrapper<UserAction> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(UserAction::getUserId, userId)
-                .eq(UserAction::getToolId, toolId)
-                .eq(UserAction::getActionType, "UPVOTE");
-        return userActionMapper.selectCount(wrapper) > 0;
+        return userRelationStore.contains(userId, RelationType.UPVOTE, toolId);
     }
 
     /**
      * 检查用户是否已收藏
      */
     private boolean checkUserFavorite(Long toolId, Long userId) {
-        LambdaQueryWrapper<UserAction> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(UserAction::getUserId, userId)
-                .eq(UserAction::getToolId, toolId)
-                .eq(UserAction::getActionType, "FAVORITE");
-        return userActionMapper.selectCount(wrapper) > 0;
+        return userRelationStore.contains(userId, RelationType.FAVORITE, toolId);
+    }
+
+    /**
+     * 收藏状态与 favoriteTool/cancelFavorite 的判断一致，只看工具页收藏
+     */
+    private ToolRelationVO toRelationVO(UserRelations relations, Long toolId) {
+        return new ToolRelationVO(toolId, relations.contains(RelationType.FAVORITE, toolId),
+                relations.contains(RelationType.UPVOTE, toolId));
     }
 
     /**
@@ -414,50 +902,17 @@ public class ToolServiceImpl implements ToolService {
         return BigDecimal.valueOf((double) score / total);
     }
 
-    /**
-     * 转换为ToolVO
-     */
-    private ToolVO convertToToolVO(Tool tool) {
-        ToolVO vo = new ToolVO();
-        BeanUtils.copyProperties(tool, vo);
-
-        // 查询分类名称
-        Category category = categoryMapper.selectById(tool.getCategoryId());
-        if (category != null) {
-            vo.setCategoryName(category.getName());
-        }
-
-        // 查询标签
-        List<Tag> tags = tagMapper.selectTagsByToolId(tool.getId());
-        vo.setTags(tags.stream().map(this::convertToTagVO).collect(Collectors.toList()));
-
-        return vo;
-    }
-
     /**
      * 转换为ToolDetailVO
      */
     private ToolDetailVO convertToToolDetailVO(Tool tool) {
-        ToolDetailVO vo = new ToolDetailVO();
-        BeanUtils.copyProperties(tool, vo);
-        return vo;
-    }
-
-    /**
-     * 转换为TagVO
-     */
-    private TagVO convertToTagVO(Tag tag) {
-        TagVO vo = new TagVO();
-        BeanUtils.copyProperties(tag, vo);
-        return vo;
+        return toolConverter.toToolDetailVO(tool);
     }
 
     /**
      * 转换为CategoryVO
      */
     private CategoryVO convertToCategoryVO(Category category) {
-        CategoryVO vo = new CategoryVO();
-        BeanUtils.copyProperties(category, vo);
-        return vo;
+        return toolConverter.toCategoryVO(category);
     }
 }
@@ -0,0 +1,16 @@
+package com.toolrecommend.tool.similarity;
+
+import lombok.Data;
+
+/**
+ * 用户与工具的一次互动（点赞、收藏或高分评分）
+ *
+ * @author Tool Recommend Team
+ */
+@Data
+public class Engagement {
+
+    private Long userId;
+
+    private Long toolId;
+}
@@ -0,0 +1,31 @@
+package com.toolrecommend.tool.similarity;
+
+/**
+ * 基于共同互动用户数的相似度
+ *
+ * @author Tool Recommend Team
+ */
+public enum SimilarityMetric {
+
+    /**
+     * 余弦相似度：共同用户数 / sqrt(A的用户数 × B的用户数)
+     */
+    COSINE {
+        @Override
+        double score(int common, int degreeA, int degreeB) {
+            return common / Math.sqrt((double) degreeA * degreeB);
+        }
+    },
+
+    /**
+     * Jaccard相似度：共同用户数 / 两者用户并集大小
+     */
+    JACCARD {
+        @Override
+        double score(int common, int degreeA, int degreeB) {
+            return (double) common / (degreeA + degreeB - common);
+        }
+    };
+
+    abstract double score(int common, int degreeA, int degreeB);
+}
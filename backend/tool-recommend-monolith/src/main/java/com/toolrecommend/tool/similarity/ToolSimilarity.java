@@ -0,0 +1,29 @@
+package com.toolrecommend.tool.similarity;
+
+import lombok.Data;
+
+/**
+ * 相似工具表的一行
+ *
+ * @author Tool Recommend Team
+ */
+@Data
+public class ToolSimilarity {
+
+    private Long toolId;
+
+    /**
+     * 相似工具ID，逗号分隔，按相似度降序
+     */
+    private String similarIds;
+
+    /**
+     * 相似度，逗号分隔
+     */
+    private String scores;
+
+    /**
+     * 计算批次
+     */
+    private Long version;
+}
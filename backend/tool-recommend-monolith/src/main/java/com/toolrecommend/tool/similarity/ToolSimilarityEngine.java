@@ -0,0 +1,398 @@
+package com.toolrecommend.tool.similarity;
+
+import com.toolrecommend.tool.mapper.ToolSimilarityMapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 相似工具离线计算
+ * 从点赞、收藏和高分评分构建“用户-工具”稀疏互动矩阵（工具ID重映射为连续下标，按用户、按工具两份CSR数组），
+ * 再在ForkJoin池中按工具并行累加共同互动用户数：每个工作线程持有一个按下标计数的稀疏累加器，
+ * 只清理本次触碰过的下标，计算余弦或Jaccard相似度后保留前K个，结果按批次写入 tool_similarity
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class ToolSimilarityEngine {
+
+    private static final String COMPUTE_LOCK_KEY = "tool:similarity:compute:lock";
+
+    /**
+     * ForkJoin任务拆分到多少个工具以下时顺序计算
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+
+    @Resource
+    private ToolSimilarityMapper toolSimilarityMapper;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 相似度算法：cosine 或 jaccard
+     */
+    @Value("${tool.similarity.metric:cosine}")
+    private String metric;
+
+    /**
+     * 每个工具保留的相似工具数
+     */
+    @Value("${tool.similarity.top-k:20}")
+    private int topK;
+
+    /**
+     * 计入相似度的最少共同用户数
+     */
+    @Value("${tool.similarity.min-co-count:2}")
+    private int minCoCount;
+
+    /**
+     * 计入互动的最低评分
+     */
+    @Value("${tool.similarity.min-rating-score:4}")
+    private int minRatingScore;
+
+    /**
+     * 单个用户最多计入的互动数，保留最近的互动，更早的部分忽略，避免个别用户让共现计算平方级膨胀
+     */
+    @Value("${tool.similarity.max-items-per-user:500}")
+    private int maxItemsPerUser;
+
+    /**
+     * 并行度，0表示使用CPU核数
+     */
+    @Value("${tool.similarity.parallelism:0}")
+    private int parallelism;
+
+    /**
+     * 每条UPSERT语句最多包含的行数
+     */
+    @Value("${tool.similarity.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 定时全量计算，多节点时只由抢到锁的节点执行
+     */
+    @Scheduled(cron = "${tool.similarity.cron:0 30 3 * * ?}")
+    public void scheduledCompute() {
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(COMPUTE_LOCK_KEY, "1", Duration.ofHours(1));
+            if (Boolean.TRUE.equals(acquired)) {
+                compute();
+            }
+        } catch (Exception e) {
+            log.error("相似工具计算失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 全量计算并写入相似工具表
+     *
+     * @return 有相似工具的工具数
+     */
+    public int compute() {
+        long version = System.currentTimeMillis();
+        SimilarityMetric similarityMetric = SimilarityMetric.valueOf(metric.toUpperCase(Locale.ROOT));
+        Matrix matrix = loadMatrix();
+        int items = matrix.toolIds.length;
+        int[][] neighbors = new int[items][];
+        float[][] scores = new float[items][];
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(items, topK));
+            pool.invoke(new SimilarityTask(new Job(matrix, similarityMetric, neighbors, scores, scratch), 0, items));
+        } finally {
+            pool.shutdown();
+        }
+
+        int persisted = persist(matrix.toolIds, neighbors, scores, version);
+        int removed = toolSimilarityMapper.deleteBeforeVersion(version);
+        log.info("相似工具计算完成: 用户 {}, 工具 {}, 互动 {}, 有结果的工具 {}, 删除旧结果 {}, 耗时 {}ms",
+                matrix.userCount(), items, matrix.userItems.length, persisted, removed,
+                System.currentTimeMillis() - version);
+        return persisted;
+    }
+
+    /**
+     * 流式读取互动并构建稀疏矩阵；查询按 user_id 排序、用户内按最近互动时间降序，读取时即可按用户切分并截断
+     */
+    private Matrix loadMatrix() {
+        LongList userKeys = new LongList();
+        LongList toolKeys = new LongList();
+        long[] currentUser = {Long.MIN_VALUE};
+        int[] currentCount = {0};
+        toolSimilarityMapper.streamEngagements(minRatingScore, context -> {
+            Engagement engagement = context.getResultObject();
+            long userId = engagement.getUserId();
+            if (userId != currentUser[0]) {
+                currentUser[0] = userId;
+                currentCount[0] = 0;
+            }
+            if (currentCount[0]++ < maxItemsPerUser) {
+                userKeys.add(userId);
+                toolKeys.add(engagement.getToolId());
+            }
+        });
+
+        // 工具ID去重排序后以下标代替，后续全部使用int数组
+        long[] toolIds = toolKeys.toArray();
+        Arrays.sort(toolIds);
+        int items = 0;
+        for (int i = 0; i < toolIds.length; i++) {
+            if (i == 0 || toolIds[i] != toolIds[i - 1]) {
+                toolIds[items++] = toolIds[i];
+            }
+        }
+        toolIds = Arrays.copyOf(toolIds, items);
+
+        // 按用户的CSR：userStart[u]..userStart[u+1] 为用户u互动过的工具下标
+        int size = userKeys.size();
+        int[] userItems = new int[size];
+        IntList userStart = new IntList();
+        int[] degree = new int[items];
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || userKeys.get(i) != userKeys.get(i - 1)) {
+                userStart.add(i);
+            }
+            int item = Arrays.binarySearch(toolIds, toolKeys.get(i));
+            userItems[i] = item;
+            degree[item]++;
+        }
+        userStart.add(size);
+
+        // 按工具的CSR：itemStart[i]..itemStart[i+1] 为与工具i互动过的用户下标
+        int[] itemStart = new int[items + 1];
+        for (int i = 0; i < items; i++) {
+            itemStart[i + 1] = itemStart[i] + degree[i];
+        }
+        int[] itemUsers = new int[size];
+        int[] fill = Arrays.copyOf(itemStart, items);
+        int[] starts = userStart.toArray();
+        for (int u = 0; u + 1 < starts.length; u++) {
+            for (int k = starts[u]; k < starts[u + 1]; k++) {
+                itemUsers[fill[userItems[k]]++] = u;
+            }
+        }
+        return new Matrix(toolIds, degree, starts, userItems, itemStart, itemUsers);
+    }
+
+    private int persist(long[] toolIds, int[][] neighbors, float[][] scores, long version) {
+        List<ToolSimilarity> rows = new ArrayList<>(batchSize);
+        int persisted = 0;
+        for (int i = 0; i < toolIds.length; i++) {
+            if (neighbors[i] == null || neighbors[i].length == 0) {
+                continue;
+            }
+            StringBuilder ids = new StringBuilder();
+            StringBuilder values = new StringBuilder();
+            for (int k = 0; k < neighbors[i].length; k++) {
+                if (k > 0) {
+                    ids.append(',');
+                    values.append(',');
+                }
+                ids.append(toolIds[neighbors[i][k]]);
+                values.append(String.format(Locale.ROOT, "%.4f", scores[i][k]));
+            }
+            ToolSimilarity row = new ToolSimilarity();
+            row.setToolId(toolIds[i]);
+            row.setSimilarIds(ids.toString());
+            row.setScores(values.toString());
+            row.setVersion(version);
+            rows.add(row);
+            if (rows.size() >= batchSize) {
+                persisted += flushRows(rows);
+            }
+        }
+        if (!rows.isEmpty()) {
+            persisted += flushRows(rows);
+        }
+        return persisted;
+    }
+
+    private int flushRows(List<ToolSimilarity> rows) {
+        int size = rows.size();
+        toolSimilarityMapper.upsertBatch(rows);
+        rows.clear();
+        return size;
+    }
+
+    /**
+     * 互动矩阵的两份CSR表示
+     */
+    private record Matrix(long[] toolIds, int[] degree, int[] userStart, int[] userItems,
+                          int[] itemStart, int[] itemUsers) {
+
+        int userCount() {
+            return userStart.length - 1;
+        }
+    }
+
+    /**
+     * 一次计算共享的输入、输出和每个工作线程的累加器
+     */
+    private record Job(Matrix matrix, SimilarityMetric metric, int[][] neighbors, float[][] scores,
+                       ThreadLocal<Scratch> scratch) {
+    }
+
+    /**
+     * 工作线程的稀疏累加器：counts按工具下标计数，touched记录本轮计数过的下标，用完只清理这些位置
+     */
+    private static final class Scratch {
+
+        final int[] counts;
+
+        final int[] touched;
+
+        final int[] topItems;
+
+        final float[] topScores;
+
+        Scratch(int items, int topK) {
+            counts = new int[items];
+            touched = new int[items];
+            topItems = new int[topK];
+            topScores = new float[topK];
+        }
+    }
+
+    /**
+     * 按工具下标区间拆分的相似度计算任务
+     */
+    private final class SimilarityTask extends RecursiveAction {
+
+        private final Job job;
+
+        private final int from;
+
+        private final int to;
+
+        SimilarityTask(Job job, int from, int to) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                computeRange();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SimilarityTask(job, from, mid), new SimilarityTask(job, mid, to));
+        }
+
+        private void computeRange() {
+            Matrix matrix = job.matrix();
+            Scratch scratch = job.scratch().get();
+            int[] counts = scratch.counts;
+            int[] touched = scratch.touched;
+            int[] topItems = scratch.topItems;
+            float[] topScores = scratch.topScores;
+            for (int item = from; item < to; item++) {
+                // 累加与当前工具有共同用户的工具的共现次数
+                int touchedCount = 0;
+                for (int k = matrix.itemStart()[item]; k < matrix.itemStart()[item + 1]; k++) {
+                    int user = matrix.itemUsers()[k];
+                    for (int p = matrix.userStart()[user]; p < matrix.userStart()[user + 1]; p++) {
+                        int other = matrix.userItems()[p];
+                        if (other != item && counts[other]++ == 0) {
+                            touched[touchedCount++] = other;
+                        }
+                    }
+                }
+
+                // 取前K个，topScores按降序维护
+                int size = 0;
+                for (int t = 0; t < touchedCount; t++) {
+                    int other = touched[t];
+                    int common = counts[other];
+                    counts[other] = 0;
+                    if (common < minCoCount) {
+                        continue;
+                    }
+                    float score = (float) job.metric().score(common, matrix.degree()[item], matrix.degree()[other]);
+                    if (size == topK && score <= topScores[size - 1]) {
+                        continue;
+                    }
+                    int pos = size < topK ? size++ : size - 1;
+                    while (pos > 0 && topScores[pos - 1] < score) {
+                        topScores[pos] = topScores[pos - 1];
+                        topItems[pos] = topItems[pos - 1];
+                        pos--;
+                    }
+                    topScores[pos] = score;
+                    topItems[pos] = other;
+                }
+                job.neighbors()[item] = Arrays.copyOf(topItems, size);
+                job.scores()[item] = Arrays.copyOf(topScores, size);
+            }
+        }
+    }
+
+    /**
+     * 可增长的long数组，避免装箱
+     */
+    private static final class LongList {
+
+        private long[] values = new long[1024];
+
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * 可增长的int数组，避免装箱
+     */
+    private static final class IntList {
+
+        private int[] values = new int[1024];
+
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.toolrecommend.tool.support;
+
+import com.toolrecommend.common.entity.Category;
+import com.toolrecommend.tool.mapper.CategoryMapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分类字典
+ * 分类数量少且极少变动，全量常驻内存，列表组装时按ID直接取分类信息，不再逐行查库
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class CategoryDictionary {
+
+    @Resource
+    private CategoryMapper categoryMapper;
+
+    private volatile Map<Integer, Category> categories = Collections.emptyMap();
+
+    private volatile boolean loaded;
+
+    /**
+     * 根据ID获取分类，字典中不存在时回源数据库
+     */
+    public Category get(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        if (!loaded) {
+            refresh();
+        }
+        Category category = categories.get(id);
+        if (category == null) {
+            category = categoryMapper.selectById(id);
+            if (category != null) {
+                Map<Integer, Category> copy = new HashMap<>(categories);
+                copy.put(id, category);
+                categories = copy;
+            }
+        }
+        return category;
+    }
+
+    /**
+     * 根据ID获取分类名称
+     */
+    public String getName(Integer id) {
+        Category category = get(id);
+        return category == null ? null : category.getName();
+    }
+
+    /**
+     * 全部分类
+     */
+    public Collection<Category> all() {
+        if (!loaded) {
+            refresh();
+        }
+        return Collections.unmodifiableCollection(categories.values());
+    }
+
+    /**
+     * 定时全量刷新
+     */
+    @Scheduled(fixedDelayString = "${tool.category-dictionary.refresh-interval:600000}")
+    public void refresh() {
+        try {
+            List<Category> list = categoryMapper.selectList(null);
+            Map<Integer, Category> map = new HashMap<>(list.size() * 2);
+            for (Category category : list) {
+                map.put(category.getId(), category);
+            }
+            categories = map;
+            loaded = true;
+        } catch (Exception e) {
+            log.error("加载分类字典失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.toolrecommend.tool.support;
+
+import com.toolrecommend.common.entity.Tag;
+import com.toolrecommend.common.entity.Tool;
+import com.toolrecommend.common.vo.TagVO;
+import com.toolrecommend.common.vo.ToolVO;
+import com.toolrecommend.tool.convert.ToolConverter;
+import com.toolrecommend.tool.mapper.TagMapper;
+import jakarta.annotation.Resource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * ToolVO批量组装器
+ * 一页工具只查询一次标签（tool_id IN ...），分类名称取自分类字典，
+ * 查询次数不随页大小增长
+ *
+ * @author Tool Recommend Team
+ */
+@Component
+public class ToolVOAssembler {
+
+    @Resource
+    private TagMapper tagMapper;
+
+    @Resource
+    private CategoryDictionary categoryDictionary;
+
+    @Resource
+    private ToolConverter toolConverter;
+
+    /**
+     * 批量转换为ToolVO，保持输入顺序
+     */
+    public List<ToolVO> assemble(List<Tool> tools) {
+        if (tools == null || tools.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, List<TagVO>> tagsByToolId = loadTags(tools);
+
+        List<ToolVO> result = new ArrayList<>(tools.size());
+        for (Tool tool : tools) {
+            ToolVO vo = toolConverter.toToolVO(tool);
+            vo.setCategoryName(categoryDictionary.getName(tool.getCategoryId()));
+            vo.setTags(tagsByToolId.getOrDefault(tool.getId(), new ArrayList<>()));
+            result.add(vo);
+        }
+        return result;
+    }
+
+    /**
+     * 转换为TagVO
+     */
+    public TagVO toTagVO(Tag tag) {
+        return toolConverter.toTagVO(tag);
+    }
+
+    /**
+     * 一次查询整页工具的标签并按工具分组
+     */
+    private Map<Long, List<TagVO>> loadTags(List<Tool> tools) {
+        List<Long> toolIds = tools.stream().map(Tool::getId).distinct().collect(Collectors.toList());
+        if (toolIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return tagMapper.selectTagsByToolIds(toolIds).stream()
+                .collect(Collectors.groupingBy(Tag::getToolId,
+                        Collectors.mapping(this::toTagVO, Collectors.toList())));
+    }
+}
@@ -0,0 +1,42 @@
+package com.toolrecommend.tool.vector;
+
+import java.util.List;
+
+/**
+ * 文本向量化
+ * 实现需返回L2归一化的向量，向量索引以点积作为余弦相似度
+ *
+ * @author Tool Recommend Team
+ */
+public interface EmbeddingProvider {
+
+    /**
+     * 向量维度
+     */
+    int dimension();
+
+    /**
+     * 把文本转换为归一化向量，空文本返回零向量
+     */
+    float[] embed(String text);
+
+    /**
+     * 用全部工具文本计算语料统计（如IDF），返回绑定该统计的向量化模型；不修改提供者自身状态，
+     * 由向量索引在全量重建时调用，模型随新索引一起发布。远程模型无需实现
+     */
+    default Model fit(List<String> documents) {
+        return this::embed;
+    }
+
+    /**
+     * 绑定一版语料统计的向量化函数，创建后不可变
+     */
+    @FunctionalInterface
+    interface Model {
+
+        /**
+         * 把文本转换为归一化向量，空文本返回零向量
+         */
+        float[] embed(String text);
+    }
+}
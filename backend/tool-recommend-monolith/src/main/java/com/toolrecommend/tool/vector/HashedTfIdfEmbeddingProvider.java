@@ -0,0 +1,110 @@
+package com.toolrecommend.tool.vector;
+
+import com.toolrecommend.tool.search.SearchTokenizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 本地哈希TF-IDF向量化
+ * 词元与搜索分词一致（英文单词、汉字单字和二字），按哈希映射到固定维度并带符号累加，
+ * 权重为 (1 + ln tf) × idf，结果L2归一化。不依赖模型服务，相同语料下输出确定，
+ * 用于开发测试和模型服务不可用的部署
+ *
+ * @author Tool Recommend Team
+ */
+@Component
+@ConditionalOnProperty(name = "tool.vector.provider", havingValue = "hashed-tfidf", matchIfMissing = true)
+public class HashedTfIdfEmbeddingProvider implements EmbeddingProvider {
+
+    /**
+     * 向量维度
+     */
+    @Value("${tool.vector.dimension:256}")
+    private int dimension;
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * 未经fit时所有词元的IDF相同，退化为TF向量
+     */
+    @Override
+    public float[] embed(String text) {
+        return new Corpus(Collections.emptyMap(), 0, dimension).embed(text);
+    }
+
+    @Override
+    public Model fit(List<String> documents) {
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        for (String document : documents) {
+            for (String token : new HashSet<>(SearchTokenizer.tokenize(document))) {
+                documentFrequency.merge(token, 1, Integer::sum);
+            }
+        }
+        return new Corpus(documentFrequency, documents.size(), dimension);
+    }
+
+    /**
+     * 一版语料统计：词元 -> 文档频率
+     */
+    private record Corpus(Map<String, Integer> documentFrequency, int documents, int dimension) implements Model {
+
+        float idf(String token) {
+            int df = documentFrequency.getOrDefault(token, 0);
+            return (float) (Math.log((documents + 1.0) / (df + 1.0)) + 1.0);
+        }
+
+        @Override
+        public float[] embed(String text) {
+            float[] vector = new float[dimension];
+            List<String> tokens = SearchTokenizer.tokenize(text);
+            if (tokens.isEmpty()) {
+                return vector;
+            }
+            Map<String, Integer> termFrequency = new HashMap<>();
+            for (String token : tokens) {
+                termFrequency.merge(token, 1, Integer::sum);
+            }
+
+            double norm = 0;
+            for (Map.Entry<String, Integer> entry : termFrequency.entrySet()) {
+                int hash = mix(entry.getKey().hashCode());
+                int bucket = Math.floorMod(hash, dimension);
+                float weight = (float) (1 + Math.log(entry.getValue())) * idf(entry.getKey());
+                // 用哈希的最高位决定符号，使冲突的词元期望上相互抵消
+                vector[bucket] += hash < 0 ? -weight : weight;
+            }
+            for (float value : vector) {
+                norm += value * value;
+            }
+            if (norm > 0) {
+                float scale = (float) (1 / Math.sqrt(norm));
+                for (int i = 0; i < dimension; i++) {
+                    vector[i] *= scale;
+                }
+            }
+            return vector;
+        }
+    }
+
+    /**
+     * MurmurHash3 的 fmix32，打散 String.hashCode 的低位
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
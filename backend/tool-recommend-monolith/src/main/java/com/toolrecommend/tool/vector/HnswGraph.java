@@ -0,0 +1,393 @@
+package com.toolrecommend.tool.vector;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+/**
+ * HNSW（分层可导航小世界图）近邻索引，距离为 1 - 点积（向量已归一化，即余弦距离）。
+ * 容量在创建时确定，节点编号连续分配；写入由调用方串行化，检索无锁：
+ * 邻居表是不可变数组，写入时整体替换，节点在全部连接完成后才通过 size 发布，
+ * 检索开始时读取 entry 和 size 快照，忽略快照之后加入的节点。
+ * 检索上下文（含容量大小的visited数组）由图持有的有限池提供，并发检索数超过池大小时排队等待，
+ * 内存占用与线程数无关，旧图连同其上下文在替换后一起回收。
+ * 过滤条件在第0层遍历时判断：不满足条件的节点照常用于导航，但不进入结果集
+ *
+ * @author Tool Recommend Team
+ */
+final class HnswGraph {
+
+    private final VectorStorage vectors;
+
+    private final int capacity;
+
+    /**
+     * 每层每个节点的连接数（第0层为2倍）
+     */
+    private final int m;
+
+    private final int efConstruction;
+
+    private final double levelMultiplier;
+
+    /**
+     * links[node][level] 为该层邻居，只整体替换不原地修改
+     */
+    private final int[][][] links;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    /**
+     * 空闲的检索上下文，按需创建，总数不超过 maxContexts
+     */
+    private final ArrayBlockingQueue<SearchContext> contexts;
+
+    private final int maxContexts;
+
+    private final AtomicInteger createdContexts = new AtomicInteger();
+
+    private volatile Entry entry;
+
+    private volatile int size;
+
+    private record Entry(int node, int level) {
+    }
+
+    /**
+     * 单次检索的临时状态，从池中借出、用完归还：visited按代号标记，免去每次清零
+     */
+    private static final class SearchContext {
+
+        final int[] visited;
+
+        int generation;
+
+        final NodeQueue candidates = new NodeQueue(64, false);
+
+        final NodeQueue results = new NodeQueue(64, true);
+
+        SearchContext(int capacity) {
+            visited = new int[capacity];
+        }
+
+        int nextGeneration() {
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(visited, 0);
+                generation = 1;
+            }
+            return generation;
+        }
+    }
+
+    /**
+     * @param searchContexts 检索上下文数，即同时进行的检索（含写入）上限
+     */
+    HnswGraph(int capacity, int dimension, int m, int efConstruction, boolean offHeap, int searchContexts) {
+        this.vectors = VectorStorage.allocate(capacity, dimension, offHeap);
+        this.capacity = capacity;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.links = new int[capacity][][];
+        this.maxContexts = Math.max(1, searchContexts);
+        this.contexts = new ArrayBlockingQueue<>(maxContexts);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int dimension() {
+        return vectors.dimension();
+    }
+
+    float[] vector(int node) {
+        return vectors.get(node);
+    }
+
+    /**
+     * 加入一个节点，调用方需保证同一时刻只有一个写入者
+     *
+     * @return 节点编号，容量已满时返回-1
+     */
+    int add(float[] vector) {
+        int node = size;
+        if (node >= capacity) {
+            return -1;
+        }
+        vectors.set(node, vector);
+        int level = randomLevel();
+        int[][] nodeLinks = new int[level + 1][];
+        Arrays.fill(nodeLinks, new int[0]);
+        links[node] = nodeLinks;
+
+        Entry current = entry;
+        if (current == null) {
+            size = node + 1;
+            entry = new Entry(node, level);
+            return node;
+        }
+
+        int entryNode = current.node();
+        for (int l = current.level(); l > level; l--) {
+            entryNode = greedy(vector, entryNode, l, node);
+        }
+        SearchContext context = acquire();
+        try {
+            addLinks(context, node, vector, level, entryNode, current.level());
+        } finally {
+            release(context);
+        }
+
+        size = node + 1;
+        if (level > current.level()) {
+            entry = new Entry(node, level);
+        }
+        return node;
+    }
+
+    private void addLinks(SearchContext context, int node, float[] vector, int level, int entryNode, int topLevel) {
+        int[][] nodeLinks = links[node];
+        for (int l = Math.min(level, topLevel); l >= 0; l--) {
+            searchLayer(context, vector, entryNode, efConstruction, l, node, null);
+            int count = context.results.size();
+            int[] candidates = new int[count];
+            float[] distances = new float[count];
+            context.results.drainAscending(candidates, distances);
+            entryNode = candidates[0];
+
+            int[] neighbors = selectNeighbors(candidates, distances, count, m);
+            nodeLinks[l] = neighbors;
+            for (int neighbor : neighbors) {
+                connect(neighbor, node, l);
+            }
+        }
+    }
+
+    /**
+     * 检索与查询向量最近的k个满足过滤条件的节点
+     *
+     * @param accept 过滤条件，为null时不过滤
+     * @return 按距离升序的节点及距离，长度可能小于k：过滤条件很严格时图上可达的满足条件的节点可能不足，
+     * 由调用方决定是否改用 {@link #scan} 对候选节点逐个计算
+     */
+    Result search(float[] query, int k, int ef, IntPredicate accept) {
+        Entry current = entry;
+        int limit = size;
+        if (current == null || limit == 0) {
+            return new Result(new int[0], new float[0]);
+        }
+        int entryNode = current.node();
+        for (int l = current.level(); l > 0; l--) {
+            entryNode = greedy(query, entryNode, l, limit);
+        }
+        int count;
+        int[] nodes;
+        float[] distances;
+        SearchContext context = acquire();
+        try {
+            searchLayer(context, query, entryNode, Math.max(ef, k), 0, limit, accept);
+            count = context.results.size();
+            nodes = new int[count];
+            distances = new float[count];
+            context.results.drainAscending(nodes, distances);
+        } finally {
+            release(context);
+        }
+        int n = Math.min(k, count);
+        return new Result(Arrays.copyOf(nodes, n), Arrays.copyOf(distances, n));
+    }
+
+    /**
+     * 检索结果，按距离升序
+     */
+    record Result(int[] nodes, float[] distances) {
+    }
+
+    /**
+     * 对给定的候选节点逐个计算距离，取最近的k个满足过滤条件的节点
+     *
+     * @param candidates 候选节点，只读取前count个
+     * @return 按距离升序的节点及距离
+     */
+    Result scan(float[] query, int k, int[] candidates, int count, IntPredicate accept) {
+        int limit = size;
+        NodeQueue results = new NodeQueue(k + 1, true);
+        for (int i = 0; i < count; i++) {
+            int node = candidates[i];
+            if (node >= limit || (accept != null && !accept.test(node))) {
+                continue;
+            }
+            float distance = 1 - vectors.dot(node, query);
+            if (results.size() < k) {
+                results.push(node, distance);
+            } else if (distance < results.topDistance()) {
+                results.pop();
+                results.push(node, distance);
+            }
+        }
+        int[] nodes = new int[results.size()];
+        float[] distances = new float[results.size()];
+        results.drainAscending(nodes, distances);
+        return new Result(nodes, distances);
+    }
+
+    /**
+     * 借出一个检索上下文：优先复用空闲的，未达上限时新建，否则等待归还
+     */
+    private SearchContext acquire() {
+        SearchContext context = contexts.poll();
+        if (context != null) {
+            return context;
+        }
+        if (createdContexts.incrementAndGet() <= maxContexts) {
+            return new SearchContext(capacity);
+        }
+        createdContexts.decrementAndGet();
+        try {
+            return contexts.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // 被中断时用一次性的上下文完成本次检索，不计入池
+            return new SearchContext(capacity);
+        }
+    }
+
+    private void release(SearchContext context) {
+        contexts.offer(context);
+    }
+
+    /**
+     * 在上层贪心前进到局部最近的节点
+     */
+    private int greedy(float[] query, int start, int level, int limit) {
+        int best = start;
+        float bestDistance = 1 - vectors.dot(start, query);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[][] nodeLinks = links[best];
+            if (level >= nodeLinks.length) {
+                break;
+            }
+            for (int neighbor : nodeLinks[level]) {
+                if (neighbor >= limit) {
+                    continue;
+                }
+                float distance = 1 - vectors.dot(neighbor, query);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = neighbor;
+                    improved = true;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 在某一层做宽度为ef的最佳优先搜索，结果留在 context.results（大顶堆）中。
+     * 候选集包含所有可达节点，结果集只收满足过滤条件的节点
+     */
+    private void searchLayer(SearchContext context, float[] query, int start, int ef, int level, int limit,
+                             IntPredicate accept) {
+        int generation = context.nextGeneration();
+        int[] visited = context.visited;
+        NodeQueue candidates = context.candidates;
+        NodeQueue results = context.results;
+        candidates.clear();
+        results.clear();
+
+        float startDistance = 1 - vectors.dot(start, query);
+        visited[start] = generation;
+        candidates.push(start, startDistance);
+        if (accept == null || accept.test(start)) {
+            results.push(start, startDistance);
+        }
+
+        while (!candidates.isEmpty()) {
+            float distance = candidates.topDistance();
+            if (results.size() >= ef && distance > results.topDistance()) {
+                break;
+            }
+            int node = candidates.pop();
+            int[][] nodeLinks = links[node];
+            if (level >= nodeLinks.length) {
+                continue;
+            }
+            for (int neighbor : nodeLinks[level]) {
+                if (neighbor >= limit || visited[neighbor] == generation) {
+                    continue;
+                }
+                visited[neighbor] = generation;
+                float neighborDistance = 1 - vectors.dot(neighbor, query);
+                if (results.size() < ef || neighborDistance < results.topDistance()) {
+                    candidates.push(neighbor, neighborDistance);
+                    if (accept == null || accept.test(neighbor)) {
+                        results.push(neighbor, neighborDistance);
+                        if (results.size() > ef) {
+                            results.pop();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 启发式选邻居：按距离从近到远，候选与已选邻居的距离都大于其与目标的距离时才选入，
+     * 使邻居分布在不同方向上，提高图的连通性
+     */
+    private int[] selectNeighbors(int[] candidates, float[] distances, int count, int max) {
+        int[] selected = new int[Math.min(max, count)];
+        int size = 0;
+        for (int i = 0; i < count && size < selected.length; i++) {
+            int candidate = candidates[i];
+            boolean diverse = true;
+            for (int j = 0; j < size; j++) {
+                if (1 - vectors.dot(candidate, selected[j]) < distances[i]) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[size++] = candidate;
+            }
+        }
+        return size == selected.length ? selected : Arrays.copyOf(selected, size);
+    }
+
+    /**
+     * 把新节点加入邻居的连接表，超过上限时按启发式重新裁剪
+     */
+    private void connect(int node, int added, int level) {
+        int[] current = links[node][level];
+        int max = level == 0 ? 2 * m : m;
+        int[] expanded = Arrays.copyOf(current, current.length + 1);
+        expanded[current.length] = added;
+        if (expanded.length <= max) {
+            links[node][level] = expanded;
+            return;
+        }
+
+        NodeQueue queue = new NodeQueue(expanded.length, false);
+        for (int neighbor : expanded) {
+            queue.push(neighbor, 1 - vectors.dot(node, neighbor));
+        }
+        int[] sorted = new int[expanded.length];
+        float[] distances = new float[expanded.length];
+        queue.drainAscending(sorted, distances);
+        links[node][level] = selectNeighbors(sorted, distances, sorted.length, max);
+    }
+
+    private int randomLevel() {
+        double u = 1 - random.nextDouble();
+        return (int) (-Math.log(u) * levelMultiplier);
+    }
+}
@@ -0,0 +1,118 @@
+package com.toolrecommend.tool.vector;
+
+import java.util.Arrays;
+
+/**
+ * 按距离排序的节点二叉堆（int节点 + float距离，无装箱），可选小顶堆或大顶堆
+ *
+ * @author Tool Recommend Team
+ */
+final class NodeQueue {
+
+    private final boolean maxHeap;
+
+    private int[] nodes;
+
+    private float[] distances;
+
+    private int size;
+
+    NodeQueue(int initialCapacity, boolean maxHeap) {
+        this.maxHeap = maxHeap;
+        this.nodes = new int[Math.max(initialCapacity, 4)];
+        this.distances = new float[nodes.length];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void push(int node, float distance) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            distances = Arrays.copyOf(distances, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(distance, distances[parent])) {
+                break;
+            }
+            nodes[i] = nodes[parent];
+            distances[i] = distances[parent];
+            i = parent;
+        }
+        nodes[i] = node;
+        distances[i] = distance;
+    }
+
+    int topNode() {
+        return nodes[0];
+    }
+
+    float topDistance() {
+        return distances[0];
+    }
+
+    /**
+     * 弹出堆顶，返回其节点
+     */
+    int pop() {
+        int top = nodes[0];
+        size--;
+        if (size > 0) {
+            int node = nodes[size];
+            float distance = distances[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && before(distances[child + 1], distances[child])) {
+                    child++;
+                }
+                if (!before(distances[child], distance)) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                distances[i] = distances[child];
+                i = child;
+            }
+            nodes[i] = node;
+            distances[i] = distance;
+        }
+        return top;
+    }
+
+    /**
+     * 按距离升序导出到 outNodes、outDistances 并清空，返回导出的个数
+     */
+    int drainAscending(int[] outNodes, float[] outDistances) {
+        int count = size;
+        if (maxHeap) {
+            for (int i = count - 1; i >= 0; i--) {
+                outDistances[i] = distances[0];
+                outNodes[i] = pop();
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                outDistances[i] = distances[0];
+                outNodes[i] = pop();
+            }
+        }
+        return count;
+    }
+
+    private boolean before(float a, float b) {
+        return maxHeap ? a > b : a < b;
+    }
+}
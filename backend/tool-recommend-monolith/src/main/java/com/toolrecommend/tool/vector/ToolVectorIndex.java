@@ -0,0 +1,418 @@
+package com.toolrecommend.tool.vector;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.toolrecommend.common.entity.Tag;
+import com.toolrecommend.common.entity.Tool;
+import com.toolrecommend.tool.mapper.TagMapper;
+import com.toolrecommend.tool.mapper.ToolMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * 工具语义向量索引
+ * 工具的名称、标语、描述和标签经 EmbeddingProvider 向量化后放入HNSW图，提供按余弦相似度的近邻检索，
+ * 分类和定价模式作为节点属性在图遍历时过滤，图上可达的结果不足时只在该分类或定价模式的节点中逐个计算。
+ * 应用启动完成后在独立线程中首次构建并定时全量重建，不阻塞启动，也不占用公共调度线程；
+ * 语料统计与新索引一起构建、整体替换，首次构建完成前检索返回空结果，由调用方回退；
+ * 工具增删改在事务提交后增量刷新：旧节点标记删除，新内容追加为新节点，容量用尽时等待下次全量重建
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class ToolVectorIndex {
+
+    private static final int TAG_BATCH_SIZE = 1000;
+
+    private static final int DELETED = -1;
+
+    @Resource
+    private ToolMapper toolMapper;
+
+    @Resource
+    private TagMapper tagMapper;
+
+    @Resource
+    private EmbeddingProvider embeddingProvider;
+
+    /**
+     * 每层每个节点的连接数
+     */
+    @Value("${tool.vector.m:16}")
+    private int m;
+
+    /**
+     * 建图时的候选宽度
+     */
+    @Value("${tool.vector.ef-construction:100}")
+    private int efConstruction;
+
+    /**
+     * 检索时的候选宽度，越大召回越高、耗时越长
+     */
+    @Value("${tool.vector.ef-search:64}")
+    private int efSearch;
+
+    /**
+     * 是否把向量放在堆外内存
+     */
+    @Value("${tool.vector.off-heap:false}")
+    private boolean offHeap;
+
+    /**
+     * 为增量新增预留的容量比例
+     */
+    @Value("${tool.vector.headroom:0.25}")
+    private double headroom;
+
+    /**
+     * 每个索引的检索上下文数（并发检索上限），0表示使用CPU核数
+     */
+    @Value("${tool.vector.search-contexts:0}")
+    private int searchContexts;
+
+    /**
+     * 全量重建间隔（毫秒）
+     */
+    @Value("${tool.vector.rebuild-interval:3600000}")
+    private long rebuildInterval;
+
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tool-vector-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Snapshot snapshot;
+
+    private volatile boolean rebuilding;
+
+    /**
+     * 重建期间发生变更的工具，重建完成后在新索引上重放
+     */
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 一个版本的图、向量化模型及节点属性，节点编号与图中一致
+     */
+    private static final class Snapshot {
+
+        final HnswGraph graph;
+
+        final EmbeddingProvider.Model model;
+
+        final long[] toolIds;
+
+        final int[] categories;
+
+        final int[] pricingModels;
+
+        final Map<Long, Integer> nodes = new ConcurrentHashMap<>();
+
+        final Map<String, Integer> pricingCodes = new ConcurrentHashMap<>();
+
+        /**
+         * 分类 -> 节点，过滤检索的兜底扫描只覆盖这些节点
+         */
+        final Map<Integer, NodeList> categoryNodes = new ConcurrentHashMap<>();
+
+        /**
+         * 定价模式编码 -> 节点
+         */
+        final Map<Integer, NodeList> pricingNodes = new ConcurrentHashMap<>();
+
+        Snapshot(HnswGraph graph, EmbeddingProvider.Model model) {
+            this.graph = graph;
+            this.model = model;
+            this.toolIds = new long[graph.capacity()];
+            this.categories = new int[graph.capacity()];
+            this.pricingModels = new int[graph.capacity()];
+        }
+
+        /**
+         * 写入节点属性后再加入图，保证检索线程看到节点时属性已就绪
+         */
+        boolean add(Tool tool, float[] vector) {
+            int node = graph.size();
+            if (node >= graph.capacity()) {
+                return false;
+            }
+            toolIds[node] = tool.getId();
+            categories[node] = tool.getCategoryId() == null ? DELETED : tool.getCategoryId();
+            pricingModels[node] = tool.getPricingModel() == null ? DELETED
+                    : pricingCodes.computeIfAbsent(tool.getPricingModel(), key -> pricingCodes.size());
+            graph.add(vector);
+            if (categories[node] != DELETED) {
+                categoryNodes.computeIfAbsent(categories[node], key -> new NodeList()).add(node);
+            }
+            if (pricingModels[node] != DELETED) {
+                pricingNodes.computeIfAbsent(pricingModels[node], key -> new NodeList()).add(node);
+            }
+            Integer previous = nodes.put(tool.getId(), node);
+            if (previous != null) {
+                toolIds[previous] = DELETED;
+            }
+            return true;
+        }
+
+        void remove(Long toolId) {
+            Integer node = nodes.remove(toolId);
+            if (node != null) {
+                toolIds[node] = DELETED;
+            }
+        }
+    }
+
+    /**
+     * 只追加的节点列表，写入由图的写锁串行化；检索先读count再读数组，读到的数组至少包含count个节点
+     */
+    private static final class NodeList {
+
+        private volatile int[] nodes = new int[16];
+
+        private volatile int count;
+
+        void add(int node) {
+            int[] current = nodes;
+            if (count == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                nodes = current;
+            }
+            current[count] = node;
+            count++;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuilder.scheduleWithFixedDelay(this::rebuild, 0, rebuildInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * 是否已收录该工具
+     */
+    public boolean contains(Long toolId) {
+        Snapshot current = snapshot;
+        return current != null && current.nodes.containsKey(toolId);
+    }
+
+    /**
+     * 与指定工具语义最相近的工具，不含其自身；工具未收录或索引未就绪时返回空列表
+     *
+     * @param categoryId   分类过滤，为null时不过滤
+     * @param pricingModel 定价模式过滤，为null时不过滤
+     */
+    public List<VectorHit> similarTo(Long toolId, int k, Integer categoryId, String pricingModel) {
+        Snapshot current = snapshot;
+        Integer node = current == null ? null : current.nodes.get(toolId);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        return search(current, current.graph.vector(node), k, categoryId, pricingModel, node);
+    }
+
+    /**
+     * 按文本检索语义最相近的工具，供对话推荐使用
+     */
+    public List<VectorHit> search(String text, int k, Integer categoryId, String pricingModel) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Collections.emptyList();
+        }
+        return search(current, current.model.embed(text), k, categoryId, pricingModel, DELETED);
+    }
+
+    /**
+     * 刷新单个工具，存在事务时推迟到提交之后，回滚则不生效
+     */
+    public void refreshAfterCommit(Long toolId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(toolId);
+                }
+            });
+        } else {
+            refresh(toolId);
+        }
+    }
+
+    /**
+     * 全量重建，构建期间检索继续使用旧索引
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        try {
+            List<Tool> tools = toolMapper.selectList(new LambdaQueryWrapper<Tool>().eq(Tool::getStatus, 1));
+            Map<Long, List<String>> tagNames = loadTagNames(tools.stream().map(Tool::getId).collect(Collectors.toList()));
+            List<String> documents = new ArrayList<>(tools.size());
+            for (Tool tool : tools) {
+                documents.add(document(tool, tagNames.getOrDefault(tool.getId(), Collections.emptyList())));
+            }
+            // 语料统计只绑定在新快照上，发布前旧快照的查询和增量刷新仍使用旧统计
+            EmbeddingProvider.Model model = embeddingProvider.fit(documents);
+
+            int capacity = (int) Math.ceil(tools.size() * (1 + headroom)) + 64;
+            int contexts = searchContexts > 0 ? searchContexts : Runtime.getRuntime().availableProcessors();
+            Snapshot fresh = new Snapshot(new HnswGraph(capacity, embeddingProvider.dimension(), m, efConstruction,
+                    offHeap, contexts), model);
+            for (int i = 0; i < tools.size(); i++) {
+                fresh.add(tools.get(i), model.embed(documents.get(i)));
+            }
+            snapshot = fresh;
+            log.info("向量索引重建完成, 工具数: {}, 维度: {}, 耗时: {}ms",
+                    tools.size(), embeddingProvider.dimension(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("向量索引重建失败: {}", e.getMessage());
+        } finally {
+            rebuilding = false;
+        }
+
+        for (Long toolId : new ArrayList<>(changedDuringRebuild)) {
+            refresh(toolId);
+        }
+        changedDuringRebuild.clear();
+    }
+
+    private List<VectorHit> search(Snapshot current, float[] query, int k, Integer categoryId, String pricingModel,
+                                   int excludeNode) {
+        Integer pricingCode = null;
+        if (pricingModel != null) {
+            pricingCode = current.pricingCodes.get(pricingModel);
+            if (pricingCode == null) {
+                return Collections.emptyList();
+            }
+        }
+        IntPredicate accept = filter(current, categoryId, pricingCode, excludeNode);
+        HnswGraph.Result result = current.graph.search(query, k, efSearch, accept);
+        if (result.nodes().length < k && (categoryId != null || pricingCode != null)) {
+            // 过滤条件很严格时图上可达的满足条件的节点可能不足，改为在较小的属性节点列表中逐个计算
+            NodeList scope = scope(current, categoryId, pricingCode);
+            if (scope == null) {
+                return Collections.emptyList();
+            }
+            int count = scope.count;
+            result = current.graph.scan(query, k, scope.nodes, count, accept);
+        }
+
+        List<VectorHit> hits = new ArrayList<>(result.nodes().length);
+        for (int i = 0; i < result.nodes().length; i++) {
+            long toolId = current.toolIds[result.nodes()[i]];
+            hits.add(new VectorHit(toolId, 1 - result.distances()[i]));
+        }
+        return hits;
+    }
+
+    private static NodeList scope(Snapshot current, Integer categoryId, Integer pricingCode) {
+        NodeList byCategory = categoryId == null ? null : current.categoryNodes.get(categoryId);
+        NodeList byPricing = pricingCode == null ? null : current.pricingNodes.get(pricingCode);
+        if ((categoryId != null && byCategory == null) || (pricingCode != null && byPricing == null)) {
+            // 没有该属性的节点
+            return null;
+        }
+        if (byCategory == null || byPricing == null) {
+            return byCategory == null ? byPricing : byCategory;
+        }
+        return byCategory.count <= byPricing.count ? byCategory : byPricing;
+    }
+
+    private static IntPredicate filter(Snapshot current, Integer categoryId, Integer pricingCode, int excludeNode) {
+        long[] toolIds = current.toolIds;
+        int[] categories = current.categories;
+        int[] pricingModels = current.pricingModels;
+        int category = categoryId == null ? 0 : categoryId;
+        int pricing = pricingCode == null ? 0 : pricingCode;
+        boolean byCategory = categoryId != null;
+        boolean byPricing = pricingCode != null;
+        return node -> node != excludeNode
+                && toolIds[node] != DELETED
+                && (!byCategory || categories[node] == category)
+                && (!byPricing || pricingModels[node] == pricing);
+    }
+
+    private void refresh(Long toolId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(toolId);
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        // 图只允许单个写入者
+        synchronized (current) {
+            refresh(current, toolId);
+        }
+    }
+
+    private void refresh(Snapshot current, Long toolId) {
+        try {
+            Tool tool = toolMapper.selectById(toolId);
+            if (tool == null || !Objects.equals(tool.getStatus(), 1)) {
+                current.remove(toolId);
+                return;
+            }
+            List<String> tagNames = loadTagNames(Collections.singletonList(toolId))
+                    .getOrDefault(toolId, Collections.emptyList());
+            if (!current.add(tool, current.model.embed(document(tool, tagNames)))) {
+                log.warn("向量索引容量已满, 工具 {} 在下次全量重建后生效", toolId);
+            }
+        } catch (Exception e) {
+            log.error("刷新向量索引失败, toolId: {}, 原因: {}", toolId, e.getMessage());
+        }
+    }
+
+    /**
+     * 向量化的文本：名称和标签各重复一次以提高权重
+     */
+    private static String document(Tool tool, List<String> tagNames) {
+        String tags = String.join(" ", tagNames);
+        return String.join(" ", Arrays.asList(
+                Objects.toString(tool.getName(), ""),
+                Objects.toString(tool.getName(), ""),
+                Objects.toString(tool.getTagline(), ""),
+                Objects.toString(tool.getDescription(), ""),
+                tags,
+                tags));
+    }
+
+    private Map<Long, List<String>> loadTagNames(List<Long> toolIds) {
+        Map<Long, List<String>> result = new HashMap<>();
+        for (int from = 0; from < toolIds.size(); from += TAG_BATCH_SIZE) {
+            List<Long> batch = toolIds.subList(from, Math.min(from + TAG_BATCH_SIZE, toolIds.size()));
+            for (Tag tag : tagMapper.selectTagsByToolIds(batch)) {
+                result.computeIfAbsent(tag.getToolId(), id -> new ArrayList<>()).add(tag.getName());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,11 @@
+package com.toolrecommend.tool.vector;
+
+/**
+ * 向量检索结果
+ *
+ * @param toolId 工具ID
+ * @param score  余弦相似度
+ * @author Tool Recommend Team
+ */
+public record VectorHit(long toolId, float score) {
+}
@@ -0,0 +1,101 @@
+package com.toolrecommend.tool.vector;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * 连续存放的定长向量，节点i占用 [i × dimension, (i + 1) × dimension)。
+ * 默认放在堆内 float[]，也可放在堆外直接内存以减小GC扫描和堆占用
+ *
+ * @author Tool Recommend Team
+ */
+final class VectorStorage {
+
+    private final int dimension;
+
+    private final float[] heap;
+
+    private final FloatBuffer offHeap;
+
+    private VectorStorage(int dimension, float[] heap, FloatBuffer offHeap) {
+        this.dimension = dimension;
+        this.heap = heap;
+        this.offHeap = offHeap;
+    }
+
+    static VectorStorage allocate(int capacity, int dimension, boolean offHeap) {
+        long floats = (long) capacity * dimension;
+        if (floats > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("向量存储超过上限: " + capacity + " x " + dimension);
+        }
+        if (offHeap) {
+            FloatBuffer buffer = ByteBuffer.allocateDirect((int) floats * Float.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer();
+            return new VectorStorage(dimension, null, buffer);
+        }
+        return new VectorStorage(dimension, new float[(int) floats], null);
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    void set(int node, float[] vector) {
+        int base = node * dimension;
+        if (heap != null) {
+            System.arraycopy(vector, 0, heap, base, dimension);
+        } else {
+            offHeap.put(base, vector, 0, dimension);
+        }
+    }
+
+    float[] get(int node) {
+        float[] vector = new float[dimension];
+        int base = node * dimension;
+        if (heap != null) {
+            System.arraycopy(heap, base, vector, 0, dimension);
+        } else {
+            offHeap.get(base, vector, 0, dimension);
+        }
+        return vector;
+    }
+
+    /**
+     * 节点向量与查询向量的点积
+     */
+    float dot(int node, float[] query) {
+        int base = node * dimension;
+        float sum = 0;
+        if (heap != null) {
+            for (int i = 0; i < dimension; i++) {
+                sum += heap[base + i] * query[i];
+            }
+        } else {
+            for (int i = 0; i < dimension; i++) {
+                sum += offHeap.get(base + i) * query[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 两个节点向量的点积
+     */
+    float dot(int a, int b) {
+        int baseA = a * dimension;
+        int baseB = b * dimension;
+        float sum = 0;
+        if (heap != null) {
+            for (int i = 0; i < dimension; i++) {
+                sum += heap[baseA + i] * heap[baseB + i];
+            }
+        } else {
+            for (int i = 0; i < dimension; i++) {
+                sum += offHeap.get(baseA + i) * offHeap.get(baseB + i);
+            }
+        }
+        return sum;
+    }
+}
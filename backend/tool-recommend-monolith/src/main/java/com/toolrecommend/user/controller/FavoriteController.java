@@ -53,14 +53,17 @@ public class FavoriteController {
     }
 
     /**
-     * 获取我的收藏列表
+     * 获取我的收藏列表，传入cursor时使用游标分页（空字符串表示第一页）
      */
     @GetMapping("/my")
     public Result<PageResult<ToolVO>> getMyFavorites(
             @RequestParam(defaultValue = "1") Long current,
             @RequestParam(defaultValue = "20") Long size,
+            @RequestParam(required = false) String cursor,
             @RequestHeader("X-User-Id") Long userId) {
-        PageResult<ToolVO> result = favoriteService.getUserFavorites(userId, current, size);
+        PageResult<ToolVO> result = cursor != null
+                ? favoriteService.getUserFavoritesByCursor(userId, cursor, size)
+                : favoriteService.getUserFavorites(userId, current, size);
         return Result.success(result);
     }
 }
@@ -0,0 +1,20 @@
+package com.toolrecommend.user.convert;
+
+import com.toolrecommend.common.convert.ConverterConfig;
+import com.toolrecommend.common.entity.User;
+import com.toolrecommend.common.vo.UserVO;
+import org.mapstruct.Mapper;
+
+/**
+ * 用户模块对象转换器
+ *
+ * @author Tool Recommend Team
+ */
+@Mapper(config = ConverterConfig.class)
+public interface UserConverter {
+
+    /**
+     * 用户信息，UserVO不含密码字段
+     */
+    UserVO toUserVO(User user);
+}
@@ -3,6 +3,10 @@ package com.toolrecommend.user.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.toolrecommend.common.entity.Favorite;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * 收藏Mapper接口
@@ -11,4 +15,13 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface FavoriteMapper extends BaseMapper<Favorite> {
+
+    /**
+     * 查询用户收藏的全部工具ID，用于重建用户关系位图
+     *
+     * @param userId 用户ID
+     * @return 工具ID列表
+     */
+    @Select("SELECT tool_id FROM favorite WHERE user_id = #{userId}")
+    List<Long> selectToolIdsByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,37 @@
+package com.toolrecommend.user.relation;
+
+/**
+ * 用户与工具的关系类型
+ *
+ * @author Tool Recommend Team
+ */
+public enum RelationType {
+
+    /**
+     * 点赞（user_action UPVOTE）
+     */
+    UPVOTE("upvote"),
+
+    /**
+     * 工具页收藏（user_action FAVORITE）
+     */
+    FAVORITE("favorite"),
+
+    /**
+     * 收藏夹收藏（favorite表）
+     */
+    FAVORITE_LIST("favorite_list");
+
+    private final String field;
+
+    RelationType(String field) {
+        this.field = field;
+    }
+
+    /**
+     * Redis哈希中的字段名
+     */
+    public String getField() {
+        return field;
+    }
+}
@@ -0,0 +1,365 @@
+package com.toolrecommend.user.relation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.toolrecommend.common.entity.UserAction;
+import com.toolrecommend.tool.mapper.UserActionMapper;
+import com.toolrecommend.user.mapper.FavoriteMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 用户关系位图存储
+ * 每个用户的点赞、收藏关系以压缩位图保存在Redis哈希 user:relation:{userId} 中，
+ * 进程内缓存热点用户的位图快照，成员判断不再逐条 COUNT 查询。
+ * 写路径在事务提交后按乐观比较更新位图，冲突时丢弃位图等待重建；未加载或已过期的用户从
+ * user_action、favorite 表重建。哈希中的版本号 v 每次写入递增，重建期间若有写入则放弃回填，
+ * 避免把旧数据写回Redis。本地缓存按用户分段维护失效代数，读取期间收到失效的结果不放入本地缓存
+ *
+ * @author Tool Recommend Team
+ */
+@Slf4j
+@Component
+public class UserRelationStore implements MessageListener {
+
+    public static final String KEY_PREFIX = "user:relation:";
+
+    public static final String INVALIDATE_CHANNEL = "user:relation:invalidate";
+
+    private static final RelationType[] TYPES = RelationType.values();
+
+    private static final byte[] VERSION_FIELD = bytes("v");
+
+    /**
+     * 失效代数的分段数（2的幂），用户ID哈希到分段，同段用户的失效只会让读取多跳过一次本地缓存
+     */
+    private static final int GENERATION_STRIPES = 4096;
+
+    /**
+     * 比较并更新单个关系位图：ARGV = [字段, 期望值, 新值, 过期秒数, 全部位图字段...]。
+     * 返回1更新成功，0与期望值不符（已删除全部位图字段），-1位图尚未加载
+     */
+    private static final byte[] UPDATE_SCRIPT = bytes(
+            "local current = redis.call('HGET', KEYS[1], ARGV[1]) " +
+            "redis.call('HINCRBY', KEYS[1], 'v', 1) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[4]) " +
+            "if current == false then return -1 end " +
+            "if current ~= ARGV[2] then " +
+            "  for i = 5, #ARGV do redis.call('HDEL', KEYS[1], ARGV[i]) end " +
+            "  return 0 " +
+            "end " +
+            "redis.call('HSET', KEYS[1], ARGV[1], ARGV[3]) " +
+            "return 1");
+
+    /**
+     * 版本号未变时回填全部位图：ARGV = [过期秒数, 期望版本, 字段1, 值1, 字段2, 值2...]
+     */
+    private static final byte[] LOAD_SCRIPT = bytes(
+            "local version = redis.call('HGET', KEYS[1], 'v') " +
+            "if version == false then version = '0' end " +
+            "if version ~= ARGV[2] then return 0 end " +
+            "for i = 3, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "return 1");
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Resource
+    private UserActionMapper userActionMapper;
+
+    @Resource
+    private FavoriteMapper favoriteMapper;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 本地缓存最大总权重（约等于位图字节数）
+     */
+    @Value("${user.relation.l1-max-weight:33554432}")
+    private long l1MaxWeight;
+
+    /**
+     * 本地缓存过期时间（秒），兜底跨节点失效消息丢失的情况
+     */
+    @Value("${user.relation.l1-ttl:60}")
+    private long l1TtlSeconds;
+
+    /**
+     * Redis位图过期时间（秒），不活跃用户过期后按需重建
+     */
+    @Value("${user.relation.redis-ttl:604800}")
+    private long redisTtlSeconds;
+
+    private Cache<Long, UserRelations> localCache;
+
+    /**
+     * 本地失效代数，每次失效先递增再清除缓存项
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumWeight(l1MaxWeight)
+                .weigher((Long userId, UserRelations relations) -> relations.sizeInBytes())
+                .expireAfterWrite(Duration.ofSeconds(l1TtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "user.relation.l1");
+
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 获取用户的关系快照，依次查询本地缓存、Redis，均未命中时从数据库重建
+     */
+    public UserRelations get(Long userId) {
+        UserRelations relations = localCache.getIfPresent(userId);
+        if (relations != null) {
+            return relations;
+        }
+
+        long generation = generations.get(stripe(userId));
+        byte[] key = key(userId);
+        List<byte[]> values;
+        try {
+            values = stringRedisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.hashCommands().hMGet(key, allFieldsWithVersion()));
+        } catch (Exception e) {
+            log.warn("读取用户关系位图失败, userId: {}, 原因: {}", userId, e.getMessage());
+            return loadFromDatabase(userId);
+        }
+
+        relations = fromRedis(values);
+        if (relations != null) {
+            cacheLocal(userId, generation, relations);
+            return relations;
+        }
+
+        String version = values == null || values.get(0) == null
+                ? "0" : new String(values.get(0), StandardCharsets.UTF_8);
+        relations = loadFromDatabase(userId);
+        if (storeLoaded(key, version, relations)) {
+            cacheLocal(userId, generation, relations);
+        }
+        return relations;
+    }
+
+    /**
+     * 判断用户与工具是否存在指定关系
+     */
+    public boolean contains(Long userId, RelationType type, Long toolId) {
+        return userId != null && get(userId).contains(type, toolId);
+    }
+
+    /**
+     * 记录关系变化，存在事务时推迟到提交之后，回滚则不生效
+     */
+    public void updateAfterCommit(Long userId, RelationType type, Long toolId, boolean present) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update(userId, type, toolId, present);
+                }
+            });
+        } else {
+            update(userId, type, toolId, present);
+        }
+    }
+
+    /**
+     * 丢弃用户的位图，下次访问时从数据库重建
+     */
+    public void evict(Long userId) {
+        try {
+            stringRedisTemplate.delete(KEY_PREFIX + userId);
+        } catch (Exception e) {
+            log.warn("删除用户关系位图失败, userId: {}, 原因: {}", userId, e.getMessage());
+        }
+        invalidateLocal(userId);
+    }
+
+    /**
+     * 接收其他节点（包括本节点）的失效广播
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            invalidateCached(Long.valueOf(body.trim()));
+        } catch (NumberFormatException e) {
+            log.warn("无法识别的用户关系失效消息: {}", body);
+        }
+    }
+
+    private void update(Long userId, RelationType type, Long toolId, boolean present) {
+        byte[] key = key(userId);
+        byte[] field = bytes(type.getField());
+        try {
+            byte[] current = stringRedisTemplate.execute((RedisCallback<byte[]>) connection ->
+                    connection.hashCommands().hGet(key, field));
+            byte[] expected = current == null ? new byte[0] : current;
+            byte[] next = expected;
+            if (current != null) {
+                RoaringBitmap bitmap = UserRelations.deserialize(current);
+                if (present) {
+                    bitmap.add(UserRelations.toKey(toolId));
+                } else {
+                    bitmap.remove(UserRelations.toKey(toolId));
+                }
+                bitmap.runOptimize();
+                next = UserRelations.serialize(bitmap);
+            }
+
+            byte[][] keysAndArgs = new byte[5 + TYPES.length][];
+            keysAndArgs[0] = key;
+            keysAndArgs[1] = field;
+            keysAndArgs[2] = expected;
+            keysAndArgs[3] = next;
+            keysAndArgs[4] = bytes(String.valueOf(redisTtlSeconds));
+            for (int i = 0; i < TYPES.length; i++) {
+                keysAndArgs[5 + i] = bytes(TYPES[i].getField());
+            }
+            stringRedisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.scriptingCommands().eval(UPDATE_SCRIPT, ReturnType.INTEGER, 1, keysAndArgs));
+        } catch (Exception e) {
+            log.warn("更新用户关系位图失败, userId: {}, 原因: {}", userId, e.getMessage());
+            evict(userId);
+            return;
+        }
+        invalidateLocal(userId);
+    }
+
+    /**
+     * 版本号未变时把重建结果写回Redis，返回是否写入
+     */
+    private boolean storeLoaded(byte[] key, String version, UserRelations relations) {
+        byte[][] keysAndArgs = new byte[3 + TYPES.length * 2][];
+        keysAndArgs[0] = key;
+        keysAndArgs[1] = bytes(String.valueOf(redisTtlSeconds));
+        keysAndArgs[2] = bytes(version);
+        for (int i = 0; i < TYPES.length; i++) {
+            keysAndArgs[3 + i * 2] = bytes(TYPES[i].getField());
+            keysAndArgs[4 + i * 2] = UserRelations.serialize(relations.bitmap(TYPES[i]));
+        }
+        try {
+            Long stored = stringRedisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.scriptingCommands().eval(LOAD_SCRIPT, ReturnType.INTEGER, 1, keysAndArgs));
+            return stored != null && stored == 1;
+        } catch (Exception e) {
+            log.warn("回填用户关系位图失败, 原因: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private UserRelations loadFromDatabase(Long userId) {
+        UserRelations relations = UserRelations.empty();
+        for (UserAction action : userActionMapper.selectRelationsByUserId(userId)) {
+            RelationType type = "UPVOTE".equals(action.getActionType()) ? RelationType.UPVOTE : RelationType.FAVORITE;
+            relations.bitmap(type).add(UserRelations.toKey(action.getToolId()));
+        }
+        for (Long toolId : favoriteMapper.selectToolIdsByUserId(userId)) {
+            relations.bitmap(RelationType.FAVORITE_LIST).add(UserRelations.toKey(toolId));
+        }
+        for (RelationType type : TYPES) {
+            relations.bitmap(type).runOptimize();
+        }
+        return relations;
+    }
+
+    /**
+     * 解析HMGET结果（首项为版本号），任一位图字段缺失时返回null
+     */
+    private UserRelations fromRedis(List<byte[]> values) {
+        if (values == null || values.size() != TYPES.length + 1) {
+            return null;
+        }
+        RoaringBitmap[] bitmaps = new RoaringBitmap[TYPES.length];
+        for (int i = 0; i < TYPES.length; i++) {
+            byte[] value = values.get(i + 1);
+            if (value == null) {
+                return null;
+            }
+            bitmaps[i] = UserRelations.deserialize(value);
+        }
+        return new UserRelations(bitmaps);
+    }
+
+    /**
+     * 读取开始后该用户没有失效时才放入本地缓存。放入后再核对一次：
+     * 失效若发生在核对之后，其清除必然晚于放入，不会留下旧快照
+     */
+    private void cacheLocal(Long userId, long generation, UserRelations relations) {
+        int stripe = stripe(userId);
+        if (generations.get(stripe) != generation) {
+            return;
+        }
+        localCache.put(userId, relations);
+        if (generations.get(stripe) != generation) {
+            localCache.invalidate(userId);
+        }
+    }
+
+    private void invalidateCached(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+        localCache.invalidate(userId);
+    }
+
+    private void invalidateLocal(Long userId) {
+        invalidateCached(userId);
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, String.valueOf(userId));
+        } catch (Exception e) {
+            // 广播失败时其他节点的本地缓存依赖过期时间兜底
+            log.warn("广播用户关系失效消息失败, userId: {}, 原因: {}", userId, e.getMessage());
+        }
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (GENERATION_STRIPES - 1);
+    }
+
+    private static byte[][] allFieldsWithVersion() {
+        List<byte[]> fields = new ArrayList<>(TYPES.length + 1);
+        fields.add(VERSION_FIELD);
+        for (RelationType type : TYPES) {
+            fields.add(bytes(type.getField()));
+        }
+        return fields.toArray(new byte[0][]);
+    }
+
+    private static byte[] key(Long userId) {
+        return bytes(KEY_PREFIX + userId);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,90 @@
+package com.toolrecommend.user.relation;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 单个用户的关系位图快照
+ * 每种关系一个压缩位图，位为工具ID。快照构建后不再修改，关系变更时本地快照失效并重新加载
+ *
+ * @author Tool Recommend Team
+ */
+public final class UserRelations {
+
+    private static final RelationType[] TYPES = RelationType.values();
+
+    private final RoaringBitmap[] bitmaps;
+
+    UserRelations(RoaringBitmap[] bitmaps) {
+        this.bitmaps = bitmaps;
+    }
+
+    static UserRelations empty() {
+        RoaringBitmap[] bitmaps = new RoaringBitmap[TYPES.length];
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = new RoaringBitmap();
+        }
+        return new UserRelations(bitmaps);
+    }
+
+    /**
+     * 是否存在指定关系
+     */
+    public boolean contains(RelationType type, Long toolId) {
+        return toolId != null && fits(toolId) && bitmaps[type.ordinal()].contains((int) toolId.longValue());
+    }
+
+    RoaringBitmap bitmap(RelationType type) {
+        return bitmaps[type.ordinal()];
+    }
+
+    /**
+     * 估算占用字节数，用于本地缓存按权重淘汰
+     */
+    int sizeInBytes() {
+        int size = 64;
+        for (RoaringBitmap bitmap : bitmaps) {
+            size += bitmap.getSizeInBytes();
+        }
+        return size;
+    }
+
+    static byte[] serialize(RoaringBitmap bitmap) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bitmap.serializedSizeInBytes());
+        try {
+            bitmap.serialize(new DataOutputStream(out));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static RoaringBitmap deserialize(byte[] bytes) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        try {
+            bitmap.deserialize(ByteBuffer.wrap(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bitmap;
+    }
+
+    /**
+     * 位图以无符号32位整数为键，工具ID超出该范围时无法表示
+     */
+    static int toKey(Long toolId) {
+        if (!fits(toolId)) {
+            throw new IllegalArgumentException("toolId out of bitmap range: " + toolId);
+        }
+        return (int) toolId.longValue();
+    }
+
+    private static boolean fits(long toolId) {
+        return toolId >= 0 && toolId <= 0xFFFFFFFFL;
+    }
+}
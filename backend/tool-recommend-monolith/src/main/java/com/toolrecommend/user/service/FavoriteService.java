@@ -46,4 +46,14 @@ public interface FavoriteService {
      * @return 收藏的工具列表
      */
     PageResult<ToolVO> getUserFavorites(Long userId, Long current, Long size);
+
+    /**
+     * 游标分页获取用户收藏列表（不统计总数）
+     *
+     * @param userId 用户ID
+     * @param cursor 分页游标，空字符串表示第一页
+     * @param size 每页大小
+     * @return 收藏的工具列表
+     */
+    PageResult<ToolVO> getUserFavoritesByCursor(Long userId, String cursor, Long size);
 }
@@ -3,18 +3,20 @@ package com.toolrecommend.user.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.toolrecommend.common.entity.Favorite;
+import com.toolrecommend.common.result.PageCursor;
 import com.toolrecommend.common.result.PageResult;
-import com.toolrecommend.common.vo.ToolDetailVO;
+import com.toolrecommend.common.vo.ToolRelationVO;
 import com.toolrecommend.common.vo.ToolVO;
 import com.toolrecommend.tool.service.ToolService;
 import com.toolrecommend.user.mapper.FavoriteMapper;
+import com.toolrecommend.user.relation.RelationType;
+import com.toolrecommend.user.relation.UserRelationStore;
 import com.toolrecommend.user.service.FavoriteService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -29,16 +31,14 @@ public class FavoriteServiceImpl implements FavoriteService {
 
     private final FavoriteMapper favoriteMapper;
     private final ToolService toolService;
+    private final UserRelationStore userRelationStore;
+
+    private static final String FAVORITES_CURSOR_SCOPE = "favorite:user";
 
     @Override
     public boolean addFavorite(Long userId, Long toolId) {
         // 检查是否已收藏
-        LambdaQueryWrapper<Favorite> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Favorite::getUserId, userId)
-               .eq(Favorite::getToolId, toolId);
-
-        Long count = favoriteMapper.selectCount(wrapper);
-        if (count > 0) {
+        if (userRelationStore.contains(userId, RelationType.FAVORITE_LIST, toolId)) {
             return true; // 已经收藏过了
         }
 
@@ -47,7 +47,11 @@ public class FavoriteServiceImpl implements FavoriteService {
         favorite.setUserId(userId);
         favorite.setToolId(toolId);
 
-        return favoriteMapper.insert(favorite) > 0;
+        boolean inserted = favoriteMapper.insert(favorite) > 0;
+        if (inserted) {
+            userRelationStore.updateAfterCommit(userId, RelationType.FAVORITE_LIST, toolId, true);
+        }
+        return inserted;
     }
 
     @Override
@@ -56,17 +60,16 @@ public class FavoriteServiceImpl implements FavoriteService {
         wrapper.eq(Favorite::getUserId, userId)
                .eq(Favorite::getToolId, toolId);
 
-        return favoriteMapper.delete(wrapper) > 0;
+        boolean deleted = favoriteMapper.delete(wrapper) > 0;
+        if (deleted) {
+            userRelationStore.updateAfterCommit(userId, RelationType.FAVORITE_LIST, toolId, false);
+        }
+        return deleted;
     }
 
     @Override
     public boolean isFavorited(Long userId, Long toolId) {
-        LambdaQueryWrapper<Favorite> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Favorite::getUserId, userId)
-               .eq(Favorite::getToolId, toolId);
-
-        Long count = favoriteMapper.selectCount(wrapper);
-        return count > 0;
+        return userRelationStore.contains(userId, RelationType.FAVORITE_LIST, toolId);
     }
 
     @Override
@@ -83,25 +86,7 @@ public class FavoriteServiceImpl implements FavoriteService {
         List<Long> toolIds = favoritePage.getRecords().stream()
                 .map(Favorite::getToolId)
                 .toList();
-
-        // 直接调用ToolService获取工具详情
-        List<ToolVO> tools = new ArrayList<>();
-        if (!toolIds.isEmpty()) {
-            for (Long toolId : toolIds) {
-                try {
-                    // 直接调用本地ToolService（单体应用内部调用）
-                    ToolDetailVO detailVO = toolService.getToolDetail(toolId, userId);
-
-                    // 将ToolDetailVO转换为ToolVO
-                    ToolVO toolVO = new ToolVO();
-                    BeanUtils.copyProperties(detailVO, toolVO);
-                    tools.add(toolVO);
-                } catch (Exception e) {
-                    // 忽略单个工具查询失败,不影响其他工具
-                    log.warn("获取工具详情失败, toolId: {}, 原因: {}", toolId, e.getMessage());
-                }
-            }
-        }
+        List<ToolVO> tools = loadTools(toolIds, userId);
 
         PageResult<ToolVO> result = new PageResult<>();
         result.setRecords(tools);
@@ -112,4 +97,49 @@ public class FavoriteServiceImpl implements FavoriteService {
 
         return result;
     }
+
+    @Override
+    public PageResult<ToolVO> getUserFavoritesByCursor(Long userId, String cursor, Long size) {
+        PageCursor pageCursor = PageCursor.decode(cursor, FAVORITES_CURSOR_SCOPE, 1);
+        LambdaQueryWrapper<Favorite> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Favorite::getUserId, userId);
+        if (pageCursor != null) {
+            LocalDateTime createdAt = pageCursor.dateTimeKey(0);
+            wrapper.and(w -> w.lt(Favorite::getCreatedAt, createdAt)
+                    .or(o -> o.eq(Favorite::getCreatedAt, createdAt).lt(Favorite::getId, pageCursor.getId())));
+        }
+        wrapper.orderByDesc(Favorite::getCreatedAt)
+               .orderByDesc(Favorite::getId)
+               .last("LIMIT " + (size + 1));
+
+        List<Favorite> favorites = favoriteMapper.selectList(wrapper);
+        String nextCursor = null;
+        if (favorites.size() > size) {
+            favorites = favorites.subList(0, size.intValue());
+            Favorite last = favorites.get(favorites.size() - 1);
+            nextCursor = PageCursor.encode(FAVORITES_CURSOR_SCOPE, last.getId(), last.getCreatedAt());
+        }
+
+        List<Long> toolIds = favorites.stream()
+                .map(Favorite::getToolId)
+                .toList();
+        return PageResult.ofCursor(loadTools(toolIds, userId), size, nextCursor, null);
+    }
+
+    /**
+     * 按收藏顺序批量加载工具卡片，并叠加当前用户的收藏、点赞状态
+     */
+    private List<ToolVO> loadTools(List<Long> toolIds, Long userId) {
+        List<ToolVO> tools = toolService.getToolCards(toolIds);
+        if (tools.isEmpty()) {
+            return tools;
+        }
+        List<ToolRelationVO> relations = toolService.getToolRelations(
+                tools.stream().map(ToolVO::getId).toList(), userId);
+        for (int i = 0; i < tools.size(); i++) {
+            tools.get(i).setIsFavorited(relations.get(i).getIsFavorited());
+            tools.get(i).setIsUpvoted(relations.get(i).getIsUpvoted());
+        }
+        return tools;
+    }
 }
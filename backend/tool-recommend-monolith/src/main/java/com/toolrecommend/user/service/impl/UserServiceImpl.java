@@ -7,10 +7,10 @@ import com.toolrecommend.common.exception.BusinessException;
 import com.toolrecommend.common.util.JwtUtil;
 import com.toolrecommend.common.vo.LoginVO;
 import com.toolrecommend.common.vo.UserVO;
+import com.toolrecommend.user.convert.UserConverter;
 import com.toolrecommend.user.mapper.UserMapper;
 import com.toolrecommend.user.service.UserService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +29,9 @@ public class UserServiceImpl implements UserService {
     @Resource
     private UserMapper userMapper;
 
+    @Resource
+    private UserConverter userConverter;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     @Override
@@ -194,9 +197,7 @@ public class UserServiceImpl implements UserService {
      * 转换为UserVO
      */
     private UserVO convertToUserVO(User user) {
-        UserVO vo = new UserVO();
-        BeanUtils.copyProperties(user, vo);
-        // 不返回密码
-        return vo;
+        // UserVO不含密码字段
+        return userConverter.toUserVO(user);
     }
 }
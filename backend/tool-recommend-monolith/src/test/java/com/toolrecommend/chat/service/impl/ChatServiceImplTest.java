@@ -0,0 +1,204 @@
+package com.toolrecommend.chat.service.impl;
+
+import com.toolrecommend.chat.intent.CatalogAnswerer;
+import com.toolrecommend.chat.intent.IntentMatch;
+import com.toolrecommend.chat.intent.IntentRouter;
+import com.toolrecommend.chat.model.StubChatModel;
+import com.toolrecommend.chat.store.ConversationStore;
+import com.toolrecommend.chat.support.ChatConcurrencyLimiter;
+import com.toolrecommend.common.dto.ChatRequestDTO;
+import com.toolrecommend.common.entity.Conversation;
+import com.toolrecommend.common.vo.ChatStreamEventVO;
+import com.toolrecommend.common.vo.ToolVO;
+import com.toolrecommend.tool.service.ToolService;
+import com.toolrecommend.tool.vector.ToolVectorIndex;
+import com.toolrecommend.tool.vector.VectorHit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 流式对话测试：模型使用本地桩模型，SSE输出由 RecordingSseEmitter 记录
+ *
+ * @author Tool Recommend Team
+ */
+class ChatServiceImplTest {
+
+    private static final Long USER_ID = 7L;
+
+    private StubChatModel chatModel;
+
+    private ChatConcurrencyLimiter limiter;
+
+    private ConversationStore conversationStore;
+
+    private ChatServiceImpl chatService;
+
+    /**
+     * 新建的SSE通道在开始推送前交给测试配置
+     */
+    private Consumer<RecordingSseEmitter> emitterSetup = emitter -> {
+    };
+
+    @BeforeEach
+    void setUp() {
+        chatModel = new StubChatModel();
+        ReflectionTestUtils.setField(chatModel, "chunkSize", 4);
+        ReflectionTestUtils.setField(chatModel, "tokenDelay", 2L);
+
+        limiter = new ChatConcurrencyLimiter();
+        ReflectionTestUtils.setField(limiter, "maxConcurrentPerUser", 1);
+        ReflectionTestUtils.setField(limiter, "maxQueuedPerUser", 2);
+        ReflectionTestUtils.setField(limiter, "queueTimeout", 10000L);
+
+        conversationStore = mock(ConversationStore.class);
+        ToolService toolService = mock(ToolService.class);
+        when(toolService.getToolCards(anyCollection())).thenReturn(List.of(card(1L, "Cursor"), card(2L, "Zed")));
+        ToolVectorIndex toolVectorIndex = mock(ToolVectorIndex.class);
+        when(toolVectorIndex.search(anyString(), anyInt(), any(), any()))
+                .thenReturn(List.of(new VectorHit(1L, 0.9f), new VectorHit(2L, 0.8f)));
+        IntentRouter intentRouter = mock(IntentRouter.class);
+        when(intentRouter.classify(anyString())).thenReturn(IntentMatch.open(1));
+
+        chatService = new ChatServiceImpl() {
+            @Override
+            SseEmitter newEmitter(long timeout) {
+                RecordingSseEmitter emitter = new RecordingSseEmitter(timeout);
+                emitterSetup.accept(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(chatService, "chatModel", chatModel);
+        ReflectionTestUtils.setField(chatService, "chatConcurrencyLimiter", limiter);
+        ReflectionTestUtils.setField(chatService, "conversationStore", conversationStore);
+        ReflectionTestUtils.setField(chatService, "toolService", toolService);
+        ReflectionTestUtils.setField(chatService, "toolVectorIndex", toolVectorIndex);
+        ReflectionTestUtils.setField(chatService, "intentRouter", intentRouter);
+        ReflectionTestUtils.setField(chatService, "catalogAnswerer", mock(CatalogAnswerer.class));
+        ReflectionTestUtils.setField(chatService, "streamTimeout", 30000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        chatModel.shutdown();
+        limiter.shutdown();
+    }
+
+    @Test
+    void streamsStartTextThenDone() throws Exception {
+        RecordingSseEmitter emitter = stream(request("写代码用什么编辑器"));
+
+        assertThat(emitter.awaitCompletion(5000)).isTrue();
+        List<ChatStreamEventVO> events = emitter.events(ChatStreamEventVO.class);
+        assertThat(events.get(0).getType()).isEqualTo(ChatStreamEventVO.START);
+        assertThat(events.get(0).getTools()).extracting(ToolVO::getName).containsExactly("Cursor", "Zed");
+        assertThat(events.get(events.size() - 1).getType()).isEqualTo(ChatStreamEventVO.DONE);
+        List<ChatStreamEventVO> texts = events.subList(1, events.size() - 1);
+        assertThat(texts).isNotEmpty().allMatch(event -> ChatStreamEventVO.TEXT.equals(event.getType()));
+
+        String reply = texts.stream().map(ChatStreamEventVO::getContent).collect(Collectors.joining());
+        assertThat(reply).contains("写代码用什么编辑器", "1. Cursor", "2. Zed");
+
+        ArgumentCaptor<Conversation> turns = ArgumentCaptor.forClass(Conversation.class);
+        verify(conversationStore, atLeastOnce()).append(turns.capture());
+        assertThat(turns.getAllValues()).extracting(Conversation::getRole).containsExactly("USER", "ASSISTANT");
+        assertThat(turns.getAllValues().get(1).getMessage()).isEqualTo(reply);
+    }
+
+    @Test
+    void secondRequestQueuesUntilFirstCompletes() throws Exception {
+        RecordingSseEmitter first = stream(request("编辑器"));
+        RecordingSseEmitter second = stream(request("数据库客户端"));
+
+        assertThat(first.awaitCompletion(5000)).isTrue();
+        assertThat(second.awaitCompletion(5000)).isTrue();
+
+        List<String> types = second.events(ChatStreamEventVO.class).stream()
+                .map(ChatStreamEventVO::getType)
+                .distinct()
+                .collect(Collectors.toList());
+        assertThat(types).containsExactly(ChatStreamEventVO.QUEUED, ChatStreamEventVO.START,
+                ChatStreamEventVO.TEXT, ChatStreamEventVO.DONE);
+        assertThat(second.events(ChatStreamEventVO.class).get(0).getPosition()).isEqualTo(1);
+    }
+
+    @Test
+    void clientDisconnectCancelsGenerationAndReleasesSlot() throws Exception {
+        // 开始事件和两段文本之后断开，下一段写出失败
+        emitterSetup = emitter -> emitter.afterEvents(3, emitter::disconnect);
+
+        assertStopped(stream(request("编辑器")));
+    }
+
+    @Test
+    void connectionErrorCancelsGenerationAndReleasesSlot() throws Exception {
+        emitterSetup = emitter -> emitter.afterEvents(3, () -> emitter.fail(new IOException("Connection reset")));
+
+        assertStopped(stream(request("编辑器")));
+    }
+
+    /**
+     * 断开后模型不再输出、不保存回复，名额已归还
+     */
+    private void assertStopped(RecordingSseEmitter emitter) throws InterruptedException {
+        TimeUnit.MILLISECONDS.sleep(100);
+        long settled = countText(emitter);
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertThat(countText(emitter)).isEqualTo(settled);
+        assertThat(emitter.events(ChatStreamEventVO.class))
+                .noneMatch(event -> ChatStreamEventVO.DONE.equals(event.getType()));
+
+        ArgumentCaptor<Conversation> turns = ArgumentCaptor.forClass(Conversation.class);
+        verify(conversationStore, atLeastOnce()).append(turns.capture());
+        assertThat(turns.getAllValues()).extracting(Conversation::getRole).containsExactly("USER");
+
+        AtomicBoolean started = new AtomicBoolean();
+        limiter.submit(USER_ID, ticket -> started.set(true), () -> {
+        }).release();
+        assertThat(started).isTrue();
+    }
+
+    private RecordingSseEmitter stream(ChatRequestDTO request) {
+        return (RecordingSseEmitter) chatService.streamChat(request, USER_ID);
+    }
+
+    private static long countText(RecordingSseEmitter emitter) {
+        return emitter.events(ChatStreamEventVO.class).stream()
+                .filter(event -> ChatStreamEventVO.TEXT.equals(event.getType()))
+                .count();
+    }
+
+    private static ChatRequestDTO request(String message) {
+        ChatRequestDTO request = new ChatRequestDTO();
+        request.setSessionId("session-1");
+        request.setMessage(message);
+        return request;
+    }
+
+    private static ToolVO card(Long id, String name) {
+        ToolVO card = new ToolVO();
+        card.setId(id);
+        card.setName(name);
+        return card;
+    }
+}
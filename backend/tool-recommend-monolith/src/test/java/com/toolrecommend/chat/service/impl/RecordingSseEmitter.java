@@ -0,0 +1,113 @@
+package com.toolrecommend.chat.service.impl;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 测试用的SSE通道：覆盖 SseEmitter 的公开方法，记录推送的事件对象，
+ * 并可模拟客户端断开（写出失败）或容器报告的连接错误
+ *
+ * @author Tool Recommend Team
+ */
+final class RecordingSseEmitter extends SseEmitter {
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    private final List<Consumer<Throwable>> errorCallbacks = new CopyOnWriteArrayList<>();
+
+    private final List<Runnable> completionCallbacks = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch completed = new CountDownLatch(1);
+
+    private volatile boolean disconnected;
+
+    private volatile int triggerAt;
+
+    private volatile Runnable trigger;
+
+    RecordingSseEmitter(long timeout) {
+        super(timeout);
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+        if (disconnected) {
+            throw new IOException("Broken pipe");
+        }
+        for (DataWithMediaType item : builder.build()) {
+            // SSE 的 "data:" 前缀和换行是字符串，只记录事件对象
+            if (!(item.getData() instanceof String)) {
+                events.add(item.getData());
+            }
+        }
+        Runnable action = trigger;
+        if (action != null && events.size() >= triggerAt) {
+            trigger = null;
+            action.run();
+        }
+    }
+
+    @Override
+    public synchronized void complete() {
+        super.complete();
+        if (completed.getCount() > 0) {
+            completed.countDown();
+            completionCallbacks.forEach(Runnable::run);
+        }
+    }
+
+    @Override
+    public synchronized void onError(Consumer<Throwable> callback) {
+        super.onError(callback);
+        errorCallbacks.add(callback);
+    }
+
+    @Override
+    public synchronized void onCompletion(Runnable callback) {
+        super.onCompletion(callback);
+        completionCallbacks.add(callback);
+    }
+
+    /**
+     * 记录到 count 个事件后在写出线程上执行 action，用于在生成中途的确定位置断开
+     */
+    void afterEvents(int count, Runnable action) {
+        triggerAt = count;
+        trigger = action;
+    }
+
+    /**
+     * 之后的写出都失败，相当于客户端关闭了连接
+     */
+    void disconnect() {
+        disconnected = true;
+    }
+
+    /**
+     * 模拟容器检测到连接错误
+     */
+    void fail(Throwable error) {
+        errorCallbacks.forEach(callback -> callback.accept(error));
+    }
+
+    boolean awaitCompletion(long millis) throws InterruptedException {
+        return completed.await(millis, TimeUnit.MILLISECONDS);
+    }
+
+    <T> List<T> events(Class<T> type) {
+        List<T> result = new ArrayList<>();
+        for (Object event : events) {
+            if (type.isInstance(event)) {
+                result.add(type.cast(event));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,162 @@
+package com.toolrecommend.chat.support;
+
+import com.toolrecommend.common.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 按用户并发限制测试
+ *
+ * @author Tool Recommend Team
+ */
+class ChatConcurrencyLimiterTest {
+
+    private static final Runnable NO_TIMEOUT = () -> {
+    };
+
+    private ChatConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new ChatConcurrencyLimiter();
+        ReflectionTestUtils.setField(limiter, "maxConcurrentPerUser", 2);
+        ReflectionTestUtils.setField(limiter, "maxQueuedPerUser", 2);
+        ReflectionTestUtils.setField(limiter, "queueTimeout", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        limiter.shutdown();
+    }
+
+    @Test
+    void runsUpToCapAndQueuesTheRest() {
+        AtomicInteger started = new AtomicInteger();
+        List<ChatConcurrencyLimiter.Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tickets.add(limiter.submit(1L, ticket -> started.incrementAndGet(), NO_TIMEOUT));
+        }
+
+        assertThat(started).hasValue(2);
+        assertThat(limiter.position(tickets.get(0))).isZero();
+        assertThat(limiter.position(tickets.get(2))).isEqualTo(1);
+        assertThat(limiter.position(tickets.get(3))).isEqualTo(2);
+
+        // 其他用户不受影响
+        AtomicBoolean otherStarted = new AtomicBoolean();
+        limiter.submit(2L, ticket -> otherStarted.set(true), NO_TIMEOUT);
+        assertThat(otherStarted).isTrue();
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        for (int i = 0; i < 4; i++) {
+            limiter.submit(1L, ticket -> {
+            }, NO_TIMEOUT);
+        }
+        assertThatThrownBy(() -> limiter.submit(1L, ticket -> {
+        }, NO_TIMEOUT))
+                .isInstanceOf(BusinessException.class)
+                .extracting("code").isEqualTo(429);
+    }
+
+    @Test
+    void releaseStartsNextQueuedOnDispatcherThread() throws Exception {
+        ChatConcurrencyLimiter.Ticket first = limiter.submit(1L, ticket -> {
+        }, NO_TIMEOUT);
+        limiter.submit(1L, ticket -> {
+        }, NO_TIMEOUT);
+        CompletableFuture<String> queuedThread = new CompletableFuture<>();
+        ChatConcurrencyLimiter.Ticket queued = limiter.submit(1L,
+                ticket -> queuedThread.complete(Thread.currentThread().getName()), NO_TIMEOUT);
+
+        first.release();
+
+        assertThat(queuedThread.get(5, TimeUnit.SECONDS))
+                .startsWith("chat-dispatch-")
+                .isNotEqualTo(Thread.currentThread().getName());
+        assertThat(limiter.position(queued)).isZero();
+    }
+
+    @Test
+    void failingQueuedTaskReleasesItsSlotWithoutReachingReleaser() throws Exception {
+        ChatConcurrencyLimiter.Ticket first = limiter.submit(1L, ticket -> {
+        }, NO_TIMEOUT);
+        limiter.submit(1L, ticket -> {
+        }, NO_TIMEOUT);
+        CountDownLatch failed = new CountDownLatch(1);
+        limiter.submit(1L, ticket -> {
+            failed.countDown();
+            throw new IllegalStateException("boom");
+        }, NO_TIMEOUT);
+
+        // 释放方不会收到排队任务的异常
+        first.release();
+        assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 失败任务的名额随即归还，新的提交可以立即执行
+        assertThat(eventually(() -> {
+            AtomicBoolean ran = new AtomicBoolean();
+            limiter.submit(1L, ticket -> ran.set(true), NO_TIMEOUT).release();
+            return ran.get();
+        })).isTrue();
+    }
+
+    @Test
+    void queuedTicketTimesOut() throws Exception {
+        ReflectionTestUtils.setField(limiter, "queueTimeout", 50L);
+        limiter.submit(1L, ticket -> {
+        }, NO_TIMEOUT);
+        limiter.submit(1L, ticket -> {
+        }, NO_TIMEOUT);
+        AtomicBoolean ran = new AtomicBoolean();
+        CountDownLatch timedOut = new CountDownLatch(1);
+        ChatConcurrencyLimiter.Ticket queued = limiter.submit(1L, ticket -> ran.set(true), timedOut::countDown);
+
+        assertThat(timedOut.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(ran).isFalse();
+        assertThat(limiter.position(queued)).isZero();
+    }
+
+    @Test
+    void releasingQueuedTicketLeavesTheQueue() {
+        limiter.submit(1L, ticket -> {
+        }, NO_TIMEOUT);
+        limiter.submit(1L, ticket -> {
+        }, NO_TIMEOUT);
+        ChatConcurrencyLimiter.Ticket second = limiter.submit(1L, ticket -> {
+        }, NO_TIMEOUT);
+        ChatConcurrencyLimiter.Ticket third = limiter.submit(1L, ticket -> {
+        }, NO_TIMEOUT);
+
+        second.release();
+
+        assertThat(limiter.position(second)).isZero();
+        assertThat(limiter.position(third)).isEqualTo(1);
+    }
+
+    private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,195 @@
+package com.toolrecommend.tool.actionlog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 行为日志测试：临时目录中的真实段文件，每段只容纳7条无来源的记录，
+ * 覆盖重启重放、合并及合并中断后的恢复
+ *
+ * @author Tool Recommend Team
+ */
+class ActionLogTest {
+
+    /**
+     * 无来源记录的编码长度（头部8字节 + 固定负载27字节）
+     */
+    private static final int RECORD_SIZE = 35;
+
+    private static final int SEGMENT_SIZE = RECORD_SIZE * 7 + 11;
+
+    @TempDir
+    Path dir;
+
+    private final List<ActionLog> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (ActionLog actionLog : opened) {
+            actionLog.shutdown();
+        }
+    }
+
+    @Test
+    void restartReplaysEverythingAfterCheckpoint() throws IOException {
+        ActionLog first = open();
+        for (long toolId = 1; toolId <= 20; toolId++) {
+            assertThat(first.append(1L, toolId, LoggedAction.VIEW, null)).isTrue();
+        }
+        List<ActionLogRecord> all = readAll(first, 0);
+        ActionLogBatch shipped = first.read(0, 9);
+        first.commit(shipped.nextOffset());
+        String logId = first.getLogId();
+        first.shutdown();
+
+        ActionLog second = open();
+        assertThat(second.getLogId()).isEqualTo(logId);
+        assertThat(second.getShippedOffset()).isEqualTo(shipped.nextOffset());
+        List<ActionLogRecord> replayed = readAll(second, second.getShippedOffset());
+        assertThat(replayed).containsExactlyElementsOf(all.subList(9, 20));
+
+        // 重启后继续追加，新记录接在恢复出的写入位置之后
+        assertThat(second.append(1L, 21L, LoggedAction.CLICK_WEBSITE, "home")).isTrue();
+        List<ActionLogRecord> afterAppend = readAll(second, second.getShippedOffset());
+        assertThat(afterAppend).hasSize(12);
+        assertThat(afterAppend.get(11).toolId()).isEqualTo(21L);
+        assertThat(afterAppend.get(11).source()).isEqualTo("home");
+    }
+
+    @Test
+    void compactionKeepsEventKeys() throws IOException {
+        ActionLog first = open();
+        // 3个用户轮流浏览同一工具，填满3个封存段并在第4段留下一条
+        for (int i = 0; i < 22; i++) {
+            first.append((long) (i % 3), 7L, LoggedAction.VIEW, null);
+        }
+        List<ActionLogRecord> before = readAll(first, 0);
+        // 第一批写库成功但检查点未提交
+        List<String> shippedKeys = eventKeys(first, first.read(0, 2).records());
+
+        assertThat(first.compact()).isEqualTo(2);
+
+        List<ActionLogRecord> after = readAll(first, 0);
+        assertThat(eventOffsets(after)).containsExactly(
+                before.get(0).eventOffset(), before.get(1).eventOffset(), before.get(2).eventOffset(),
+                before.get(21).eventOffset());
+        assertThat(after).extracting(ActionLogRecord::userId).containsExactly(0L, 1L, 2L, 0L);
+        first.shutdown();
+
+        ActionLog second = open();
+        List<ActionLogRecord> replayed = readAll(second, second.getShippedOffset());
+        assertThat(eventOffsets(replayed)).isEqualTo(eventOffsets(after));
+        assertThat(eventKeys(second, replayed.subList(0, 2))).isEqualTo(shippedKeys);
+        assertThat(segmentFiles()).hasSize(2);
+    }
+
+    @Test
+    void recoveryDiscardsUnfinishedCompactingFile() throws IOException {
+        ActionLog first = open();
+        for (long toolId = 1; toolId <= 16; toolId++) {
+            first.append(1L, toolId, LoggedAction.VIEW, null);
+        }
+        List<ActionLogRecord> before = readAll(first, 0);
+        first.shutdown();
+
+        // 合并写到一半时崩溃：.compacting 中只有部分记录
+        ActionLogSegment compacting = ActionLogSegment.openCompacting(dir, 0, SEGMENT_SIZE);
+        compacting.append(before.get(0).encode());
+        compacting.close();
+
+        ActionLog second = open();
+        assertThat(readAll(second, 0)).containsExactlyElementsOf(before);
+        assertThat(filesEndingWith(ActionLogSegment.COMPACTING_SUFFIX)).isEmpty();
+    }
+
+    @Test
+    void recoveryFinishesCompletedCompactFile() throws IOException {
+        ActionLog first = open();
+        // 前两段全是同一行为，第三段为不同工具
+        for (int i = 0; i < 14; i++) {
+            first.append(1L, 1L, LoggedAction.VIEW, null);
+        }
+        for (long toolId = 2; toolId <= 4; toolId++) {
+            first.append(1L, toolId, LoggedAction.VIEW, null);
+        }
+        List<ActionLogRecord> before = readAll(first, 0);
+        long secondBase = before.get(7).offset();
+        first.shutdown();
+
+        // 合并结果已完整落盘并改名为 .compact，旧段尚未删除时崩溃
+        ActionLogSegment merged = ActionLogSegment.openCompacting(dir, 0, SEGMENT_SIZE);
+        merged.append(before.get(0).encode());
+        merged.force();
+        merged.moveTo(dir.resolve(ActionLogSegment.compactedFileName(0, secondBase)));
+        merged.close();
+
+        ActionLog second = open();
+        List<ActionLogRecord> recovered = readAll(second, 0);
+        assertThat(eventOffsets(recovered)).containsExactly(
+                before.get(0).eventOffset(), before.get(14).eventOffset(),
+                before.get(15).eventOffset(), before.get(16).eventOffset());
+        assertThat(recovered).extracting(ActionLogRecord::toolId).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(filesEndingWith(ActionLogSegment.COMPACTED_SUFFIX)).isEmpty();
+        assertThat(Files.exists(dir.resolve(ActionLogSegment.fileName(secondBase)))).isFalse();
+    }
+
+    private ActionLog open() throws IOException {
+        ActionLog actionLog = new ActionLog();
+        ReflectionTestUtils.setField(actionLog, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(actionLog, "enabled", true);
+        ReflectionTestUtils.setField(actionLog, "dir", dir.toString());
+        ReflectionTestUtils.setField(actionLog, "segmentSize", SEGMENT_SIZE);
+        ReflectionTestUtils.setField(actionLog, "groupCommitInterval", 1L);
+        ReflectionTestUtils.setField(actionLog, "sync", true);
+        ReflectionTestUtils.setField(actionLog, "maxSegments", 64);
+        ReflectionTestUtils.setField(actionLog, "compactThreshold", 3);
+        ReflectionTestUtils.setField(actionLog, "compactWindow", 60000L);
+        actionLog.init();
+        opened.add(actionLog);
+        return actionLog;
+    }
+
+    private static List<ActionLogRecord> readAll(ActionLog actionLog, long offset) {
+        List<ActionLogRecord> records = new ArrayList<>();
+        ActionLogBatch batch;
+        do {
+            batch = actionLog.read(offset, 5);
+            records.addAll(batch.records());
+            offset = batch.nextOffset();
+        } while (!batch.isEmpty());
+        return records;
+    }
+
+    private static List<Long> eventOffsets(List<ActionLogRecord> records) {
+        return records.stream().map(ActionLogRecord::eventOffset).collect(Collectors.toList());
+    }
+
+    private static List<String> eventKeys(ActionLog actionLog, List<ActionLogRecord> records) {
+        return records.stream()
+                .map(record -> actionLog.getLogId() + ":" + record.eventOffset())
+                .collect(Collectors.toList());
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        return filesEndingWith(ActionLogSegment.SUFFIX);
+    }
+
+    private List<Path> filesEndingWith(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix)).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.toolrecommend.tool.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 哈希TF-IDF向量化测试
+ *
+ * @author Tool Recommend Team
+ */
+class HashedTfIdfEmbeddingProviderTest {
+
+    @Test
+    void outputIsNormalizedAndDeterministic() {
+        EmbeddingProvider.Model model = HnswGraphTest.provider(64).fit(List.of("java ide", "python notebook"));
+        float[] first = model.embed("java ide for teams");
+        float[] second = model.embed("java ide for teams");
+
+        assertThat(second).containsExactly(first);
+        double norm = 0;
+        for (float value : first) {
+            norm += value * value;
+        }
+        assertThat(norm).isCloseTo(1.0, within(1e-5));
+        assertThat(model.embed("")).containsOnly(0f);
+    }
+
+    @Test
+    void fitReturnsNewModelWithoutChangingProvider() {
+        HashedTfIdfEmbeddingProvider provider = HnswGraphTest.provider(64);
+        float[] before = provider.embed("java python");
+        EmbeddingProvider.Model first = provider.fit(List.of("java", "java", "java python"));
+        float[] fromFirst = first.embed("java python");
+
+        EmbeddingProvider.Model second = provider.fit(List.of("python", "python", "java python"));
+
+        // 新的语料统计不影响提供者和已发布的模型
+        assertThat(provider.embed("java python")).containsExactly(before);
+        assertThat(first.embed("java python")).containsExactly(fromFirst);
+        assertThat(second.embed("java python")).isNotEqualTo(fromFirst);
+    }
+}
@@ -0,0 +1,190 @@
+package com.toolrecommend.tool.vector;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HNSW图测试：文档由哈希TF-IDF向量化，结果与逐个计算的精确结果对比
+ *
+ * @author Tool Recommend Team
+ */
+class HnswGraphTest {
+
+    private static final int DOCUMENTS = 2000;
+
+    private static final int K = 10;
+
+    private static final String[] WORDS = {
+            "editor", "debugger", "compiler", "database", "cache", "queue", "search", "vector", "chart", "design",
+            "image", "video", "audio", "translate", "chat", "note", "wiki", "task", "calendar", "mail",
+            "deploy", "monitor", "log", "trace", "test", "api", "gateway", "auth", "payment", "invoice",
+            "代码", "编辑", "调试", "数据", "缓存", "搜索", "图片", "视频", "翻译", "笔记"
+    };
+
+    private static List<String> documents;
+
+    private static HnswGraph graph;
+
+    @BeforeAll
+    static void buildGraph() {
+        documents = documents(DOCUMENTS, 7);
+        EmbeddingProvider.Model model = provider(64).fit(documents);
+        graph = new HnswGraph(DOCUMENTS, 64, 16, 100, false, 4);
+        for (String document : documents) {
+            graph.add(model.embed(document));
+        }
+    }
+
+    @Test
+    void recallAgainstBruteForce() {
+        double recall = averageRecall(null);
+        assertThat(recall).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void filterIsAppliedDuringTraversal() {
+        IntPredicate accept = node -> node % 5 == 0;
+        for (int query = 0; query < 50; query++) {
+            HnswGraph.Result result = graph.search(graph.vector(query), K, 64, accept);
+            assertThat(result.nodes()).hasSize(K);
+            for (int node : result.nodes()) {
+                assertThat(node % 5).isZero();
+            }
+            assertSortedByDistance(result);
+        }
+        assertThat(averageRecall(accept)).isGreaterThanOrEqualTo(0.8);
+    }
+
+    @Test
+    void scanCoversOnlyCandidatesAndMatchesExactOrder() {
+        int[] candidates = {3, 97, 450, 1200, 1999, 42};
+        HnswGraph.Result result = graph.scan(graph.vector(42), K, candidates, candidates.length, node -> node != 42);
+
+        assertThat(result.nodes()).hasSize(candidates.length - 1).doesNotContain(42);
+        assertThat(Set.of(3, 97, 450, 1200, 1999)).containsExactlyInAnyOrderElementsOf(toList(result.nodes()));
+        assertSortedByDistance(result);
+    }
+
+    @Test
+    void scanReadsOnlyTheFirstCountCandidates() {
+        int[] candidates = {5, 6, 7, 8};
+        HnswGraph.Result result = graph.scan(graph.vector(0), K, candidates, 2, null);
+        assertThat(toList(result.nodes())).containsExactlyInAnyOrder(5, 6);
+    }
+
+    @Test
+    void strictFilterMayReturnFewerThanKFromGraph() {
+        // 只有3个节点满足条件，图检索最多返回这3个，不会混入不满足条件的节点
+        IntPredicate accept = node -> node == 10 || node == 500 || node == 1500;
+        HnswGraph.Result result = graph.search(graph.vector(0), K, 64, accept);
+        assertThat(result.nodes().length).isLessThanOrEqualTo(3);
+        for (int node : result.nodes()) {
+            assertThat(accept.test(node)).isTrue();
+        }
+    }
+
+    @Test
+    void concurrentSearchesShareBoundedContexts() throws Exception {
+        HnswGraph small = new HnswGraph(DOCUMENTS, 64, 16, 100, false, 1);
+        EmbeddingProvider.Model model = provider(64).fit(documents);
+        for (int i = 0; i < 500; i++) {
+            small.add(model.embed(documents.get(i)));
+        }
+        int[] all = new int[500];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int query = offset; query < 500; query += 8) {
+                        HnswGraph.Result result = small.search(small.vector(query), 1, 64, null);
+                        HnswGraph.Result exact = small.scan(small.vector(query), 1, all, all.length, null);
+                        if (result.distances()[0] > exact.distances()[0] + 1e-6f) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertThat(future.get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static double averageRecall(IntPredicate accept) {
+        int[] all = new int[DOCUMENTS];
+        for (int i = 0; i < DOCUMENTS; i++) {
+            all[i] = i;
+        }
+        int found = 0;
+        int expected = 0;
+        for (int query = 0; query < 100; query++) {
+            float[] vector = graph.vector(query * 17);
+            Set<Integer> exact = new HashSet<>(toList(graph.scan(vector, K, all, all.length, accept).nodes()));
+            for (int node : graph.search(vector, K, 64, accept).nodes()) {
+                if (exact.contains(node)) {
+                    found++;
+                }
+            }
+            expected += exact.size();
+        }
+        return (double) found / expected;
+    }
+
+    private static void assertSortedByDistance(HnswGraph.Result result) {
+        for (int i = 1; i < result.distances().length; i++) {
+            assertThat(result.distances()[i]).isGreaterThanOrEqualTo(result.distances()[i - 1]);
+        }
+    }
+
+    private static List<Integer> toList(int[] nodes) {
+        List<Integer> list = new ArrayList<>(nodes.length);
+        for (int node : nodes) {
+            list.add(node);
+        }
+        return list;
+    }
+
+    static HashedTfIdfEmbeddingProvider provider(int dimension) {
+        HashedTfIdfEmbeddingProvider provider = new HashedTfIdfEmbeddingProvider();
+        ReflectionTestUtils.setField(provider, "dimension", dimension);
+        return provider;
+    }
+
+    /**
+     * 固定种子生成的文档，每篇由若干个随机词组成
+     */
+    static List<String> documents(int count, int words) {
+        Random random = new Random(20240101);
+        List<String> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int j = 0; j < words; j++) {
+                builder.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            documents.add(builder.toString());
+        }
+        return documents;
+    }
+}
@@ -0,0 +1,154 @@
+package com.toolrecommend.tool.vector;
+
+import com.toolrecommend.common.entity.Tool;
+import com.toolrecommend.tool.mapper.TagMapper;
+import com.toolrecommend.tool.mapper.ToolMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 工具向量索引测试：数据库由mock提供，向量化使用哈希TF-IDF
+ *
+ * @author Tool Recommend Team
+ */
+class ToolVectorIndexTest {
+
+    private ToolMapper toolMapper;
+
+    private ToolVectorIndex index;
+
+    @BeforeEach
+    void setUp() {
+        toolMapper = mock(ToolMapper.class);
+        TagMapper tagMapper = mock(TagMapper.class);
+        when(tagMapper.selectTagsByToolIds(anyCollection())).thenReturn(Collections.emptyList());
+
+        index = new ToolVectorIndex();
+        ReflectionTestUtils.setField(index, "toolMapper", toolMapper);
+        ReflectionTestUtils.setField(index, "tagMapper", tagMapper);
+        ReflectionTestUtils.setField(index, "embeddingProvider", HnswGraphTest.provider(128));
+        ReflectionTestUtils.setField(index, "m", 16);
+        ReflectionTestUtils.setField(index, "efConstruction", 100);
+        ReflectionTestUtils.setField(index, "efSearch", 64);
+        ReflectionTestUtils.setField(index, "headroom", 0.25);
+        ReflectionTestUtils.setField(index, "searchContexts", 2);
+    }
+
+    @Test
+    void emptyBeforeFirstBuild() {
+        assertThat(index.contains(1L)).isFalse();
+        assertThat(index.similarTo(1L, 5, null, null)).isEmpty();
+        assertThat(index.search("editor", 5, null, null)).isEmpty();
+    }
+
+    @Test
+    void rebuildPublishesSnapshot() {
+        List<Tool> tools = catalog();
+        when(toolMapper.selectList(any())).thenReturn(tools);
+
+        index.rebuild();
+
+        assertThat(index.contains(1L)).isTrue();
+        List<VectorHit> hits = index.similarTo(1L, 3, null, null);
+        assertThat(ids(hits)).doesNotContain(1L).contains(2L);
+        assertThat(ids(index.search("python notebook", 1, null, null))).containsExactly(3L);
+    }
+
+    @Test
+    void nextRebuildReplacesPreviousSnapshot() {
+        when(toolMapper.selectList(any())).thenReturn(catalog());
+        index.rebuild();
+
+        List<Tool> next = new ArrayList<>(catalog().subList(1, 4));
+        next.add(tool(99L, "Rust Crate Registry", 3, "OPEN_SOURCE"));
+        when(toolMapper.selectList(any())).thenReturn(next);
+        index.rebuild();
+
+        assertThat(index.contains(1L)).isFalse();
+        assertThat(index.contains(99L)).isTrue();
+        assertThat(ids(index.search("rust crate", 1, null, null))).containsExactly(99L);
+    }
+
+    @Test
+    void failedRebuildKeepsPreviousSnapshot() {
+        when(toolMapper.selectList(any())).thenReturn(catalog());
+        index.rebuild();
+
+        when(toolMapper.selectList(any())).thenThrow(new IllegalStateException("db down"));
+        index.rebuild();
+
+        assertThat(index.contains(1L)).isTrue();
+    }
+
+    @Test
+    void filtersUseGraphAndFallbackScan() {
+        List<Tool> tools = new ArrayList<>(catalog());
+        for (long id = 100; id < 400; id++) {
+            tools.add(tool(id, "Generic Productivity Tool " + id, 9, "PAID"));
+        }
+        when(toolMapper.selectList(any())).thenReturn(tools);
+        index.rebuild();
+
+        // 分类2只有两个工具，图上可达的可能不足，兜底扫描只在该分类的节点中进行
+        List<VectorHit> hits = index.similarTo(100L, 5, 2, null);
+        assertThat(ids(hits)).containsExactlyInAnyOrder(3L, 4L);
+
+        assertThat(ids(index.similarTo(100L, 5, 1, "FREE"))).containsExactly(1L);
+        assertThat(index.similarTo(100L, 5, 2, "UNKNOWN")).isEmpty();
+        assertThat(index.similarTo(100L, 5, 42, null)).isEmpty();
+    }
+
+    @Test
+    void refreshAddsAndRemovesWithoutRebuild() {
+        when(toolMapper.selectList(any())).thenReturn(catalog());
+        index.rebuild();
+
+        Tool added = tool(50L, "Kotlin Coroutine Debugger", 1, "FREE");
+        when(toolMapper.selectById(50L)).thenReturn(added);
+        index.refreshAfterCommit(50L);
+        assertThat(index.contains(50L)).isTrue();
+
+        Tool offline = tool(2L, "Java IDE Pro", 1, "PAID");
+        offline.setStatus(0);
+        when(toolMapper.selectById(2L)).thenReturn(offline);
+        index.refreshAfterCommit(2L);
+        assertThat(index.contains(2L)).isFalse();
+        assertThat(ids(index.similarTo(1L, 5, null, null))).doesNotContain(2L);
+    }
+
+    private static List<Tool> catalog() {
+        return List.of(
+                tool(1L, "Java IDE", 1, "FREE"),
+                tool(2L, "Java IDE Pro", 1, "PAID"),
+                tool(3L, "Python Notebook", 2, "FREE"),
+                tool(4L, "Jupyter Python Kernel", 2, "OPEN_SOURCE"));
+    }
+
+    private static Tool tool(Long id, String name, Integer categoryId, String pricingModel) {
+        Tool tool = new Tool();
+        tool.setId(id);
+        tool.setName(name);
+        tool.setTagline(name);
+        tool.setDescription(name + " for developers");
+        tool.setCategoryId(categoryId);
+        tool.setPricingModel(pricingModel);
+        tool.setStatus(1);
+        return tool;
+    }
+
+    private static List<Long> ids(List<VectorHit> hits) {
+        return hits.stream().map(VectorHit::toolId).collect(Collectors.toList());
+    }
+}